@@ -105,3 +105,19 @@ CREATE INDEX ACT_IDX_METER_LOG_NAME_MS ON ACT_RU_METER_LOG(NAME_, MILLISECONDS_)
 
 -- old metric timestamp column
 CREATE INDEX ACT_IDX_METER_LOG_TIME ON ACT_RU_METER_LOG(TIMESTAMP_);
+
+-- job partitions --
+
+ALTER TABLE ACT_RU_JOB
+  ADD PARTITION_ int;
+
+create index ACT_IDX_JOB_PARTITION on ACT_RU_JOB(PARTITION_);
+
+create table ACT_RU_JOB_PARTITION (
+  ID_ nvarchar(64) not null,
+  REV_ int not null,
+  PARTITION_ int not null,
+  LOCK_OWNER_ nvarchar(255),
+  LOCK_EXP_TIME_ datetime2,
+  primary key (ID_)
+);
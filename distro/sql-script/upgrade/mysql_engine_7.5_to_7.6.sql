@@ -105,4 +105,20 @@ CREATE INDEX ACT_IDX_METER_LOG_NAME_MS ON ACT_RU_METER_LOG(NAME_, MILLISECONDS_)
 CREATE INDEX ACT_IDX_METER_LOG_TIME ON ACT_RU_METER_LOG(TIMESTAMP_);
 
 -- CAM-6938
-create index ACT_IDX_JOB_HANDLER on ACT_RU_JOB(HANDLER_TYPE_(100),HANDLER_CFG_(155));
\ No newline at end of file
+create index ACT_IDX_JOB_HANDLER on ACT_RU_JOB(HANDLER_TYPE_(100),HANDLER_CFG_(155));
+
+-- job partitions --
+
+ALTER TABLE ACT_RU_JOB
+  ADD PARTITION_ integer;
+
+create index ACT_IDX_JOB_PARTITION on ACT_RU_JOB(PARTITION_);
+
+create table ACT_RU_JOB_PARTITION (
+  ID_ varchar(64) not null,
+  REV_ integer not null,
+  PARTITION_ integer not null,
+  LOCK_OWNER_ varchar(255),
+  LOCK_EXP_TIME_ timestamp NULL,
+  primary key (ID_)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COLLATE utf8_bin;
@@ -20,6 +20,7 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.UriInfo;
+import org.camunda.bpm.engine.rest.dto.metrics.JobExecutionStatisticsDto;
 import org.camunda.bpm.engine.rest.dto.metrics.MetricsIntervalResultDto;
 
 import org.camunda.bpm.engine.rest.sub.metrics.MetricsResource;
@@ -32,6 +33,7 @@ import org.camunda.bpm.engine.rest.sub.metrics.MetricsResource;
 public interface MetricsRestService {
 
   public static final String PATH = "/metrics";
+  public static final String JOB_EXECUTION_STATISTICS_PATH = "/job-execution-statistics";
 
   @Produces(MediaType.APPLICATION_JSON)
   @Path("/{name}")
@@ -40,4 +42,9 @@ public interface MetricsRestService {
   @GET
   @Produces(MediaType.APPLICATION_JSON)
   List<MetricsIntervalResultDto> interval(@Context UriInfo uriInfo);
+
+  @GET
+  @Path(JOB_EXECUTION_STATISTICS_PATH)
+  @Produces(MediaType.APPLICATION_JSON)
+  List<JobExecutionStatisticsDto> getJobExecutionStatistics();
 }
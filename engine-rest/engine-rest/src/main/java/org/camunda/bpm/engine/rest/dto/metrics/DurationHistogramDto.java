@@ -0,0 +1,79 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.rest.dto.metrics;
+
+import org.camunda.bpm.engine.management.DurationHistogram;
+
+public class DurationHistogramDto {
+
+  protected long count;
+  protected long sum;
+  protected long max;
+  protected double mean;
+  protected long p50;
+  protected long p95;
+  protected long p99;
+  protected long[] bucketUpperBounds;
+  protected long[] bucketCounts;
+
+  public static DurationHistogramDto fromDurationHistogram(DurationHistogram histogram) {
+    DurationHistogramDto dto = new DurationHistogramDto();
+    dto.count = histogram.getCount();
+    dto.sum = histogram.getSum();
+    dto.max = histogram.getMax();
+    dto.mean = histogram.getMean();
+    dto.p50 = histogram.getPercentile(0.5);
+    dto.p95 = histogram.getPercentile(0.95);
+    dto.p99 = histogram.getPercentile(0.99);
+    dto.bucketUpperBounds = histogram.getBucketUpperBounds();
+    dto.bucketCounts = histogram.getBucketCounts();
+    return dto;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getSum() {
+    return sum;
+  }
+
+  public long getMax() {
+    return max;
+  }
+
+  public double getMean() {
+    return mean;
+  }
+
+  public long getP50() {
+    return p50;
+  }
+
+  public long getP95() {
+    return p95;
+  }
+
+  public long getP99() {
+    return p99;
+  }
+
+  public long[] getBucketUpperBounds() {
+    return bucketUpperBounds;
+  }
+
+  public long[] getBucketCounts() {
+    return bucketCounts;
+  }
+
+}
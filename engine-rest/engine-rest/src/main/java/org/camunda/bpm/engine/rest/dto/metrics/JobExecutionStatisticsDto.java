@@ -0,0 +1,96 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.rest.dto.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.management.JobExecutionStatistics;
+
+public class JobExecutionStatisticsDto {
+
+  protected String jobDefinitionId;
+  protected String jobHandlerType;
+  protected long acquiredJobs;
+  protected long acquisitionFailures;
+  protected long executedJobs;
+  protected long failedJobs;
+  protected long optimisticLockingFailures;
+  protected DurationHistogramDto acquisitionLag;
+  protected DurationHistogramDto queueTime;
+  protected DurationHistogramDto executionTime;
+
+  public static JobExecutionStatisticsDto fromJobExecutionStatistics(JobExecutionStatistics statistics) {
+    JobExecutionStatisticsDto dto = new JobExecutionStatisticsDto();
+    dto.jobDefinitionId = statistics.getJobDefinitionId();
+    dto.jobHandlerType = statistics.getJobHandlerType();
+    dto.acquiredJobs = statistics.getAcquiredJobs();
+    dto.acquisitionFailures = statistics.getAcquisitionFailures();
+    dto.executedJobs = statistics.getExecutedJobs();
+    dto.failedJobs = statistics.getFailedJobs();
+    dto.optimisticLockingFailures = statistics.getOptimisticLockingFailures();
+    dto.acquisitionLag = DurationHistogramDto.fromDurationHistogram(statistics.getAcquisitionLag());
+    dto.queueTime = DurationHistogramDto.fromDurationHistogram(statistics.getQueueTime());
+    dto.executionTime = DurationHistogramDto.fromDurationHistogram(statistics.getExecutionTime());
+    return dto;
+  }
+
+  public static List<JobExecutionStatisticsDto> fromJobExecutionStatistics(List<JobExecutionStatistics> statistics) {
+    List<JobExecutionStatisticsDto> dtos = new ArrayList<JobExecutionStatisticsDto>();
+    for (JobExecutionStatistics jobExecutionStatistics : statistics) {
+      dtos.add(fromJobExecutionStatistics(jobExecutionStatistics));
+    }
+    return dtos;
+  }
+
+  public String getJobDefinitionId() {
+    return jobDefinitionId;
+  }
+
+  public String getJobHandlerType() {
+    return jobHandlerType;
+  }
+
+  public long getAcquiredJobs() {
+    return acquiredJobs;
+  }
+
+  public long getAcquisitionFailures() {
+    return acquisitionFailures;
+  }
+
+  public long getExecutedJobs() {
+    return executedJobs;
+  }
+
+  public long getFailedJobs() {
+    return failedJobs;
+  }
+
+  public long getOptimisticLockingFailures() {
+    return optimisticLockingFailures;
+  }
+
+  public DurationHistogramDto getAcquisitionLag() {
+    return acquisitionLag;
+  }
+
+  public DurationHistogramDto getQueueTime() {
+    return queueTime;
+  }
+
+  public DurationHistogramDto getExecutionTime() {
+    return executionTime;
+  }
+
+}
@@ -22,7 +22,9 @@ import java.util.Date;
 import java.util.List;
 import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.UriInfo;
+import org.camunda.bpm.engine.management.JobExecutionStatistics;
 import org.camunda.bpm.engine.management.MetricsQuery;
+import org.camunda.bpm.engine.rest.dto.metrics.JobExecutionStatisticsDto;
 import org.camunda.bpm.engine.rest.dto.metrics.MetricsIntervalResultDto;
 import org.camunda.bpm.engine.management.MetricIntervalValue;
 import org.camunda.bpm.engine.rest.dto.converter.DateConverter;
@@ -75,6 +77,12 @@ public class MetricsRestServiceImpl extends AbstractRestProcessEngineAware imple
     return convertToDtos(metrics);
   }
 
+  @Override
+  public List<JobExecutionStatisticsDto> getJobExecutionStatistics() {
+    List<JobExecutionStatistics> statistics = processEngine.getManagementService().getJobExecutionStatistics();
+    return JobExecutionStatisticsDto.fromJobExecutionStatistics(statistics);
+  }
+
   protected void applyQueryParams(MetricsQuery query, MultivaluedMap<String, String> queryParameters) {
 
     DateConverter dateConverter = new DateConverter();
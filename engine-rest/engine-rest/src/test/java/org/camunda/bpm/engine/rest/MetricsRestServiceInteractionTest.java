@@ -23,11 +23,14 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.Collections;
 import java.util.Date;
 import javax.ws.rs.core.Response.Status;
 
 
 import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.management.DurationHistogram;
+import org.camunda.bpm.engine.management.JobExecutionStatistics;
 import org.camunda.bpm.engine.management.Metrics;
 import org.camunda.bpm.engine.management.MetricsQuery;
 import org.camunda.bpm.engine.rest.helper.MockProvider;
@@ -47,6 +50,7 @@ public class MetricsRestServiceInteractionTest extends AbstractRestServiceTest {
   public static final String METRICS_URL = TEST_RESOURCE_ROOT_PATH + MetricsRestService.PATH;
   public static final String SINGLE_METER_URL = METRICS_URL + "/{name}";
   public static final String SUM_URL = SINGLE_METER_URL + "/sum";
+  public static final String JOB_EXECUTION_STATISTICS_URL = METRICS_URL + MetricsRestService.JOB_EXECUTION_STATISTICS_PATH;
 
   protected ManagementService managementServiceMock;
   private MetricsQuery meterQueryMock;
@@ -298,5 +302,38 @@ public class MetricsRestServiceInteractionTest extends AbstractRestServiceTest {
 
   }
 
+  @Test
+  public void testGetJobExecutionStatistics() {
+    DurationHistogram histogram = mock(DurationHistogram.class);
+    when(histogram.getCount()).thenReturn(4l);
+    when(histogram.getMax()).thenReturn(120l);
+    when(histogram.getPercentile(0.99)).thenReturn(100l);
+
+    JobExecutionStatistics statistics = mock(JobExecutionStatistics.class);
+    when(statistics.getJobDefinitionId()).thenReturn("aJobDefinitionId");
+    when(statistics.getJobHandlerType()).thenReturn("async-continuation");
+    when(statistics.getExecutedJobs()).thenReturn(4l);
+    when(statistics.getOptimisticLockingFailures()).thenReturn(1l);
+    when(statistics.getAcquisitionLag()).thenReturn(histogram);
+    when(statistics.getQueueTime()).thenReturn(histogram);
+    when(statistics.getExecutionTime()).thenReturn(histogram);
+
+    when(managementServiceMock.getJobExecutionStatistics()).thenReturn(Collections.singletonList(statistics));
+
+    given()
+    .then().expect()
+      .statusCode(Status.OK.getStatusCode())
+      .body("[0].jobDefinitionId", equalTo("aJobDefinitionId"))
+      .body("[0].jobHandlerType", equalTo("async-continuation"))
+      .body("[0].executedJobs", equalTo(4))
+      .body("[0].optimisticLockingFailures", equalTo(1))
+      .body("[0].executionTime.count", equalTo(4))
+      .body("[0].executionTime.max", equalTo(120))
+      .body("[0].executionTime.p99", equalTo(100))
+    .when()
+      .get(JOB_EXECUTION_STATISTICS_URL);
+
+    verify(managementServiceMock).getJobExecutionStatistics();
+  }
 
 }
@@ -12,6 +12,7 @@
  */
 package org.camunda.bpm.engine;
 
+import java.util.List;
 import java.util.Map;
 
 import org.camunda.bpm.engine.authorization.Permissions;
@@ -200,6 +201,47 @@ public interface ExternalTaskService {
    */
   public void handleBpmnError(String externalTaskId, String workerId, String errorCode);
   
+  /**
+   * <p>Extends the lock of an external task on behalf of a worker, so that it expires
+   * <code>newLockDuration</code> milliseconds from now. The given task must be locked
+   * by the worker and the lock must not have expired.</p>
+   *
+   * <p>This allows workers to fetch tasks with a short lock duration and extend it while
+   * they are still working on them, so that tasks of a failed worker can be fetched again soon.</p>
+   *
+   * @param externalTaskId the id of the external task to extend the lock of
+   * @param workerId the id of the worker that holds the lock
+   * @param newLockDuration the new lock duration in milliseconds from now. Must be > 0.
+   *
+   * @throws NotFoundException if no external task with the given id exists
+   * @throws BadUserRequestException if the task is locked by a different worker or the lock has expired
+   * @throws AuthorizationException thrown if the current user does not possess any of the following permissions:
+   *   <ul>
+   *     <li>{@link Permissions#UPDATE} on {@link Resources#PROCESS_INSTANCE}</li>
+   *     <li>{@link Permissions#UPDATE_INSTANCE} on {@link Resources#PROCESS_DEFINITION}</li>
+   *   </ul>
+   */
+  public void extendLock(String externalTaskId, String workerId, long newLockDuration);
+
+  /**
+   * <p>Extends the locks of multiple external tasks on behalf of a worker in one bulk update,
+   * so that they expire <code>newLockDuration</code> milliseconds from now. All tasks must be
+   * locked by the worker and their locks must not have expired. Otherwise, no lock is extended.</p>
+   *
+   * @param externalTaskIds the ids of the external tasks to extend the locks of
+   * @param workerId the id of the worker that holds the locks
+   * @param newLockDuration the new lock duration in milliseconds from now. Must be > 0.
+   *
+   * @throws NotFoundException if no external task exists for one of the given ids
+   * @throws BadUserRequestException if one of the tasks is locked by a different worker or its lock has expired
+   * @throws AuthorizationException thrown if the current user does not possess any of the following permissions:
+   *   <ul>
+   *     <li>{@link Permissions#UPDATE} on {@link Resources#PROCESS_INSTANCE}</li>
+   *     <li>{@link Permissions#UPDATE_INSTANCE} on {@link Resources#PROCESS_DEFINITION}</li>
+   *   </ul>
+   */
+  public void extendLock(List<String> externalTaskIds, String workerId, long newLockDuration);
+
   /**
    * Unlocks an external task instance.
    *
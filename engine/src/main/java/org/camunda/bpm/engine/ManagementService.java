@@ -29,6 +29,7 @@ import org.camunda.bpm.engine.batch.BatchStatisticsQuery;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
 import org.camunda.bpm.engine.management.ActivityStatisticsQuery;
 import org.camunda.bpm.engine.management.DeploymentStatisticsQuery;
+import org.camunda.bpm.engine.management.JobExecutionStatistics;
 import org.camunda.bpm.engine.management.JobDefinition;
 import org.camunda.bpm.engine.management.JobDefinitionQuery;
 import org.camunda.bpm.engine.management.MetricsQuery;
@@ -1162,6 +1163,25 @@ public interface ManagementService {
    */
   void reportDbMetricsNow();
 
+  /**
+   * Returns statistics about the acquisition and execution of jobs by the job executor
+   * of this process engine, grouped by job definition and job handler type. The statistics
+   * contain histograms of the time between the due date and the acquisition of jobs, of the
+   * time jobs wait for a job thread and of the execution time, as well as the number of failed
+   * and optimistic locking failures.
+   *
+   * <p>The statistics are only recorded if job execution statistics are enabled for the
+   * job executor, which they are not by default. The list is empty otherwise. The statistics are
+   * aggregated in memory on this cluster node since the process engine was registered with the
+   * job executor and are discarded when it is closed.</p>
+   *
+   * @throws AuthorizationException
+   *          If the user is not a member of the group {@link Groups#CAMUNDA_ADMIN}.
+   *
+   * @since 7.6
+   */
+  List<JobExecutionStatistics> getJobExecutionStatistics();
+
   /**
    * Creates a query to search for {@link org.camunda.bpm.engine.batch.Batch} instances.
    *
@@ -19,6 +19,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.impl.cfg.IdGenerator;
@@ -38,6 +42,9 @@ import org.camunda.bpm.engine.impl.repository.ResourceDefinitionEntity;
  * This class is extended by specific resource deployers.
  *
  * Note: Implementations must be thread-safe. In particular they should not keep deployment-specific state.
+ * If {@link ProcessEngineConfigurationImpl#isParallelDeploymentParsingEnabled() parallel deployment parsing}
+ * is enabled, {@link #transformDefinitions(DeploymentEntity, ResourceEntity, Properties)} may be invoked
+ * concurrently for the resources of one deployment and must synchronize access to the shared {@link Properties}.
  */
 public abstract class AbstractDefinitionDeployer<DefinitionEntity extends ResourceDefinitionEntity> implements Deployer {
 
@@ -64,6 +71,22 @@ public abstract class AbstractDefinitionDeployer<DefinitionEntity extends Resour
   }
 
   protected List<DefinitionEntity> parseDefinitionResources(DeploymentEntity deployment, Properties properties) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = getProcessEngineConfiguration();
+    ExecutorService parsingExecutor = processEngineConfiguration.getDeploymentParsingExecutor();
+
+    if (processEngineConfiguration.isParallelDeploymentParsingEnabled() && parsingExecutor != null) {
+      List<ResourceEntity> handledResources = new ArrayList<ResourceEntity>();
+      for (ResourceEntity resource : deployment.getResources().values()) {
+        if (isResourceHandled(resource)) {
+          handledResources.add(resource);
+        }
+      }
+
+      if (handledResources.size() > 1) {
+        return parseDefinitionResourcesInParallel(deployment, handledResources, properties, parsingExecutor);
+      }
+    }
+
     List<DefinitionEntity> definitions = new ArrayList<DefinitionEntity>();
     for (ResourceEntity resource : deployment.getResources().values()) {
       LOG.debugProcessingResource(resource.getName());
@@ -74,6 +97,76 @@ public abstract class AbstractDefinitionDeployer<DefinitionEntity extends Resour
     return definitions;
   }
 
+  /**
+   * Transforms the given resources concurrently on the deployment parsing executor. Only the
+   * transformation (XML parsing, validation and creation of the definition entities) is performed
+   * in parallel; all persistent changes are made afterwards by the calling thread in the surrounding
+   * transaction. The returned definitions keep the order of the resources.
+   *
+   * The command context of the deployment is not thread-safe and is therefore not available on the
+   * parsing threads: the transformation, including parse listeners, must not access the database.
+   */
+  protected List<DefinitionEntity> parseDefinitionResourcesInParallel(final DeploymentEntity deployment, List<ResourceEntity> resources,
+      final Properties properties, ExecutorService parsingExecutor) {
+
+    LOG.debugParsingResourcesInParallel(deployment.getName(), resources.size());
+
+    final ProcessEngineConfigurationImpl processEngineConfiguration = getProcessEngineConfiguration();
+    final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+
+    List<Future<Collection<DefinitionEntity>>> transformations = new ArrayList<Future<Collection<DefinitionEntity>>>();
+    for (final ResourceEntity resource : resources) {
+      transformations.add(parsingExecutor.submit(new Callable<Collection<DefinitionEntity>>() {
+        public Collection<DefinitionEntity> call() throws Exception {
+          Thread currentThread = Thread.currentThread();
+          ClassLoader previousClassLoader = currentThread.getContextClassLoader();
+
+          currentThread.setContextClassLoader(classLoader);
+          Context.setProcessEngineConfiguration(processEngineConfiguration);
+          try {
+            LOG.debugProcessingResource(resource.getName());
+            return transformResource(deployment, resource, properties);
+          } finally {
+            Context.removeProcessEngineConfiguration();
+            currentThread.setContextClassLoader(previousClassLoader);
+          }
+        }
+      }));
+    }
+
+    List<DefinitionEntity> definitions = new ArrayList<DefinitionEntity>();
+    try {
+      for (int i = 0; i < transformations.size(); i++) {
+        definitions.addAll(awaitTransformation(resources.get(i), transformations.get(i)));
+      }
+    } finally {
+      // do not leave parse tasks running if a resource could not be transformed
+      for (Future<Collection<DefinitionEntity>> transformation : transformations) {
+        transformation.cancel(true);
+      }
+    }
+
+    return definitions;
+  }
+
+  protected Collection<DefinitionEntity> awaitTransformation(ResourceEntity resource, Future<Collection<DefinitionEntity>> transformation) {
+    try {
+      return transformation.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      } else {
+        throw LOG.exceptionWhileParsingResourceInParallel(resource.getName(), cause);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw LOG.exceptionWhileParsingResourceInParallel(resource.getName(), e);
+    }
+  }
+
   protected boolean isResourceHandled(ResourceEntity resource) {
     String resourceName = resource.getName();
 
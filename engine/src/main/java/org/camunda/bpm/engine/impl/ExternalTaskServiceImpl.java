@@ -12,6 +12,7 @@
  */
 package org.camunda.bpm.engine.impl;
 
+import java.util.List;
 import java.util.Map;
 
 import org.camunda.bpm.engine.ExternalTaskService;
@@ -58,6 +59,14 @@ public class ExternalTaskServiceImpl extends ServiceImpl implements ExternalTask
     commandExecutor.execute(new HandleExternalTaskBpmnErrorCmd(externalTaskId, workerId, errorCode));
   }
 
+  public void extendLock(String externalTaskId, String workerId, long newLockDuration) {
+    commandExecutor.execute(new ExtendLockOnExternalTaskCmd(externalTaskId, workerId, newLockDuration));
+  }
+
+  public void extendLock(List<String> externalTaskIds, String workerId, long newLockDuration) {
+    commandExecutor.execute(new ExtendLocksOnExternalTasksCmd(externalTaskIds, workerId, newLockDuration));
+  }
+
   public void unlock(String externalTaskId) {
     commandExecutor.execute(new UnlockExternalTaskCmd(externalTaskId));
   }
@@ -27,6 +27,7 @@ import org.camunda.bpm.engine.impl.cmd.DeleteMetricsCmd;
 import org.camunda.bpm.engine.impl.cmd.DeletePropertyCmd;
 import org.camunda.bpm.engine.impl.cmd.GetHistoryLevelCmd;
 import org.camunda.bpm.engine.impl.cmd.GetJobExceptionStacktraceCmd;
+import org.camunda.bpm.engine.impl.cmd.GetJobExecutionStatisticsCmd;
 import org.camunda.bpm.engine.impl.cmd.GetProcessApplicationForDeploymentCmd;
 import org.camunda.bpm.engine.impl.cmd.GetPropertiesCmd;
 import org.camunda.bpm.engine.impl.cmd.GetTableCountCmd;
@@ -56,6 +57,7 @@ import org.camunda.bpm.engine.impl.management.UpdateJobSuspensionStateBuilderImp
 import org.camunda.bpm.engine.impl.metrics.MetricsQueryImpl;
 import org.camunda.bpm.engine.management.ActivityStatisticsQuery;
 import org.camunda.bpm.engine.management.DeploymentStatisticsQuery;
+import org.camunda.bpm.engine.management.JobExecutionStatistics;
 import org.camunda.bpm.engine.management.JobDefinitionQuery;
 import org.camunda.bpm.engine.management.MetricsQuery;
 import org.camunda.bpm.engine.management.ProcessDefinitionStatisticsQuery;
@@ -430,6 +432,10 @@ public class ManagementServiceImpl extends ServiceImpl implements ManagementServ
     return commandExecutor.execute(new GetHistoryLevelCmd());
   }
 
+  public List<JobExecutionStatistics> getJobExecutionStatistics() {
+    return commandExecutor.execute(new GetJobExecutionStatisticsCmd());
+  }
+
   public MetricsQuery createMetricsQuery() {
     return new MetricsQueryImpl(commandExecutor);
   }
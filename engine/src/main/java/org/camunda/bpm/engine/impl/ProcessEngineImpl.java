@@ -30,6 +30,7 @@ import org.camunda.bpm.engine.RuntimeService;
 import org.camunda.bpm.engine.TaskService;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.cfg.TransactionContextFactory;
+import org.camunda.bpm.engine.impl.cmd.WarmUpDeploymentCacheCmd;
 import org.camunda.bpm.engine.impl.el.ExpressionManager;
 import org.camunda.bpm.engine.impl.history.HistoryLevel;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
@@ -97,6 +98,10 @@ public class ProcessEngineImpl implements ProcessEngine {
 
     executeSchemaOperations();
 
+    if (processEngineConfiguration.isDeploymentCacheWarmupEnabled()) {
+      commandExecutor.execute(new WarmUpDeploymentCacheCmd(processEngineConfiguration.getCacheCapacity()));
+    }
+
     if (name == null) {
       LOG.processEngineCreated(ProcessEngines.NAME_DEFAULT);
     } else {
@@ -13,12 +13,14 @@
 
 package org.camunda.bpm.engine.impl.batch;
 
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.jobexecutor.JobDeclaration;
 import org.camunda.bpm.engine.impl.json.JsonObjectConverter;
 import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayManager;
+import org.camunda.bpm.engine.impl.persistence.entity.JobDefinitionEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.JobManager;
 import org.camunda.bpm.engine.impl.persistence.entity.MessageEntity;
@@ -44,36 +46,44 @@ public abstract class AbstractBatchJobHandler<T extends BatchConfiguration> impl
   @Override
   public boolean createJobs(BatchEntity batch) {
     CommandContext commandContext = Context.getCommandContext();
+    ProcessEngineConfigurationImpl processEngineConfiguration = commandContext.getProcessEngineConfiguration();
     ByteArrayManager byteArrayManager = commandContext.getByteArrayManager();
     JobManager jobManager = commandContext.getJobManager();
 
     T configuration = readConfiguration(batch.getConfigurationBytes());
 
-    int batchJobsPerSeed = batch.getBatchJobsPerSeed();
+    int batchSeedPartitions = Math.max(1, processEngineConfiguration.getBatchSeedPartitions());
+    int batchJobsPerSeed = batch.getBatchJobsPerSeed() * batchSeedPartitions;
     int invocationsPerBatchJob = batch.getInvocationsPerBatchJob();
+    int prioritySpread = getJobPrioritySpread(commandContext, batch);
 
     List<String> ids = configuration.getIds();
     int numberOfItemsToProcess = Math.min(invocationsPerBatchJob * batchJobsPerSeed, ids.size());
-    // view of process instances to process
-    List<String> processIds = ids.subList(0, numberOfItemsToProcess);
 
     int createdJobs = 0;
-    while (!processIds.isEmpty()) {
-      int lastIdIndex = Math.min(invocationsPerBatchJob, processIds.size());
+    int firstIdIndex = 0;
+    while (firstIdIndex < numberOfItemsToProcess) {
+      int lastIdIndex = Math.min(firstIdIndex + invocationsPerBatchJob, numberOfItemsToProcess);
       // view of process instances for this job
-      List<String> idsForJob = processIds.subList(0, lastIdIndex);
+      List<String> idsForJob = ids.subList(firstIdIndex, lastIdIndex);
 
       T jobConfiguration = createJobConfiguration(configuration, idsForJob);
       ByteArrayEntity configurationEntity = saveConfiguration(byteArrayManager, jobConfiguration);
 
       JobEntity job = createBatchJob(batch, configurationEntity);
       postProcessJob(configuration, job);
+      if (prioritySpread > 0) {
+        spreadJobPriority(job, batch.getJobsCreated() + createdJobs, prioritySpread);
+      }
       jobManager.insertAndHintJobExecutor(job);
 
-      idsForJob.clear();
+      firstIdIndex = lastIdIndex;
       createdJobs++;
     }
 
+    // remove the processed ids at once instead of shifting the remaining ids for every job
+    ids.subList(0, numberOfItemsToProcess).clear();
+
     // update created jobs for batch
     batch.setJobsCreated(batch.getJobsCreated() + createdJobs);
 
@@ -83,6 +93,34 @@ public abstract class AbstractBatchJobHandler<T extends BatchConfiguration> impl
     return ids.isEmpty();
   }
 
+  /**
+   * Returns the configured batch job priority spread or 0 if the priority of the
+   * batch jobs is pinned by an overriding job definition priority.
+   */
+  protected int getJobPrioritySpread(CommandContext commandContext, BatchEntity batch) {
+    int prioritySpread = commandContext.getProcessEngineConfiguration().getBatchJobPrioritySpread();
+    if (prioritySpread <= 0) {
+      return 0;
+    }
+
+    JobDefinitionEntity jobDefinition = commandContext.getJobDefinitionManager()
+        .findById(batch.getBatchJobDefinitionId());
+    if (jobDefinition != null && jobDefinition.getOverridingJobPriority() != null) {
+      return 0;
+    }
+
+    return prioritySpread;
+  }
+
+  /**
+   * Assigns the job a priority within the band <code>[priority, priority + prioritySpread]</code>
+   * based on its sequence number in the batch, so that job executors of different nodes
+   * acquiring by priority do not all compete for the same jobs.
+   */
+  protected void spreadJobPriority(JobEntity job, int jobNumber, int prioritySpread) {
+    job.setPriority(job.getPriority() + (jobNumber % (prioritySpread + 1)));
+  }
+
   protected abstract T createJobConfiguration(T configuration, List<String> processIdsForJob);
 
   protected void postProcessJob(T configuration, JobEntity job) {
@@ -360,11 +360,9 @@ public class BatchEntity implements Batch, DbEntity, Nameable, HasDbRevision {
   }
 
   public boolean isCompleted() {
-    return Context.getCommandContext().getProcessEngineConfiguration()
-      .getManagementService()
-      .createJobQuery()
-      .jobDefinitionId(batchJobDefinitionId)
-      .count() == 0;
+    return !Context.getCommandContext()
+      .getJobManager()
+      .hasJobsByJobDefinitionId(batchJobDefinitionId);
   }
 
   public String toString() {
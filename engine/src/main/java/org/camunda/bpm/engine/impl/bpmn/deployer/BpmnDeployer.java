@@ -101,10 +101,13 @@ public class BpmnDeployer extends AbstractDefinitionDeployer<ProcessDefinitionEn
 
     bpmnParse.execute();
 
-    if (!properties.contains(JOB_DECLARATIONS_PROPERTY)) {
-      properties.set(JOB_DECLARATIONS_PROPERTY, new HashMap<String, List<JobDeclaration<?, ?>>>());
+    // resources may be transformed in parallel
+    synchronized (properties) {
+      if (!properties.contains(JOB_DECLARATIONS_PROPERTY)) {
+        properties.set(JOB_DECLARATIONS_PROPERTY, new HashMap<String, List<JobDeclaration<?, ?>>>());
+      }
+      properties.get(JOB_DECLARATIONS_PROPERTY).putAll(bpmnParse.getJobDeclarations());
     }
-    properties.get(JOB_DECLARATIONS_PROPERTY).putAll(bpmnParse.getJobDeclarations());
 
     return bpmnParse.getProcessDefinitions();
   }
@@ -3981,7 +3981,8 @@ public class BpmnParse extends Parse {
     }
     Condition condition = null;
     if (language == null) {
-      condition = new UelExpressionCondition(expressionManager.createExpression(expression));
+      // simple comparisons of a variable with a literal are evaluated without the expression language
+      condition = VariableComparisonCondition.createCondition(expression, expressionManager.createExpression(expression));
     } else {
       try {
         ExecutableScript script = ScriptUtil.getScript(language, expression, resource, expressionManager);
@@ -92,6 +92,7 @@ import org.camunda.bpm.engine.impl.cmmn.transformer.CmmnTransformListener;
 import org.camunda.bpm.engine.impl.cmmn.transformer.CmmnTransformer;
 import org.camunda.bpm.engine.impl.cmmn.transformer.DefaultCmmnTransformFactory;
 import org.camunda.bpm.engine.impl.db.DbIdGenerator;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManagerFactory;
 import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCacheKeyMapping;
 import org.camunda.bpm.engine.impl.db.sql.DbSqlPersistenceProviderFactory;
@@ -297,6 +298,10 @@ import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
@@ -390,6 +395,24 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected int cacheCapacity = 1000;
   protected boolean enableFetchProcessDefinitionDescription = true;
 
+  /**
+   * If true, the latest versions of all process definitions are loaded into
+   * the deployment cache when the process engine is built.
+   */
+  protected boolean isDeploymentCacheWarmupEnabled = false;
+
+  /**
+   * If false, BPMN resources of existing deployments are not validated against
+   * the XML schema again when they are parsed to populate the deployment cache.
+   */
+  protected boolean isSchemaValidationOnCacheLoadEnabled = true;
+
+  /**
+   * If true, process definitions are compacted before they are added to the
+   * deployment cache, which reduces the heap used per cached definition.
+   */
+  protected boolean isProcessDefinitionCompactionEnabled = true;
+
   // JOB EXECUTOR /////////////////////////////////////////////////////////////
 
   protected List<JobHandler> customJobHandlers;
@@ -438,6 +461,17 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
    * default priority for batch jobs
    */
   protected long batchJobPriority = DefaultJobPriorityProvider.DEFAULT_PRIORITY;
+  /**
+   * Number of partitions of {@link #batchJobsPerSeed} jobs created by a single
+   * batch seed job invocation. The remaining batch configuration is read and
+   * written only once per seed invocation, regardless of the number of partitions.
+   */
+  protected int batchSeedPartitions = 1;
+  /**
+   * Width of the priority band batch execution jobs are spread over, starting at
+   * {@link #batchJobPriority}. With a spread of 0 all batch jobs share the same priority.
+   */
+  protected int batchJobPrioritySpread = 0;
 
   // OTHER ////////////////////////////////////////////////////////////////////
   protected List<FormEngine> customFormEngines;
@@ -518,6 +552,20 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected RejectedJobsHandler customRejectedJobsHandler;
 
+  /**
+   * If true, immediately due async continuations are locked to the local job executor when
+   * they are created and submitted for execution directly after the creating transaction
+   * has committed. Job acquisition only picks them up if this hand-off fails.
+   */
+  protected boolean isJobExecutorHandOffEnabled = false;
+
+  /**
+   * If greater than zero, jobs of process instances are assigned to one of this number of partitions
+   * when they are created. Job executors then lease partitions and only acquire jobs of their own partitions
+   * (and jobs without a partition). Must be the same on all nodes of a cluster.
+   */
+  protected int jobExecutorPartitionCount = 0;
+
   protected Map<String, EventHandler> eventHandlers;
   protected List<EventHandler> customEventHandlers;
 
@@ -567,12 +615,50 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
    */
   protected boolean isDeploymentLockUsed = true;
 
+  /**
+   * If true, the deployers parse the resources of a deployment concurrently.
+   * The parsed definitions are still persisted in the transaction of the deployment.
+   * The resources are parsed without a command context, so parse listeners must not
+   * access the database.
+   */
+  protected boolean isParallelDeploymentParsingEnabled = false;
+
+  /**
+   * Number of threads used to parse deployment resources if parallel parsing is enabled.
+   */
+  protected int deploymentParsingPoolSize = Runtime.getRuntime().availableProcessors();
+
+  protected ExecutorService deploymentParsingExecutor;
+
   /**
    * Allows setting whether the process engine should try reusing the first level entity cache.
    * Default setting is false, enabling it improves performance of asynchronous continuations.
    */
   protected boolean isDbEntityCacheReuseEnabled = false;
 
+  /**
+   * If true, the entity caches and database operation managers of closed command contexts are
+   * recycled and reused by the next command context of the same thread. This reduces the
+   * allocations of short commands. Entities must not be used with the entity manager of a
+   * command context after the command context was closed. The pooled structures are
+   * discarded when the process engine is closed.
+   */
+  protected boolean isDbEntityManagerPoolingEnabled = false;
+
+  /**
+   * If true, entities which track their changes themselves (executions, tasks and variable instances)
+   * are checked for changes on flush by their change stamp. Otherwise, their persistent state is
+   * copied when they are loaded and compared on flush.
+   */
+  protected boolean isDbEntityChangeTrackingEnabled = false;
+
+  /**
+   * If true and {@link #isDbEntityChangeTrackingEnabled} is set, the persistent state of change tracked
+   * entities is copied as well and a flush fails if an entity has changed without changing its
+   * change stamp. Intended for tests of the change tracking; it costs more than the plain snapshot comparison.
+   */
+  protected boolean isDbEntityChangeTrackingVerificationEnabled = false;
+
   protected boolean isInvokeCustomVariableListeners = true;
 
   /**
@@ -637,6 +723,20 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected List<MigratingTransitionInstanceValidator> migratingTransitionInstanceValidators;
   protected List<MigratingCompensationInstanceValidator> migratingCompensationInstanceValidators;
 
+  /**
+   * If true, process instances are migrated with set-based updates of the process definition
+   * reference when the migration plan maps every activity to itself without structural changes
+   * and the instances have no jobs, event subscriptions, external tasks or incidents.
+   */
+  protected boolean isBulkProcessInstanceMigrationEnabled = false;
+
+  /**
+   * If true, process instances which are deleted with custom listeners skipped are removed with
+   * set-based deletes, provided they do not call or are not called by another process or case instance.
+   * Instead of the activity by activity history, one end event is written per process instance.
+   */
+  protected boolean isBulkProcessInstanceDeletionEnabled = false;
+
   // Default user permission for task
   protected Permission defaultUserPermissionForTask;
 
@@ -677,6 +777,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     initServices();
     initIdGenerator();
     initDeployers();
+    initDeploymentParsingExecutor();
     initJobProvider();
     initExternalTaskPriorityProvider();
     initBatchHandlers();
@@ -1343,6 +1444,21 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     }
   }
 
+  protected void initDeploymentParsingExecutor() {
+    if (isParallelDeploymentParsingEnabled && deploymentParsingExecutor == null) {
+      final String threadNamePrefix = "camunda-deployment-parser-" + getProcessEngineName() + "-";
+      deploymentParsingExecutor = Executors.newFixedThreadPool(Math.max(1, deploymentParsingPoolSize), new ThreadFactory() {
+        protected final AtomicInteger threadCount = new AtomicInteger();
+
+        public Thread newThread(Runnable runnable) {
+          Thread thread = new Thread(runnable, threadNamePrefix + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+    }
+  }
+
   protected Collection<? extends Deployer> getDefaultDeployers() {
     List<Deployer> defaultDeployers = new ArrayList<Deployer>();
 
@@ -1668,6 +1784,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     metricsRegistry.createMeter(Metrics.ACTIVTY_INSTANCE_END);
 
     metricsRegistry.createMeter(Metrics.JOB_ACQUISITION_ATTEMPT);
+    metricsRegistry.createMeter(Metrics.JOB_ACQUISITION_TIME);
     metricsRegistry.createMeter(Metrics.JOB_ACQUIRED_SUCCESS);
     metricsRegistry.createMeter(Metrics.JOB_ACQUIRED_FAILURE);
     metricsRegistry.createMeter(Metrics.JOB_SUCCESSFUL);
@@ -2353,6 +2470,10 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.cacheFactory = cacheFactory;
   }
 
+  public int getCacheCapacity() {
+    return cacheCapacity;
+  }
+
   public void setCacheCapacity(int cacheCapacity) {
     this.cacheCapacity = cacheCapacity;
   }
@@ -2763,6 +2884,24 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this;
   }
 
+  public boolean isJobExecutorHandOffEnabled() {
+    return isJobExecutorHandOffEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setJobExecutorHandOffEnabled(boolean isJobExecutorHandOffEnabled) {
+    this.isJobExecutorHandOffEnabled = isJobExecutorHandOffEnabled;
+    return this;
+  }
+
+  public int getJobExecutorPartitionCount() {
+    return jobExecutorPartitionCount;
+  }
+
+  public ProcessEngineConfigurationImpl setJobExecutorPartitionCount(int jobExecutorPartitionCount) {
+    this.jobExecutorPartitionCount = jobExecutorPartitionCount;
+    return this;
+  }
+
   public EventHandler getEventHandler(String eventType) {
     return eventHandlers.get(eventType);
   }
@@ -2948,6 +3087,22 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.batchJobPriority = batchJobPriority;
   }
 
+  public int getBatchSeedPartitions() {
+    return batchSeedPartitions;
+  }
+
+  public void setBatchSeedPartitions(int batchSeedPartitions) {
+    this.batchSeedPartitions = batchSeedPartitions;
+  }
+
+  public int getBatchJobPrioritySpread() {
+    return batchJobPrioritySpread;
+  }
+
+  public void setBatchJobPrioritySpread(int batchJobPrioritySpread) {
+    this.batchJobPrioritySpread = batchJobPrioritySpread;
+  }
+
   public SessionFactory getIdentityProviderSessionFactory() {
     return identityProviderSessionFactory;
   }
@@ -3107,6 +3262,63 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.isDeploymentLockUsed = isDeploymentLockUsed;
   }
 
+  public boolean isDeploymentCacheWarmupEnabled() {
+    return isDeploymentCacheWarmupEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setDeploymentCacheWarmupEnabled(boolean isDeploymentCacheWarmupEnabled) {
+    this.isDeploymentCacheWarmupEnabled = isDeploymentCacheWarmupEnabled;
+    return this;
+  }
+
+  public boolean isSchemaValidationOnCacheLoadEnabled() {
+    return isSchemaValidationOnCacheLoadEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setSchemaValidationOnCacheLoadEnabled(boolean isSchemaValidationOnCacheLoadEnabled) {
+    this.isSchemaValidationOnCacheLoadEnabled = isSchemaValidationOnCacheLoadEnabled;
+    return this;
+  }
+
+  public boolean isProcessDefinitionCompactionEnabled() {
+    return isProcessDefinitionCompactionEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setProcessDefinitionCompactionEnabled(boolean isProcessDefinitionCompactionEnabled) {
+    this.isProcessDefinitionCompactionEnabled = isProcessDefinitionCompactionEnabled;
+    return this;
+  }
+
+  public boolean isParallelDeploymentParsingEnabled() {
+    return isParallelDeploymentParsingEnabled;
+  }
+
+  /**
+   * If set to true, the resources of a deployment are parsed concurrently.
+   */
+  public ProcessEngineConfigurationImpl setParallelDeploymentParsingEnabled(boolean isParallelDeploymentParsingEnabled) {
+    this.isParallelDeploymentParsingEnabled = isParallelDeploymentParsingEnabled;
+    return this;
+  }
+
+  public int getDeploymentParsingPoolSize() {
+    return deploymentParsingPoolSize;
+  }
+
+  public ProcessEngineConfigurationImpl setDeploymentParsingPoolSize(int deploymentParsingPoolSize) {
+    this.deploymentParsingPoolSize = deploymentParsingPoolSize;
+    return this;
+  }
+
+  public ExecutorService getDeploymentParsingExecutor() {
+    return deploymentParsingExecutor;
+  }
+
+  public ProcessEngineConfigurationImpl setDeploymentParsingExecutor(ExecutorService deploymentParsingExecutor) {
+    this.deploymentParsingExecutor = deploymentParsingExecutor;
+    return this;
+  }
+
   public boolean isCmmnEnabled() {
     return cmmnEnabled;
   }
@@ -3188,6 +3400,33 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this;
   }
 
+  public boolean isDbEntityManagerPoolingEnabled() {
+    return isDbEntityManagerPoolingEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setDbEntityManagerPoolingEnabled(boolean isDbEntityManagerPoolingEnabled) {
+    this.isDbEntityManagerPoolingEnabled = isDbEntityManagerPoolingEnabled;
+    return this;
+  }
+
+  public boolean isDbEntityChangeTrackingEnabled() {
+    return isDbEntityChangeTrackingEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setDbEntityChangeTrackingEnabled(boolean isDbEntityChangeTrackingEnabled) {
+    this.isDbEntityChangeTrackingEnabled = isDbEntityChangeTrackingEnabled;
+    return this;
+  }
+
+  public boolean isDbEntityChangeTrackingVerificationEnabled() {
+    return isDbEntityChangeTrackingVerificationEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setDbEntityChangeTrackingVerificationEnabled(boolean isDbEntityChangeTrackingVerificationEnabled) {
+    this.isDbEntityChangeTrackingVerificationEnabled = isDbEntityChangeTrackingVerificationEnabled;
+    return this;
+  }
+
   public DbEntityCacheKeyMapping getDbEntityCacheKeyMapping() {
     return dbEntityCacheKeyMapping;
   }
@@ -3226,6 +3465,19 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
       // ACT-233: connection pool of Ibatis is not properely initialized if this is not called!
       ((PooledDataSource) dataSource).forceCloseAll();
     }
+
+    if (deploymentParsingExecutor != null) {
+      deploymentParsingExecutor.shutdownNow();
+      deploymentParsingExecutor = null;
+    }
+
+    if (sessionFactories != null) {
+      SessionFactory dbEntityManagerFactory = sessionFactories.get(DbEntityManager.class);
+      if (dbEntityManagerFactory instanceof DbEntityManagerFactory) {
+        // the pooled structures are held by the threads which executed commands
+        ((DbEntityManagerFactory) dbEntityManagerFactory).close();
+      }
+    }
   }
 
   public MetricsRegistry getMetricsRegistry() {
@@ -3432,6 +3684,24 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return migratingActivityInstanceValidators;
   }
 
+  public boolean isBulkProcessInstanceMigrationEnabled() {
+    return isBulkProcessInstanceMigrationEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setBulkProcessInstanceMigrationEnabled(boolean isBulkProcessInstanceMigrationEnabled) {
+    this.isBulkProcessInstanceMigrationEnabled = isBulkProcessInstanceMigrationEnabled;
+    return this;
+  }
+
+  public boolean isBulkProcessInstanceDeletionEnabled() {
+    return isBulkProcessInstanceDeletionEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setBulkProcessInstanceDeletionEnabled(boolean isBulkProcessInstanceDeletionEnabled) {
+    this.isBulkProcessInstanceDeletionEnabled = isBulkProcessInstanceDeletionEnabled;
+    return this;
+  }
+
   public void setCustomPostMigratingActivityInstanceValidators(List<MigratingActivityInstanceValidator> customPostMigratingActivityInstanceValidators) {
     this.customPostMigratingActivityInstanceValidators = customPostMigratingActivityInstanceValidators;
   }
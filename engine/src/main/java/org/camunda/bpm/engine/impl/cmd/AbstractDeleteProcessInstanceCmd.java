@@ -12,17 +12,38 @@
  */
 package org.camunda.bpm.engine.impl.cmd;
 
+import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.camunda.bpm.engine.BadUserRequestException;
+import org.camunda.bpm.engine.authorization.Resources;
 import org.camunda.bpm.engine.history.UserOperationLogEntry;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.cfg.CommandChecker;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.CachedDbEntity;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCache;
+import org.camunda.bpm.engine.impl.history.HistoryLevel;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.history.event.HistoryEventProcessor;
+import org.camunda.bpm.engine.impl.history.event.HistoryEventTypes;
+import org.camunda.bpm.engine.impl.history.handler.DbHistoryEventHandler;
+import org.camunda.bpm.engine.impl.history.producer.HistoryEventProducer;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayManager;
 import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.ExecutionManager;
 import org.camunda.bpm.engine.impl.persistence.entity.PropertyChange;
-
-import java.util.Collections;
-
-import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.impl.util.CollectionUtil;
 
 /**
  * Created by aakhmerov on 16.09.16.
@@ -32,6 +53,14 @@ import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
  */
 public abstract class AbstractDeleteProcessInstanceCmd {
 
+  protected static final CommandLogger LOG = ProcessEngineLogger.CMD_LOGGER;
+
+  /**
+   * Maximum number of process instance ids per set-based statement
+   * (some databases limit the number of elements in an IN clause to 1000)
+   */
+  protected static final int BULK_DELETION_CHUNK_SIZE = 1000;
+
   protected boolean externallyTerminated;
   protected String deleteReason;
   protected boolean skipCustomListeners;
@@ -69,4 +98,123 @@ public abstract class AbstractDeleteProcessInstanceCmd {
             null, null, Collections.singletonList(PropertyChange.EMPTY_CHANGE));
   }
 
+  protected boolean isBulkDeletionApplicable(CommandContext commandContext, boolean skipCustomListeners) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = commandContext.getProcessEngineConfiguration();
+
+    // the set-based statements replace the history events of the deleted activity instances,
+    // tasks and incidents, so the history event handler must not be customized
+    return skipCustomListeners
+        && processEngineConfiguration.isBulkProcessInstanceDeletionEnabled()
+        && processEngineConfiguration.getHistoryEventHandler() instanceof DbHistoryEventHandler;
+  }
+
+  /**
+   * Deletes those of the given process instances which can be removed with set-based statements
+   * without walking the activity instance tree, see {@link ExecutionManager#findProcessInstancesForBulkDeletion(Collection)}.
+   * Listeners and output mappings are not invoked. Per process instance, a single end event is written to the history.
+   *
+   * @return the ids of the process instances which have to be deleted one by one
+   */
+  protected Collection<String> deleteProcessInstancesInBulk(
+      CommandContext commandContext,
+      List<String> processInstanceIds,
+      String deleteReason,
+      boolean externallyTerminated) {
+
+    DbEntityCache dbEntityCache = commandContext.getDbEntityManager().getDbEntityCache();
+    Set<String> remainingProcessInstanceIds = new LinkedHashSet<String>(processInstanceIds);
+
+    List<List<String>> chunks = CollectionUtil.partition(new ArrayList<String>(remainingProcessInstanceIds), BULK_DELETION_CHUNK_SIZE);
+    for (List<String> chunk : chunks) {
+      List<ExecutionEntity> processInstances = commandContext.getExecutionManager().findProcessInstancesForBulkDeletion(chunk);
+
+      List<ExecutionEntity> deletedProcessInstances = new ArrayList<ExecutionEntity>();
+      List<String> deletedIds = new ArrayList<String>();
+      for (ExecutionEntity processInstance : processInstances) {
+        CachedDbEntity cachedProcessInstance = dbEntityCache.getCachedEntity(processInstance);
+        if (cachedProcessInstance != null && cachedProcessInstance.isDirty()) {
+          // changed in this command already; must be deleted entity by entity
+          continue;
+        }
+
+        checkDeleteProcessInstance(processInstance, commandContext);
+        deletedProcessInstances.add(processInstance);
+        deletedIds.add(processInstance.getId());
+      }
+
+      if (!deletedIds.isEmpty()) {
+        deleteProcessInstancesByIds(commandContext, deletedIds, deleteReason);
+
+        for (ExecutionEntity processInstance : deletedProcessInstances) {
+          fireProcessInstanceEndEvent(commandContext, processInstance, deleteReason, externallyTerminated);
+
+          // the set-based deletes bypass the cache; the cached instance must not be flushed
+          dbEntityCache.remove(processInstance);
+
+          commandContext.getOperationLogManager()
+              .logProcessInstanceOperation(UserOperationLogEntry.OPERATION_TYPE_DELETE, processInstance.getId(),
+                  null, null, Collections.singletonList(PropertyChange.EMPTY_CHANGE));
+        }
+
+        remainingProcessInstanceIds.removeAll(deletedIds);
+      }
+    }
+
+    LOG.debugBulkProcessInstanceDeletion(processInstanceIds.size() - remainingProcessInstanceIds.size(), processInstanceIds.size());
+
+    return remainingProcessInstanceIds;
+  }
+
+  protected void deleteProcessInstancesByIds(CommandContext commandContext, List<String> processInstanceIds, String deleteReason) {
+    Date endTime = ClockUtil.getCurrentTime();
+    String taskDeleteReason = (deleteReason == null || deleteReason.length() == 0) ? TaskEntity.DELETE_REASON_DELETED : deleteReason;
+
+    // byte arrays and task authorizations are deleted after the entities referencing them,
+    // so their ids have to be collected up front
+    ByteArrayManager byteArrayManager = commandContext.getByteArrayManager();
+    List<String> byteArrayIds = byteArrayManager.findByteArrayIdsByProcessInstanceIds(processInstanceIds);
+    for (List<String> byteArrayIdChunk : CollectionUtil.partition(byteArrayIds, BULK_DELETION_CHUNK_SIZE)) {
+      byteArrayManager.deleteByteArraysByIds(byteArrayIdChunk);
+    }
+
+    if (commandContext.getProcessEngineConfiguration().isAuthorizationEnabled()) {
+      List<String> taskIds = commandContext.getTaskManager().findTaskIdsByProcessInstanceIds(processInstanceIds);
+      for (List<String> taskIdChunk : CollectionUtil.partition(taskIds, BULK_DELETION_CHUNK_SIZE)) {
+        commandContext.getAuthorizationManager().deleteAuthorizationsByResourceIds(Resources.TASK, taskIdChunk);
+      }
+    }
+
+    commandContext.getVariableInstanceManager().deleteVariableInstancesByProcessInstanceIds(processInstanceIds);
+    commandContext.getIdentityLinkManager().deleteIdentityLinksByProcessInstanceIds(processInstanceIds);
+    commandContext.getEventSubscriptionManager().deleteEventSubscriptionsByProcessInstanceIds(processInstanceIds);
+    commandContext.getJobManager().deleteJobsByProcessInstanceIds(processInstanceIds);
+    commandContext.getIncidentManager().deleteIncidentsByProcessInstanceIds(processInstanceIds);
+    commandContext.getExternalTaskManager().deleteExternalTasksByProcessInstanceIds(processInstanceIds);
+    commandContext.getTaskManager().deleteTasksByProcessInstanceIds(processInstanceIds);
+    commandContext.getExecutionManager().deleteProcessInstancesByIds(processInstanceIds);
+
+    commandContext.getHistoricActivityInstanceManager().endHistoricActivityInstancesByProcessInstanceIds(processInstanceIds, endTime);
+    commandContext.getHistoricTaskInstanceManager().endHistoricTaskInstancesByProcessInstanceIds(processInstanceIds, taskDeleteReason, endTime);
+    commandContext.getHistoricIncidentManager().endHistoricIncidentsByProcessInstanceIds(processInstanceIds, endTime);
+  }
+
+  protected void fireProcessInstanceEndEvent(CommandContext commandContext, final ExecutionEntity processInstance,
+      String deleteReason, boolean externallyTerminated) {
+    HistoryLevel historyLevel = commandContext.getProcessEngineConfiguration().getHistoryLevel();
+
+    // same state as after the cascading deletion of the activity instance tree
+    processInstance.setActivity(null);
+    processInstance.setDeleteReason(deleteReason);
+    processInstance.setExternallyTerminated(externallyTerminated);
+
+    if (historyLevel.isHistoryEventProduced(HistoryEventTypes.PROCESS_INSTANCE_END, processInstance)) {
+      HistoryEventProcessor.processHistoryEvents(new HistoryEventProcessor.HistoryEventCreator() {
+        @Override
+        public HistoryEvent createHistoryEvent(HistoryEventProducer producer) {
+          return producer.createProcessInstanceEndEvt(processInstance);
+        }
+      });
+    }
+  }
+
 }
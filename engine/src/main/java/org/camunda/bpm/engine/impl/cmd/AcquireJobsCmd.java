@@ -14,10 +14,15 @@ package org.camunda.bpm.engine.impl.cmd;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.camunda.bpm.engine.impl.Page;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.entitymanager.OptimisticLockingListener;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
@@ -41,6 +46,10 @@ public class AcquireJobsCmd implements Command<AcquiredJobs>, OptimisticLockingL
   protected AcquiredJobs acquiredJobs;
   protected int numJobsToAcquire;
 
+  protected Map<String, List<JobEntity>> exclusiveJobsByProcessInstanceId;
+
+  protected String processEngineName;
+
   public AcquireJobsCmd(JobExecutor jobExecutor) {
     this(jobExecutor, jobExecutor.getMaxJobsPerAcquisition());
   }
@@ -53,10 +62,13 @@ public class AcquireJobsCmd implements Command<AcquiredJobs>, OptimisticLockingL
   public AcquiredJobs execute(CommandContext commandContext) {
 
     acquiredJobs = new AcquiredJobs(numJobsToAcquire);
+    processEngineName = commandContext.getProcessEngineConfiguration().getProcessEngineName();
 
     List<JobEntity> jobs = commandContext
       .getJobManager()
-      .findNextJobsToExecute(new Page(0, numJobsToAcquire));
+      .findNextJobsToExecute(new Page(0, numJobsToAcquire), getJobPartitions(commandContext));
+
+    exclusiveJobsByProcessInstanceId = findExclusiveJobs(commandContext, jobs);
 
     for (JobEntity job : jobs) {
 
@@ -82,12 +94,43 @@ public class AcquireJobsCmd implements Command<AcquiredJobs>, OptimisticLockingL
     return acquiredJobs;
   }
 
+  /**
+   * @return the job partitions leased by the job executor or <code>null</code> if jobs are not partitioned
+   */
+  protected List<Integer> getJobPartitions(CommandContext commandContext) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = commandContext.getProcessEngineConfiguration();
+    if (processEngineConfiguration.getJobExecutorPartitionCount() > 0) {
+      return jobExecutor.getJobPartitionLeases().getPartitions(processEngineConfiguration.getProcessEngineName());
+    }
+    else {
+      return null;
+    }
+  }
+
+  /**
+   * Selects the exclusive jobs of the process instances of all acquired exclusive jobs with one query.
+   */
+  protected Map<String, List<JobEntity>> findExclusiveJobs(CommandContext commandContext, List<JobEntity> jobs) {
+    Set<String> processInstanceIds = new HashSet<String>();
+    for (JobEntity job : jobs) {
+      if (job != null && job.isExclusive() && job.getProcessInstanceId() != null) {
+        processInstanceIds.add(job.getProcessInstanceId());
+      }
+    }
+
+    return commandContext.getJobManager().findExclusiveJobsToExecuteByProcessInstanceIds(processInstanceIds);
+  }
+
   protected List<String> lockExclusiveJobs(CommandContext commandContext, JobEntity job) {
     List<String> jobIds = new ArrayList<String>();
 
     // acquire all exclusive jobs in the same process instance
     // (includes the current job)
-    List<JobEntity> exclusiveJobs = commandContext.getJobManager().findExclusiveJobsToExecute(job.getProcessInstanceId());
+    List<JobEntity> exclusiveJobs = exclusiveJobsByProcessInstanceId.get(job.getProcessInstanceId());
+    if (exclusiveJobs == null) {
+      return jobIds;
+    }
+
     // ensure that the job is not locked by another job executor concurrently
     if (exclusiveJobs.contains(job)) {
 
@@ -107,13 +150,17 @@ public class AcquireJobsCmd implements Command<AcquiredJobs>, OptimisticLockingL
     job.setLockOwner(lockOwner);
 
     int lockTimeInMillis = jobExecutor.getLockTimeInMillis();
+    Date now = ClockUtil.getCurrentTime();
 
     GregorianCalendar gregorianCalendar = new GregorianCalendar();
-    gregorianCalendar.setTime(ClockUtil.getCurrentTime());
+    gregorianCalendar.setTime(now);
     gregorianCalendar.add(Calendar.MILLISECOND, lockTimeInMillis);
     job.setLockExpirationTime(gregorianCalendar.getTime());
+
+    jobExecutor.logJobAcquired(processEngineName, job, now.getTime());
   }
 
+
   public Class<? extends DbEntity> getEntityType() {
     return JobEntity.class;
   }
@@ -125,6 +172,7 @@ public class AcquireJobsCmd implements Command<AcquiredJobs>, OptimisticLockingL
       if(JobEntity.class.isAssignableFrom(entityOperation.getEntityType())) {
         // could not lock the job -> remove it from list of acquired jobs
         acquiredJobs.removeJobId(entityOperation.getEntity().getId());
+        jobExecutor.logJobAcquisitionFailure(processEngineName, (JobEntity) entityOperation.getEntity());
       }
 
     }
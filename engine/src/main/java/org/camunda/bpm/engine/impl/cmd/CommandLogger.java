@@ -216,4 +216,21 @@ public class CommandLogger extends ProcessEngineLogger {
         command
         ));
   }
+
+  public void debugParsingResourcesInParallel(String deploymentName, int resourceCount) {
+    logDebug(
+        "035", "Parsing {} resources of deployment {} in parallel", resourceCount, deploymentName);
+  }
+
+  public ProcessEngineException exceptionWhileParsingResourceInParallel(String resourceName, Throwable cause) {
+    return new ProcessEngineException(exceptionMessage(
+        "036",
+        "Exception while parsing resource '{}' in parallel: {}",
+        resourceName, cause.getMessage()), cause);
+  }
+
+  public void debugBulkProcessInstanceDeletion(int deletedProcessInstances, int totalProcessInstances) {
+    logDebug(
+        "037", "Deleted {} of {} process instances with set-based statements", deletedProcessInstances, totalProcessInstances);
+  }
 }
@@ -16,6 +16,7 @@ import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.List;
 
 
@@ -39,7 +40,12 @@ public class DeleteProcessInstancesCmd extends AbstractDeleteProcessInstanceCmd
   }
 
   public Void execute(CommandContext commandContext) {
-    for (String processInstanceId : this.processInstanceIds) {
+    Collection<String> remainingProcessInstanceIds = processInstanceIds;
+    if (isBulkDeletionApplicable(commandContext, skipCustomListeners)) {
+      remainingProcessInstanceIds = deleteProcessInstancesInBulk(commandContext, processInstanceIds, deleteReason, externallyTerminated);
+    }
+
+    for (String processInstanceId : remainingProcessInstanceIds) {
       deleteProcessInstance(commandContext, processInstanceId, deleteReason, skipCustomListeners, externallyTerminated);
     }
     return null;
@@ -0,0 +1,65 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.JobFailureCollector;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+
+/**
+ * Executes jobs of different process instances in one command context so that
+ * their changes are flushed and committed together.
+ *
+ * <p>Jobs are executed in the given order until a job belongs to a process instance
+ * of an already executed job. The {@link JobFailureCollector}s of the executed jobs are
+ * returned, the remaining jobs are left for the caller.</p>
+ *
+ * <p>If a job fails, the whole command fails. The caller is responsible for
+ * executing the jobs again one by one, see
+ * {@link org.camunda.bpm.engine.impl.jobexecutor.ExecuteJobsRunnable}.</p>
+ */
+public class ExecuteJobsInOneTransactionCmd implements Command<List<JobFailureCollector>> {
+
+  protected List<String> jobIds;
+
+  public ExecuteJobsInOneTransactionCmd(List<String> jobIds) {
+    this.jobIds = jobIds;
+  }
+
+  public List<JobFailureCollector> execute(CommandContext commandContext) {
+    List<JobFailureCollector> executedJobs = new ArrayList<JobFailureCollector>();
+    Set<String> processInstanceIds = new HashSet<String>();
+
+    for (String jobId : jobIds) {
+      JobEntity job = commandContext.getDbEntityManager().selectById(JobEntity.class, jobId);
+
+      if (job != null && job.getProcessInstanceId() != null && !processInstanceIds.add(job.getProcessInstanceId())) {
+        // the job has to see the committed state of the previous job of its process instance
+        break;
+      }
+
+      JobFailureCollector jobFailureCollector = new JobFailureCollector(jobId);
+      new ExecuteJobsCmd(jobId, jobFailureCollector).execute(commandContext);
+      executedJobs.add(jobFailureCollector);
+    }
+
+    return executedJobs;
+  }
+
+}
@@ -0,0 +1,47 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * Extends the locks of jobs which are executed by a job executor by its lock time
+ * with one bulk update. Jobs which are no longer locked by the job executor are not updated.
+ */
+public class ExtendJobLocksCmd implements Command<Void> {
+
+  protected JobExecutor jobExecutor;
+  protected List<String> jobIds;
+
+  public ExtendJobLocksCmd(JobExecutor jobExecutor, List<String> jobIds) {
+    this.jobExecutor = jobExecutor;
+    this.jobIds = jobIds;
+  }
+
+  public Void execute(CommandContext commandContext) {
+    Date lockExpirationTime = new Date(ClockUtil.getCurrentTime().getTime() + jobExecutor.getLockTimeInMillis());
+
+    commandContext
+      .getJobManager()
+      .updateJobLockExpirationTimes(jobIds, jobExecutor.getLockOwner(), lockExpirationTime);
+
+    return null;
+  }
+
+}
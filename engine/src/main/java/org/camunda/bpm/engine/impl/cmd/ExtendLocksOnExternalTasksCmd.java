@@ -0,0 +1,97 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.BadUserRequestException;
+import org.camunda.bpm.engine.exception.NotFoundException;
+import org.camunda.bpm.engine.impl.cfg.CommandChecker;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ExternalTaskEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ExternalTaskManager;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.impl.util.CollectionUtil;
+import org.camunda.bpm.engine.impl.util.EnsureUtil;
+
+/**
+ * Extends the locks of multiple external tasks which are locked by the given worker.
+ * The tasks are selected and updated with one statement per chunk of ids.
+ */
+public class ExtendLocksOnExternalTasksCmd implements Command<Void> {
+
+  /**
+   * Maximum number of ids per statement
+   * (some databases limit the number of elements in an IN clause to 1000)
+   */
+  protected static final int MAX_EXTERNAL_TASKS_PER_STATEMENT = 500;
+
+  protected List<String> externalTaskIds;
+  protected String workerId;
+  protected long newLockDuration;
+
+  public ExtendLocksOnExternalTasksCmd(List<String> externalTaskIds, String workerId, long newLockDuration) {
+    this.externalTaskIds = externalTaskIds;
+    this.workerId = workerId;
+    this.newLockDuration = newLockDuration;
+  }
+
+  public Void execute(CommandContext commandContext) {
+    EnsureUtil.ensureNotEmpty(BadUserRequestException.class, "externalTaskIds", externalTaskIds);
+    EnsureUtil.ensureNotContainsNull(BadUserRequestException.class, "externalTaskIds", externalTaskIds);
+    EnsureUtil.ensureNotNull("workerId", workerId);
+    EnsureUtil.ensurePositive(BadUserRequestException.class, "newLockDuration", newLockDuration);
+
+    ExternalTaskManager externalTaskManager = commandContext.getExternalTaskManager();
+    List<List<String>> externalTaskIdChunks = CollectionUtil.partition(externalTaskIds, MAX_EXTERNAL_TASKS_PER_STATEMENT);
+
+    Map<String, ExternalTaskEntity> externalTasksById = new HashMap<String, ExternalTaskEntity>();
+    for (List<String> externalTaskIdChunk : externalTaskIdChunks) {
+      for (ExternalTaskEntity externalTask : externalTaskManager.findExternalTasksByIds(externalTaskIdChunk)) {
+        externalTasksById.put(externalTask.getId(), externalTask);
+      }
+    }
+
+    for (String externalTaskId : externalTaskIds) {
+      ExternalTaskEntity externalTask = externalTasksById.get(externalTaskId);
+      EnsureUtil.ensureNotNull(NotFoundException.class,
+          "Cannot find external task with id " + externalTaskId, "externalTask", externalTask);
+
+      if (!workerId.equals(externalTask.getWorkerId())) {
+        throw new BadUserRequestException("The lock of External Task " + externalTaskId + " cannot be extended by worker '"
+            + workerId + "'. It is locked by worker '" + externalTask.getWorkerId() + "'.");
+      }
+
+      if (externalTask.isLockExpired()) {
+        throw new BadUserRequestException("Cannot extend the lock of External Task " + externalTaskId + " because the lock has expired.");
+      }
+
+      for (CommandChecker checker : commandContext.getProcessEngineConfiguration().getCommandCheckers()) {
+        checker.checkUpdateProcessInstanceById(externalTask.getProcessInstanceId());
+      }
+    }
+
+    Date now = ClockUtil.getCurrentTime();
+    Date lockExpirationTime = new Date(now.getTime() + newLockDuration);
+    for (List<String> externalTaskIdChunk : externalTaskIdChunks) {
+      externalTaskManager.updateExternalTaskLockExpirationTimes(externalTaskIdChunk, workerId, lockExpirationTime, now);
+    }
+
+    return null;
+  }
+
+}
@@ -0,0 +1,40 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutorInstrumentation;
+import org.camunda.bpm.engine.management.JobExecutionStatistics;
+
+public class GetJobExecutionStatisticsCmd implements Command<List<JobExecutionStatistics>> {
+
+  public List<JobExecutionStatistics> execute(CommandContext commandContext) {
+    commandContext.getAuthorizationManager().checkCamundaAdmin();
+
+    ProcessEngineConfigurationImpl processEngineConfiguration = commandContext.getProcessEngineConfiguration();
+    JobExecutor jobExecutor = processEngineConfiguration.getJobExecutor();
+    if (jobExecutor == null || jobExecutor.getInstrumentation() == null) {
+      return Collections.emptyList();
+    }
+
+    JobExecutorInstrumentation instrumentation = jobExecutor.getInstrumentation();
+    return instrumentation.getStatistics(processEngineConfiguration.getProcessEngineName());
+  }
+
+}
@@ -0,0 +1,95 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.Page;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.entitymanager.OptimisticLockingListener;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.JobPartitionLeases;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+
+/**
+ * Locks the timers which become due within the look ahead time to the job executor
+ * so that they can be kept in its timer wheel.
+ *
+ * <p>The lock expires the configured lock time after the due date of a timer. If the
+ * timer is not executed until then, job acquisition of any node picks it up again.</p>
+ *
+ * <p>If jobs are partitioned, only the timers of the partitions leased by the job executor
+ * are preloaded, see {@link JobPartitionLeases}.</p>
+ */
+public class PreloadTimersCmd implements Command<List<JobEntity>>, OptimisticLockingListener {
+
+  protected JobExecutor jobExecutor;
+  protected Date lookAheadTime;
+  protected int maxTimers;
+
+  protected List<JobEntity> timers;
+
+  public PreloadTimersCmd(JobExecutor jobExecutor, Date lookAheadTime, int maxTimers) {
+    this.jobExecutor = jobExecutor;
+    this.lookAheadTime = lookAheadTime;
+    this.maxTimers = maxTimers;
+  }
+
+  public List<JobEntity> execute(CommandContext commandContext) {
+    timers = commandContext
+      .getJobManager()
+      .findTimersToPreload(lookAheadTime, new Page(0, maxTimers), getJobPartitions(commandContext));
+
+    for (JobEntity timer : timers) {
+      timer.setLockOwner(jobExecutor.getLockOwner());
+      timer.setLockExpirationTime(new Date(timer.getDuedate().getTime() + jobExecutor.getLockTimeInMillis()));
+    }
+
+    // timers which cannot be locked are removed from the result
+    commandContext
+      .getDbEntityManager()
+      .registerOptimisticLockingListener(this);
+
+    return timers;
+  }
+
+  /**
+   * @return the job partitions leased by the job executor or <code>null</code> if jobs are not partitioned
+   */
+  protected List<Integer> getJobPartitions(CommandContext commandContext) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = commandContext.getProcessEngineConfiguration();
+    if (processEngineConfiguration.getJobExecutorPartitionCount() > 0) {
+      return jobExecutor.getJobPartitionLeases().getPartitions(processEngineConfiguration.getProcessEngineName());
+    }
+    else {
+      return null;
+    }
+  }
+
+  public Class<? extends DbEntity> getEntityType() {
+    return JobEntity.class;
+  }
+
+  public void failedOperation(DbOperation operation) {
+    if (operation instanceof DbEntityOperation) {
+      timers.remove(((DbEntityOperation) operation).getEntity());
+    }
+  }
+
+}
@@ -0,0 +1,140 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.entitymanager.OptimisticLockingListener;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * Checks the timers which expired in the timer wheel of the job executor before they
+ * are executed.
+ *
+ * <p>Timers which are still locked to the job executor and due are returned for execution,
+ * together with the other due exclusive jobs of their process instance like in
+ * {@link AcquireJobsCmd}. Timers which have been suspended or whose due date has been
+ * changed in the meantime are unlocked, so that they are acquired as usual.</p>
+ */
+public class PrepareDueTimersCmd implements Command<List<List<String>>>, OptimisticLockingListener {
+
+  protected JobExecutor jobExecutor;
+  protected List<String> timerIds;
+
+  protected List<List<String>> jobIdBatches;
+
+  public PrepareDueTimersCmd(JobExecutor jobExecutor, List<String> timerIds) {
+    this.jobExecutor = jobExecutor;
+    this.timerIds = timerIds;
+  }
+
+  public List<List<String>> execute(CommandContext commandContext) {
+    jobIdBatches = new ArrayList<List<String>>();
+    Set<String> batchedJobIds = new HashSet<String>();
+    Date now = ClockUtil.getCurrentTime();
+
+    List<JobEntity> dueTimers = new ArrayList<JobEntity>();
+    Set<String> processInstanceIds = new HashSet<String>();
+
+    for (String timerId : timerIds) {
+      JobEntity timer = commandContext.getDbEntityManager().selectById(JobEntity.class, timerId);
+
+      if (timer == null || !jobExecutor.getLockOwner().equals(timer.getLockOwner())) {
+        // deleted or acquired in the meantime
+        continue;
+      }
+
+      if (timer.isSuspended()
+          || timer.getRetries() <= 0
+          || (timer.getDuedate() != null && timer.getDuedate().after(now))) {
+        timer.resetLock();
+        continue;
+      }
+
+      dueTimers.add(timer);
+      if (timer.isExclusive() && timer.getProcessInstanceId() != null) {
+        processInstanceIds.add(timer.getProcessInstanceId());
+      }
+    }
+
+    // the exclusive jobs of all process instances are selected with one query
+    Map<String, List<JobEntity>> exclusiveJobsByProcessInstanceId = commandContext
+      .getJobManager()
+      .findExclusiveJobsToExecuteByProcessInstanceIds(processInstanceIds);
+
+    for (JobEntity timer : dueTimers) {
+      if (!batchedJobIds.add(timer.getId())) {
+        continue;
+      }
+
+      List<String> jobIds = new ArrayList<String>();
+      jobIds.add(timer.getId());
+
+      List<JobEntity> exclusiveJobs = exclusiveJobsByProcessInstanceId.get(timer.getProcessInstanceId());
+      if (timer.isExclusive() && exclusiveJobs != null) {
+        for (JobEntity exclusiveJob : exclusiveJobs) {
+          if (batchedJobIds.add(exclusiveJob.getId())) {
+            lockJob(exclusiveJob, now);
+            jobIds.add(exclusiveJob.getId());
+          }
+        }
+      }
+
+      jobIdBatches.add(jobIds);
+    }
+
+    commandContext
+      .getDbEntityManager()
+      .registerOptimisticLockingListener(this);
+
+    return jobIdBatches;
+  }
+
+  protected void lockJob(JobEntity job, Date now) {
+    job.setLockOwner(jobExecutor.getLockOwner());
+    job.setLockExpirationTime(new Date(now.getTime() + jobExecutor.getLockTimeInMillis()));
+  }
+
+  public Class<? extends DbEntity> getEntityType() {
+    return JobEntity.class;
+  }
+
+  public void failedOperation(DbOperation operation) {
+    if (operation instanceof DbEntityOperation) {
+      String jobId = ((DbEntityOperation) operation).getEntity().getId();
+
+      Iterator<List<String>> batchIterator = jobIdBatches.iterator();
+      while (batchIterator.hasNext()) {
+        List<String> jobIds = batchIterator.next();
+        jobIds.remove(jobId);
+        if (jobIds.isEmpty()) {
+          batchIterator.remove();
+        }
+      }
+    }
+  }
+
+}
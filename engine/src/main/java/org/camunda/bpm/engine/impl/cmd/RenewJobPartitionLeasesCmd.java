@@ -0,0 +1,162 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.entitymanager.OptimisticLockingListener;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.JobManager;
+import org.camunda.bpm.engine.impl.persistence.entity.JobPartitionLeaseEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * Renews the job partition leases of a job executor and rebalances the partitions
+ * between the job executors which currently hold a lease.
+ *
+ * <p>Every job executor aims for an equal share of the partitions. A job executor which
+ * holds more partitions releases the surplus. A job executor which holds fewer partitions
+ * claims partitions whose lease has expired or has been released and then takes over
+ * partitions from job executors which hold more than their share. A job executor notices
+ * that partitions were taken over when its next renewal of them fails. Leases which
+ * were changed by another job executor concurrently are not part of the result.</p>
+ */
+public class RenewJobPartitionLeasesCmd implements Command<List<Integer>>, OptimisticLockingListener {
+
+  protected JobExecutor jobExecutor;
+  protected int partitionCount;
+
+  protected List<Integer> leasedPartitions;
+
+  public RenewJobPartitionLeasesCmd(JobExecutor jobExecutor, int partitionCount) {
+    this.jobExecutor = jobExecutor;
+    this.partitionCount = partitionCount;
+  }
+
+  public List<Integer> execute(CommandContext commandContext) {
+    JobManager jobManager = commandContext.getJobManager();
+    String lockOwner = jobExecutor.getLockOwner();
+    Date now = ClockUtil.getCurrentTime();
+    Date lockExpirationTime = new Date(now.getTime() + jobExecutor.getPartitionLeaseTimeInMillis());
+
+    List<JobPartitionLeaseEntity> leases = getLeases(jobManager);
+
+    // the share of a job executor depends on the number of job executors with unexpired leases
+    Map<String, Integer> leaseCounts = new HashMap<String, Integer>();
+    leaseCounts.put(lockOwner, 0);
+    for (JobPartitionLeaseEntity lease : leases) {
+      if (!lease.isExpired(now) && !lease.isOwnedBy(lockOwner)) {
+        Integer leaseCount = leaseCounts.get(lease.getLockOwner());
+        leaseCounts.put(lease.getLockOwner(), leaseCount == null ? 1 : leaseCount + 1);
+      }
+    }
+    int share = (partitionCount + leaseCounts.size() - 1) / leaseCounts.size();
+
+    leasedPartitions = new ArrayList<Integer>();
+    List<JobPartitionLeaseEntity> availableLeases = new ArrayList<JobPartitionLeaseEntity>();
+    List<JobPartitionLeaseEntity> foreignLeases = new ArrayList<JobPartitionLeaseEntity>();
+
+    for (JobPartitionLeaseEntity lease : leases) {
+      if (lease.isOwnedBy(lockOwner)) {
+        if (leasedPartitions.size() < share) {
+          lease.lease(lockOwner, lockExpirationTime);
+          leasedPartitions.add(lease.getPartition());
+        }
+        else {
+          lease.release();
+        }
+      }
+      else if (lease.isExpired(now)) {
+        availableLeases.add(lease);
+      }
+      else {
+        foreignLeases.add(lease);
+      }
+    }
+
+    for (JobPartitionLeaseEntity lease : availableLeases) {
+      if (leasedPartitions.size() >= share) {
+        break;
+      }
+      lease.lease(lockOwner, lockExpirationTime);
+      leasedPartitions.add(lease.getPartition());
+    }
+
+    for (JobPartitionLeaseEntity lease : foreignLeases) {
+      if (leasedPartitions.size() >= share) {
+        break;
+      }
+      int leaseCount = leaseCounts.get(lease.getLockOwner());
+      if (leaseCount > share) {
+        leaseCounts.put(lease.getLockOwner(), leaseCount - 1);
+        lease.lease(lockOwner, lockExpirationTime);
+        leasedPartitions.add(lease.getPartition());
+      }
+    }
+
+    // leases which were changed concurrently are removed from the result
+    commandContext
+      .getDbEntityManager()
+      .registerOptimisticLockingListener(this);
+
+    return leasedPartitions;
+  }
+
+  /**
+   * @return the leases of all partitions lower than the partition count; missing leases are created
+   */
+  protected List<JobPartitionLeaseEntity> getLeases(JobManager jobManager) {
+    Map<Integer, JobPartitionLeaseEntity> leasesByPartition = new HashMap<Integer, JobPartitionLeaseEntity>();
+    for (JobPartitionLeaseEntity lease : jobManager.findJobPartitionLeases()) {
+      if (lease.getPartition() < partitionCount) {
+        leasesByPartition.put(lease.getPartition(), lease);
+      }
+      else if (lease.isOwnedBy(jobExecutor.getLockOwner())) {
+        // the partition count has been reduced
+        lease.release();
+      }
+    }
+
+    List<JobPartitionLeaseEntity> leases = new ArrayList<JobPartitionLeaseEntity>();
+    for (int partition = 0; partition < partitionCount; partition++) {
+      JobPartitionLeaseEntity lease = leasesByPartition.get(partition);
+      if (lease == null) {
+        lease = new JobPartitionLeaseEntity(partition);
+        jobManager.insertJobPartitionLease(lease);
+      }
+      leases.add(lease);
+    }
+    return leases;
+  }
+
+  public Class<? extends DbEntity> getEntityType() {
+    return JobPartitionLeaseEntity.class;
+  }
+
+  public void failedOperation(DbOperation operation) {
+    if (operation instanceof DbEntityOperation) {
+      JobPartitionLeaseEntity lease = (JobPartitionLeaseEntity) ((DbEntityOperation) operation).getEntity();
+      leasedPartitions.remove(Integer.valueOf(lease.getPartition()));
+    }
+  }
+
+}
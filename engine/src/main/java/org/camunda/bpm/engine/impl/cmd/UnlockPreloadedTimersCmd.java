@@ -0,0 +1,46 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+
+/**
+ * Releases the timers which are still kept in the timer wheel of a job executor
+ * that shuts down, so that they do not wait for their lock to expire.
+ */
+public class UnlockPreloadedTimersCmd implements Command<Void> {
+
+  protected JobExecutor jobExecutor;
+  protected List<String> timerIds;
+
+  public UnlockPreloadedTimersCmd(JobExecutor jobExecutor, List<String> timerIds) {
+    this.jobExecutor = jobExecutor;
+    this.timerIds = timerIds;
+  }
+
+  public Void execute(CommandContext commandContext) {
+    for (String timerId : timerIds) {
+      JobEntity timer = commandContext.getDbEntityManager().selectById(JobEntity.class, timerId);
+      if (timer != null && jobExecutor.getLockOwner().equals(timer.getLockOwner())) {
+        timer.resetLock();
+      }
+    }
+    return null;
+  }
+
+}
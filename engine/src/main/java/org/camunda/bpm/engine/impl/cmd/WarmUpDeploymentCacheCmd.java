@@ -0,0 +1,76 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.ProcessDefinitionQueryImpl;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentCache;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+
+/**
+ * Loads the latest versions of the deployed process definitions into the
+ * {@link DeploymentCache}, so that the first commands after the process engine
+ * was built do not have to parse the BPMN resources.
+ *
+ * A process definition which cannot be parsed does not prevent loading the others,
+ * it is parsed again on first use instead.
+ */
+public class WarmUpDeploymentCacheCmd implements Command<Void> {
+
+  private final static EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  protected int maxProcessDefinitions;
+
+  /**
+   * @param maxProcessDefinitions the maximum number of process definitions to load;
+   *   should not exceed the capacity of the deployment cache
+   */
+  public WarmUpDeploymentCacheCmd(int maxProcessDefinitions) {
+    this.maxProcessDefinitions = maxProcessDefinitions;
+  }
+
+  public Void execute(final CommandContext commandContext) {
+    List<ProcessDefinition> processDefinitions = commandContext.runWithoutAuthorization(new Callable<List<ProcessDefinition>>() {
+      public List<ProcessDefinition> call() throws Exception {
+        return new ProcessDefinitionQueryImpl()
+            .latestVersion()
+            .listPage(0, maxProcessDefinitions);
+      }
+    });
+
+    LOG.warmingUpDeploymentCache(processDefinitions.size());
+
+    DeploymentCache deploymentCache = commandContext.getProcessEngineConfiguration().getDeploymentCache();
+    for (ProcessDefinition processDefinition : processDefinitions) {
+      if (deploymentCache.findProcessDefinitionFromCache(processDefinition.getId()) == null) {
+        try {
+          deploymentCache.resolveProcessDefinition((ProcessDefinitionEntity) processDefinition);
+
+        } catch (ProcessEngineException e) {
+          LOG.exceptionWhileWarmingUpDeploymentCache(processDefinition.getId(), e);
+        }
+      }
+    }
+
+    return null;
+  }
+
+}
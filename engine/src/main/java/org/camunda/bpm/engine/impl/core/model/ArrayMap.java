@@ -0,0 +1,266 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.core.model;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A map which stores its keys and values in two arrays and looks up keys by a
+ * linear scan. Keys are compared by identity first, so that lookups with
+ * interned keys rarely call {@link Object#equals(Object)}.
+ *
+ * <p>The map is intended for the small property and listener maps of the model
+ * elements of a definition. Compared to a {@link java.util.HashMap}, it does not
+ * allocate an entry object per mapping and no hash table. Lookups are linear in
+ * the size of the map, so it should not be used for maps with many entries.</p>
+ *
+ * <p>The map is not synchronized.</p>
+ */
+public class ArrayMap<K, V> extends AbstractMap<K, V> implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected static final Object[] EMPTY = new Object[0];
+
+  protected Object[] keys;
+  protected Object[] values;
+  protected int size;
+
+  protected transient int modCount;
+
+  public ArrayMap() {
+    this(0);
+  }
+
+  public ArrayMap(int initialCapacity) {
+    if (initialCapacity > 0) {
+      keys = new Object[initialCapacity];
+      values = new Object[initialCapacity];
+    }
+    else {
+      keys = EMPTY;
+      values = EMPTY;
+    }
+  }
+
+  public ArrayMap(Map<? extends K, ? extends V> map) {
+    this(map.size());
+    putAll(map);
+  }
+
+  protected int indexOf(Object key) {
+    for (int i = 0; i < size; i++) {
+      if (keys[i] == key) {
+        return i;
+      }
+    }
+    if (key != null) {
+      for (int i = 0; i < size; i++) {
+        if (key.equals(keys[i])) {
+          return i;
+        }
+      }
+    }
+    return -1;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean containsKey(Object key) {
+    return indexOf(key) >= 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  public V get(Object key) {
+    int index = indexOf(key);
+    return index >= 0 ? (V) values[index] : null;
+  }
+
+  @SuppressWarnings("unchecked")
+  public V put(K key, V value) {
+    int index = indexOf(key);
+    if (index >= 0) {
+      V oldValue = (V) values[index];
+      values[index] = value;
+      return oldValue;
+    }
+
+    if (size == keys.length) {
+      int capacity = Math.max(4, size * 2);
+      keys = Arrays.copyOf(keys, capacity);
+      values = Arrays.copyOf(values, capacity);
+    }
+    keys[size] = key;
+    values[size] = value;
+    size++;
+    modCount++;
+    return null;
+  }
+
+  public V remove(Object key) {
+    int index = indexOf(key);
+    return index >= 0 ? removeAt(index) : null;
+  }
+
+  @SuppressWarnings("unchecked")
+  protected V removeAt(int index) {
+    V oldValue = (V) values[index];
+    int moved = size - index - 1;
+    if (moved > 0) {
+      System.arraycopy(keys, index + 1, keys, index, moved);
+      System.arraycopy(values, index + 1, values, index, moved);
+    }
+    size--;
+    keys[size] = null;
+    values[size] = null;
+    modCount++;
+    return oldValue;
+  }
+
+  public void clear() {
+    Arrays.fill(keys, 0, size, null);
+    Arrays.fill(values, 0, size, null);
+    size = 0;
+    modCount++;
+  }
+
+  /**
+   * Shrinks the arrays to the size of the map.
+   */
+  public void trimToSize() {
+    if (size < keys.length) {
+      keys = size > 0 ? Arrays.copyOf(keys, size) : EMPTY;
+      values = size > 0 ? Arrays.copyOf(values, size) : EMPTY;
+    }
+  }
+
+  /**
+   * @return the number of slots of the arrays
+   */
+  public int capacity() {
+    return keys.length;
+  }
+
+  public Set<Map.Entry<K, V>> entrySet() {
+    return new EntrySet();
+  }
+
+  protected class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+    public Iterator<Map.Entry<K, V>> iterator() {
+      return new EntryIterator();
+    }
+
+    public int size() {
+      return size;
+    }
+
+    public void clear() {
+      ArrayMap.this.clear();
+    }
+  }
+
+  protected class EntryIterator implements Iterator<Map.Entry<K, V>> {
+
+    protected int next = 0;
+    protected int last = -1;
+    protected int expectedModCount = modCount;
+
+    public boolean hasNext() {
+      return next < size;
+    }
+
+    public Map.Entry<K, V> next() {
+      if (expectedModCount != modCount) {
+        throw new ConcurrentModificationException();
+      }
+      if (next >= size) {
+        throw new NoSuchElementException();
+      }
+      last = next++;
+      return new Entry(last);
+    }
+
+    public void remove() {
+      if (last < 0) {
+        throw new IllegalStateException();
+      }
+      if (expectedModCount != modCount) {
+        throw new ConcurrentModificationException();
+      }
+      removeAt(last);
+      next = last;
+      last = -1;
+      expectedModCount = modCount;
+    }
+  }
+
+  protected class Entry implements Map.Entry<K, V> {
+
+    protected int index;
+
+    public Entry(int index) {
+      this.index = index;
+    }
+
+    @SuppressWarnings("unchecked")
+    public K getKey() {
+      return (K) keys[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V getValue() {
+      return (V) values[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V setValue(V value) {
+      V oldValue = (V) values[index];
+      values[index] = value;
+      return oldValue;
+    }
+
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Map.Entry)) {
+        return false;
+      }
+      Map.Entry<?, ?> other = (Map.Entry<?, ?>) obj;
+      return eq(getKey(), other.getKey()) && eq(getValue(), other.getValue());
+    }
+
+    public int hashCode() {
+      K key = getKey();
+      V value = getValue();
+      return (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+    }
+
+    public String toString() {
+      return getKey() + "=" + getValue();
+    }
+
+    protected boolean eq(Object o1, Object o2) {
+      return o1 == null ? o2 == null : o1.equals(o2);
+    }
+  }
+
+}
@@ -153,6 +153,11 @@ public abstract class CoreModelElement implements Serializable {
       listeners = new ArrayList<T>();
       listenerMap.put(eventName, listeners);
     }
+    else if (!(listeners instanceof ArrayList)) {
+      // the list may be shared with other elements after compaction
+      listeners = new ArrayList<T>(listeners);
+      listenerMap.put(eventName, listeners);
+    }
     if (index < 0) {
       listeners.add(listener);
     } else {
@@ -193,4 +198,31 @@ public abstract class CoreModelElement implements Serializable {
     return variableListeners;
   }
 
+  // memory footprint /////////////////////////////////////////////////////////
+
+  /**
+   * Reduces the memory footprint of this element after parsing.
+   *
+   * @see ModelCompactor
+   */
+  public void compact(ModelCompactor compactor) {
+    id = compactor.intern(id);
+    name = compactor.intern(name);
+    properties = new Properties(compactor.compactProperties(properties.properties));
+    builtInListeners = compactor.compactListeners(builtInListeners);
+    listeners = compactor.compactListeners(listeners);
+    builtInVariableListeners = compactor.compactListeners(builtInVariableListeners);
+    variableListeners = compactor.compactListeners(variableListeners);
+  }
+
+  public void reportMemoryUsage(ModelMemoryReport report) {
+    report.addString(id);
+    report.addString(name);
+    report.addProperties(properties.properties);
+    report.addListeners(builtInListeners);
+    report.addListeners(listeners);
+    report.addListeners(builtInVariableListeners);
+    report.addListeners(variableListeners);
+  }
+
 }
@@ -0,0 +1,121 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.core.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Reduces the memory footprint of the model elements of a definition once the
+ * definition has been parsed:
+ *
+ * <ul>
+ *   <li>ids, names, map keys and string property values are interned, so that
+ *   equal strings of different elements and definitions share one instance</li>
+ *   <li>small maps are replaced by {@link ArrayMap}s and larger maps by hash maps
+ *   of the exact capacity</li>
+ *   <li>equal listener lists of the elements are replaced by one shared unmodifiable list</li>
+ *   <li>array lists are trimmed to their size</li>
+ * </ul>
+ *
+ * <p>A compactor is used for a single definition. Listener lists are only shared
+ * between the elements of that definition so that no list outlives its definition.</p>
+ *
+ * @see CoreModelElement#compact(ModelCompactor)
+ */
+public class ModelCompactor {
+
+  /**
+   * Maps with more entries than this are kept as hash maps.
+   */
+  public static final int ARRAY_MAP_THRESHOLD = 8;
+
+  protected Map<List<?>, List<?>> sharedLists = new HashMap<List<?>, List<?>>();
+
+  public String intern(String value) {
+    if (value != null) {
+      return value.intern();
+    }
+    else {
+      return null;
+    }
+  }
+
+  public <V> Map<String, V> compactMap(Map<String, V> map) {
+    Map<String, V> compactedMap;
+    if (map.size() <= ARRAY_MAP_THRESHOLD) {
+      compactedMap = new ArrayMap<String, V>(map.size());
+    }
+    else {
+      compactedMap = new HashMap<String, V>((int) (map.size() / 0.75f) + 1);
+    }
+
+    for (Entry<String, V> entry : map.entrySet()) {
+      compactedMap.put(intern(entry.getKey()), entry.getValue());
+    }
+    return compactedMap;
+  }
+
+  public Map<String, Object> compactProperties(Map<String, Object> properties) {
+    Map<String, Object> compactedProperties = compactMap(properties);
+
+    for (Entry<String, Object> entry : compactedProperties.entrySet()) {
+      Object value = entry.getValue();
+      if (value instanceof String) {
+        entry.setValue(intern((String) value));
+      }
+      else if (value instanceof ArrayList) {
+        ((ArrayList<?>) value).trimToSize();
+      }
+    }
+    return compactedProperties;
+  }
+
+  public <T> Map<String, List<T>> compactListeners(Map<String, List<T>> listeners) {
+    Map<String, List<T>> compactedListeners = new HashMap<String, List<T>>();
+
+    for (Entry<String, List<T>> entry : listeners.entrySet()) {
+      List<T> listenerList = entry.getValue();
+      if (listenerList != null && !listenerList.isEmpty()) {
+        compactedListeners.put(entry.getKey(), share(listenerList));
+      }
+    }
+    return compactMap(compactedListeners);
+  }
+
+  /**
+   * Returns an unmodifiable list which is equal to the given list. Equal lists
+   * passed to this compactor result in the same instance.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> List<T> share(List<T> list) {
+    List<?> sharedList = sharedLists.get(list);
+    if (sharedList == null) {
+      sharedList = Collections.unmodifiableList(new ArrayList<T>(list));
+      sharedLists.put(sharedList, sharedList);
+    }
+    return (List<T>) sharedList;
+  }
+
+  public <T> List<T> trim(List<T> list) {
+    if (list instanceof ArrayList) {
+      ((ArrayList<T>) list).trimToSize();
+    }
+    return list;
+  }
+
+}
@@ -0,0 +1,192 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.core.model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Summarizes the memory footprint of the model elements of a definition.
+ *
+ * <p>The estimated size covers the strings, collections and listener lists held
+ * by the elements, assuming a 64 bit JVM with compressed references. It does not
+ * include the elements themselves, their behaviors and the listener instances.
+ * Shared strings and listener lists are counted once.</p>
+ *
+ * @see CoreModelElement#reportMemoryUsage(ModelMemoryReport)
+ */
+public class ModelMemoryReport {
+
+  protected String definitionId;
+
+  protected int activityCount;
+  protected int transitionCount;
+  protected int propertyCount;
+  protected int listenerListCount;
+  protected int stringCount;
+  protected long estimatedSize;
+
+  protected Set<Object> listenerLists = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+  protected Set<Object> strings = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+
+  public ModelMemoryReport(String definitionId) {
+    this.definitionId = definitionId;
+  }
+
+  public void addActivity() {
+    activityCount++;
+  }
+
+  public void addTransition() {
+    transitionCount++;
+  }
+
+  public void addString(String value) {
+    if (value != null) {
+      stringCount++;
+      if (strings.add(value)) {
+        estimatedSize += align(24) + align(16 + 2L * value.length());
+      }
+    }
+  }
+
+  public void addProperties(Map<String, Object> properties) {
+    addMap(properties);
+    for (Map.Entry<String, Object> property : properties.entrySet()) {
+      propertyCount++;
+      addString(property.getKey());
+
+      Object value = property.getValue();
+      if (value instanceof String) {
+        addString((String) value);
+      }
+      else if (value instanceof Collection) {
+        addCollection((Collection<?>) value);
+      }
+      else if (value instanceof Map) {
+        addMap((Map<?, ?>) value);
+      }
+    }
+  }
+
+  public void addListeners(Map<String, ? extends List<?>> listeners) {
+    addMap(listeners);
+    for (Map.Entry<String, ? extends List<?>> entry : listeners.entrySet()) {
+      addString(entry.getKey());
+
+      List<?> listenerList = entry.getValue();
+      listenerListCount++;
+      if (listenerLists.add(listenerList)) {
+        estimatedSize += align(16);
+        addCollection(listenerList);
+      }
+    }
+  }
+
+  public void addMap(Map<?, ?> map) {
+    if (map instanceof ArrayMap) {
+      int capacity = ((ArrayMap<?, ?>) map).capacity();
+      estimatedSize += align(24) + 2 * align(16 + 4L * capacity);
+    }
+    else {
+      estimatedSize += align(48);
+      if (!map.isEmpty()) {
+        estimatedSize += align(16 + 4L * tableSize(map.size())) + 32L * map.size();
+      }
+    }
+  }
+
+  public void addCollection(Collection<?> collection) {
+    estimatedSize += align(24) + align(16 + 4L * collection.size());
+  }
+
+  protected int tableSize(int size) {
+    int tableSize = 16;
+    while (tableSize * 0.75f < size) {
+      tableSize <<= 1;
+    }
+    return tableSize;
+  }
+
+  protected long align(long size) {
+    return (size + 7) & ~7L;
+  }
+
+  public String getDefinitionId() {
+    return definitionId;
+  }
+
+  public int getActivityCount() {
+    return activityCount;
+  }
+
+  public int getTransitionCount() {
+    return transitionCount;
+  }
+
+  public int getPropertyCount() {
+    return propertyCount;
+  }
+
+  /**
+   * @return the number of non-empty listener lists referenced by the elements
+   */
+  public int getListenerListCount() {
+    return listenerListCount;
+  }
+
+  /**
+   * @return the number of distinct listener list instances referenced by the elements
+   */
+  public int getDistinctListenerListCount() {
+    return listenerLists.size();
+  }
+
+  /**
+   * @return the number of string references held by the elements
+   */
+  public int getStringCount() {
+    return stringCount;
+  }
+
+  /**
+   * @return the number of distinct string instances held by the elements
+   */
+  public int getDistinctStringCount() {
+    return strings.size();
+  }
+
+  /**
+   * @return the estimated number of bytes of the strings, collections and listener lists
+   */
+  public long getEstimatedSize() {
+    return estimatedSize;
+  }
+
+  public String toString() {
+    return "ModelMemoryReport [definitionId=" + definitionId
+        + ", activityCount=" + activityCount
+        + ", transitionCount=" + transitionCount
+        + ", propertyCount=" + propertyCount
+        + ", listenerListCount=" + listenerListCount
+        + ", distinctListenerListCount=" + getDistinctListenerListCount()
+        + ", stringCount=" + stringCount
+        + ", distinctStringCount=" + getDistinctStringCount()
+        + ", estimatedSize=" + estimatedSize + "]";
+  }
+
+}
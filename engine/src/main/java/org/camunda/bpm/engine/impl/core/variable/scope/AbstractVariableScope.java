@@ -173,6 +173,31 @@ public abstract class AbstractVariableScope implements Serializable, VariableSco
     return getVariableStore().getVariable(name);
   }
 
+  /**
+   * Fetches the given variables of this scope and its parent scopes by name, so that they can be
+   * read without loading all variables of the scopes. Scopes whose variables are already loaded
+   * are not queried again.
+   */
+  public void fetchVariables(Collection<String> variableNames) {
+    if (variableNames.isEmpty()) {
+      return;
+    }
+
+    getVariableStore().fetchVariables(variableNames);
+
+    AbstractVariableScope parentScope = getParentVariableScope();
+    if (parentScope != null) {
+      // local variables hide the variables of the parent scope
+      List<String> parentVariableNames = new ArrayList<String>();
+      for (String variableName : variableNames) {
+        if (!getVariableStore().containsKey(variableName)) {
+          parentVariableNames.add(variableName);
+        }
+      }
+      parentScope.fetchVariables(parentVariableNames);
+    }
+  }
+
   public List<CoreVariableInstance> getVariableInstancesLocal() {
     return getVariableStore().getVariables();
   }
@@ -34,6 +34,12 @@ public class VariableStore<T extends CoreVariableInstance> {
   protected VariablesProvider<T> variablesProvider;
   protected Map<String, T> variables;
 
+  /**
+   * variables which were fetched by name before the store was initialized;
+   * a <code>null</code> value marks a variable which does not exist
+   */
+  protected Map<String, T> fetchedVariables;
+
   protected List<VariableStoreObserver<T>> observers;
 
   public VariableStore() {
@@ -67,6 +73,9 @@ public class VariableStore<T extends CoreVariableInstance> {
   }
 
   public T getVariable(String name) {
+    if (isFetched(name)) {
+      return fetchedVariables.get(name);
+    }
 
     return getVariablesMap().get(name);
   }
@@ -106,6 +115,10 @@ public class VariableStore<T extends CoreVariableInstance> {
   }
 
   public boolean containsKey(String key) {
+    if (isFetched(key)) {
+      return fetchedVariables.get(key) != null;
+    }
+
     return getVariablesMap().containsKey(key);
   }
 
@@ -124,9 +137,46 @@ public class VariableStore<T extends CoreVariableInstance> {
       for (T variable : variablesProvider.provideVariables()) {
         variables.put(variable.getName(), variable);
       }
+
+      fetchedVariables = null;
     }
   }
 
+  /**
+   * Fetches the given variables from the provider without initializing the store, so that
+   * they can be read without loading all variables. Variables which were already fetched are
+   * not fetched again. Does nothing if the store is already initialized.
+   */
+  public void fetchVariables(Collection<String> variableNames) {
+    if (isInitialized()) {
+      return;
+    }
+
+    List<String> missingVariableNames = new ArrayList<String>();
+    for (String variableName : variableNames) {
+      if (!isFetched(variableName)) {
+        missingVariableNames.add(variableName);
+      }
+    }
+
+    if (!missingVariableNames.isEmpty()) {
+      if (fetchedVariables == null) {
+        fetchedVariables = new HashMap<String, T>();
+      }
+
+      for (String variableName : missingVariableNames) {
+        fetchedVariables.put(variableName, null);
+      }
+      for (T variable : variablesProvider.provideVariables(missingVariableNames)) {
+        fetchedVariables.put(variable.getName(), variable);
+      }
+    }
+  }
+
+  protected boolean isFetched(String variableName) {
+    return !isInitialized() && fetchedVariables != null && fetchedVariables.containsKey(variableName);
+  }
+
   public T removeVariable(String variableName) {
 
     if (!getVariablesMap().containsKey(variableName)) {
@@ -175,6 +225,11 @@ public class VariableStore<T extends CoreVariableInstance> {
 
     Collection<T> provideVariables();
 
+    /**
+     * @return the variables with the given names
+     */
+    Collection<T> provideVariables(Collection<String> variableNames);
+
   }
 
 }
@@ -13,6 +13,9 @@
 
 package org.camunda.bpm.engine.impl.db;
 
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
 import org.camunda.bpm.engine.impl.cfg.IdGenerator;
 import org.camunda.bpm.engine.impl.cmd.GetNextIdBlockCmd;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
@@ -29,23 +32,41 @@ public class DbIdGenerator implements IdGenerator {
 
   protected CommandExecutor commandExecutor;
 
+  /**
+   * A lock is used instead of a monitor since fetching a new block blocks on the database,
+   * which would pin the carrier of a virtual thread.
+   */
+  protected final Lock lock = new ReentrantLock();
+
   public DbIdGenerator() {
     reset();
   }
 
-  public synchronized String getNextId() {
-    if (lastId<nextId) {
-      getNewBlock();
+  public String getNextId() {
+    lock.lock();
+    try {
+      if (lastId<nextId) {
+        getNewBlock();
+      }
+      long _nextId = nextId++;
+      return Long.toString(_nextId);
+    }
+    finally {
+      lock.unlock();
     }
-    long _nextId = nextId++;
-    return Long.toString(_nextId);
   }
 
-  protected synchronized void getNewBlock() {
-    // TODO http://jira.codehaus.org/browse/ACT-45 use a separate 'requiresNew' command executor
-    IdBlock idBlock = commandExecutor.execute(new GetNextIdBlockCmd(idBlockSize));
-    this.nextId = idBlock.getNextId();
-    this.lastId = idBlock.getLastId();
+  protected void getNewBlock() {
+    lock.lock();
+    try {
+      // TODO http://jira.codehaus.org/browse/ACT-45 use a separate 'requiresNew' command executor
+      IdBlock idBlock = commandExecutor.execute(new GetNextIdBlockCmd(idBlockSize));
+      this.nextId = idBlock.getNextId();
+      this.lastId = idBlock.getLastId();
+    }
+    finally {
+      lock.unlock();
+    }
   }
 
   public int getIdBlockSize() {
@@ -612,5 +612,22 @@ public class EnginePersistenceLogger extends ProcessEngineLogger {
         ));
   }
 
+  public void warmingUpDeploymentCache(int processDefinitionCount) {
+    logInfo(
+        "078", "Warming up deployment cache with {} process definitions", processDefinitionCount);
+  }
+
+  public void exceptionWhileWarmingUpDeploymentCache(String processDefinitionId, Exception e) {
+    logWarn(
+        "079", "Exception while loading process definition '{}' into the deployment cache: {}", processDefinitionId, e.getMessage(), e);
+  }
+
+  public ProcessEngineException untrackedEntityChangeException(DbEntity entity, Object persistentStateBefore) {
+    return new ProcessEngineException(exceptionMessage(
+        "080",
+        "Entity {} has changed without changing its change stamp. Persistent state before: {}, after: {}",
+        entity, persistentStateBefore, entity.getPersistentState()
+        ));
+  }
 
 }
@@ -0,0 +1,31 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db;
+
+/**
+ * Entities which track changes of their persistent state themselves can implement this interface.
+ *
+ * <p>If {@link org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl#isDbEntityChangeTrackingEnabled()}
+ * is set, the entity cache compares the change stamp of such an entity to the change stamp taken
+ * when the entity was loaded or flushed, instead of comparing the {@link DbEntity#getPersistentState() persistent state}.
+ * The entity must therefore change its stamp whenever a property of its persistent state changes.</p>
+ */
+public interface HasDbChangeStamp {
+
+  /**
+   * @return a value which changes whenever the persistent state of the entity changes.
+   *   It may also change if the persistent state was changed and changed back.
+   */
+  long getDbChangeStamp();
+
+}
@@ -56,6 +56,7 @@ import org.camunda.bpm.engine.impl.db.PersistenceSession;
 import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
 import org.camunda.bpm.engine.impl.db.entitymanager.cache.CachedDbEntity;
 import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCache;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCacheKeyMapping;
 import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityState;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
@@ -88,9 +89,22 @@ public class DbEntityManager implements Session, EntityLoadListener {
 
   protected PersistenceSession persistenceSession;
 
+  protected DbEntityManagerPool pool;
+
+  protected boolean isEntityCachePooled = false;
+
   public DbEntityManager(IdGenerator idGenerator, PersistenceSession persistenceSession) {
+    this(idGenerator, persistenceSession, null);
+  }
+
+  /**
+   * @param pool if not null, the entity cache and the operation manager are obtained from the pool
+   *   and released to it on {@link #close()}
+   */
+  public DbEntityManager(IdGenerator idGenerator, PersistenceSession persistenceSession, DbEntityManagerPool pool) {
     this.idGenerator = idGenerator;
     this.persistenceSession = persistenceSession;
+    this.pool = pool;
     if (persistenceSession != null) {
       this.persistenceSession.addEntityLoadListener(this);
     }
@@ -99,7 +113,12 @@ public class DbEntityManager implements Session, EntityLoadListener {
   }
 
   protected void initializeOperationManager() {
-    dbOperationManager = new DbOperationManager();
+    if (pool != null) {
+      dbOperationManager = pool.obtainOperationManager();
+    }
+    else {
+      dbOperationManager = new DbOperationManager();
+    }
   }
 
   protected void initializeEntityCache() {
@@ -119,13 +138,23 @@ public class DbEntityManager implements Session, EntityLoadListener {
 
     } else {
 
-      if (processEngineConfiguration != null) {
+      if (pool != null) {
+        DbEntityCacheKeyMapping cacheKeyMapping = processEngineConfiguration != null
+            ? processEngineConfiguration.getDbEntityCacheKeyMapping()
+            : DbEntityCacheKeyMapping.emptyMapping();
+        dbEntityCache = pool.obtainEntityCache(cacheKeyMapping);
+        isEntityCachePooled = true;
+      } else if (processEngineConfiguration != null) {
         dbEntityCache = new DbEntityCache(processEngineConfiguration.getDbEntityCacheKeyMapping());
       } else {
         dbEntityCache = new DbEntityCache();
       }
     }
 
+    dbEntityCache.setChangeTrackingEnabled(processEngineConfiguration != null
+        && processEngineConfiguration.isDbEntityChangeTrackingEnabled());
+    dbEntityCache.setChangeTrackingVerificationEnabled(processEngineConfiguration != null
+        && processEngineConfiguration.isDbEntityChangeTrackingVerificationEnabled());
   }
 
   // selects /////////////////////////////////////////////////
@@ -424,7 +453,39 @@ public class DbEntityManager implements Session, EntityLoadListener {
     performBulkOperation(entityType, statement, parameter, DELETE_BULK);
   }
 
+  /**
+   * Like {@link #update(Class, String, Object)}, but the operation is flushed after all order
+   * preserving bulk operations of the same entity type which were scheduled before.
+   */
+  public void updatePreserveOrder(Class<? extends DbEntity> entityType, String statement, Object parameter) {
+    performBulkOperationPreserveOrder(entityType, statement, parameter, UPDATE_BULK);
+  }
+
+  /**
+   * Like {@link #delete(Class, String, Object)}, but the operation is flushed after all order
+   * preserving bulk operations of the same entity type which were scheduled before.
+   */
+  public void deletePreserveOrder(Class<? extends DbEntity> entityType, String statement, Object parameter) {
+    performBulkOperationPreserveOrder(entityType, statement, parameter, DELETE_BULK);
+  }
+
   protected DbBulkOperation performBulkOperation(Class<? extends DbEntity> entityType, String statement, Object parameter, DbOperationType operationType) {
+    DbBulkOperation bulkOperation = createBulkOperation(entityType, statement, parameter, operationType);
+
+    // schedule operation
+    dbOperationManager.addOperation(bulkOperation);
+    return bulkOperation;
+  }
+
+  protected DbBulkOperation performBulkOperationPreserveOrder(Class<? extends DbEntity> entityType, String statement, Object parameter, DbOperationType operationType) {
+    DbBulkOperation bulkOperation = createBulkOperation(entityType, statement, parameter, operationType);
+
+    // schedule operation
+    dbOperationManager.addOperationPreserveOrder(bulkOperation);
+    return bulkOperation;
+  }
+
+  protected DbBulkOperation createBulkOperation(Class<? extends DbEntity> entityType, String statement, Object parameter, DbOperationType operationType) {
     // create operation
     DbBulkOperation bulkOperation = new DbBulkOperation();
 
@@ -433,14 +494,11 @@ public class DbEntityManager implements Session, EntityLoadListener {
     bulkOperation.setEntityType(entityType);
     bulkOperation.setStatement(statement);
     bulkOperation.setParameter(parameter);
-
-    // schedule operation
-    dbOperationManager.addOperation(bulkOperation);
     return bulkOperation;
   }
 
   protected void performEntityOperation(CachedDbEntity cachedDbEntity, DbOperationType type) {
-    DbEntityOperation dbOperation = new DbEntityOperation();
+    DbEntityOperation dbOperation = dbOperationManager.createEntityOperation();
     dbOperation.setEntity(cachedDbEntity.getEntity());
     dbOperation.setFlushRelevantEntityReferences(cachedDbEntity.getFlushRelevantEntityReferences());
     dbOperation.setOperationType(type);
@@ -448,7 +506,16 @@ public class DbEntityManager implements Session, EntityLoadListener {
   }
 
   public void close() {
-
+    if (pool != null) {
+      // the structures are reused by the next entity manager; they must not be used by this one anymore
+      if (isEntityCachePooled) {
+        pool.releaseEntityCache(dbEntityCache);
+        dbEntityCache = null;
+      }
+      pool.releaseOperationManager(dbOperationManager);
+      dbOperationManager = null;
+      pool = null;
+    }
   }
 
   public boolean isDeleted(DbEntity object) {
@@ -14,6 +14,7 @@
 package org.camunda.bpm.engine.impl.db.entitymanager;
 
 import org.camunda.bpm.engine.impl.cfg.IdGenerator;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.PersistenceSession;
 import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
@@ -25,6 +26,8 @@ public class DbEntityManagerFactory implements SessionFactory {
 
   protected IdGenerator idGenerator;
 
+  protected DbEntityManagerPool pool = new DbEntityManagerPool();
+
   public DbEntityManagerFactory(IdGenerator idGenerator) {
     this.idGenerator = idGenerator;
   }
@@ -35,7 +38,20 @@ public class DbEntityManagerFactory implements SessionFactory {
 
   public DbEntityManager openSession() {
     PersistenceSession persistenceSession = Context.getCommandContext().getSession(PersistenceSession.class);
-    return new DbEntityManager(idGenerator, persistenceSession);
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    if (processEngineConfiguration != null && processEngineConfiguration.isDbEntityManagerPoolingEnabled()) {
+      return new DbEntityManager(idGenerator, persistenceSession, pool);
+    }
+    else {
+      return new DbEntityManager(idGenerator, persistenceSession);
+    }
+  }
+
+  /**
+   * Discards the pooled entity manager structures of all threads.
+   */
+  public void close() {
+    pool.close();
   }
 
 }
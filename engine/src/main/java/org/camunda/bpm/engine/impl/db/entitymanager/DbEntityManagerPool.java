@@ -0,0 +1,133 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.entitymanager;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCache;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCacheKeyMapping;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationManager;
+
+/**
+ * Keeps the entity caches and operation managers of closed {@link DbEntityManager}s
+ * for reuse by the next entity manager opened on the same thread.
+ *
+ * <p>The structures are kept per thread. Nested commands on one thread each obtain their own
+ * structures; at most {@link #MAX_POOLED_PER_THREAD} structures of each kind are kept per thread.
+ * The per thread deques are only accessed by their thread, except by {@link #close()},
+ * so the synchronization on them is uncontended.</p>
+ *
+ * <p>The pool must be {@link #close() closed} when the process engine is closed. Otherwise the
+ * threads which executed commands, e.g. the threads of an application server, keep the pooled
+ * structures and with them the classes of the process engine.</p>
+ */
+public class DbEntityManagerPool {
+
+  public static final int MAX_POOLED_PER_THREAD = 4;
+
+  protected volatile boolean isClosed = false;
+
+  /** the deques of all live threads, so that they can be cleared on close */
+  protected Set<Deque<?>> threadDeques = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<Deque<?>, Boolean>()));
+
+  protected ThreadLocal<Deque<DbEntityCache>> entityCaches = new ThreadLocal<Deque<DbEntityCache>>() {
+    protected Deque<DbEntityCache> initialValue() {
+      return registerDeque(new ArrayDeque<DbEntityCache>());
+    }
+  };
+
+  protected ThreadLocal<Deque<DbOperationManager>> operationManagers = new ThreadLocal<Deque<DbOperationManager>>() {
+    protected Deque<DbOperationManager> initialValue() {
+      return registerDeque(new ArrayDeque<DbOperationManager>());
+    }
+  };
+
+  protected <T> Deque<T> registerDeque(Deque<T> deque) {
+    threadDeques.add(deque);
+    return deque;
+  }
+
+  public DbEntityCache obtainEntityCache(DbEntityCacheKeyMapping cacheKeyMapping) {
+    DbEntityCache entityCache = poll(entityCaches.get());
+    if (entityCache == null) {
+      entityCache = new DbEntityCache(cacheKeyMapping);
+    }
+    return entityCache;
+  }
+
+  /**
+   * Recycles the given entity cache and keeps it for reuse.
+   */
+  public void releaseEntityCache(DbEntityCache entityCache) {
+    entityCache.recycle();
+    offer(entityCaches.get(), entityCache);
+  }
+
+  public DbOperationManager obtainOperationManager() {
+    DbOperationManager operationManager = poll(operationManagers.get());
+    if (operationManager == null) {
+      operationManager = new DbOperationManager();
+      operationManager.setPooled(true);
+    }
+    return operationManager;
+  }
+
+  /**
+   * Recycles the given operation manager and keeps it for reuse.
+   */
+  public void releaseOperationManager(DbOperationManager operationManager) {
+    operationManager.recycle();
+    offer(operationManagers.get(), operationManager);
+  }
+
+  /**
+   * Discards the pooled structures of all threads. Structures released afterwards are not kept.
+   */
+  public void close() {
+    isClosed = true;
+
+    synchronized (threadDeques) {
+      for (Deque<?> deque : threadDeques) {
+        synchronized (deque) {
+          deque.clear();
+        }
+      }
+      threadDeques.clear();
+    }
+
+    entityCaches.remove();
+    operationManagers.remove();
+  }
+
+  protected <T> T poll(Deque<T> deque) {
+    synchronized (deque) {
+      return deque.pollFirst();
+    }
+  }
+
+  protected <T> void offer(Deque<T> deque, T element) {
+    if (isClosed) {
+      return;
+    }
+    synchronized (deque) {
+      if (deque.size() < MAX_POOLED_PER_THREAD) {
+        deque.addFirst(element);
+      }
+    }
+  }
+
+}
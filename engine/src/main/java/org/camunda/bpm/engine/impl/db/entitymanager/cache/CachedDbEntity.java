@@ -15,7 +15,10 @@ package org.camunda.bpm.engine.impl.db.entitymanager.cache;
 import java.util.Collections;
 import java.util.Set;
 
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.db.HasDbChangeStamp;
 import org.camunda.bpm.engine.impl.db.HasDbReferences;
 import org.camunda.bpm.engine.impl.db.entitymanager.Recyclable;
 
@@ -27,12 +30,30 @@ import org.camunda.bpm.engine.impl.db.entitymanager.Recyclable;
  */
 public class CachedDbEntity implements Recyclable {
 
+  protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
   protected DbEntity dbEntity;
 
   protected Object copy;
 
   protected DbEntityState entityState;
 
+  /**
+   * Whether changes are detected by the {@link HasDbChangeStamp change stamp} of the entity
+   * instead of a copy of its persistent state
+   */
+  protected boolean isChangeTracked;
+
+  protected long changeStamp;
+
+  protected boolean isForcedDirty;
+
+  /**
+   * Whether a copy of the persistent state is kept for change tracked entities as well,
+   * so that changes which are missed by the change stamp are detected
+   */
+  protected boolean isChangeTrackingVerified;
+
   /**
    * Ids of referenced entities of the same entity type
    */
@@ -43,6 +64,10 @@ public class CachedDbEntity implements Recyclable {
     dbEntity = null;
     copy = null;
     entityState = null;
+    flushRelevantEntityReferences = null;
+    isChangeTracked = false;
+    isForcedDirty = false;
+    isChangeTrackingVerified = false;
   }
 
   /**
@@ -50,16 +75,35 @@ public class CachedDbEntity implements Recyclable {
    * @return true if the entity is dirty (state has changed since it was put into the cache)
    */
   public boolean isDirty() {
-    return !dbEntity.getPersistentState().equals(copy);
+    if (isChangeTracked) {
+      boolean isDirty = isForcedDirty || changeStamp != ((HasDbChangeStamp) dbEntity).getDbChangeStamp();
+      if (!isDirty && isChangeTrackingVerified && !dbEntity.getPersistentState().equals(copy)) {
+        throw LOG.untrackedEntityChangeException(dbEntity, copy);
+      }
+      return isDirty;
+    }
+    else {
+      return !dbEntity.getPersistentState().equals(copy);
+    }
   }
 
   public void forceSetDirty() {
     // set the value of the copy to some value which will always be different from the new entity state.
     this.copy = -1;
+    this.isForcedDirty = true;
   }
 
   public void makeCopy() {
-    copy = dbEntity.getPersistentState();
+    if (isChangeTracked) {
+      changeStamp = ((HasDbChangeStamp) dbEntity).getDbChangeStamp();
+      isForcedDirty = false;
+      if (isChangeTrackingVerified) {
+        copy = dbEntity.getPersistentState();
+      }
+    }
+    else {
+      copy = dbEntity.getPersistentState();
+    }
   }
 
   public String toString() {
@@ -93,6 +137,30 @@ public class CachedDbEntity implements Recyclable {
     this.dbEntity = dbEntity;
   }
 
+  public boolean isChangeTracked() {
+    return isChangeTracked;
+  }
+
+  /**
+   * @param isChangeTracked whether changes should be detected by the {@link HasDbChangeStamp change stamp}
+   *   of the entity. Must only be set for entities implementing {@link HasDbChangeStamp}.
+   */
+  public void setChangeTracked(boolean isChangeTracked) {
+    this.isChangeTracked = isChangeTracked;
+  }
+
+  public boolean isChangeTrackingVerified() {
+    return isChangeTrackingVerified;
+  }
+
+  /**
+   * @param isChangeTrackingVerified whether a change of the persistent state of a change tracked entity
+   *   which is not reflected by its change stamp causes {@link #isDirty()} to fail
+   */
+  public void setChangeTrackingVerified(boolean isChangeTrackingVerified) {
+    this.isChangeTrackingVerified = isChangeTrackingVerified;
+  }
+
   public DbEntityState getEntityState() {
     return entityState;
   }
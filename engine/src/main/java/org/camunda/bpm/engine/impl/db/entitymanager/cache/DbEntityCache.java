@@ -19,9 +19,12 @@ import static org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityState.M
 import static org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityState.PERSISTENT;
 import static org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityState.TRANSIENT;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -29,15 +32,21 @@ import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.db.HasDbChangeStamp;
+import org.camunda.bpm.engine.impl.db.entitymanager.Recyclable;
 
 
 /**
  * A simple first level cache for {@link DbEntity Entities}.
  *
+ * <p>The cache can be {@link #recycle() recycled} to serve another command. Recycling keeps the
+ * maps of the entity types and the {@link CachedDbEntity} instances, so that a recycled
+ * cache hardly allocates for commands which touch a similar set of entities.</p>
+ *
  * @author Daniel Meyer
  *
  */
-public class DbEntityCache {
+public class DbEntityCache implements Recyclable {
 
   protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
 
@@ -55,6 +64,29 @@ public class DbEntityCache {
 
   protected DbEntityCacheKeyMapping cacheKeyMapping;
 
+  /**
+   * The maximum number of recycled {@link CachedDbEntity} instances kept for reuse.
+   */
+  public static final int MAX_RECYCLED_ENTITIES = 1024;
+
+  /**
+   * Maps of an entity type which held more entities are dropped on recycling
+   * instead of being cleared, so that a large command does not leave a large map behind.
+   */
+  public static final int MAX_RETAINED_ENTITIES_PER_TYPE = 1024;
+
+  protected Deque<CachedDbEntity> recycledEntities = new ArrayDeque<CachedDbEntity>();
+
+  /**
+   * Whether entities implementing {@link HasDbChangeStamp} are checked for changes by their change stamp
+   */
+  protected boolean isChangeTrackingEnabled = false;
+
+  /**
+   * Whether changes of change tracked entities which are missed by their change stamp cause a failure
+   */
+  protected boolean isChangeTrackingVerificationEnabled = false;
+
   public DbEntityCache() {
     this.cacheKeyMapping = DbEntityCacheKeyMapping.emptyMapping();
   }
@@ -144,8 +176,7 @@ public class DbEntityCache {
    * @param e the object to put into the cache
    */
   public void putTransient(DbEntity e) {
-    CachedDbEntity cachedDbEntity = new CachedDbEntity();
-    cachedDbEntity.setEntity(e);
+    CachedDbEntity cachedDbEntity = createCachedEntity(e);
     cachedDbEntity.setEntityState(TRANSIENT);
     putInternal(cachedDbEntity);
   }
@@ -156,8 +187,7 @@ public class DbEntityCache {
    * @param e the object to put into the cache
    */
   public void putPersistent(DbEntity e) {
-    CachedDbEntity cachedDbEntity = new CachedDbEntity();
-    cachedDbEntity.setEntity(e);
+    CachedDbEntity cachedDbEntity = createCachedEntity(e);
     cachedDbEntity.setEntityState(PERSISTENT);
     cachedDbEntity.determineEntityReferences();
     cachedDbEntity.makeCopy();
@@ -171,8 +201,7 @@ public class DbEntityCache {
    * @param e the object to put into the cache
    */
   public void putMerged(DbEntity e) {
-    CachedDbEntity cachedDbEntity = new CachedDbEntity();
-    cachedDbEntity.setEntity(e);
+    CachedDbEntity cachedDbEntity = createCachedEntity(e);
     cachedDbEntity.setEntityState(MERGED);
     cachedDbEntity.determineEntityReferences();
     // no copy required
@@ -180,6 +209,22 @@ public class DbEntityCache {
     putInternal(cachedDbEntity);
   }
 
+  protected CachedDbEntity createCachedEntity() {
+    CachedDbEntity cachedDbEntity = recycledEntities.pollFirst();
+    if (cachedDbEntity == null) {
+      cachedDbEntity = new CachedDbEntity();
+    }
+    return cachedDbEntity;
+  }
+
+  protected CachedDbEntity createCachedEntity(DbEntity dbEntity) {
+    CachedDbEntity cachedDbEntity = createCachedEntity();
+    cachedDbEntity.setEntity(dbEntity);
+    cachedDbEntity.setChangeTracked(isChangeTrackingEnabled && dbEntity instanceof HasDbChangeStamp);
+    cachedDbEntity.setChangeTrackingVerified(isChangeTrackingVerificationEnabled);
+    return cachedDbEntity;
+  }
+
   protected void putInternal(CachedDbEntity entityToAdd) {
     Class<? extends DbEntity> type = entityToAdd.getEntity().getClass();
     Class<?> cacheKey = cacheKeyMapping.getEntityCacheKey(type);
@@ -365,12 +410,59 @@ public class DbEntityCache {
       }
     } else {
       // put a deleted merged into the cache
-      CachedDbEntity cachedDbEntity = new CachedDbEntity();
-      cachedDbEntity.setEntity(dbEntity);
+      CachedDbEntity cachedDbEntity = createCachedEntity(dbEntity);
       cachedDbEntity.setEntityState(DELETED_MERGED);
       putInternal(cachedDbEntity);
 
     }
   }
 
+  public boolean isChangeTrackingEnabled() {
+    return isChangeTrackingEnabled;
+  }
+
+  /**
+   * Sets whether entities implementing {@link HasDbChangeStamp} are checked for changes by their
+   * change stamp instead of a copy of their persistent state. Applies to entities put into the cache afterwards.
+   */
+  public void setChangeTrackingEnabled(boolean isChangeTrackingEnabled) {
+    this.isChangeTrackingEnabled = isChangeTrackingEnabled;
+  }
+
+  public boolean isChangeTrackingVerificationEnabled() {
+    return isChangeTrackingVerificationEnabled;
+  }
+
+  /**
+   * Sets whether the persistent state of change tracked entities is copied as well, so that a change
+   * which is missed by the change stamp of an entity fails the flush. Applies to entities put into the cache afterwards.
+   */
+  public void setChangeTrackingVerificationEnabled(boolean isChangeTrackingVerificationEnabled) {
+    this.isChangeTrackingVerificationEnabled = isChangeTrackingVerificationEnabled;
+  }
+
+  /**
+   * Removes all entities from the cache. The cache can be used by another command afterwards.
+   * Entities which were obtained from this cache before must not be used with it anymore.
+   */
+  public void recycle() {
+    Iterator<Map<String, CachedDbEntity>> typeCaches = cachedEntites.values().iterator();
+    while (typeCaches.hasNext()) {
+      Map<String, CachedDbEntity> typeCache = typeCaches.next();
+      for (CachedDbEntity cachedDbEntity : typeCache.values()) {
+        if (recycledEntities.size() < MAX_RECYCLED_ENTITIES) {
+          cachedDbEntity.recycle();
+          recycledEntities.addFirst(cachedDbEntity);
+        }
+      }
+
+      if (typeCache.size() > MAX_RETAINED_ENTITIES_PER_TYPE) {
+        typeCaches.remove();
+      }
+      else {
+        typeCache.clear();
+      }
+    }
+  }
+
 }
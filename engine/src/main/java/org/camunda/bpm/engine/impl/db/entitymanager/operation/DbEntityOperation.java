@@ -39,6 +39,8 @@ public class DbEntityOperation extends DbOperation {
 
   public void recycle() {
     entity = null;
+    flushRelevantEntityReferences = null;
+    failed = false;
     super.recycle();
   }
 
@@ -15,9 +15,14 @@ package org.camunda.bpm.engine.impl.db.entitymanager.operation;
 import static org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType.DELETE;
 import static org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType.INSERT;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedMap;
@@ -27,6 +32,7 @@ import java.util.TreeSet;
 
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.HasDbReferences;
+import org.camunda.bpm.engine.impl.db.entitymanager.Recyclable;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.comparator.DbBulkOperationComparator;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.comparator.DbEntityOperationComparator;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.comparator.EntityTypeComparatorForInserts;
@@ -35,10 +41,14 @@ import org.camunda.bpm.engine.impl.db.entitymanager.operation.comparator.EntityT
 /**
  * Manages a set of {@link DbOperation database operations}.
  *
+ * <p>The manager can be {@link #recycle() recycled} to serve another command. Recycling keeps
+ * the sorted sets of the entity types and, if the manager is {@link #setPooled(boolean) pooled},
+ * the {@link DbEntityOperation} instances created by {@link #createEntityOperation()}.</p>
+ *
  * @author Daniel Meyer
  *
  */
-public class DbOperationManager {
+public class DbOperationManager implements Recyclable {
 
   // comparators ////////////////
 
@@ -62,6 +72,42 @@ public class DbOperationManager {
   /** bulk modifications (DELETE, UPDATE) on an entity collection */
   public SortedMap<Class<?>, SortedSet<DbBulkOperation>> bulkOperations = new TreeMap<Class<?>, SortedSet<DbBulkOperation>>(MODIFICATION_TYPE_COMPARATOR);
 
+  /** bulk modifications (DELETE, UPDATE) on an entity collection which are flushed in the order they were added */
+  public Map<Class<?>, List<DbBulkOperation>> bulkOperationsInsertionOrder = new HashMap<Class<?>, List<DbBulkOperation>>();
+
+  /**
+   * The maximum number of recycled entity operations kept for reuse.
+   */
+  public static final int MAX_RECYCLED_OPERATIONS = 1024;
+
+  /**
+   * Entity types whose operations exceeded this number are dropped on recycling
+   * instead of being cleared.
+   */
+  public static final int MAX_RETAINED_OPERATIONS_PER_TYPE = 1024;
+
+  /** if true, the created entity operations are kept for reuse after recycling */
+  protected boolean isPooled = false;
+
+  protected Deque<DbEntityOperation> recycledOperations = new ArrayDeque<DbEntityOperation>();
+  protected List<DbEntityOperation> createdOperations = new ArrayList<DbEntityOperation>();
+
+  protected SortedSet<Class<?>> modifiedEntityTypes = new TreeSet<Class<?>>(MODIFICATION_TYPE_COMPARATOR);
+
+  /**
+   * @return a new entity operation, which is recycled together with this manager if it is pooled
+   */
+  public DbEntityOperation createEntityOperation() {
+    DbEntityOperation operation = recycledOperations.pollFirst();
+    if (operation == null) {
+      operation = new DbEntityOperation();
+    }
+    if (isPooled) {
+      createdOperations.add(operation);
+    }
+    return operation;
+  }
+
   public boolean addOperation(DbEntityOperation newOperation) {
     if(newOperation.getOperationType() == INSERT) {
       return getInsertsForType(newOperation.getEntityType(), true)
@@ -115,6 +161,20 @@ public class DbOperationManager {
     return bulksByType.add(newOperation);
   }
 
+  /**
+   * Adds a bulk operation which is flushed after all bulk operations of the same entity type
+   * that were added before, regardless of its statement name.
+   */
+  public void addOperationPreserveOrder(DbBulkOperation newOperation) {
+    List<DbBulkOperation> bulksByType = bulkOperationsInsertionOrder.get(newOperation.getEntityType());
+    if(bulksByType == null) {
+      bulksByType = new ArrayList<DbBulkOperation>();
+      bulkOperationsInsertionOrder.put(newOperation.getEntityType(), bulksByType);
+    }
+
+    bulksByType.add(newOperation);
+  }
+
   public List<DbOperation> calculateFlush() {
     List<DbOperation> flush = new ArrayList<DbOperation>();
     // first INSERTs
@@ -130,7 +190,11 @@ public class DbOperationManager {
     for (Entry<Class<?>, SortedSet<DbEntityOperation>> operationsForType : inserts.entrySet()) {
 
       // add inserts to flush
-      if(HasDbReferences.class.isAssignableFrom(operationsForType.getKey())) {
+      if(operationsForType.getValue().isEmpty()) {
+        // sets of recycled managers are kept empty
+        continue;
+      }
+      else if(HasDbReferences.class.isAssignableFrom(operationsForType.getKey())) {
         // if this type has self references, we need to resolve the reference order
         flush.addAll(sortByReferences(operationsForType.getValue()));
       } else {
@@ -144,10 +208,11 @@ public class DbOperationManager {
   protected void addSortedModifications(List<DbOperation> flush) {
 
     // calculate sorted set of all modified entity types
-    SortedSet<Class<?>> modifiedEntityTypes = new TreeSet<Class<?>>(MODIFICATION_TYPE_COMPARATOR);
+    modifiedEntityTypes.clear();
     modifiedEntityTypes.addAll(updates.keySet());
     modifiedEntityTypes.addAll(deletes.keySet());
     modifiedEntityTypes.addAll(bulkOperations.keySet());
+    modifiedEntityTypes.addAll(bulkOperationsInsertionOrder.keySet());
 
     for (Class<?> type : modifiedEntityTypes) {
       // first perform entity UPDATES
@@ -159,12 +224,18 @@ public class DbOperationManager {
       if(bulkOperationsForType != null) {
         flush.addAll(bulkOperationsForType);
       }
+      // and finally the bulk operations which depend on their order
+      List<DbBulkOperation> bulkOperationsInInsertionOrder = bulkOperationsInsertionOrder.get(type);
+      if(bulkOperationsInInsertionOrder != null) {
+        flush.addAll(bulkOperationsInInsertionOrder);
+      }
 
     }
+    modifiedEntityTypes.clear();
   }
 
   protected void addSortedModificationsForType(Class<?> type, SortedSet<DbEntityOperation> preSortedOperations, List<DbOperation> flush) {
-    if(preSortedOperations != null) {
+    if(preSortedOperations != null && !preSortedOperations.isEmpty()) {
       if(HasDbReferences.class.isAssignableFrom(type)) {
         // if this type has self references, we need to resolve the reference order
         flush.addAll(sortByReferences(preSortedOperations));
@@ -227,4 +298,51 @@ public class DbOperationManager {
 
     return opList;
   }
+
+  /**
+   * Removes all operations. The manager can be used by another command afterwards.
+   * Operations obtained from {@link #createEntityOperation()} must not be used anymore.
+   */
+  public void recycle() {
+    clearOperations(inserts);
+    clearOperations(updates);
+    clearOperations(deletes);
+    clearOperations(bulkOperations);
+    bulkOperationsInsertionOrder.clear();
+
+    for (DbEntityOperation operation : createdOperations) {
+      if (recycledOperations.size() < MAX_RECYCLED_OPERATIONS) {
+        operation.recycle();
+        recycledOperations.addFirst(operation);
+      }
+    }
+
+    if (createdOperations.size() > MAX_RECYCLED_OPERATIONS) {
+      createdOperations = new ArrayList<DbEntityOperation>();
+    }
+    else {
+      createdOperations.clear();
+    }
+  }
+
+  public boolean isPooled() {
+    return isPooled;
+  }
+
+  public void setPooled(boolean isPooled) {
+    this.isPooled = isPooled;
+  }
+
+  protected <T extends DbOperation> void clearOperations(SortedMap<Class<?>, SortedSet<T>> operationsByType) {
+    Iterator<SortedSet<T>> operationSets = operationsByType.values().iterator();
+    while (operationSets.hasNext()) {
+      SortedSet<T> operations = operationSets.next();
+      if (operations.size() > MAX_RETAINED_OPERATIONS_PER_TYPE) {
+        operationSets.remove();
+      }
+      else {
+        operations.clear();
+      }
+    }
+  }
 }
@@ -13,6 +13,12 @@
 
 package org.camunda.bpm.engine.impl.el;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.camunda.bpm.engine.ProcessEngineException;
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureInstanceOf;
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
@@ -20,7 +26,13 @@ import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.VariableScope;
 import org.camunda.bpm.engine.impl.Condition;
+import org.camunda.bpm.engine.impl.core.variable.scope.AbstractVariableScope;
 import org.camunda.bpm.engine.impl.javax.el.PropertyNotFoundException;
+import org.camunda.bpm.engine.impl.juel.Builder;
+import org.camunda.bpm.engine.impl.juel.Builder.Feature;
+import org.camunda.bpm.engine.impl.juel.IdentifierNode;
+import org.camunda.bpm.engine.impl.juel.Tree;
+import org.camunda.bpm.engine.impl.juel.TreeBuilderException;
 
 
 /**
@@ -31,10 +43,48 @@ import org.camunda.bpm.engine.impl.javax.el.PropertyNotFoundException;
  */
 public class UelExpressionCondition implements Condition {
 
+  /** the identifiers of the expression which are not resolved as variables */
+  protected static final Set<String> RESERVED_IDENTIFIERS = new HashSet<String>(Arrays.asList(
+      VariableScopeElResolver.EXECUTION_KEY,
+      VariableScopeElResolver.CASE_EXECUTION_KEY,
+      VariableScopeElResolver.TASK_KEY,
+      VariableScopeElResolver.LOGGED_IN_USER_KEY));
+
   protected Expression expression;
 
+  /** the variables the expression may reference, <code>null</code> if unknown */
+  protected List<String> variableNames;
+
   public UelExpressionCondition(Expression expression) {
     this.expression = expression;
+    if (expression != null) {
+      this.variableNames = parseVariableNames(expression.getExpressionText());
+    }
+  }
+
+  /**
+   * @return the identifiers of the expression which can be resolved as variables,
+   * or <code>null</code> if the expression cannot be parsed
+   */
+  protected static List<String> parseVariableNames(String expressionText) {
+    if (expressionText == null) {
+      return null;
+    }
+
+    try {
+      Tree tree = new Builder(Feature.METHOD_INVOCATIONS, Feature.VARARGS).build(expressionText);
+
+      List<String> variableNames = new ArrayList<String>();
+      for (IdentifierNode identifier : tree.getIdentifierNodes()) {
+        if (!RESERVED_IDENTIFIERS.contains(identifier.getName()) && !variableNames.contains(identifier.getName())) {
+          variableNames.add(identifier.getName());
+        }
+      }
+      return variableNames;
+    }
+    catch (TreeBuilderException e) {
+      return null;
+    }
   }
 
   @Override
@@ -44,6 +94,8 @@ public class UelExpressionCondition implements Condition {
 
   @Override
   public boolean evaluate(VariableScope scope, DelegateExecution execution) {
+    fetchVariables(scope);
+
     Object result = expression.getValue(scope, execution);
     ensureNotNull("condition expression returns null", "result", result);
     ensureInstanceOf("condition expression returns non-Boolean", "result", result, Boolean.class);
@@ -52,6 +104,8 @@ public class UelExpressionCondition implements Condition {
 
   @Override
   public boolean tryEvaluate(VariableScope scope, DelegateExecution execution) {
+    fetchVariables(scope);
+
     boolean result = false;
     try {
       result = evaluate(scope, execution);
@@ -62,4 +116,15 @@ public class UelExpressionCondition implements Condition {
     }
     return result;
   }
+
+  /**
+   * Fetches the variables referenced by the expression by name, so that evaluating the condition
+   * does not load all variables of the scope hierarchy.
+   */
+  protected void fetchVariables(VariableScope scope) {
+    if (variableNames != null && scope instanceof AbstractVariableScope) {
+      ((AbstractVariableScope) scope).fetchVariables(variableNames);
+    }
+  }
+
 }
@@ -0,0 +1,236 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.el;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.VariableScope;
+import org.camunda.bpm.engine.variable.value.TypedValue;
+
+/**
+ * {@link UelExpressionCondition} for a condition which compares a variable with a literal,
+ * e.g. <code>${amount > 1000}</code>, <code>${status == 'open'}</code> or <code>${approved}</code>.
+ *
+ * <p>The comparison is analyzed once when the condition is parsed and evaluated directly against the
+ * variable scope. It follows the coercion rules of the expression language for operands of the same kind
+ * (two numbers, two strings or two booleans). If the variable does not exist or holds a value of another kind,
+ * the expression is evaluated by the expression language instead.</p>
+ *
+ * @see #createCondition(String, Expression)
+ */
+public class VariableComparisonCondition extends UelExpressionCondition {
+
+  protected static final String IDENTIFIER = "([a-zA-Z_$][a-zA-Z0-9_$]*)";
+  protected static final String LITERAL = "(-?[0-9]{1,18}|-?[0-9]+\\.[0-9]+|'[^'\\\\]*'|\"[^\"\\\\]*\"|true|false)";
+  protected static final String OPERATOR = "(==|!=|<=|>=|<|>|eq|ne|le|ge|lt|gt)";
+
+  protected static final Pattern BOOLEAN_VARIABLE_PATTERN =
+      Pattern.compile("^[$#]\\{\\s*(!|not\\s+)?\\s*" + IDENTIFIER + "\\s*\\}$");
+  protected static final Pattern COMPARISON_PATTERN =
+      Pattern.compile("^[$#]\\{\\s*" + IDENTIFIER + "\\s*" + OPERATOR + "\\s*" + LITERAL + "\\s*\\}$");
+
+  /** identifiers which are not resolved as variables */
+  protected static final Set<String> RESERVED_IDENTIFIERS = new HashSet<String>(Arrays.asList(
+      "and", "or", "not", "eq", "ne", "lt", "gt", "le", "ge", "true", "false", "null", "empty", "div", "mod", "instanceof",
+      VariableScopeElResolver.EXECUTION_KEY,
+      VariableScopeElResolver.CASE_EXECUTION_KEY,
+      VariableScopeElResolver.TASK_KEY,
+      VariableScopeElResolver.LOGGED_IN_USER_KEY));
+
+  public enum Operator {
+    EQ, NE, LT, GT, LE, GE;
+
+    public static Operator parse(String operator) {
+      if ("==".equals(operator) || "eq".equals(operator)) {
+        return EQ;
+      } else if ("!=".equals(operator) || "ne".equals(operator)) {
+        return NE;
+      } else if ("<".equals(operator) || "lt".equals(operator)) {
+        return LT;
+      } else if (">".equals(operator) || "gt".equals(operator)) {
+        return GT;
+      } else if ("<=".equals(operator) || "le".equals(operator)) {
+        return LE;
+      } else {
+        return GE;
+      }
+    }
+  }
+
+  protected String variableName;
+  protected Operator operator;
+  protected Object literal;
+
+  /**
+   * @param variableName the name of the variable to compare
+   * @param operator the operator, {@link Operator#EQ} with the literal <code>true</code> tests a boolean variable
+   * @param literal a {@link Long}, {@link Double}, {@link String} or {@link Boolean}
+   * @param expression the expression to evaluate if the comparison cannot be evaluated directly
+   */
+  public VariableComparisonCondition(String variableName, Operator operator, Object literal, Expression expression) {
+    super(expression);
+    this.variableName = variableName;
+    this.operator = operator;
+    this.literal = literal;
+  }
+
+  /**
+   * @return a {@link VariableComparisonCondition} if the expression text is a simple comparison of a variable
+   * with a literal, a {@link UelExpressionCondition} otherwise
+   */
+  public static UelExpressionCondition createCondition(String expressionText, Expression expression) {
+    String text = expressionText.trim();
+
+    Matcher matcher = BOOLEAN_VARIABLE_PATTERN.matcher(text);
+    if (matcher.matches() && !RESERVED_IDENTIFIERS.contains(matcher.group(2))) {
+      boolean negated = matcher.group(1) != null;
+      return new VariableComparisonCondition(matcher.group(2), Operator.EQ, !negated, expression);
+    }
+
+    matcher = COMPARISON_PATTERN.matcher(text);
+    if (matcher.matches() && !RESERVED_IDENTIFIERS.contains(matcher.group(1))) {
+      Operator operator = Operator.parse(matcher.group(2));
+      Object literal = parseLiteral(matcher.group(3));
+
+      // booleans can only be compared for equality
+      if (!(literal instanceof Boolean) || operator == Operator.EQ || operator == Operator.NE) {
+        return new VariableComparisonCondition(matcher.group(1), operator, literal, expression);
+      }
+    }
+
+    return new UelExpressionCondition(expression);
+  }
+
+  protected static Object parseLiteral(String literal) {
+    char first = literal.charAt(0);
+    if (first == '\'' || first == '"') {
+      return literal.substring(1, literal.length() - 1);
+    } else if ("true".equals(literal) || "false".equals(literal)) {
+      return Boolean.valueOf(literal);
+    } else if (literal.indexOf('.') >= 0) {
+      return Double.valueOf(literal);
+    } else {
+      return Long.valueOf(literal);
+    }
+  }
+
+  @Override
+  public boolean evaluate(VariableScope scope, DelegateExecution execution) {
+    Boolean result = compare(scope);
+    if (result != null) {
+      return result;
+    }
+    else {
+      return super.evaluate(scope, execution);
+    }
+  }
+
+  @Override
+  public boolean tryEvaluate(VariableScope scope, DelegateExecution execution) {
+    Boolean result = compare(scope);
+    if (result != null) {
+      return result;
+    }
+    else {
+      return super.tryEvaluate(scope, execution);
+    }
+  }
+
+  /**
+   * @return the result of the comparison or <code>null</code> if it must be evaluated by the expression language
+   */
+  protected Boolean compare(VariableScope scope) {
+    fetchVariables(scope);
+
+    TypedValue typedValue = scope.getVariableTyped(variableName, false);
+    if (typedValue == null || typedValue.getType() == null || !typedValue.getType().isPrimitiveValueType()) {
+      return null;
+    }
+
+    Object value = typedValue.getValue();
+    if (value == null) {
+      return null;
+    }
+
+    if (literal instanceof Boolean) {
+      if (value instanceof Boolean) {
+        return compare(value.equals(literal), false, false);
+      }
+    }
+    else if (literal instanceof String) {
+      if (value instanceof String) {
+        int comparison = ((String) value).compareTo((String) literal);
+        return compare(comparison == 0, comparison < 0, comparison > 0);
+      }
+    }
+    else if (isSimpleNumber(value)) {
+      if (literal instanceof Double || value instanceof Double || value instanceof Float) {
+        double left = ((Number) value).doubleValue();
+        double right = ((Number) literal).doubleValue();
+        // like the expression language, use equals() for equality and the relational operators for ordering
+        return compare(Double.valueOf(left).equals(right), left < right, left > right);
+      }
+      else {
+        long left = ((Number) value).longValue();
+        long right = ((Number) literal).longValue();
+        return compare(left == right, left < right, left > right);
+      }
+    }
+
+    return null;
+  }
+
+  protected boolean compare(boolean equal, boolean less, boolean greater) {
+    switch (operator) {
+      case EQ:
+        return equal;
+      case NE:
+        return !equal;
+      case LT:
+        return less;
+      case GT:
+        return greater;
+      case LE:
+        return !greater;
+      default:
+        return !less;
+    }
+  }
+
+  protected static boolean isSimpleNumber(Object value) {
+    return value instanceof Long
+        || value instanceof Integer
+        || value instanceof Short
+        || value instanceof Byte
+        || value instanceof Double
+        || value instanceof Float;
+  }
+
+  public String getVariableName() {
+    return variableName;
+  }
+
+  public Operator getOperator() {
+    return operator;
+  }
+
+  public Object getLiteral() {
+    return literal;
+  }
+
+}
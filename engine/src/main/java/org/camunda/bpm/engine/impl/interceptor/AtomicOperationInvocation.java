@@ -49,6 +49,29 @@ public class AtomicOperationInvocation {
     this.performAsync = performAsync;
   }
 
+  /**
+   * Releases the references of a performed invocation so that it can be reused by
+   * {@link #init(AtomicOperation, ExecutionEntity, boolean)}.
+   */
+  protected void clear() {
+    operation = null;
+    execution = null;
+    performAsync = false;
+    applicationContextName = null;
+    activityId = null;
+  }
+
+  /**
+   * Remembers the current process application for logging. Only invoked for invocations
+   * which are part of a {@link BpmnStackTrace}.
+   */
+  protected void captureApplicationContext() {
+    ProcessApplicationReference currentPa = Context.getCurrentProcessApplication();
+    if(currentPa != null) {
+      applicationContextName = currentPa.getName();
+    }
+  }
+
   public void execute(BpmnStackTrace stackTrace) {
 
     if(operation != PvmAtomicOperation.ACTIVITY_START_CANCEL_SCOPE
@@ -75,10 +98,6 @@ public class AtomicOperationInvocation {
       return;
     }
 
-    ProcessApplicationReference currentPa = Context.getCurrentProcessApplication();
-    if(currentPa != null) {
-      applicationContextName = currentPa.getName();
-    }
     activityId = execution.getActivityId();
     stackTrace.add(this);
 
@@ -20,6 +20,11 @@ import java.util.List;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 
 /**
+ * Records the atomic operations performed during a command to log a trace of them if an operation fails.
+ *
+ * <p>If the trace is not verbose, only the ids of the performed activities are recorded for every operation.
+ * The failed operation itself is added when the failure occurs, so that the invocations of successful
+ * operations are not retained and can be reused. A verbose trace records every invocation.</p>
  *
  * @author Daniel Meyer
  *
@@ -28,10 +33,23 @@ public class BpmnStackTrace {
 
   private final static ContextLogger LOG = ProcessEngineLogger.CONTEXT_LOGGER;
 
+  protected boolean verbose;
+
   protected List<AtomicOperationInvocation> perfromedInvocations = new ArrayList<AtomicOperationInvocation>();
+  protected List<String> performedActivityIds = new ArrayList<String>();
+  protected boolean empty = true;
+
+  public BpmnStackTrace() {
+    this(false);
+  }
+
+  public BpmnStackTrace(boolean verbose) {
+    this.verbose = verbose;
+  }
 
-  public void printStackTrace(boolean verbose) {
+  public void printStackTrace() {
     if(perfromedInvocations.isEmpty()) {
+      clear();
       return;
     }
 
@@ -47,7 +65,13 @@ public class BpmnStackTrace {
 
     LOG.bpmnStackTrace(writer.toString());
 
+    clear();
+  }
+
+  protected void clear() {
     perfromedInvocations.clear();
+    performedActivityIds.clear();
+    empty = true;
   }
 
   protected void logNonVerbose(StringWriter writer) {
@@ -81,22 +105,49 @@ public class BpmnStackTrace {
   }
 
   protected List<String> collectActivityTrace() {
-    List<String> activities = new ArrayList<String>();
-    for (AtomicOperationInvocation atomicOperationInvocation : perfromedInvocations) {
-      String activityId = atomicOperationInvocation.getActivityId();
-      if(activityId == null) {
-        continue;
-      }
-      if(activities.isEmpty() ||
-          !activityId.equals(activities.get(0))) {
-        activities.add(0, activityId);
-      }
-    }
+    List<String> activities = new ArrayList<String>(performedActivityIds);
+    Collections.reverse(activities);
     return activities;
   }
 
+  /**
+   * Records a performed invocation.
+   */
   public void add(AtomicOperationInvocation atomicOperationInvocation) {
-    perfromedInvocations.add(atomicOperationInvocation);
+    empty = false;
+
+    String activityId = atomicOperationInvocation.getActivityId();
+    if(activityId != null
+        && (performedActivityIds.isEmpty() || !activityId.equals(performedActivityIds.get(performedActivityIds.size() - 1)))) {
+      performedActivityIds.add(activityId);
+    }
+
+    if(verbose) {
+      atomicOperationInvocation.captureApplicationContext();
+      perfromedInvocations.add(atomicOperationInvocation);
+    }
+  }
+
+  /**
+   * Records the invocation whose operation failed. Must be invoked
+   * within the context the invocation was performed in.
+   */
+  public void addFailedInvocation(AtomicOperationInvocation atomicOperationInvocation) {
+    if(!verbose) {
+      atomicOperationInvocation.captureApplicationContext();
+      perfromedInvocations.add(atomicOperationInvocation);
+    }
+  }
+
+  /**
+   * @return true if no invocation was performed since the trace was printed last
+   */
+  public boolean isEmpty() {
+    return empty;
+  }
+
+  public boolean isVerbose() {
+    return verbose;
   }
 
   protected void writeInvocation(AtomicOperationInvocation invocation, StringWriter writer) {
@@ -87,6 +87,7 @@ import org.camunda.bpm.engine.impl.persistence.entity.TaskReportManager;
 import org.camunda.bpm.engine.impl.persistence.entity.TenantManager;
 import org.camunda.bpm.engine.impl.persistence.entity.UserOperationLogManager;
 import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceManager;
+import org.camunda.bpm.engine.impl.pvm.runtime.ActivityExecutionMappingCache;
 
 /**
  * @author Tom Baeyens
@@ -111,6 +112,8 @@ public class CommandContext {
 
   protected JobEntity currentJob = null;
 
+  protected ActivityExecutionMappingCache activityExecutionMappingCache;
+
   protected List<CommandContextListener> commandContextListeners = new LinkedList<CommandContextListener>();
 
   public CommandContext(ProcessEngineConfigurationImpl processEngineConfiguration) {
@@ -594,6 +597,13 @@ public class CommandContext {
     this.currentJob = currentJob;
   }
 
+  public ActivityExecutionMappingCache getActivityExecutionMappingCache() {
+    if (activityExecutionMappingCache == null) {
+      activityExecutionMappingCache = new ActivityExecutionMappingCache();
+    }
+    return activityExecutionMappingCache;
+  }
+
   public boolean isRestrictUserOperationLogToAuthenticatedUsers() {
     return restrictUserOperationLogToAuthenticatedUsers;
   }
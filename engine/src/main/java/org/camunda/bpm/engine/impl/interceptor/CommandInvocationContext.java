@@ -12,8 +12,8 @@
  */
 package org.camunda.bpm.engine.impl.interceptor;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.concurrent.Callable;
 
 import org.apache.ibatis.exceptions.PersistenceException;
@@ -38,11 +38,18 @@ public class CommandInvocationContext {
 
   private final static CommandLogger LOG = ProcessEngineLogger.CMD_LOGGER;
 
+  /**
+   * Maximum number of invocation records kept for reuse. Invocations are nested only as deep as
+   * synchronous operations call each other, so a small pool covers the common case.
+   */
+  protected static final int MAX_RECYCLED_INVOCATIONS = 16;
+
   protected Throwable throwable;
   protected Command< ? > command;
   protected boolean isExecuting = false;
-  protected List<AtomicOperationInvocation> queuedInvocations = new ArrayList<AtomicOperationInvocation>();
-  protected BpmnStackTrace bpmnStackTrace = new BpmnStackTrace();
+  protected Deque<AtomicOperationInvocation> queuedInvocations = new ArrayDeque<AtomicOperationInvocation>();
+  protected Deque<AtomicOperationInvocation> recycledInvocations = new ArrayDeque<AtomicOperationInvocation>();
+  protected BpmnStackTrace bpmnStackTrace;
 
   public CommandInvocationContext(Command<?> command) {
     this.command = command;
@@ -74,13 +81,19 @@ public class CommandInvocationContext {
   }
 
   public void performOperation(final AtomicOperation executionOperation, final ExecutionEntity execution, final boolean performAsync) {
-    AtomicOperationInvocation invocation = new AtomicOperationInvocation(executionOperation, execution, performAsync);
-    queuedInvocations.add(0, invocation);
+    AtomicOperationInvocation invocation = recycledInvocations.pollFirst();
+    if (invocation != null) {
+      invocation.init(executionOperation, execution, performAsync);
+    }
+    else {
+      invocation = new AtomicOperationInvocation(executionOperation, execution, performAsync);
+    }
+    queuedInvocations.addFirst(invocation);
     performNext();
   }
 
   protected void performNext() {
-    AtomicOperationInvocation nextInvocation = queuedInvocations.get(0);
+    AtomicOperationInvocation nextInvocation = queuedInvocations.peekFirst();
 
     if(nextInvocation.operation.isAsyncCapable() && isExecuting) {
       // will be picked up by while loop below
@@ -108,7 +121,6 @@ public class CommandInvocationContext {
           isExecuting = true;
           while (! queuedInvocations.isEmpty()) {
             // assumption: all operations are executed within the same process application...
-            nextInvocation = queuedInvocations.get(0);
             invokeNext();
           }
         }
@@ -120,16 +132,38 @@ public class CommandInvocationContext {
   }
 
   protected void invokeNext() {
-    AtomicOperationInvocation invocation = queuedInvocations.remove(0);
+    AtomicOperationInvocation invocation = queuedInvocations.pollFirst();
+    BpmnStackTrace stackTrace = getBpmnStackTrace();
     try {
-      invocation.execute(bpmnStackTrace);
+      invocation.execute(stackTrace);
     }
     catch(RuntimeException e) {
-      // log bpmn stacktrace
-      bpmnStackTrace.printStackTrace(Context.getProcessEngineConfiguration().isBpmnStacktraceVerbose());
+      // log bpmn stacktrace; the failed invocation is kept by the stack trace and not recycled
+      if (!stackTrace.isEmpty()) {
+        stackTrace.addFailedInvocation(invocation);
+        stackTrace.printStackTrace();
+      }
       // rethrow
       throw e;
     }
+
+    if (!stackTrace.isVerbose()) {
+      recycle(invocation);
+    }
+  }
+
+  protected void recycle(AtomicOperationInvocation invocation) {
+    if (recycledInvocations.size() < MAX_RECYCLED_INVOCATIONS) {
+      invocation.clear();
+      recycledInvocations.addFirst(invocation);
+    }
+  }
+
+  protected BpmnStackTrace getBpmnStackTrace() {
+    if (bpmnStackTrace == null) {
+      bpmnStackTrace = new BpmnStackTrace(Context.getProcessEngineConfiguration().isBpmnStacktraceVerbose());
+    }
+    return bpmnStackTrace;
   }
 
   protected boolean requiresContextSwitch(ProcessApplicationReference processApplicationReference) {
@@ -0,0 +1,147 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>{@link BackoffJobAcquisitionStrategy} which adapts the number of jobs to acquire
+ * to the throughput of the job executor instead of using a fixed number.</p>
+ *
+ * <p>The number of jobs to acquire targets the jobs the job executor can start right away
+ * plus the jobs it is expected to finish until the next acquisition cycle:</p>
+ *
+ * <pre>target = freeCapacity + activeExecutions * cycleTime / averageExecutionTime</pre>
+ *
+ * <p>The target is split evenly among all process engines registered with the job executor,
+ * also if they acquire jobs in separate threads, and smoothed over the cycles. The backoff
+ * on locking failures is applied on top like in the base strategy. The result is bounded by
+ * {@link JobExecutor#getMinJobsPerAdaptiveAcquisition()} and {@link JobExecutor#getMaxJobsPerAdaptiveAcquisition()}.
+ * If the job executor cannot tell its capacity, the base strategy applies.</p>
+ */
+public class AdaptiveJobAcquisitionStrategy extends BackoffJobAcquisitionStrategy {
+
+  /**
+   * Weight of the latest target when smoothing the number of jobs to acquire.
+   */
+  public static final double SMOOTHING_FACTOR = 0.5;
+
+  protected JobExecutor jobExecutor;
+
+  protected int minNumJobsToAcquire;
+  protected int maxNumJobsToAcquire;
+
+  protected double numJobsToAcquireEstimate;
+
+  protected long lastAcquisitionTime = -1;
+  protected long lastExecutedJobs;
+  protected long lastJobExecutionTime;
+  protected double averageJobExecutionTime = -1;
+
+  public AdaptiveJobAcquisitionStrategy(JobExecutor jobExecutor) {
+    super(jobExecutor);
+    this.jobExecutor = jobExecutor;
+    this.minNumJobsToAcquire = jobExecutor.getMinJobsPerAdaptiveAcquisition();
+    this.maxNumJobsToAcquire = jobExecutor.getMaxJobsPerAdaptiveAcquisition();
+    this.numJobsToAcquireEstimate = baseNumJobsToAcquire;
+    this.lastExecutedJobs = jobExecutor.getExecutedJobs();
+    this.lastJobExecutionTime = jobExecutor.getJobExecutionTimeInMillis();
+  }
+
+  protected void reconfigureNumberOfJobsToAcquire(JobAcquisitionContext context) {
+    long cycleTime = updateCycleTime(context);
+    updateAverageJobExecutionTime();
+
+    int freeCapacity = jobExecutor.getFreeExecutionCapacity();
+    int activeExecutions = jobExecutor.getActiveExecutions();
+    if (freeCapacity < 0 || activeExecutions < 0) {
+      super.reconfigureNumberOfJobsToAcquire(context);
+      return;
+    }
+
+    Map<String, AcquiredJobs> acquiredJobsByEngine = context.getAcquiredJobsByEngine();
+    // with parallel acquisition, the context only contains the engine of the current acquisition thread
+    int numEngines = Math.max(1, jobExecutor.getProcessEngines().size());
+
+    double target = freeCapacity + expectedCompletions(activeExecutions, cycleTime);
+    numJobsToAcquireEstimate = SMOOTHING_FACTOR * (target / numEngines) + (1 - SMOOTHING_FACTOR) * numJobsToAcquireEstimate;
+
+    jobsToAcquire.clear();
+    for (String engineName : acquiredJobsByEngine.keySet()) {
+      int numJobsToAcquire = (int) Math.round(numJobsToAcquireEstimate * Math.pow(backoffIncreaseFactor, backoffLevel));
+      numJobsToAcquire = Math.min(maxNumJobsToAcquire, Math.max(minNumJobsToAcquire, numJobsToAcquire));
+
+      List<List<String>> rejectedJobBatchesForEngine = context.getRejectedJobsByEngine().get(engineName);
+      if (rejectedJobBatchesForEngine != null) {
+        numJobsToAcquire -= rejectedJobBatchesForEngine.size();
+      }
+
+      jobsToAcquire.put(engineName, Math.max(0, numJobsToAcquire));
+    }
+  }
+
+  /**
+   * @return the number of jobs which are expected to finish during the next acquisition cycle
+   */
+  protected double expectedCompletions(int activeExecutions, long cycleTime) {
+    if (averageJobExecutionTime > 0) {
+      return activeExecutions * cycleTime / averageJobExecutionTime;
+    }
+    else {
+      return 0;
+    }
+  }
+
+  /**
+   * @return the time since the start of the previous acquisition cycle
+   */
+  protected long updateCycleTime(JobAcquisitionContext context) {
+    long acquisitionTime = context.getAcquisitionTime();
+    long cycleTime = 0;
+    if (lastAcquisitionTime >= 0) {
+      cycleTime = Math.max(0, acquisitionTime - lastAcquisitionTime);
+    }
+    lastAcquisitionTime = acquisitionTime;
+    return cycleTime;
+  }
+
+  /**
+   * Updates the average execution time by the jobs which finished since the last cycle.
+   * The average is kept if no job finished.
+   */
+  protected void updateAverageJobExecutionTime() {
+    long executedJobs = jobExecutor.getExecutedJobs();
+    long jobExecutionTime = jobExecutor.getJobExecutionTimeInMillis();
+
+    long newlyExecutedJobs = executedJobs - lastExecutedJobs;
+    if (newlyExecutedJobs > 0) {
+      // at least 1 ms per job to not overestimate the throughput of very short jobs
+      double cycleAverage = Math.max(1.0, (double) (jobExecutionTime - lastJobExecutionTime) / newlyExecutedJobs);
+      if (averageJobExecutionTime < 0) {
+        averageJobExecutionTime = cycleAverage;
+      }
+      else {
+        averageJobExecutionTime = SMOOTHING_FACTOR * cycleAverage + (1 - SMOOTHING_FACTOR) * averageJobExecutionTime;
+      }
+    }
+
+    lastExecutedJobs = executedJobs;
+    lastJobExecutionTime = jobExecutionTime;
+  }
+
+  public double getAverageJobExecutionTime() {
+    return averageJobExecutionTime;
+  }
+
+}
@@ -0,0 +1,128 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.camunda.bpm.engine.management.DurationHistogram;
+
+/**
+ * Thread-safe {@link DurationHistogram} which can be updated concurrently.
+ */
+public class DurationHistogramImpl implements DurationHistogram {
+
+  public static final long[] BUCKET_UPPER_BOUNDS = {
+    1, 5, 10, 25, 50, 100, 250, 500,
+    1000, 2500, 5000, 10000, 30000, 60000, 300000, Long.MAX_VALUE
+  };
+
+  protected AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_UPPER_BOUNDS.length);
+  protected AtomicLong sum = new AtomicLong();
+  protected AtomicLong max = new AtomicLong();
+
+  public void record(long durationInMillis) {
+    long duration = Math.max(0, durationInMillis);
+
+    int bucket = Arrays.binarySearch(BUCKET_UPPER_BOUNDS, duration);
+    if (bucket < 0) {
+      bucket = -bucket - 1;
+    }
+    bucketCounts.incrementAndGet(bucket);
+    sum.addAndGet(duration);
+
+    long currentMax = max.get();
+    while (duration > currentMax && !max.compareAndSet(currentMax, duration)) {
+      currentMax = max.get();
+    }
+  }
+
+  /**
+   * @return a copy of this histogram which is not affected by further updates
+   */
+  public DurationHistogramImpl getSnapshot() {
+    DurationHistogramImpl snapshot = new DurationHistogramImpl();
+    for (int i = 0; i < BUCKET_UPPER_BOUNDS.length; i++) {
+      snapshot.bucketCounts.set(i, bucketCounts.get(i));
+    }
+    snapshot.sum.set(sum.get());
+    snapshot.max.set(max.get());
+    return snapshot;
+  }
+
+  public long getCount() {
+    long count = 0;
+    for (int i = 0; i < BUCKET_UPPER_BOUNDS.length; i++) {
+      count += bucketCounts.get(i);
+    }
+    return count;
+  }
+
+  public long getSum() {
+    return sum.get();
+  }
+
+  public long getMax() {
+    return max.get();
+  }
+
+  public double getMean() {
+    long count = getCount();
+    if (count > 0) {
+      return (double) getSum() / count;
+    }
+    else {
+      return 0;
+    }
+  }
+
+  public long getPercentile(double percentile) {
+    long count = getCount();
+    if (count == 0) {
+      return 0;
+    }
+
+    long rank = (long) Math.ceil(percentile * count);
+    long cumulativeCount = 0;
+    for (int i = 0; i < BUCKET_UPPER_BOUNDS.length; i++) {
+      cumulativeCount += bucketCounts.get(i);
+      if (cumulativeCount >= rank) {
+        return Math.min(BUCKET_UPPER_BOUNDS[i], getMax());
+      }
+    }
+    return getMax();
+  }
+
+  public long[] getBucketUpperBounds() {
+    return BUCKET_UPPER_BOUNDS.clone();
+  }
+
+  public long[] getBucketCounts() {
+    long[] counts = new long[BUCKET_UPPER_BOUNDS.length];
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = bucketCounts.get(i);
+    }
+    return counts;
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName()
+           + "[count=" + getCount()
+           + ", mean=" + getMean()
+           + ", max=" + getMax()
+           + "]";
+  }
+
+}
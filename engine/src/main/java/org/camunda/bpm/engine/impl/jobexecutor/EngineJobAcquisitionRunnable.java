@@ -0,0 +1,45 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.Collections;
+import java.util.Iterator;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+
+/**
+ * <p>{@link SequentialJobAcquisitionRunnable} that acquires jobs for a single process engine.</p>
+ *
+ * <p>Used by the {@link ParallelJobAcquisitionRunnable}. Every instance has its own
+ * {@link JobAcquisitionContext} and {@link JobAcquisitionStrategy}, so that backing off
+ * for one process engine does not delay the job acquisition for other process engines.</p>
+ */
+public class EngineJobAcquisitionRunnable extends SequentialJobAcquisitionRunnable {
+
+  protected final ProcessEngineImpl processEngine;
+
+  public EngineJobAcquisitionRunnable(JobExecutor jobExecutor, ProcessEngineImpl processEngine) {
+    super(jobExecutor);
+    this.processEngine = processEngine;
+  }
+
+  @Override
+  protected Iterator<ProcessEngineImpl> engineIterator() {
+    return Collections.singletonList(processEngine).iterator();
+  }
+
+  public ProcessEngineImpl getProcessEngine() {
+    return processEngine;
+  }
+
+}
@@ -12,10 +12,13 @@
  */
 package org.camunda.bpm.engine.impl.jobexecutor;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.camunda.bpm.engine.impl.ProcessEngineImpl;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cmd.ExecuteJobsCmd;
+import org.camunda.bpm.engine.impl.cmd.ExecuteJobsInOneTransactionCmd;
 import org.camunda.bpm.engine.impl.cmd.UnlockJobCmd;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
@@ -33,13 +36,19 @@ public class ExecuteJobsRunnable implements Runnable {
   protected JobExecutor jobExecutor;
   protected ProcessEngineImpl processEngine;
 
+  protected long submitTime;
+  protected long queueTimeInMillis;
+
   public ExecuteJobsRunnable(List<String> jobIds, ProcessEngineImpl processEngine) {
     this.jobIds = jobIds;
     this.processEngine = processEngine;
     this.jobExecutor = processEngine.getProcessEngineConfiguration().getJobExecutor();
+    this.submitTime = System.currentTimeMillis();
   }
 
   public void run() {
+    queueTimeInMillis = System.currentTimeMillis() - submitTime;
+
     final JobExecutorContext jobExecutorContext = new JobExecutorContext();
     final List<String> currentProcessorJobQueue = jobExecutorContext.getCurrentProcessorJobQueue();
     CommandExecutor commandExecutor = processEngine.getProcessEngineConfiguration().getCommandExecutorTxRequired();
@@ -50,27 +59,53 @@ public class ExecuteJobsRunnable implements Runnable {
     try {
       while (!currentProcessorJobQueue.isEmpty()) {
 
-        String nextJobId = currentProcessorJobQueue.remove(0);
-        if(jobExecutor.isActive()) {
-          try {
-             executeJob(nextJobId, commandExecutor);
-          }
-          catch(Throwable t) {
-            LOG.exceptionWhileExecutingJob(nextJobId, t);
-          }
-        } else {
-            try {
-              unlockJob(nextJobId, commandExecutor);
-            }
-            catch(Throwable t) {
-              LOG.exceptionWhileUnlockingJob(nextJobId, t);
-            }
-
+        // the queue also contains the exclusive jobs which were added by the previous jobs
+        List<String> queuedJobIds = new ArrayList<String>(currentProcessorJobQueue);
+        jobExecutor.jobsStarted(queuedJobIds, processEngine);
+        try {
+          executeNextJobs(currentProcessorJobQueue, commandExecutor);
+        }
+        finally {
+          // the jobs which are not queued anymore have been executed or unlocked
+          queuedJobIds.removeAll(currentProcessorJobQueue);
+          jobExecutor.jobsFinished(queuedJobIds, processEngine);
         }
       }
 
     } finally {
       Context.removeJobExecutorContext();
+      jobExecutor.jobsFinished(new ArrayList<String>(currentProcessorJobQueue), processEngine);
+    }
+  }
+
+  /**
+   * Executes the next job of the queue or, if enabled, the next jobs in one transaction.
+   */
+  protected void executeNextJobs(List<String> jobQueue, CommandExecutor commandExecutor) {
+    if (jobExecutor.isActive()
+        && jobExecutor.getMaxJobsPerTransaction() > 1
+        && jobQueue.size() > 1
+        && isExecuteJobsInOneTransactionSupported()) {
+      executeJobsInOneTransaction(jobQueue, commandExecutor);
+      return;
+    }
+
+    String nextJobId = jobQueue.remove(0);
+    if(jobExecutor.isActive()) {
+      try {
+         executeJob(nextJobId, commandExecutor);
+      }
+      catch(Throwable t) {
+        LOG.exceptionWhileExecutingJob(nextJobId, t);
+      }
+    } else {
+        try {
+          unlockJob(nextJobId, commandExecutor);
+        }
+        catch(Throwable t) {
+          LOG.exceptionWhileUnlockingJob(nextJobId, t);
+        }
+
     }
   }
 
@@ -79,7 +114,74 @@ public class ExecuteJobsRunnable implements Runnable {
    * org.camunda.bpm.container.impl.threading.ra.inflow.JcaInflowExecuteJobsRunnable.executeJob(String, CommandExecutor)
    */
   protected void executeJob(String nextJobId, CommandExecutor commandExecutor) {
-    ExecuteJobHelper.executeJob(nextJobId, commandExecutor);
+    JobFailureCollector jobFailureCollector = new JobFailureCollector(nextJobId);
+    long startTime = System.currentTimeMillis();
+    try {
+      ExecuteJobHelper.executeJob(nextJobId, commandExecutor, jobFailureCollector, new ExecuteJobsCmd(nextJobId, jobFailureCollector));
+    }
+    finally {
+      if (jobFailureCollector.getJob() != null) {
+        long executionTimeInMillis = System.currentTimeMillis() - startTime;
+        jobExecutor.logJobExecution(processEngine, jobFailureCollector.getJob(), queueTimeInMillis, executionTimeInMillis, jobFailureCollector.getFailure());
+      }
+    }
+  }
+
+  /**
+   * Note: runnables which override {@link #executeJob(String, CommandExecutor)} to execute a job in a
+   * different context, e.g. org.camunda.bpm.container.impl.threading.ra.inflow.JcaInflowExecuteJobsRunnable,
+   * must return false unless they override {@link #executeJobsInOneTransaction(List, CommandExecutor)} as well.
+   *
+   * @return true if jobs of different process instances may be executed in one transaction
+   */
+  protected boolean isExecuteJobsInOneTransactionSupported() {
+    return true;
+  }
+
+  /**
+   * Executes the next jobs of the queue in one transaction, see {@link ExecuteJobsInOneTransactionCmd}.
+   * Jobs which were not executed are put back to the queue. If the transaction fails, all of its
+   * jobs are executed again one by one so that the failure is handled for the job which caused it.
+   */
+  protected void executeJobsInOneTransaction(List<String> jobQueue, CommandExecutor commandExecutor) {
+    List<String> nextJobs = jobQueue.subList(0, Math.min(jobQueue.size(), jobExecutor.getMaxJobsPerTransaction()));
+    List<String> jobIds = new ArrayList<String>(nextJobs);
+    nextJobs.clear();
+
+    List<JobFailureCollector> executedJobs = null;
+    long startTime = System.currentTimeMillis();
+    try {
+      executedJobs = commandExecutor.execute(new ExecuteJobsInOneTransactionCmd(jobIds));
+    }
+    catch(Throwable t) {
+      LOG.exceptionWhileExecutingJobsInOneTransaction(jobIds, t);
+    }
+
+    if (executedJobs != null) {
+      // the jobs share the flush and the commit, so each of them is logged with an equal part of the time
+      long executionTimeInMillis = (System.currentTimeMillis() - startTime) / Math.max(1, executedJobs.size());
+
+      List<String> remainingJobIds = new ArrayList<String>(jobIds);
+      for (JobFailureCollector executedJob : executedJobs) {
+        remainingJobIds.remove(executedJob.getJobId());
+        if (executedJob.getJob() != null) {
+          jobExecutor.logJobExecution(processEngine, executedJob.getJob(), queueTimeInMillis, executionTimeInMillis, null);
+        }
+      }
+      jobQueue.addAll(0, remainingJobIds);
+
+      commandExecutor.execute(new SuccessfulJobListener(executedJobs.size()));
+    }
+    else {
+      for (String jobId : jobIds) {
+        try {
+          executeJob(jobId, commandExecutor);
+        }
+        catch(Throwable t) {
+          LOG.exceptionWhileExecutingJob(jobId, t);
+        }
+      }
+    }
   }
 
   protected void unlockJob(String nextJobId, CommandExecutor commandExecutor) {
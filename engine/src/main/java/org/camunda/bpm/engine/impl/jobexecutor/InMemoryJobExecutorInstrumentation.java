@@ -0,0 +1,107 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.camunda.bpm.engine.OptimisticLockingException;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.management.JobExecutionStatistics;
+
+/**
+ * {@link JobExecutorInstrumentation} which aggregates the statistics in memory
+ * per process engine, job definition and job handler type. The statistics are counted
+ * from the registration of a process engine with the job executor, are not persisted and
+ * are discarded when the process engine is unregistered.
+ */
+public class InMemoryJobExecutorInstrumentation implements JobExecutorInstrumentation {
+
+  protected ConcurrentMap<String, ConcurrentMap<String, JobExecutionStatisticsImpl>> statisticsByEngine =
+      new ConcurrentHashMap<String, ConcurrentMap<String, JobExecutionStatisticsImpl>>();
+
+  public void jobAcquired(String processEngineName, JobEntity job, long acquisitionTime) {
+    JobExecutionStatisticsImpl statistics = getStatistics(processEngineName, job);
+    statistics.acquiredJobs.incrementAndGet();
+
+    if (job.getDuedate() != null) {
+      statistics.acquisitionLag.record(acquisitionTime - job.getDuedate().getTime());
+    }
+  }
+
+  public void jobAcquisitionFailed(String processEngineName, JobEntity job) {
+    getStatistics(processEngineName, job).acquisitionFailures.incrementAndGet();
+  }
+
+  public void jobExecuted(String processEngineName, JobEntity job, long queueTimeInMillis, long executionTimeInMillis, Throwable failure) {
+    JobExecutionStatisticsImpl statistics = getStatistics(processEngineName, job);
+    statistics.executedJobs.incrementAndGet();
+    statistics.queueTime.record(queueTimeInMillis);
+    statistics.executionTime.record(executionTimeInMillis);
+
+    if (failure != null) {
+      statistics.failedJobs.incrementAndGet();
+      if (failure instanceof OptimisticLockingException) {
+        statistics.optimisticLockingFailures.incrementAndGet();
+      }
+    }
+  }
+
+  public List<JobExecutionStatistics> getStatistics(String processEngineName) {
+    List<JobExecutionStatistics> result = new ArrayList<JobExecutionStatistics>();
+
+    ConcurrentMap<String, JobExecutionStatisticsImpl> engineStatistics = statisticsByEngine.get(processEngineName);
+    if (engineStatistics != null) {
+      for (JobExecutionStatisticsImpl statistics : engineStatistics.values()) {
+        result.add(statistics.getSnapshot());
+      }
+    }
+    return result;
+  }
+
+  protected JobExecutionStatisticsImpl getStatistics(String processEngineName, JobEntity job) {
+    ConcurrentMap<String, JobExecutionStatisticsImpl> engineStatistics = statisticsByEngine.get(processEngineName);
+    if (engineStatistics == null) {
+      engineStatistics = new ConcurrentHashMap<String, JobExecutionStatisticsImpl>();
+      ConcurrentMap<String, JobExecutionStatisticsImpl> existingStatistics = statisticsByEngine.putIfAbsent(processEngineName, engineStatistics);
+      if (existingStatistics != null) {
+        engineStatistics = existingStatistics;
+      }
+    }
+
+    String key = job.getJobHandlerType() + ":" + job.getJobDefinitionId();
+    JobExecutionStatisticsImpl statistics = engineStatistics.get(key);
+    if (statistics == null) {
+      statistics = new JobExecutionStatisticsImpl(job.getJobDefinitionId(), job.getJobHandlerType());
+      JobExecutionStatisticsImpl existingStatistics = engineStatistics.putIfAbsent(key, statistics);
+      if (existingStatistics != null) {
+        statistics = existingStatistics;
+      }
+    }
+    return statistics;
+  }
+
+  public void processEngineUnregistered(String processEngineName) {
+    clearStatistics(processEngineName);
+  }
+
+  /**
+   * Removes the statistics of the given process engine.
+   */
+  public void clearStatistics(String processEngineName) {
+    statisticsByEngine.remove(processEngineName);
+  }
+
+}
@@ -27,6 +27,7 @@ public class JobAcquisitionContext {
   protected Map<String, List<List<String>>> rejectedJobBatchesByEngine;
   protected Map<String, AcquiredJobs> acquiredJobsByEngine;
   protected Map<String, List<List<String>>> additionalJobBatchesByEngine;
+  protected Map<String, List<List<String>>> rejectedHandOffBatchesByEngine;
   protected Exception acquisitionException;
   protected long acquisitionTime;
   protected boolean isJobAdded;
@@ -35,6 +36,7 @@ public class JobAcquisitionContext {
     this.rejectedJobBatchesByEngine = new HashMap<String, List<List<String>>>();
     this.additionalJobBatchesByEngine = new HashMap<String, List<List<String>>>();
     this.acquiredJobsByEngine = new HashMap<String, AcquiredJobs>();
+    this.rejectedHandOffBatchesByEngine = new HashMap<String, List<List<String>>>();
   }
 
   public void submitRejectedBatch(String engineName, List<String> jobIds) {
@@ -49,6 +51,17 @@ public class JobAcquisitionContext {
     CollectionUtil.addToMapOfLists(additionalJobBatchesByEngine, engineName, jobIds);
   }
 
+  /**
+   * Submits jobs which have been handed off to the job executor directly but
+   * could not be scheduled for execution. In contrast to the other submit methods,
+   * this may be invoked by threads other than the acquisition thread.
+   */
+  public void submitRejectedHandOffBatch(String engineName, List<String> jobIds) {
+    synchronized (rejectedHandOffBatchesByEngine) {
+      CollectionUtil.addToMapOfLists(rejectedHandOffBatchesByEngine, engineName, jobIds);
+    }
+  }
+
   public void reset() {
     additionalJobBatchesByEngine.clear();
 
@@ -57,6 +70,17 @@ public class JobAcquisitionContext {
     additionalJobBatchesByEngine.putAll(rejectedJobBatchesByEngine);
 
     rejectedJobBatchesByEngine.clear();
+
+    // jobs that could not be handed off are submitted like rejected jobs
+    synchronized (rejectedHandOffBatchesByEngine) {
+      for (Map.Entry<String, List<List<String>>> rejectedHandOffBatches : rejectedHandOffBatchesByEngine.entrySet()) {
+        for (List<String> jobIds : rejectedHandOffBatches.getValue()) {
+          CollectionUtil.addToMapOfLists(additionalJobBatchesByEngine, rejectedHandOffBatches.getKey(), jobIds);
+        }
+      }
+      rejectedHandOffBatchesByEngine.clear();
+    }
+
     acquiredJobsByEngine.clear();
     acquisitionException = null;
     acquisitionTime = 0;
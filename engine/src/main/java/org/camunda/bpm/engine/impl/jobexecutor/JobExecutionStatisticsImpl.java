@@ -0,0 +1,111 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.management.JobExecutionStatistics;
+
+/**
+ * Thread-safe {@link JobExecutionStatistics} which are updated by the {@link InMemoryJobExecutorInstrumentation}.
+ */
+public class JobExecutionStatisticsImpl implements JobExecutionStatistics {
+
+  protected String jobDefinitionId;
+  protected String jobHandlerType;
+
+  protected AtomicLong acquiredJobs = new AtomicLong();
+  protected AtomicLong acquisitionFailures = new AtomicLong();
+  protected AtomicLong executedJobs = new AtomicLong();
+  protected AtomicLong failedJobs = new AtomicLong();
+  protected AtomicLong optimisticLockingFailures = new AtomicLong();
+
+  protected DurationHistogramImpl acquisitionLag = new DurationHistogramImpl();
+  protected DurationHistogramImpl queueTime = new DurationHistogramImpl();
+  protected DurationHistogramImpl executionTime = new DurationHistogramImpl();
+
+  public JobExecutionStatisticsImpl(String jobDefinitionId, String jobHandlerType) {
+    this.jobDefinitionId = jobDefinitionId;
+    this.jobHandlerType = jobHandlerType;
+  }
+
+  /**
+   * @return a copy of these statistics which is not affected by further updates
+   */
+  public JobExecutionStatisticsImpl getSnapshot() {
+    JobExecutionStatisticsImpl snapshot = new JobExecutionStatisticsImpl(jobDefinitionId, jobHandlerType);
+    snapshot.acquiredJobs.set(acquiredJobs.get());
+    snapshot.acquisitionFailures.set(acquisitionFailures.get());
+    snapshot.executedJobs.set(executedJobs.get());
+    snapshot.failedJobs.set(failedJobs.get());
+    snapshot.optimisticLockingFailures.set(optimisticLockingFailures.get());
+    snapshot.acquisitionLag = acquisitionLag.getSnapshot();
+    snapshot.queueTime = queueTime.getSnapshot();
+    snapshot.executionTime = executionTime.getSnapshot();
+    return snapshot;
+  }
+
+  public String getJobDefinitionId() {
+    return jobDefinitionId;
+  }
+
+  public String getJobHandlerType() {
+    return jobHandlerType;
+  }
+
+  public long getAcquiredJobs() {
+    return acquiredJobs.get();
+  }
+
+  public long getAcquisitionFailures() {
+    return acquisitionFailures.get();
+  }
+
+  public long getExecutedJobs() {
+    return executedJobs.get();
+  }
+
+  public long getFailedJobs() {
+    return failedJobs.get();
+  }
+
+  public long getOptimisticLockingFailures() {
+    return optimisticLockingFailures.get();
+  }
+
+  public DurationHistogramImpl getAcquisitionLag() {
+    return acquisitionLag;
+  }
+
+  public DurationHistogramImpl getQueueTime() {
+    return queueTime;
+  }
+
+  public DurationHistogramImpl getExecutionTime() {
+    return executionTime;
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName()
+           + "[jobDefinitionId=" + jobDefinitionId
+           + ", jobHandlerType=" + jobHandlerType
+           + ", acquiredJobs=" + acquiredJobs
+           + ", acquisitionFailures=" + acquisitionFailures
+           + ", executedJobs=" + executedJobs
+           + ", failedJobs=" + failedJobs
+           + ", optimisticLockingFailures=" + optimisticLockingFailures
+           + "]";
+  }
+
+}
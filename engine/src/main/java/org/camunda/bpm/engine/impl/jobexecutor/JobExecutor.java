@@ -17,10 +17,13 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.camunda.bpm.engine.impl.ProcessEngineImpl;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
 import org.camunda.bpm.engine.management.Metrics;
 import org.camunda.bpm.engine.runtime.Job;
 
@@ -53,6 +56,26 @@ public abstract class JobExecutor {
 
   protected int maxJobsPerAcquisition = 3;
 
+  /**
+   * If enabled, the number of jobs to acquire adapts to the throughput of the job executor
+   * within the given bounds, see {@link AdaptiveJobAcquisitionStrategy}. Otherwise,
+   * {@link #maxJobsPerAcquisition} jobs are acquired per cycle.
+   */
+  protected boolean adaptiveAcquisition = false;
+  protected int minJobsPerAdaptiveAcquisition = 1;
+  protected int maxJobsPerAdaptiveAcquisition = 100;
+
+  // job execution times for the adaptive acquisition
+  protected AtomicLong executedJobs = new AtomicLong();
+  protected AtomicLong jobExecutionTimeInMillis = new AtomicLong();
+
+  /**
+   * The maximum number of jobs of different process instances which are
+   * executed in one transaction. With the default of 1, every job is executed
+   * in its own transaction.
+   */
+  protected int maxJobsPerTransaction = 1;
+
   // waiting when job acquisition is idle
   protected int waitTimeInMillis = 5 * 1000;
   protected float waitIncreaseFactor = 2;
@@ -71,14 +94,61 @@ public abstract class JobExecutor {
   protected String lockOwner = UUID.randomUUID().toString();
   protected int lockTimeInMillis = 5 * 60 * 1000;
 
+  /**
+   * Timers which become due within this time are preloaded into a timer wheel
+   * and executed when they are due, see {@link TimerWheelRunnable}.
+   * The timer wheel is disabled with the default of 0.
+   */
+  protected long timerLookAheadInMillis = 0;
+  protected long timerWheelTickInMillis = 100;
+  protected int maxTimersPerPreload = 100;
+
+  protected TimerWheelRunnable timerWheelRunnable;
+  protected Thread timerWheelThread;
+
+  /**
+   * If greater than zero, the locks of the jobs which are executed by this job executor
+   * are extended by the lock time every interval, see {@link JobLockRenewalRunnable}.
+   * This allows a short lock time for long-running jobs. The interval should be considerably
+   * shorter than the lock time. Lock renewal is disabled with the default of 0.
+   */
+  protected long lockRenewalIntervalInMillis = 0;
+
+  protected JobLockRenewalRunnable lockRenewalRunnable;
+  protected Thread lockRenewalThread;
+
+  /**
+   * Lease time of the job partitions if jobs are partitioned, see
+   * {@link org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl#getJobExecutorPartitionCount()}.
+   * The partitions of a job executor which stops without releasing them are taken over
+   * by other job executors after this time.
+   */
+  protected int partitionLeaseTimeInMillis = 60 * 1000;
+  protected JobPartitionLeases jobPartitionLeases = new JobPartitionLeases(this);
+
+  /**
+   * If enabled, jobs are acquired for every registered process engine in a separate
+   * thread with its own backoff, see {@link ParallelJobAcquisitionRunnable}. Otherwise,
+   * a single thread acquires jobs for all process engines one after another.
+   */
+  protected boolean parallelAcquisition = false;
+
+  /**
+   * Is notified about the acquisition and execution of jobs. Disabled by default;
+   * set an {@link InMemoryJobExecutorInstrumentation} to record job execution statistics.
+   */
+  protected JobExecutorInstrumentation instrumentation;
+
   public void start() {
     if (isActive) {
       return;
     }
     LOG.startingUpJobExecutor(getClass().getName());
     ensureInitialization();
+    startLockRenewal();
     startExecutingJobs();
     isActive = true;
+    startTimerWheel();
   }
 
   public synchronized void shutdown() {
@@ -87,14 +157,22 @@ public abstract class JobExecutor {
     }
     LOG.shuttingDownTheJobExecutor(getClass().getName());
     acquireJobsRunnable.stop();
+    stopTimerWheel();
     stopExecutingJobs();
+    stopLockRenewal();
+    releaseJobPartitionLeases();
     ensureCleanup();
     isActive = false;
   }
 
   protected void ensureInitialization() {
     acquireJobsCmdFactory = new DefaultAcquireJobsCommandFactory(this);
-    acquireJobsRunnable = new SequentialJobAcquisitionRunnable(this);
+    if (parallelAcquisition) {
+      acquireJobsRunnable = new ParallelJobAcquisitionRunnable(this);
+    }
+    else {
+      acquireJobsRunnable = new SequentialJobAcquisitionRunnable(this);
+    }
   }
 
   protected void ensureCleanup() {
@@ -102,6 +180,77 @@ public abstract class JobExecutor {
     acquireJobsRunnable = null;
   }
 
+  protected void startTimerWheel() {
+    if (timerLookAheadInMillis > 0 && timerWheelThread == null) {
+      timerWheelRunnable = new TimerWheelRunnable(this);
+      timerWheelThread = new Thread(timerWheelRunnable, getName() + "[timer wheel]");
+      timerWheelThread.start();
+    }
+  }
+
+  protected void stopTimerWheel() {
+    if (timerWheelThread != null) {
+      timerWheelRunnable.stop();
+      try {
+        timerWheelThread.join();
+      }
+      catch (InterruptedException e) {
+        LOG.interruptedWhileShuttingDownjobExecutor(e);
+      }
+      timerWheelThread = null;
+      timerWheelRunnable = null;
+    }
+  }
+
+  protected void startLockRenewal() {
+    if (lockRenewalIntervalInMillis > 0 && lockRenewalThread == null) {
+      lockRenewalRunnable = new JobLockRenewalRunnable(this);
+      lockRenewalThread = new Thread(lockRenewalRunnable, getName() + "[lock renewal]");
+      lockRenewalThread.start();
+    }
+  }
+
+  protected void stopLockRenewal() {
+    if (lockRenewalThread != null) {
+      lockRenewalRunnable.stop();
+      try {
+        lockRenewalThread.join();
+      }
+      catch (InterruptedException e) {
+        LOG.interruptedWhileShuttingDownjobExecutor(e);
+      }
+      lockRenewalThread = null;
+      lockRenewalRunnable = null;
+    }
+  }
+
+  /**
+   * Invoked by the thread which executes the given jobs before it starts with them,
+   * so that their locks are extended while they are executed.
+   */
+  public void jobsStarted(List<String> jobIds, ProcessEngineImpl processEngine) {
+    JobLockRenewalRunnable lockRenewalRunnable = this.lockRenewalRunnable;
+    if (lockRenewalRunnable != null) {
+      lockRenewalRunnable.jobsStarted(jobIds, processEngine);
+    }
+  }
+
+  /**
+   * Invoked by the thread which executes the given jobs when it has finished them.
+   */
+  public void jobsFinished(List<String> jobIds, ProcessEngineImpl processEngine) {
+    JobLockRenewalRunnable lockRenewalRunnable = this.lockRenewalRunnable;
+    if (lockRenewalRunnable != null) {
+      lockRenewalRunnable.jobsFinished(jobIds, processEngine);
+    }
+  }
+
+  protected void releaseJobPartitionLeases() {
+    for (ProcessEngineImpl processEngine : processEngines) {
+      jobPartitionLeases.releaseLeases(processEngine);
+    }
+  }
+
   public void jobWasAdded() {
     if(isActive) {
       acquireJobsRunnable.jobWasAdded();
@@ -111,6 +260,10 @@ public abstract class JobExecutor {
   public synchronized void registerProcessEngine(ProcessEngineImpl processEngine) {
     processEngines.add(processEngine);
 
+    if (isActive && acquireJobsRunnable instanceof ParallelJobAcquisitionRunnable) {
+      ((ParallelJobAcquisitionRunnable) acquireJobsRunnable).processEnginesChanged();
+    }
+
     // when we register the first process engine, start the jobexecutor
     if(processEngines.size() == 1 && isAutoActivate) {
       start();
@@ -120,6 +273,23 @@ public abstract class JobExecutor {
   public synchronized void unregisterProcessEngine(ProcessEngineImpl processEngine) {
     processEngines.remove(processEngine);
 
+    if (isActive) {
+      if (acquireJobsRunnable instanceof ParallelJobAcquisitionRunnable) {
+        ((ParallelJobAcquisitionRunnable) acquireJobsRunnable).processEnginesChanged();
+      }
+      jobPartitionLeases.releaseLeases(processEngine);
+    }
+
+    JobLockRenewalRunnable lockRenewalRunnable = this.lockRenewalRunnable;
+    if (lockRenewalRunnable != null) {
+      lockRenewalRunnable.processEngineUnregistered(processEngine);
+    }
+
+    JobExecutorInstrumentation instrumentation = this.instrumentation;
+    if (instrumentation != null) {
+      instrumentation.processEngineUnregistered(processEngine.getName());
+    }
+
     // if we unregister the last process engine, auto-shutdown the jobexecutor
     if(processEngines.isEmpty() && isActive) {
       shutdown();
@@ -130,6 +300,70 @@ public abstract class JobExecutor {
   protected abstract void stopExecutingJobs();
   public abstract void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine);
 
+  /**
+   * Submits jobs for execution which have been locked to this job executor
+   * outside of job acquisition, i.e. by the transaction that created them or by the
+   * {@link TimerWheelRunnable}. In contrast to {@link #executeJobs(List, ProcessEngineImpl)},
+   * this is not invoked by the job acquisition thread.
+   * Implementations must not execute rejected jobs in the calling thread
+   * but pass them to {@link #handOffRejected(List, ProcessEngineImpl)}.
+   * Job executors which override this method must also return <code>true</code> from
+   * {@link #isHandOffSupported()}. By default, the jobs are passed to the job acquisition
+   * which submits them in its next cycle.
+   */
+  public void handOffJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+    submitToJobAcquisition(jobIds, processEngine);
+  }
+
+  /**
+   * @return <code>true</code> if {@link #handOffJobs(List, ProcessEngineImpl)} submits jobs
+   *   directly to the threads of this job executor. Otherwise jobs created by a transaction are not
+   *   handed off, but picked up by the job acquisition.
+   */
+  public boolean isHandOffSupported() {
+    return false;
+  }
+
+  /**
+   * Passes jobs which could not be handed off to the job acquisition
+   * which submits them again in its next cycle.
+   */
+  protected void handOffRejected(List<String> jobIds, ProcessEngineImpl processEngine) {
+    logRejectedExecution(processEngine, jobIds.size());
+    submitToJobAcquisition(jobIds, processEngine);
+  }
+
+  protected void submitToJobAcquisition(List<String> jobIds, ProcessEngineImpl processEngine) {
+    AcquireJobsRunnable acquireJobsRunnable = this.acquireJobsRunnable;
+    JobAcquisitionContext context = getAcquisitionContext(processEngine.getName());
+    if (context != null) {
+      context.submitRejectedHandOffBatch(processEngine.getName(), jobIds);
+      acquireJobsRunnable.jobWasAdded();
+    }
+    else {
+      LOG.couldNotHandOffJobs(processEngine.getName(), jobIds);
+    }
+  }
+
+  /**
+   * @return the context of the job acquisition which acquires the jobs of the given
+   *   process engine or null if the job acquisition does not provide one
+   */
+  public JobAcquisitionContext getAcquisitionContext(String engineName) {
+    AcquireJobsRunnable acquireJobsRunnable = this.acquireJobsRunnable;
+    if (acquireJobsRunnable instanceof SequentialJobAcquisitionRunnable) {
+      return ((SequentialJobAcquisitionRunnable) acquireJobsRunnable).getAcquisitionContext();
+    }
+    else if (acquireJobsRunnable instanceof ParallelJobAcquisitionRunnable) {
+      SequentialJobAcquisitionRunnable engineAcquisitionRunnable = ((ParallelJobAcquisitionRunnable) acquireJobsRunnable)
+          .getEngineAcquisitionRunnable(engineName);
+      if (engineAcquisitionRunnable != null) {
+        return engineAcquisitionRunnable.getAcquisitionContext();
+      }
+    }
+    return null;
+  }
+
   /**
    * Deprecated: use {@link #executeJobs(List, ProcessEngineImpl)} instead
    * @param jobIds
@@ -149,6 +383,14 @@ public abstract class JobExecutor {
     }
   }
 
+  public void logAcquisitionTime(ProcessEngineImpl engine, long millis) {
+    if (engine.getProcessEngineConfiguration().isMetricsEnabled()) {
+      engine.getProcessEngineConfiguration()
+        .getMetricsRegistry()
+        .markOccurrence(Metrics.JOB_ACQUISITION_TIME, millis);
+    }
+  }
+
   public void logAcquiredJobs(ProcessEngineImpl engine, int numJobs) {
     if (engine != null && engine.getProcessEngineConfiguration().isMetricsEnabled()) {
       engine.getProcessEngineConfiguration()
@@ -173,6 +415,45 @@ public abstract class JobExecutor {
     }
   }
 
+  public void logJobAcquired(String processEngineName, JobEntity job, long acquisitionTime) {
+    JobExecutorInstrumentation instrumentation = this.instrumentation;
+    if (instrumentation != null) {
+      instrumentation.jobAcquired(processEngineName, job, acquisitionTime);
+    }
+  }
+
+  public void logJobAcquisitionFailure(String processEngineName, JobEntity job) {
+    JobExecutorInstrumentation instrumentation = this.instrumentation;
+    if (instrumentation != null) {
+      instrumentation.jobAcquisitionFailed(processEngineName, job);
+    }
+  }
+
+  public void logJobExecution(ProcessEngineImpl engine, JobEntity job, long queueTimeInMillis, long executionTimeInMillis, Throwable failure) {
+    executedJobs.incrementAndGet();
+    jobExecutionTimeInMillis.addAndGet(executionTimeInMillis);
+
+    JobExecutorInstrumentation instrumentation = this.instrumentation;
+    if (instrumentation != null) {
+      instrumentation.jobExecuted(engine.getName(), job, queueTimeInMillis, executionTimeInMillis, failure);
+    }
+  }
+
+  /**
+   * @return the number of job batches which can be submitted for execution right now without
+   *   being rejected or -1 if the job executor cannot tell
+   */
+  public int getFreeExecutionCapacity() {
+    return -1;
+  }
+
+  /**
+   * @return the number of job batches which are executed right now or -1 if the job executor cannot tell
+   */
+  public int getActiveExecutions() {
+    return -1;
+  }
+
   // getters and setters //////////////////////////////////////////////////////
 
   public List<ProcessEngineImpl> getProcessEngines() {
@@ -267,6 +548,116 @@ public abstract class JobExecutor {
     this.maxJobsPerAcquisition = maxJobsPerAcquisition;
   }
 
+  public int getMaxJobsPerTransaction() {
+    return maxJobsPerTransaction;
+  }
+
+  public void setMaxJobsPerTransaction(int maxJobsPerTransaction) {
+    this.maxJobsPerTransaction = maxJobsPerTransaction;
+  }
+
+  public long getTimerLookAheadInMillis() {
+    return timerLookAheadInMillis;
+  }
+
+  public void setTimerLookAheadInMillis(long timerLookAheadInMillis) {
+    this.timerLookAheadInMillis = timerLookAheadInMillis;
+  }
+
+  public long getTimerWheelTickInMillis() {
+    return timerWheelTickInMillis;
+  }
+
+  public void setTimerWheelTickInMillis(long timerWheelTickInMillis) {
+    this.timerWheelTickInMillis = timerWheelTickInMillis;
+  }
+
+  public int getMaxTimersPerPreload() {
+    return maxTimersPerPreload;
+  }
+
+  public void setMaxTimersPerPreload(int maxTimersPerPreload) {
+    this.maxTimersPerPreload = maxTimersPerPreload;
+  }
+
+  public long getLockRenewalIntervalInMillis() {
+    return lockRenewalIntervalInMillis;
+  }
+
+  public void setLockRenewalIntervalInMillis(long lockRenewalIntervalInMillis) {
+    this.lockRenewalIntervalInMillis = lockRenewalIntervalInMillis;
+  }
+
+  public boolean isAdaptiveAcquisition() {
+    return adaptiveAcquisition;
+  }
+
+  public void setAdaptiveAcquisition(boolean adaptiveAcquisition) {
+    this.adaptiveAcquisition = adaptiveAcquisition;
+  }
+
+  public int getMinJobsPerAdaptiveAcquisition() {
+    return minJobsPerAdaptiveAcquisition;
+  }
+
+  public void setMinJobsPerAdaptiveAcquisition(int minJobsPerAdaptiveAcquisition) {
+    this.minJobsPerAdaptiveAcquisition = minJobsPerAdaptiveAcquisition;
+  }
+
+  public int getMaxJobsPerAdaptiveAcquisition() {
+    return maxJobsPerAdaptiveAcquisition;
+  }
+
+  public void setMaxJobsPerAdaptiveAcquisition(int maxJobsPerAdaptiveAcquisition) {
+    this.maxJobsPerAdaptiveAcquisition = maxJobsPerAdaptiveAcquisition;
+  }
+
+  /**
+   * @return the number of jobs executed by this job executor
+   */
+  public long getExecutedJobs() {
+    return executedJobs.get();
+  }
+
+  /**
+   * @return the total time this job executor spent executing jobs
+   */
+  public long getJobExecutionTimeInMillis() {
+    return jobExecutionTimeInMillis.get();
+  }
+
+  public JobExecutorInstrumentation getInstrumentation() {
+    return instrumentation;
+  }
+
+  public void setInstrumentation(JobExecutorInstrumentation instrumentation) {
+    this.instrumentation = instrumentation;
+  }
+
+  public JobLockRenewalRunnable getLockRenewalRunnable() {
+    return lockRenewalRunnable;
+  }
+
+  public int getPartitionLeaseTimeInMillis() {
+    return partitionLeaseTimeInMillis;
+  }
+
+  public void setPartitionLeaseTimeInMillis(int partitionLeaseTimeInMillis) {
+    this.partitionLeaseTimeInMillis = partitionLeaseTimeInMillis;
+  }
+
+  public JobPartitionLeases getJobPartitionLeases() {
+    return jobPartitionLeases;
+  }
+
+  public boolean isParallelAcquisition() {
+    return parallelAcquisition;
+  }
+
+  public void setParallelAcquisition(boolean parallelAcquisition) {
+    this.parallelAcquisition = parallelAcquisition;
+  }
+
   public float getWaitIncreaseFactor() {
     return waitIncreaseFactor;
   }
@@ -0,0 +1,62 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.management.JobExecutionStatistics;
+
+/**
+ * Is notified by the {@link JobExecutor} about the acquisition and execution of jobs,
+ * e.g. to record latencies and failure rates. Implementations must be thread-safe
+ * and should return quickly since they are invoked by the acquisition and job threads.
+ *
+ * @see JobExecutor#setInstrumentation(JobExecutorInstrumentation)
+ * @see InMemoryJobExecutorInstrumentation
+ */
+public interface JobExecutorInstrumentation {
+
+  /**
+   * Invoked when the job acquisition locks a job. The transaction which
+   * acquires the job has not been committed yet.
+   */
+  void jobAcquired(String processEngineName, JobEntity job, long acquisitionTime);
+
+  /**
+   * Invoked when a job could not be acquired because of an optimistic locking failure.
+   */
+  void jobAcquisitionFailed(String processEngineName, JobEntity job);
+
+  /**
+   * Invoked when a job has been executed by the job executor.
+   *
+   * @param queueTimeInMillis the time the job waited until a job thread picked it up
+   * @param executionTimeInMillis the time the execution took, including the commit of the transaction
+   * @param failure the cause if the execution failed, otherwise <code>null</code>
+   */
+  void jobExecuted(String processEngineName, JobEntity job, long queueTimeInMillis, long executionTimeInMillis, Throwable failure);
+
+  /**
+   * @return the statistics recorded for the given process engine, may be empty if
+   *   the implementation does not aggregate statistics
+   */
+  List<JobExecutionStatistics> getStatistics(String processEngineName);
+
+  /**
+   * Invoked when the given process engine is unregistered from the job executor,
+   * e.g. because it is closed. Statistics recorded for it can be discarded.
+   */
+  void processEngineUnregistered(String processEngineName);
+
+}
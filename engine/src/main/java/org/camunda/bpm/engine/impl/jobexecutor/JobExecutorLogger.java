@@ -169,4 +169,70 @@ public class JobExecutorLogger extends ProcessEngineLogger {
         "026", "No job found with id '{}'", jobId));
   }
 
+  public void handingOffJobs(String processEngine, Collection<String> jobs) {
+    logDebug(
+        "027",
+        "Hand off jobs for process engine '{}': {}", processEngine, jobs);
+  }
+
+  public void couldNotHandOffJobs(String processEngine, Collection<String> jobs) {
+    logWarn(
+        "028",
+        "Could not hand off jobs {} for process engine '{}'. They are acquired again when their lock has expired.", jobs, processEngine);
+  }
+
+  public void exceptionWhileExecutingJobsInOneTransaction(Collection<String> jobIds, Throwable exception) {
+    logDebug(
+        "029",
+        "Exception while executing jobs {} in one transaction, executing them one by one: {}", jobIds, exception.getMessage());
+  }
+
+  public void exceptionInTimerWheel(Throwable exception) {
+    logWarn(
+        "030",
+        "Exception while preloading or executing timers: ", exception);
+  }
+
+  public void debugPreloadedTimers(String processEngine, int numTimers) {
+    logDebug(
+        "031",
+        "Preloaded {} timers for process engine '{}'", numTimers, processEngine);
+  }
+
+  public void leasedJobPartitions(String processEngine, Collection<Integer> partitions) {
+    logDebug(
+        "032",
+        "Leased job partitions {} for process engine '{}'", partitions, processEngine);
+  }
+
+  public void exceptionDuringJobPartitionLeaseRenewal(String processEngine, Throwable exception) {
+    logWarn(
+        "033",
+        "Exception while renewing or releasing job partition leases for process engine '{}': ", processEngine, exception);
+  }
+
+  public void debugExtendedJobLocks(String processEngine, int numJobs) {
+    logDebug(
+        "034",
+        "Extended the locks of {} executing jobs for process engine '{}'", numJobs, processEngine);
+  }
+
+  public void exceptionDuringJobLockRenewal(String processEngine, Throwable exception) {
+    logWarn(
+        "035",
+        "Exception while extending the locks of executing jobs for process engine '{}': ", processEngine, exception);
+  }
+
+  public void usingVirtualThreads(String name) {
+    logInfo(
+        "036",
+        "{} executes jobs on virtual threads", name);
+  }
+
+  public void virtualThreadsNotSupported(String name, Throwable cause) {
+    logInfo(
+        "037",
+        "Virtual threads are not supported by this JVM ({}), {} executes jobs on platform threads instead", cause.toString(), name);
+  }
+
 }
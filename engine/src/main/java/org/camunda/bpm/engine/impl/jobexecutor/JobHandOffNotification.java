@@ -0,0 +1,71 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+
+/**
+ * Submits the jobs which were locked to the local job executor by the
+ * committed transaction directly for execution.
+ *
+ * <p>Like {@link org.camunda.bpm.engine.impl.cmd.AcquireJobsCmd}, exclusive jobs of the same process instance
+ * are submitted as one batch so that they are executed sequentially.</p>
+ */
+public class JobHandOffNotification implements TransactionListener {
+
+  private final static JobExecutorLogger LOG = ProcessEngineLogger.JOB_EXECUTOR_LOGGER;
+
+  protected JobExecutor jobExecutor;
+  protected ProcessEngineImpl processEngine;
+
+  protected List<List<String>> jobIdBatches = new ArrayList<List<String>>();
+  protected Map<String, List<String>> exclusiveJobIdBatches = new LinkedHashMap<String, List<String>>();
+
+  public JobHandOffNotification(JobExecutor jobExecutor, ProcessEngineImpl processEngine) {
+    this.jobExecutor = jobExecutor;
+    this.processEngine = processEngine;
+  }
+
+  public void addJob(JobEntity job) {
+    if (job.isExclusive() && job.getProcessInstanceId() != null) {
+      List<String> exclusiveJobIds = exclusiveJobIdBatches.get(job.getProcessInstanceId());
+      if (exclusiveJobIds == null) {
+        exclusiveJobIds = new ArrayList<String>();
+        exclusiveJobIdBatches.put(job.getProcessInstanceId(), exclusiveJobIds);
+        jobIdBatches.add(exclusiveJobIds);
+      }
+      exclusiveJobIds.add(job.getId());
+    }
+    else {
+      jobIdBatches.add(Collections.singletonList(job.getId()));
+    }
+  }
+
+  public void execute(CommandContext commandContext) {
+    for (List<String> jobIds : jobIdBatches) {
+      LOG.handingOffJobs(processEngine.getName(), jobIds);
+      jobExecutor.handOffJobs(jobIds, processEngine);
+    }
+  }
+
+}
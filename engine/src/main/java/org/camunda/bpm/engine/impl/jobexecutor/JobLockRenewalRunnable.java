@@ -0,0 +1,145 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cmd.ExtendJobLocksCmd;
+import org.camunda.bpm.engine.impl.util.CollectionUtil;
+
+/**
+ * Periodically extends the locks of the jobs which are currently executed by the job executor,
+ * see {@link JobExecutor#getLockRenewalIntervalInMillis()}.
+ *
+ * <p>The locks of all executing jobs of a process engine are extended with one bulk update per interval.
+ * This allows a short lock time for long-running jobs, so that the jobs of a failed job executor are
+ * acquired again soon, without the risk that a job is acquired by another job executor while it is still
+ * executed.</p>
+ */
+public class JobLockRenewalRunnable implements Runnable {
+
+  private final static JobExecutorLogger LOG = ProcessEngineLogger.JOB_EXECUTOR_LOGGER;
+
+  protected static final int MAX_JOBS_PER_UPDATE = 500;
+
+  protected final JobExecutor jobExecutor;
+
+  protected final ConcurrentMap<ProcessEngineImpl, Set<String>> executingJobIds = new ConcurrentHashMap<ProcessEngineImpl, Set<String>>();
+
+  protected volatile boolean isInterrupted = false;
+  protected final Object MONITOR = new Object();
+
+  public JobLockRenewalRunnable(JobExecutor jobExecutor) {
+    this.jobExecutor = jobExecutor;
+  }
+
+  public void run() {
+    while (!isInterrupted) {
+      suspend(jobExecutor.getLockRenewalIntervalInMillis());
+
+      if (!isInterrupted) {
+        extendLocks();
+      }
+    }
+  }
+
+  public void stop() {
+    synchronized (MONITOR) {
+      isInterrupted = true;
+      MONITOR.notifyAll();
+    }
+  }
+
+  public void jobsStarted(List<String> jobIds, ProcessEngineImpl processEngine) {
+    Set<String> jobIdsOfEngine = executingJobIds.get(processEngine);
+    if (jobIdsOfEngine == null) {
+      Set<String> newJobIdsOfEngine = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+      jobIdsOfEngine = executingJobIds.putIfAbsent(processEngine, newJobIdsOfEngine);
+      if (jobIdsOfEngine == null) {
+        jobIdsOfEngine = newJobIdsOfEngine;
+      }
+    }
+    jobIdsOfEngine.addAll(jobIds);
+  }
+
+  public void jobsFinished(List<String> jobIds, ProcessEngineImpl processEngine) {
+    Set<String> jobIdsOfEngine = executingJobIds.get(processEngine);
+    if (jobIdsOfEngine != null) {
+      jobIdsOfEngine.removeAll(jobIds);
+    }
+  }
+
+  public void processEngineUnregistered(ProcessEngineImpl processEngine) {
+    executingJobIds.remove(processEngine);
+  }
+
+  /**
+   * @return the ids of the jobs which are currently executed for the given process engine
+   */
+  public List<String> getExecutingJobIds(ProcessEngineImpl processEngine) {
+    Set<String> jobIdsOfEngine = executingJobIds.get(processEngine);
+    if (jobIdsOfEngine != null) {
+      return new ArrayList<String>(jobIdsOfEngine);
+    }
+    else {
+      return new ArrayList<String>();
+    }
+  }
+
+  protected void extendLocks() {
+    for (Map.Entry<ProcessEngineImpl, Set<String>> jobIdsOfEngine : executingJobIds.entrySet()) {
+      ProcessEngineImpl processEngine = jobIdsOfEngine.getKey();
+      List<String> jobIds = new ArrayList<String>(jobIdsOfEngine.getValue());
+      if (jobIds.isEmpty()) {
+        continue;
+      }
+
+      try {
+        for (List<String> jobIdBatch : CollectionUtil.partition(jobIds, MAX_JOBS_PER_UPDATE)) {
+          processEngine.getProcessEngineConfiguration()
+            .getCommandExecutorTxRequired()
+            .execute(new ExtendJobLocksCmd(jobExecutor, jobIdBatch));
+        }
+        LOG.debugExtendedJobLocks(processEngine.getName(), jobIds.size());
+
+      } catch (Exception e) {
+        LOG.exceptionDuringJobLockRenewal(processEngine.getName(), e);
+      }
+    }
+  }
+
+  protected void suspend(long millis) {
+    if (millis <= 0) {
+      return;
+    }
+
+    synchronized (MONITOR) {
+      if (!isInterrupted) {
+        try {
+          MONITOR.wait(millis);
+        } catch (InterruptedException e) {
+          LOG.jobExecutionWaitInterrupted();
+        }
+      }
+    }
+  }
+
+}
@@ -0,0 +1,113 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cmd.ReleaseJobPartitionLeasesCmd;
+import org.camunda.bpm.engine.impl.cmd.RenewJobPartitionLeasesCmd;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * Keeps track of the job partitions a job executor has leased per process engine.
+ *
+ * <p>If {@link org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl#getJobExecutorPartitionCount()}
+ * is greater than zero, jobs of a process instance are assigned to a partition by the hash of the process
+ * instance id. The job executors of a cluster lease the partitions among each other so that they do not compete
+ * for the same jobs during acquisition. The leases are renewed and rebalanced by the acquisition thread.</p>
+ */
+public class JobPartitionLeases {
+
+  private final static JobExecutorLogger LOG = ProcessEngineLogger.JOB_EXECUTOR_LOGGER;
+
+  protected JobExecutor jobExecutor;
+
+  protected Map<String, List<Integer>> partitionsByEngine = new ConcurrentHashMap<String, List<Integer>>();
+  protected Map<String, Long> renewalTimesByEngine = new ConcurrentHashMap<String, Long>();
+
+  public JobPartitionLeases(JobExecutor jobExecutor) {
+    this.jobExecutor = jobExecutor;
+  }
+
+  public static int getPartition(String processInstanceId, int partitionCount) {
+    return (processInstanceId.hashCode() & Integer.MAX_VALUE) % partitionCount;
+  }
+
+  /**
+   * Renews the leases of the given process engine if half of the lease time has passed since
+   * the last renewal. If the renewal fails, it is repeated with the next call.
+   */
+  public void renewLeases(ProcessEngineImpl processEngine) {
+    int partitionCount = processEngine.getProcessEngineConfiguration().getJobExecutorPartitionCount();
+    if (partitionCount <= 0) {
+      return;
+    }
+
+    String engineName = processEngine.getName();
+    long now = ClockUtil.getCurrentTime().getTime();
+    Long renewalTime = renewalTimesByEngine.get(engineName);
+    if (renewalTime != null && now < renewalTime) {
+      return;
+    }
+
+    try {
+      List<Integer> partitions = processEngine.getProcessEngineConfiguration()
+          .getCommandExecutorTxRequired()
+          .execute(new RenewJobPartitionLeasesCmd(jobExecutor, partitionCount));
+
+      partitionsByEngine.put(engineName, partitions);
+      renewalTimesByEngine.put(engineName, now + jobExecutor.getPartitionLeaseTimeInMillis() / 2);
+
+      LOG.leasedJobPartitions(engineName, partitions);
+    }
+    catch (Exception e) {
+      LOG.exceptionDuringJobPartitionLeaseRenewal(engineName, e);
+    }
+  }
+
+  /**
+   * @return the partitions the job executor has leased for the given process engine
+   */
+  public List<Integer> getPartitions(String engineName) {
+    List<Integer> partitions = partitionsByEngine.get(engineName);
+    if (partitions != null) {
+      return partitions;
+    }
+    else {
+      return Collections.emptyList();
+    }
+  }
+
+  public void releaseLeases(ProcessEngineImpl processEngine) {
+    String engineName = processEngine.getName();
+    partitionsByEngine.remove(engineName);
+    renewalTimesByEngine.remove(engineName);
+
+    if (processEngine.getProcessEngineConfiguration().getJobExecutorPartitionCount() > 0) {
+      try {
+        processEngine.getProcessEngineConfiguration()
+          .getCommandExecutorTxRequired()
+          .execute(new ReleaseJobPartitionLeasesCmd(jobExecutor));
+      }
+      catch (Exception e) {
+        LOG.exceptionDuringJobPartitionLeaseRenewal(engineName, e);
+      }
+    }
+  }
+
+}
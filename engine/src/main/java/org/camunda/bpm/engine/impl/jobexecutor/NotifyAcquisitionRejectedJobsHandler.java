@@ -24,9 +24,8 @@ public class NotifyAcquisitionRejectedJobsHandler implements RejectedJobsHandler
 
   @Override
   public void jobsRejected(List<String> jobIds, ProcessEngineImpl processEngine, JobExecutor jobExecutor) {
-    AcquireJobsRunnable acquireJobsRunnable = jobExecutor.getAcquireJobsRunnable();
-    if (acquireJobsRunnable instanceof SequentialJobAcquisitionRunnable) {
-      JobAcquisitionContext context = ((SequentialJobAcquisitionRunnable) acquireJobsRunnable).getAcquisitionContext();
+    JobAcquisitionContext context = jobExecutor.getAcquisitionContext(processEngine.getName());
+    if (context != null) {
       context.submitRejectedBatch(processEngine.getName(), jobIds);
     }
     else {
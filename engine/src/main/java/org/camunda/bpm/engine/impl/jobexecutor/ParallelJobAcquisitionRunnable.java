@@ -0,0 +1,166 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+
+/**
+ * <p>{@link AcquireJobsRunnable} that acquires jobs for every registered process engine in a
+ * separate thread.</p>
+ *
+ * <p>For every process engine, an {@link EngineJobAcquisitionRunnable} with its own acquisition
+ * context and backoff is started. All of them submit the acquired jobs to the execution
+ * resources of the job executor. This way, a process engine with a slow database or a high
+ * backoff does not delay the job acquisition for the other process engines.</p>
+ *
+ * <p>This runnable itself only starts and stops the acquisition threads when process engines are
+ * registered or unregistered.</p>
+ */
+public class ParallelJobAcquisitionRunnable extends AcquireJobsRunnable {
+
+  protected final JobExecutorLogger LOG = ProcessEngineLogger.JOB_EXECUTOR_LOGGER;
+
+  protected Map<String, EngineJobAcquisitionRunnable> engineAcquisitionRunnables = new ConcurrentHashMap<String, EngineJobAcquisitionRunnable>();
+  protected Map<String, Thread> engineAcquisitionThreads = new HashMap<String, Thread>();
+
+  protected volatile boolean isProcessEnginesChanged = true;
+
+  public ParallelJobAcquisitionRunnable(JobExecutor jobExecutor) {
+    super(jobExecutor);
+  }
+
+  public synchronized void run() {
+    LOG.startingToAcquireJobs(jobExecutor.getName());
+
+    while (!isInterrupted) {
+      if (isProcessEnginesChanged) {
+        isProcessEnginesChanged = false;
+        synchronizeAcquisitionThreads();
+      }
+
+      waitForProcessEngineChanges();
+    }
+
+    stopAcquisitionThreads();
+
+    LOG.stoppedJobAcquisition(jobExecutor.getName());
+  }
+
+  protected void waitForProcessEngineChanges() {
+    try {
+      synchronized (MONITOR) {
+        if (!isInterrupted && !isProcessEnginesChanged) {
+          isWaiting.set(true);
+          MONITOR.wait();
+        }
+      }
+    }
+    catch (InterruptedException e) {
+      LOG.jobExecutionWaitInterrupted();
+    }
+    finally {
+      isWaiting.set(false);
+    }
+  }
+
+  /**
+   * Starts an acquisition thread for every newly registered process engine and
+   * stops the acquisition threads of unregistered process engines.
+   */
+  protected void synchronizeAcquisitionThreads() {
+    Map<String, ProcessEngineImpl> processEngines = new HashMap<String, ProcessEngineImpl>();
+    Iterator<ProcessEngineImpl> engineIterator = jobExecutor.engineIterator();
+    while (engineIterator.hasNext()) {
+      ProcessEngineImpl processEngine = engineIterator.next();
+      processEngines.put(processEngine.getName(), processEngine);
+    }
+
+    Iterator<Map.Entry<String, EngineJobAcquisitionRunnable>> runnableIterator = engineAcquisitionRunnables.entrySet().iterator();
+    while (runnableIterator.hasNext()) {
+      Map.Entry<String, EngineJobAcquisitionRunnable> runnable = runnableIterator.next();
+      if (processEngines.get(runnable.getKey()) != runnable.getValue().getProcessEngine()) {
+        stopAcquisitionThread(runnable.getKey(), runnable.getValue());
+        runnableIterator.remove();
+      }
+    }
+
+    for (ProcessEngineImpl processEngine : processEngines.values()) {
+      if (!engineAcquisitionRunnables.containsKey(processEngine.getName())) {
+        startAcquisitionThread(processEngine);
+      }
+    }
+  }
+
+  protected void startAcquisitionThread(ProcessEngineImpl processEngine) {
+    EngineJobAcquisitionRunnable runnable = new EngineJobAcquisitionRunnable(jobExecutor, processEngine);
+    engineAcquisitionRunnables.put(processEngine.getName(), runnable);
+
+    Thread thread = new Thread(runnable, jobExecutor.getName() + "[" + processEngine.getName() + "]");
+    engineAcquisitionThreads.put(processEngine.getName(), thread);
+    thread.start();
+  }
+
+  protected void stopAcquisitionThread(String engineName, EngineJobAcquisitionRunnable runnable) {
+    runnable.stop();
+
+    Thread thread = engineAcquisitionThreads.remove(engineName);
+    if (thread != null) {
+      try {
+        thread.join();
+      }
+      catch (InterruptedException e) {
+        LOG.interruptedWhileShuttingDownjobExecutor(e);
+      }
+    }
+  }
+
+  protected void stopAcquisitionThreads() {
+    for (Map.Entry<String, EngineJobAcquisitionRunnable> runnable : engineAcquisitionRunnables.entrySet()) {
+      stopAcquisitionThread(runnable.getKey(), runnable.getValue());
+    }
+    engineAcquisitionRunnables.clear();
+  }
+
+  /**
+   * Notifies this runnable that process engines have been registered or
+   * unregistered with the job executor.
+   */
+  public void processEnginesChanged() {
+    synchronized (MONITOR) {
+      isProcessEnginesChanged = true;
+      MONITOR.notifyAll();
+    }
+  }
+
+  @Override
+  public void jobWasAdded() {
+    for (EngineJobAcquisitionRunnable runnable : engineAcquisitionRunnables.values()) {
+      runnable.jobWasAdded();
+    }
+  }
+
+  /**
+   * @return the runnable which acquires the jobs of the given process engine or
+   *   null if there is none
+   */
+  public SequentialJobAcquisitionRunnable getEngineAcquisitionRunnable(String engineName) {
+    return engineAcquisitionRunnables.get(engineName);
+  }
+
+}
@@ -58,6 +58,20 @@ public class RuntimeContainerJobExecutor extends JobExecutor {
     }
   }
 
+  @Override
+  public boolean isHandOffSupported() {
+    return true;
+  }
+
+  @Override
+  public void handOffJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+    final ExecutorService executorService = getRuntimeContainerDelegate().getExecutorService();
+
+    if(!executorService.schedule(getExecuteJobsRunnable(jobIds, processEngine), false)) {
+      handOffRejected(jobIds, processEngine);
+    }
+  }
+
   protected RuntimeContainerDelegate getRuntimeContainerDelegate() {
     return RuntimeContainerDelegate.INSTANCE.get();
   }
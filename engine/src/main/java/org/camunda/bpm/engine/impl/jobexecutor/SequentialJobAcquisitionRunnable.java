@@ -1,5 +1,6 @@
 package org.camunda.bpm.engine.impl.jobexecutor;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
@@ -47,7 +48,7 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
       acquisitionContext.setAcquisitionTime(System.currentTimeMillis());
 
 
-      Iterator<ProcessEngineImpl> engineIterator = jobExecutor.engineIterator();
+      Iterator<ProcessEngineImpl> engineIterator = engineIterator();
 
       try {
         while (engineIterator.hasNext()) {
@@ -85,6 +86,13 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
     LOG.stoppedJobAcquisition(jobExecutor.getName());
   }
 
+  /**
+   * @return the process engines to acquire jobs for
+   */
+  protected Iterator<ProcessEngineImpl> engineIterator() {
+    return jobExecutor.engineIterator();
+  }
+
   protected JobAcquisitionContext initializeAcquisitionContext() {
     return new JobAcquisitionContext();
   }
@@ -99,7 +107,12 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
   }
 
   protected JobAcquisitionStrategy initializeAcquisitionStrategy() {
-    return new BackoffJobAcquisitionStrategy(jobExecutor);
+    if (jobExecutor.isAdaptiveAcquisition()) {
+      return new AdaptiveJobAcquisitionStrategy(jobExecutor);
+    }
+    else {
+      return new BackoffJobAcquisitionStrategy(jobExecutor);
+    }
   }
 
   public JobAcquisitionContext getAcquisitionContext() {
@@ -119,13 +132,42 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
     }
 
     // submit those jobs that were acquired in the current cycle
-    for (List<String> jobIds : acquiredJobs.getJobIdBatches()) {
+    List<List<String>> jobIdBatches = acquiredJobs.getJobIdBatches();
+    if (jobExecutor.getMaxJobsPerTransaction() > 1) {
+      jobIdBatches = combineSingleJobBatches(jobIdBatches, jobExecutor.getMaxJobsPerTransaction());
+    }
+
+    for (List<String> jobIds : jobIdBatches) {
       LOG.executeJobs(currentProcessEngine.getName(), jobIds);
 
       jobExecutor.executeJobs(jobIds, currentProcessEngine);
     }
   }
 
+  /**
+   * Combines batches of single jobs so that they can be executed in one transaction.
+   * Batches of multiple jobs contain the exclusive jobs of one process instance and are kept as they are.
+   */
+  protected List<List<String>> combineSingleJobBatches(List<List<String>> jobIdBatches, int maxJobsPerTransaction) {
+    List<List<String>> combinedJobIdBatches = new ArrayList<List<String>>();
+    List<String> combinedJobIds = null;
+
+    for (List<String> jobIds : jobIdBatches) {
+      if (jobIds.size() > 1) {
+        combinedJobIdBatches.add(jobIds);
+      }
+      else {
+        if (combinedJobIds == null || combinedJobIds.size() >= maxJobsPerTransaction) {
+          combinedJobIds = new ArrayList<String>();
+          combinedJobIdBatches.add(combinedJobIds);
+        }
+        combinedJobIds.addAll(jobIds);
+      }
+    }
+
+    return combinedJobIdBatches;
+  }
+
   protected AcquiredJobs acquireJobs(
       JobAcquisitionContext context,
       JobAcquisitionStrategy acquisitionStrategy,
@@ -137,9 +179,13 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
 
     AcquiredJobs acquiredJobs = null;
 
+    jobExecutor.getJobPartitionLeases().renewLeases(currentProcessEngine);
+
     if (numJobsToAcquire > 0) {
       jobExecutor.logAcquisitionAttempt(currentProcessEngine);
+      long acquisitionStart = System.currentTimeMillis();
       acquiredJobs = commandExecutor.execute(jobExecutor.getAcquireJobsCmd(numJobsToAcquire));
+      jobExecutor.logAcquisitionTime(currentProcessEngine, System.currentTimeMillis() - acquisitionStart);
     }
     else {
       acquiredJobs = new AcquiredJobs(numJobsToAcquire);
@@ -22,6 +22,19 @@ import org.camunda.bpm.engine.management.Metrics;
  */
 public class SuccessfulJobListener implements Command<Void> {
 
+  protected int successfulJobs;
+
+  public SuccessfulJobListener() {
+    this(1);
+  }
+
+  /**
+   * @param successfulJobs the number of jobs which were executed successfully in one transaction
+   */
+  public SuccessfulJobListener(int successfulJobs) {
+    this.successfulJobs = successfulJobs;
+  }
+
   public Void execute(CommandContext commandContext) {
     logJobSuccess(commandContext);
 
@@ -32,7 +45,7 @@ public class SuccessfulJobListener implements Command<Void> {
     if (commandContext.getProcessEngineConfiguration().isMetricsEnabled()) {
       commandContext.getProcessEngineConfiguration()
         .getMetricsRegistry()
-        .markOccurrence(Metrics.JOB_SUCCESSFUL);
+        .markOccurrence(Metrics.JOB_SUCCESSFUL, successfulJobs);
     }
   }
 
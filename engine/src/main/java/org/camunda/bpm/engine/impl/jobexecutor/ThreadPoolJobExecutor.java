@@ -46,6 +46,45 @@ public class ThreadPoolJobExecutor extends JobExecutor {
     }
   }
 
+  @Override
+  public boolean isHandOffSupported() {
+    return true;
+  }
+
+  @Override
+  public void handOffJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+    try {
+      threadPoolExecutor.execute(getExecuteJobsRunnable(jobIds, processEngine));
+
+    } catch (RejectedExecutionException e) {
+      handOffRejected(jobIds, processEngine);
+
+    }
+  }
+
+  @Override
+  public int getFreeExecutionCapacity() {
+    ThreadPoolExecutor threadPoolExecutor = this.threadPoolExecutor;
+    if (threadPoolExecutor != null) {
+      int idleThreads = Math.max(0, threadPoolExecutor.getMaximumPoolSize() - threadPoolExecutor.getActiveCount());
+      return idleThreads + threadPoolExecutor.getQueue().remainingCapacity();
+    }
+    else {
+      return -1;
+    }
+  }
+
+  @Override
+  public int getActiveExecutions() {
+    ThreadPoolExecutor threadPoolExecutor = this.threadPoolExecutor;
+    if (threadPoolExecutor != null) {
+      return threadPoolExecutor.getActiveCount();
+    }
+    else {
+      return -1;
+    }
+  }
+
   // getters / setters
 
   public ThreadPoolExecutor getThreadPoolExecutor() {
@@ -0,0 +1,183 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel which keeps elements until their due time has passed.
+ *
+ * <p>Time is divided into ticks of a fixed duration. The first level has one slot
+ * per tick; a slot of level <code>n</code> covers <code>wheelSize^n</code> ticks.
+ * Elements are added to the lowest level that covers their due time and move to
+ * lower levels while the wheel advances, so that adding and expiring an element
+ * takes constant time independent of the number of elements.</p>
+ *
+ * <p>This class is not thread-safe.</p>
+ */
+public class TimerWheel<T> {
+
+  protected final long tickDuration;
+  protected final int wheelSize;
+
+  protected List<List<List<TimerWheelEntry<T>>>> levels = new ArrayList<List<List<TimerWheelEntry<T>>>>();
+  protected long currentTick;
+  protected int size = 0;
+
+  public TimerWheel(long tickDuration, int wheelSize, long currentTime) {
+    this.tickDuration = tickDuration;
+    this.wheelSize = wheelSize;
+    this.currentTick = currentTime / tickDuration;
+    addLevel();
+  }
+
+  /**
+   * Adds an element which expires once the wheel has advanced to its due time,
+   * never earlier. Elements which are already due expire with the next tick.
+   */
+  public void add(T element, long dueTime) {
+    // round up so that an element does not expire before its due time
+    add(new TimerWheelEntry<T>(element, (dueTime + tickDuration - 1) / tickDuration));
+    size++;
+  }
+
+  /**
+   * Advances the wheel to the given time.
+   *
+   * @return the elements which are due at the given time
+   */
+  public List<T> advance(long time) {
+    List<T> expired = new ArrayList<T>();
+    long tick = time / tickDuration;
+
+    if (size == 0 || tick - currentTick >= getSpan()) {
+      // nothing to cascade tick by tick
+      for (List<List<TimerWheelEntry<T>>> level : levels) {
+        for (List<TimerWheelEntry<T>> slot : level) {
+          for (TimerWheelEntry<T> entry : slot) {
+            expired.add(entry.element);
+          }
+          slot.clear();
+        }
+      }
+      currentTick = Math.max(currentTick, tick + 1);
+    }
+    else {
+      while (currentTick <= tick) {
+        cascade();
+
+        List<TimerWheelEntry<T>> slot = levels.get(0).get(slotIndex(currentTick, 0));
+        for (TimerWheelEntry<T> entry : slot) {
+          expired.add(entry.element);
+        }
+        slot.clear();
+
+        currentTick++;
+      }
+    }
+
+    size -= expired.size();
+    return expired;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @return the time of the tick the wheel advances to next
+   */
+  public long getNextTickTime() {
+    return currentTick * tickDuration;
+  }
+
+  protected void add(TimerWheelEntry<T> entry) {
+    long delta = Math.max(0, entry.dueTick - currentTick);
+    long dueTick = Math.max(entry.dueTick, currentTick);
+
+    int level = 0;
+    long levelSpan = wheelSize;
+    while (delta >= levelSpan) {
+      level++;
+      levelSpan *= wheelSize;
+      if (level == levels.size()) {
+        addLevel();
+      }
+    }
+
+    levels.get(level).get(slotIndex(dueTick, level)).add(entry);
+  }
+
+  /**
+   * Moves the entries of the higher level slots which start at the current tick
+   * to the lower levels.
+   */
+  protected void cascade() {
+    long ticksPerSlot = wheelSize;
+    for (int level = 1; level < levels.size(); level++) {
+      if (currentTick % ticksPerSlot != 0) {
+        return;
+      }
+
+      List<TimerWheelEntry<T>> slot = levels.get(level).get(slotIndex(currentTick, level));
+      List<TimerWheelEntry<T>> entries = new ArrayList<TimerWheelEntry<T>>(slot);
+      slot.clear();
+      for (TimerWheelEntry<T> entry : entries) {
+        add(entry);
+      }
+
+      ticksPerSlot *= wheelSize;
+    }
+  }
+
+  protected int slotIndex(long tick, int level) {
+    long ticksPerSlot = 1;
+    for (int i = 0; i < level; i++) {
+      ticksPerSlot *= wheelSize;
+    }
+    return (int) ((tick / ticksPerSlot) % wheelSize);
+  }
+
+  protected long getSpan() {
+    long span = 1;
+    for (int i = 0; i < levels.size(); i++) {
+      span *= wheelSize;
+    }
+    return span;
+  }
+
+  protected void addLevel() {
+    List<List<TimerWheelEntry<T>>> level = new ArrayList<List<TimerWheelEntry<T>>>(wheelSize);
+    for (int i = 0; i < wheelSize; i++) {
+      level.add(new ArrayList<TimerWheelEntry<T>>());
+    }
+    levels.add(level);
+  }
+
+  protected static class TimerWheelEntry<T> {
+
+    protected final T element;
+    protected final long dueTick;
+
+    public TimerWheelEntry(T element, long dueTick) {
+      this.element = element;
+      this.dueTick = dueTick;
+    }
+  }
+
+}
@@ -0,0 +1,180 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cmd.PrepareDueTimersCmd;
+import org.camunda.bpm.engine.impl.cmd.PreloadTimersCmd;
+import org.camunda.bpm.engine.impl.cmd.UnlockPreloadedTimersCmd;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * Keeps the timers which become due within the look ahead time of the job executor
+ * in a {@link TimerWheel} and submits them for execution when they are due.
+ *
+ * <p>Timers are preloaded for all engines of the job executor every half look ahead time.
+ * They are locked to the job executor until the lock time has passed after their due date,
+ * so that they are acquired by any job executor if this one fails to execute them.</p>
+ */
+public class TimerWheelRunnable implements Runnable {
+
+  private final static JobExecutorLogger LOG = ProcessEngineLogger.JOB_EXECUTOR_LOGGER;
+
+  protected static final int WHEEL_SIZE = 64;
+
+  protected final JobExecutor jobExecutor;
+  protected final TimerWheel<PreloadedTimer> timerWheel;
+
+  protected volatile boolean isInterrupted = false;
+  protected final Object MONITOR = new Object();
+
+  public TimerWheelRunnable(JobExecutor jobExecutor) {
+    this.jobExecutor = jobExecutor;
+    this.timerWheel = new TimerWheel<PreloadedTimer>(jobExecutor.getTimerWheelTickInMillis(), WHEEL_SIZE,
+        ClockUtil.getCurrentTime().getTime());
+  }
+
+  public void run() {
+    long nextPreloadTime = 0;
+
+    while (!isInterrupted) {
+      long now = ClockUtil.getCurrentTime().getTime();
+
+      if (now >= nextPreloadTime) {
+        preloadTimers(now);
+        nextPreloadTime = now + Math.max(1, jobExecutor.getTimerLookAheadInMillis() / 2);
+      }
+
+      executeTimers(timerWheel.advance(now));
+
+      long nextWakeUpTime = nextPreloadTime;
+      if (!timerWheel.isEmpty()) {
+        nextWakeUpTime = Math.min(nextWakeUpTime, timerWheel.getNextTickTime());
+      }
+      suspend(nextWakeUpTime - now);
+    }
+
+    unlockTimers(timerWheel.advance(Long.MAX_VALUE));
+  }
+
+  public void stop() {
+    synchronized (MONITOR) {
+      isInterrupted = true;
+      MONITOR.notifyAll();
+    }
+  }
+
+  protected void preloadTimers(long now) {
+    Date lookAheadTime = new Date(now + jobExecutor.getTimerLookAheadInMillis());
+
+    Iterator<ProcessEngineImpl> engineIterator = jobExecutor.engineIterator();
+    while (engineIterator.hasNext()) {
+      ProcessEngineImpl processEngine = engineIterator.next();
+      try {
+        List<JobEntity> timers = getCommandExecutor(processEngine)
+            .execute(new PreloadTimersCmd(jobExecutor, lookAheadTime, jobExecutor.getMaxTimersPerPreload()));
+
+        for (JobEntity timer : timers) {
+          timerWheel.add(new PreloadedTimer(processEngine, timer.getId()), timer.getDuedate().getTime());
+        }
+        LOG.debugPreloadedTimers(processEngine.getName(), timers.size());
+
+      } catch (Exception e) {
+        LOG.exceptionInTimerWheel(e);
+      }
+    }
+  }
+
+  protected void executeTimers(List<PreloadedTimer> timers) {
+    for (Map.Entry<ProcessEngineImpl, List<String>> timerIds : groupByEngine(timers).entrySet()) {
+      ProcessEngineImpl processEngine = timerIds.getKey();
+      try {
+        List<List<String>> jobIdBatches = getCommandExecutor(processEngine)
+            .execute(new PrepareDueTimersCmd(jobExecutor, timerIds.getValue()));
+
+        for (List<String> jobIds : jobIdBatches) {
+          jobExecutor.handOffJobs(jobIds, processEngine);
+        }
+
+      } catch (Exception e) {
+        LOG.exceptionInTimerWheel(e);
+      }
+    }
+  }
+
+  protected void unlockTimers(List<PreloadedTimer> timers) {
+    for (Map.Entry<ProcessEngineImpl, List<String>> timerIds : groupByEngine(timers).entrySet()) {
+      try {
+        getCommandExecutor(timerIds.getKey()).execute(new UnlockPreloadedTimersCmd(jobExecutor, timerIds.getValue()));
+
+      } catch (Exception e) {
+        LOG.exceptionInTimerWheel(e);
+      }
+    }
+  }
+
+  protected Map<ProcessEngineImpl, List<String>> groupByEngine(List<PreloadedTimer> timers) {
+    Map<ProcessEngineImpl, List<String>> timerIdsByEngine = new LinkedHashMap<ProcessEngineImpl, List<String>>();
+    for (PreloadedTimer timer : timers) {
+      List<String> timerIds = timerIdsByEngine.get(timer.processEngine);
+      if (timerIds == null) {
+        timerIds = new ArrayList<String>();
+        timerIdsByEngine.put(timer.processEngine, timerIds);
+      }
+      timerIds.add(timer.jobId);
+    }
+    return timerIdsByEngine;
+  }
+
+  protected CommandExecutor getCommandExecutor(ProcessEngineImpl processEngine) {
+    return processEngine.getProcessEngineConfiguration().getCommandExecutorTxRequired();
+  }
+
+  protected void suspend(long millis) {
+    if (millis <= 0) {
+      return;
+    }
+
+    synchronized (MONITOR) {
+      if (!isInterrupted) {
+        try {
+          MONITOR.wait(millis);
+        } catch (InterruptedException e) {
+          LOG.jobExecutionWaitInterrupted();
+        }
+      }
+    }
+  }
+
+  public static class PreloadedTimer {
+
+    protected final ProcessEngineImpl processEngine;
+    protected final String jobId;
+
+    public PreloadedTimer(ProcessEngineImpl processEngine, String jobId) {
+      this.processEngine = processEngine;
+      this.jobId = jobId;
+    }
+  }
+
+}
@@ -0,0 +1,177 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+
+/**
+ * <p>{@link JobExecutor} which executes every batch of jobs on its own virtual thread
+ * if the JVM supports virtual threads (Java 21 or later). Otherwise, it falls back to
+ * a new platform thread per batch.</p>
+ *
+ * <p>Instead of a pool size, the number of concurrently executed job batches is limited
+ * by {@link #setMaxConcurrentJobs(int)}. Jobs which exceed the limit are rejected like jobs
+ * which do not fit into the queue of a {@link DefaultJobExecutor}. This allows a high limit
+ * for jobs which mostly block on I/O, e.g. HTTP connectors, without the memory cost of as many
+ * platform threads.</p>
+ *
+ * <p><em>NOTE: use this class in environments in which self-management of threads
+ * is permitted.</em></p>
+ */
+public class VirtualThreadJobExecutor extends JobExecutor {
+
+  private final static JobExecutorLogger LOG = ProcessEngineLogger.JOB_EXECUTOR_LOGGER;
+
+  protected int maxConcurrentJobs = 100;
+
+  protected ExecutorService executorService;
+  protected Semaphore permits;
+
+  protected void startExecutingJobs() {
+    if (executorService == null || executorService.isShutdown()) {
+      permits = new Semaphore(maxConcurrentJobs);
+      executorService = createExecutorService();
+    }
+
+    startJobAcquisitionThread();
+  }
+
+  protected void stopExecutingJobs() {
+    stopJobAcquisitionThread();
+
+    executorService.shutdown();
+
+    // Waits for 1 minute to finish all currently executing jobs
+    try {
+      if (!executorService.awaitTermination(60L, TimeUnit.SECONDS)) {
+        LOG.timeoutDuringShutdown();
+      }
+    } catch (InterruptedException e) {
+      LOG.interruptedWhileShuttingDownjobExecutor(e);
+    }
+  }
+
+  /**
+   * Creates an executor service which starts a virtual thread per task. The engine is built
+   * for older Java versions, so the factory method is looked up reflectively.
+   */
+  protected ExecutorService createExecutorService() {
+    try {
+      Method factoryMethod = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      ExecutorService virtualThreadExecutor = (ExecutorService) factoryMethod.invoke(null);
+      LOG.usingVirtualThreads(getName());
+      return virtualThreadExecutor;
+    }
+    catch (Exception e) {
+      LOG.virtualThreadsNotSupported(getName(), e);
+      return Executors.newCachedThreadPool();
+    }
+  }
+
+  public void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+    if (!submit(jobIds, processEngine)) {
+      logRejectedExecution(processEngine, jobIds.size());
+      rejectedJobsHandler.jobsRejected(jobIds, processEngine, this);
+    }
+  }
+
+  @Override
+  public boolean isHandOffSupported() {
+    return true;
+  }
+
+  @Override
+  public void handOffJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+    if (!submit(jobIds, processEngine)) {
+      handOffRejected(jobIds, processEngine);
+    }
+  }
+
+  /**
+   * @return <code>false</code> if the jobs were rejected because the limit of concurrent jobs is reached
+   */
+  protected boolean submit(List<String> jobIds, ProcessEngineImpl processEngine) {
+    if (!permits.tryAcquire()) {
+      return false;
+    }
+
+    final Runnable executeJobsRunnable = getExecuteJobsRunnable(jobIds, processEngine);
+    try {
+      executorService.execute(new Runnable() {
+        public void run() {
+          try {
+            executeJobsRunnable.run();
+          }
+          finally {
+            permits.release();
+          }
+        }
+      });
+      return true;
+    }
+    catch (RejectedExecutionException e) {
+      permits.release();
+      return false;
+    }
+  }
+
+  /**
+   * @return the number of job batches which can be started before the limit is reached
+   */
+  public int getAvailableConcurrentJobs() {
+    Semaphore permits = this.permits;
+    if (permits != null) {
+      return permits.availablePermits();
+    }
+    else {
+      return maxConcurrentJobs;
+    }
+  }
+
+  @Override
+  public int getFreeExecutionCapacity() {
+    return getAvailableConcurrentJobs();
+  }
+
+  @Override
+  public int getActiveExecutions() {
+    return maxConcurrentJobs - getAvailableConcurrentJobs();
+  }
+
+  // getters and setters //////////////////////////////////////////////////////
+
+  public int getMaxConcurrentJobs() {
+    return maxConcurrentJobs;
+  }
+
+  /**
+   * Takes effect with the next start of the job executor.
+   */
+  public void setMaxConcurrentJobs(int maxConcurrentJobs) {
+    this.maxConcurrentJobs = maxConcurrentJobs;
+  }
+
+  public ExecutorService getExecutorService() {
+    return executorService;
+  }
+
+}
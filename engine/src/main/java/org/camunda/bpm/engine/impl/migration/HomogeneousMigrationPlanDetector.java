@@ -0,0 +1,188 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.migration;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.camunda.bpm.engine.impl.bpmn.helper.BpmnProperties;
+import org.camunda.bpm.engine.impl.bpmn.parser.EventSubscriptionDeclaration;
+import org.camunda.bpm.engine.impl.migration.validation.activity.SupportedActivityValidator;
+import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
+import org.camunda.bpm.engine.impl.pvm.process.ProcessDefinitionImpl;
+import org.camunda.bpm.engine.impl.pvm.process.ScopeImpl;
+import org.camunda.bpm.engine.migration.MigrationInstruction;
+import org.camunda.bpm.engine.migration.MigrationPlan;
+
+/**
+ * Detects migration plans which can be applied to process instances by only
+ * exchanging the process definition reference, i.e. without building the
+ * migrating activity instance tree.
+ *
+ * <p>A plan is homogeneous if</p>
+ * <ul>
+ *   <li>every instruction maps an activity that supports activity instance migration
+ *       to the activity with the same id and does not update event triggers,</li>
+ *   <li>the flow scopes of every mapped activity are mapped as well
+ *       (i.e. no scope is added or removed),</li>
+ *   <li>source and target process definition have the same activities with the same
+ *       structure: flow and event scope, scope flag, behavior and timer/event subscription
+ *       declarations.</li>
+ * </ul>
+ *
+ * <p>Whether a single process instance can be migrated this way additionally depends on
+ * its runtime state, see {@link MigrateProcessInstanceCmd}.</p>
+ */
+public class HomogeneousMigrationPlanDetector {
+
+  public boolean isHomogeneous(MigrationPlan migrationPlan, ProcessDefinitionImpl sourceDefinition, ProcessDefinitionImpl targetDefinition) {
+    if (migrationPlan.getInstructions().isEmpty()) {
+      return false;
+    }
+
+    Map<String, ActivityImpl> sourceActivities = collectActivities(sourceDefinition);
+    Map<String, ActivityImpl> targetActivities = collectActivities(targetDefinition);
+
+    if (!sourceActivities.keySet().equals(targetActivities.keySet())) {
+      return false;
+    }
+
+    Set<String> mappedActivityIds = getMappedActivityIds(migrationPlan);
+    if (mappedActivityIds == null) {
+      return false;
+    }
+
+    for (String mappedActivityId : mappedActivityIds) {
+      ActivityImpl sourceActivity = sourceActivities.get(mappedActivityId);
+      if (sourceActivity == null
+          || !SupportedActivityValidator.INSTANCE.isSupportedActivity(sourceActivity)
+          || !areFlowScopesMapped(sourceActivity, mappedActivityIds)) {
+        return false;
+      }
+    }
+
+    for (ActivityImpl sourceActivity : sourceActivities.values()) {
+      if (!isEquallyStructured(sourceActivity, targetActivities.get(sourceActivity.getId()))) {
+        return false;
+      }
+    }
+
+    return isEquallyDeclared(sourceDefinition, targetDefinition);
+  }
+
+  /**
+   * @return the ids of the activities mapped by the plan or <code>null</code>
+   *   if the plan contains an instruction that is not a one-to-one mapping of an
+   *   activity to itself
+   */
+  public Set<String> getMappedActivityIds(MigrationPlan migrationPlan) {
+    Set<String> mappedActivityIds = new HashSet<String>();
+
+    for (MigrationInstruction instruction : migrationPlan.getInstructions()) {
+      String sourceActivityId = instruction.getSourceActivityId();
+      if (sourceActivityId == null
+          || !sourceActivityId.equals(instruction.getTargetActivityId())
+          || instruction.isUpdateEventTrigger()
+          || !mappedActivityIds.add(sourceActivityId)) {
+        return null;
+      }
+    }
+
+    return mappedActivityIds;
+  }
+
+  protected boolean areFlowScopesMapped(ActivityImpl activity, Set<String> mappedActivityIds) {
+    ScopeImpl flowScope = activity.getFlowScope();
+    while (flowScope instanceof ActivityImpl) {
+      if (!mappedActivityIds.contains(flowScope.getId())) {
+        return false;
+      }
+      flowScope = ((ActivityImpl) flowScope).getFlowScope();
+    }
+    return true;
+  }
+
+  protected boolean isEquallyStructured(ActivityImpl sourceActivity, ActivityImpl targetActivity) {
+    return sourceActivity.isScope() == targetActivity.isScope()
+      && haveSameId(sourceActivity.getFlowScope(), targetActivity.getFlowScope())
+      && haveSameId(sourceActivity.getEventScope(), targetActivity.getEventScope())
+      && haveSameBehavior(sourceActivity, targetActivity)
+      && isEquallyDeclared(sourceActivity, targetActivity);
+  }
+
+  protected boolean haveSameBehavior(ActivityImpl sourceActivity, ActivityImpl targetActivity) {
+    Object sourceBehavior = sourceActivity.getActivityBehavior();
+    Object targetBehavior = targetActivity.getActivityBehavior();
+
+    if (sourceBehavior == null || targetBehavior == null) {
+      return sourceBehavior == targetBehavior;
+    }
+    return sourceBehavior.getClass().equals(targetBehavior.getClass());
+  }
+
+  protected boolean isEquallyDeclared(ScopeImpl sourceScope, ScopeImpl targetScope) {
+    Set<String> sourceTimers = sourceScope.getProperties().get(BpmnProperties.TIMER_DECLARATIONS).keySet();
+    Set<String> targetTimers = targetScope.getProperties().get(BpmnProperties.TIMER_DECLARATIONS).keySet();
+    if (!sourceTimers.equals(targetTimers)) {
+      return false;
+    }
+
+    Map<String, EventSubscriptionDeclaration> sourceEvents = sourceScope.getProperties().get(BpmnProperties.EVENT_SUBSCRIPTION_DECLARATIONS);
+    Map<String, EventSubscriptionDeclaration> targetEvents = targetScope.getProperties().get(BpmnProperties.EVENT_SUBSCRIPTION_DECLARATIONS);
+    if (!sourceEvents.keySet().equals(targetEvents.keySet())) {
+      return false;
+    }
+
+    for (Map.Entry<String, EventSubscriptionDeclaration> sourceEvent : sourceEvents.entrySet()) {
+      EventSubscriptionDeclaration sourceDeclaration = sourceEvent.getValue();
+      EventSubscriptionDeclaration targetDeclaration = targetEvents.get(sourceEvent.getKey());
+      if (!equals(sourceDeclaration.getEventType(), targetDeclaration.getEventType())
+          || !equals(sourceDeclaration.getUnresolvedEventName(), targetDeclaration.getUnresolvedEventName())) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  protected boolean haveSameId(ScopeImpl sourceScope, ScopeImpl targetScope) {
+    if (sourceScope == null || targetScope == null) {
+      return sourceScope == targetScope;
+    }
+    if (sourceScope instanceof ProcessDefinitionImpl || targetScope instanceof ProcessDefinitionImpl) {
+      // the process definitions themselves have different ids
+      return sourceScope instanceof ProcessDefinitionImpl && targetScope instanceof ProcessDefinitionImpl;
+    }
+    return sourceScope.getId().equals(targetScope.getId());
+  }
+
+  protected boolean equals(String first, String second) {
+    return first == null ? second == null : first.equals(second);
+  }
+
+  protected Map<String, ActivityImpl> collectActivities(ScopeImpl scope) {
+    Map<String, ActivityImpl> activities = new HashMap<String, ActivityImpl>();
+    collectActivities(scope, activities);
+    return activities;
+  }
+
+  protected void collectActivities(ScopeImpl scope, Map<String, ActivityImpl> activities) {
+    for (ActivityImpl activity : scope.getActivities()) {
+      activities.put(activity.getId(), activity);
+      collectActivities(activity, activities);
+    }
+  }
+
+}
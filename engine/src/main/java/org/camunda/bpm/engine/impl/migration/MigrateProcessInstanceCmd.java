@@ -17,9 +17,11 @@ import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotContainsNull;
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotEmpty;
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -29,8 +31,12 @@ import org.camunda.bpm.application.ProcessApplicationReference;
 import org.camunda.bpm.engine.BadUserRequestException;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.cfg.CommandChecker;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.context.ProcessApplicationContextUtil;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.CachedDbEntity;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCache;
+import org.camunda.bpm.engine.impl.history.handler.DbHistoryEventHandler;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.migration.instance.DeleteUnmappedInstanceVisitor;
 import org.camunda.bpm.engine.impl.migration.instance.MigratingActivityInstance;
@@ -53,6 +59,7 @@ import org.camunda.bpm.engine.impl.migration.validation.instance.MigratingTransi
 import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
 import org.camunda.bpm.engine.impl.tree.ReferenceWalker;
+import org.camunda.bpm.engine.impl.util.CollectionUtil;
 import org.camunda.bpm.engine.migration.MigrationPlan;
 
 /**
@@ -73,6 +80,12 @@ public class MigrateProcessInstanceCmd extends AbstractMigrationCmd<Void> {
 
   protected static final MigrationLogger LOGGER = ProcessEngineLogger.MIGRATION_LOGGER;
 
+  /**
+   * Maximum number of process instance ids per set-based statement
+   * (some databases limit the number of elements in an IN clause to 1000)
+   */
+  protected static final int BULK_MIGRATION_CHUNK_SIZE = 1000;
+
   protected boolean writeOperationLog;
 
   public MigrateProcessInstanceCmd(MigrationPlanExecutionBuilderImpl migrationPlanExecutionBuilder, boolean writeOperationLog) {
@@ -88,7 +101,7 @@ public class MigrateProcessInstanceCmd extends AbstractMigrationCmd<Void> {
     ensureNotEmpty(BadUserRequestException.class, "Process instance ids cannot empty", "process instance ids", processInstanceIds);
     ensureNotContainsNull(BadUserRequestException.class, "Process instance ids cannot be null", "process instance ids", processInstanceIds);
 
-    ProcessDefinitionEntity sourceDefinition = resolveSourceProcessDefinition(commandContext);
+    final ProcessDefinitionEntity sourceDefinition = resolveSourceProcessDefinition(commandContext);
     final ProcessDefinitionEntity targetDefinition = resolveTargetProcessDefinition(commandContext);
 
     checkAuthorizations(commandContext,
@@ -107,7 +120,12 @@ public class MigrateProcessInstanceCmd extends AbstractMigrationCmd<Void> {
 
       @Override
       public Void call() throws Exception {
-        for (String processInstanceId : processInstanceIds) {
+        Collection<String> remainingProcessInstanceIds = processInstanceIds;
+        if (isBulkMigrationApplicable(commandContext, migrationPlan, sourceDefinition, targetDefinition)) {
+          remainingProcessInstanceIds = migrateProcessInstancesInBulk(commandContext, processInstanceIds, migrationPlan, targetDefinition);
+        }
+
+        for (String processInstanceId : remainingProcessInstanceIds) {
           migrateProcessInstance(commandContext, processInstanceId, migrationPlan, targetDefinition);
         }
         return null;
@@ -160,6 +178,80 @@ public class MigrateProcessInstanceCmd extends AbstractMigrationCmd<Void> {
     return null;
   }
 
+  protected boolean isBulkMigrationApplicable(CommandContext commandContext, MigrationPlan migrationPlan,
+      ProcessDefinitionEntity sourceDefinition, ProcessDefinitionEntity targetDefinition) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = commandContext.getProcessEngineConfiguration();
+
+    // the set-based updates replace the migrate history events and the activity instance
+    // validation, so neither must be customized
+    return processEngineConfiguration.isBulkProcessInstanceMigrationEnabled()
+        && processEngineConfiguration.getHistoryEventHandler() instanceof DbHistoryEventHandler
+        && isEmpty(processEngineConfiguration.getCustomPreMigratingActivityInstanceValidators())
+        && isEmpty(processEngineConfiguration.getCustomPostMigratingActivityInstanceValidators())
+        && new HomogeneousMigrationPlanDetector().isHomogeneous(migrationPlan, sourceDefinition, targetDefinition);
+  }
+
+  protected boolean isEmpty(Collection<?> collection) {
+    return collection == null || collection.isEmpty();
+  }
+
+  /**
+   * Migrates those of the given process instances which are in a state that allows to migrate
+   * them by exchanging the process definition reference with set-based updates. Requires
+   * a homogeneous migration plan, see {@link HomogeneousMigrationPlanDetector}.
+   *
+   * @return the ids of the process instances which have to be migrated one by one
+   */
+  protected Collection<String> migrateProcessInstancesInBulk(CommandContext commandContext, Collection<String> processInstanceIds,
+      MigrationPlan migrationPlan, ProcessDefinitionEntity targetDefinition) {
+    String sourceDefinitionId = migrationPlan.getSourceProcessDefinitionId();
+    Set<String> mappedActivityIds = new HomogeneousMigrationPlanDetector().getMappedActivityIds(migrationPlan);
+    DbEntityCache dbEntityCache = commandContext.getDbEntityManager().getDbEntityCache();
+
+    Set<String> remainingProcessInstanceIds = new LinkedHashSet<String>(processInstanceIds);
+    List<List<String>> candidateIdChunks = CollectionUtil.partition(new ArrayList<String>(processInstanceIds), BULK_MIGRATION_CHUNK_SIZE);
+
+    for (List<String> candidateIds : candidateIdChunks) {
+      List<ExecutionEntity> processInstances = commandContext.getExecutionManager()
+          .findProcessInstancesForBulkMigration(candidateIds, sourceDefinitionId, mappedActivityIds);
+
+      List<String> migratedIds = new ArrayList<String>();
+      for (ExecutionEntity processInstance : processInstances) {
+        CachedDbEntity cachedProcessInstance = dbEntityCache.getCachedEntity(processInstance);
+        if (cachedProcessInstance != null && cachedProcessInstance.isDirty()) {
+          // changed in this command already; must be migrated entity by entity
+          continue;
+        }
+
+        ensureOperationAllowed(commandContext, processInstance, targetDefinition);
+        migratedIds.add(processInstance.getId());
+
+        // the set-based updates bypass the cache and would render the cached instance stale
+        dbEntityCache.remove(processInstance);
+      }
+
+      if (!migratedIds.isEmpty()) {
+        updateProcessDefinitionReferences(commandContext, migratedIds, sourceDefinitionId, targetDefinition);
+        remainingProcessInstanceIds.removeAll(migratedIds);
+      }
+    }
+
+    LOGGER.debugBulkMigration(processInstanceIds.size() - remainingProcessInstanceIds.size(), processInstanceIds.size(), targetDefinition.getId());
+
+    return remainingProcessInstanceIds;
+  }
+
+  protected void updateProcessDefinitionReferences(CommandContext commandContext, List<String> processInstanceIds,
+      String sourceDefinitionId, ProcessDefinitionEntity targetDefinition) {
+    commandContext.getExecutionManager().updateProcessDefinitionIdByProcessInstanceIds(processInstanceIds, sourceDefinitionId, targetDefinition);
+    commandContext.getTaskManager().updateProcessDefinitionIdByProcessInstanceIds(processInstanceIds, sourceDefinitionId, targetDefinition);
+
+    commandContext.getHistoricProcessInstanceManager().updateProcessDefinitionIdByProcessInstanceIds(processInstanceIds, sourceDefinitionId, targetDefinition);
+    commandContext.getHistoricActivityInstanceManager().updateProcessDefinitionIdByProcessInstanceIds(processInstanceIds, sourceDefinitionId, targetDefinition);
+    commandContext.getHistoricTaskInstanceManager().updateProcessDefinitionIdByProcessInstanceIds(processInstanceIds, sourceDefinitionId, targetDefinition);
+    commandContext.getHistoricVariableInstanceManager().updateProcessDefinitionIdByProcessInstanceIds(processInstanceIds, sourceDefinitionId, targetDefinition);
+  }
+
   protected <T> void executeInContext(final Runnable runnable, ProcessDefinitionEntity contextDefinition) {
     ProcessApplicationReference processApplication = ProcessApplicationContextUtil.getTargetProcessApplication(contextDefinition);
     if (ProcessApplicationContextUtil.requiresContextSwitch(processApplication)) {
@@ -141,4 +141,13 @@ public class MigrationLogger extends ProcessEngineLogger {
         );
   }
 
+  public void debugBulkMigration(int migratedInstances, int totalInstances, String targetProcessDefinitionId) {
+    logDebug(
+        "012",
+        "Migrated {} of {} process instances to process definition '{}' with set-based updates",
+        migratedInstances,
+        totalInstances,
+        targetProcessDefinitionId);
+  }
+
 }
@@ -18,10 +18,13 @@ import org.camunda.bpm.engine.exception.cmmn.CaseDefinitionNotFoundException;
 import org.camunda.bpm.engine.exception.dmn.DecisionDefinitionNotFoundException;
 import org.camunda.bpm.engine.impl.ProcessDefinitionQueryImpl;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.cmd.GetDeploymentResourceCmd;
 import org.camunda.bpm.engine.impl.cmmn.entity.repository.CaseDefinitionEntity;
 import org.camunda.bpm.engine.impl.cmmn.entity.repository.CaseDefinitionQueryImpl;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.core.model.ModelCompactor;
+import org.camunda.bpm.engine.impl.core.model.ModelMemoryReport;
 import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
 import org.camunda.bpm.engine.impl.dmn.entity.repository.DecisionDefinitionEntity;
 import org.camunda.bpm.engine.impl.dmn.entity.repository.DecisionDefinitionQueryImpl;
@@ -44,8 +47,11 @@ import org.camunda.bpm.model.dmn.DmnModelInstance;
 import org.camunda.commons.utils.cache.Cache;
 
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
@@ -68,6 +74,12 @@ public class DeploymentCache {
   protected Cache<String, DmnModelInstance> dmnModelInstanceCache;
   protected List<Deployer> deployers;
 
+  /**
+   * Guards loading definitions into the cache. A lock is used instead of a monitor since the
+   * loading blocks on the database, which would pin the carrier of a virtual thread.
+   */
+  protected final Lock cacheLoadLock = new ReentrantLock();
+
   public DeploymentCache(CacheFactory factory, int cacheCapacity) {
     processDefinitionEntityCache = factory.createCache(cacheCapacity);
     caseDefinitionCache = factory.createCache(cacheCapacity);
@@ -179,7 +191,8 @@ public class DeploymentCache {
     String deploymentId = processDefinition.getDeploymentId();
     ProcessDefinitionEntity cachedProcessDefinition = processDefinitionEntityCache.get(processDefinitionId);
     if (cachedProcessDefinition == null) {
-      synchronized (this) {
+      cacheLoadLock.lock();
+      try {
         cachedProcessDefinition = processDefinitionEntityCache.get(processDefinitionId);
         if (cachedProcessDefinition == null) {
           DeploymentEntity deployment = Context
@@ -187,11 +200,16 @@ public class DeploymentCache {
               .getDeploymentManager()
               .findDeploymentById(deploymentId);
           deployment.setNew(false);
+          // the resource has already been validated against the schema when it was deployed
+          deployment.setValidatingSchema(Context.getProcessEngineConfiguration().isSchemaValidationOnCacheLoadEnabled());
           initDeployment(deployment, processDefinition.getResourceName());
           deploy(deployment);
           cachedProcessDefinition = processDefinitionEntityCache.get(processDefinitionId);
         }
       }
+      finally {
+        cacheLoadLock.unlock();
+      }
       ensureNotNull("deployment '" + deploymentId + "' didn't put process definition '" + processDefinitionId + "' in the cache", "cachedProcessDefinition", cachedProcessDefinition);
     } else {
       // update cached process definition
@@ -235,9 +253,47 @@ public class DeploymentCache {
   }
 
   public void addProcessDefinition(ProcessDefinitionEntity processDefinition) {
+    if (isProcessDefinitionCompactionEnabled()) {
+      processDefinition.compact(new ModelCompactor());
+    }
     processDefinitionEntityCache.put(processDefinition.getId(), processDefinition);
   }
 
+  protected boolean isProcessDefinitionCompactionEnabled() {
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    return processEngineConfiguration != null && processEngineConfiguration.isProcessDefinitionCompactionEnabled();
+  }
+
+  /**
+   * @return the memory report of the cached process definition with the given id
+   *         or <code>null</code> if the process definition is not cached
+   */
+  public ModelMemoryReport getProcessDefinitionMemoryReport(String processDefinitionId) {
+    ProcessDefinitionEntity processDefinition = processDefinitionEntityCache.get(processDefinitionId);
+    if (processDefinition != null) {
+      ModelMemoryReport report = new ModelMemoryReport(processDefinitionId);
+      processDefinition.reportMemoryUsage(report);
+      return report;
+    }
+    else {
+      return null;
+    }
+  }
+
+  /**
+   * @return the memory reports of all cached process definitions
+   */
+  public List<ModelMemoryReport> getProcessDefinitionMemoryReports() {
+    List<ModelMemoryReport> reports = new ArrayList<ModelMemoryReport>();
+    for (String processDefinitionId : processDefinitionEntityCache.keySet()) {
+      ModelMemoryReport report = getProcessDefinitionMemoryReport(processDefinitionId);
+      if (report != null) {
+        reports.add(report);
+      }
+    }
+    return reports;
+  }
+
   public void removeProcessDefinition(String processDefinitionId) {
     processDefinitionEntityCache.remove(processDefinitionId);
     bpmnModelInstanceCache.remove(processDefinitionId);
@@ -366,7 +422,8 @@ public class DeploymentCache {
 
     CaseDefinitionEntity cachedCaseDefinition = caseDefinitionCache.get(caseDefinitionId);
     if (cachedCaseDefinition == null) {
-      synchronized (this) {
+      cacheLoadLock.lock();
+      try {
         cachedCaseDefinition = caseDefinitionCache.get(caseDefinitionId);
         if (cachedCaseDefinition == null) {
           DeploymentEntity deployment = Context
@@ -380,6 +437,9 @@ public class DeploymentCache {
           cachedCaseDefinition = caseDefinitionCache.get(caseDefinitionId);
         }
       }
+      finally {
+        cacheLoadLock.unlock();
+      }
       ensureNotNull("deployment '" + deploymentId + "' didn't put case definition '" + caseDefinitionId + "' in the cache", "cachedCaseDefinition", cachedCaseDefinition);
 
     }
@@ -533,7 +593,8 @@ public class DeploymentCache {
 
     DecisionDefinitionEntity cachedDecisionDefinition = decisionDefinitionCache.get(decisionDefinitionId);
     if (cachedDecisionDefinition == null) {
-      synchronized (this) {
+      cacheLoadLock.lock();
+      try {
         cachedDecisionDefinition = decisionDefinitionCache.get(decisionDefinitionId);
         if (cachedDecisionDefinition == null) {
           DeploymentEntity deployment = Context
@@ -547,6 +608,9 @@ public class DeploymentCache {
           cachedDecisionDefinition = decisionDefinitionCache.get(decisionDefinitionId);
         }
       }
+      finally {
+        cacheLoadLock.unlock();
+      }
       ensureNotNull("deployment '" + deploymentId + "' didn't put decision definition '" + decisionDefinitionId + "' in the cache", "cachedDecisionDefinition", cachedDecisionDefinition);
 
     }
@@ -639,7 +703,8 @@ public class DeploymentCache {
     DecisionRequirementsDefinitionEntity cachedDecisionRequirementsDefinition =
         decisionRequirementsDefinitionCache.get(decisionRequirementsDefinitionId);
     if (cachedDecisionRequirementsDefinition == null) {
-      synchronized (this) {
+      cacheLoadLock.lock();
+      try {
         cachedDecisionRequirementsDefinition = decisionRequirementsDefinitionCache.get(decisionRequirementsDefinitionId);
         if (cachedDecisionRequirementsDefinition == null) {
           DeploymentEntity deployment = Context
@@ -653,6 +718,9 @@ public class DeploymentCache {
           cachedDecisionRequirementsDefinition = decisionRequirementsDefinitionCache.get(decisionRequirementsDefinitionId);
         }
       }
+      finally {
+        cacheLoadLock.unlock();
+      }
       ensureNotNull("deployment '" + deploymentId + "' didn't put decision requirements definition '" + decisionRequirementsDefinitionId + "' in the cache", "cachedDecisionRequirementsDefinition", cachedDecisionRequirementsDefinition);
 
     }
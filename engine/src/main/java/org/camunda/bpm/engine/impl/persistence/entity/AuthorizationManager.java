@@ -31,6 +31,7 @@ import static org.camunda.bpm.engine.authorization.Resources.TASK;
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -416,6 +417,21 @@ public class AuthorizationManager extends AbstractManager {
 
   }
 
+  public void deleteAuthorizationsByResourceIds(Resource resource, Collection<String> resourceIds) {
+
+    if(resourceIds == null) {
+      throw new IllegalArgumentException("Resource ids cannot be null");
+    }
+
+    if(isAuthorizationEnabled() && !resourceIds.isEmpty()) {
+      Map<String, Object> deleteParams = new HashMap<String, Object>();
+      deleteParams.put("resourceType", resource.resourceType());
+      deleteParams.put("resourceIds", resourceIds);
+      getDbEntityManager().delete(AuthorizationEntity.class, "deleteAuthorizationsForResourceIds", new ListQueryParameterObject(deleteParams, 0, Integer.MAX_VALUE));
+    }
+
+  }
+
   public void deleteAuthorizationsByResourceIdAndUserId(Resource resource, String resourceId, String userId) {
 
     if(resourceId == null) {
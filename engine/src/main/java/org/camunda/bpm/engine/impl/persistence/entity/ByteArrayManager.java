@@ -13,6 +13,12 @@
 
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 
 /**
@@ -30,4 +36,20 @@ public class ByteArrayManager extends AbstractManager {
     getDbEntityManager().delete(ByteArrayEntity.class, "deleteByteArrayNoRevisionCheck", byteArrayEntityId);
   }
 
+  /**
+   * Returns the ids of the byte arrays referenced by variables, jobs and external tasks of the given process instances.
+   */
+  @SuppressWarnings("unchecked")
+  public List<String> findByteArrayIdsByProcessInstanceIds(Collection<String> processInstanceIds) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("processInstanceIds", processInstanceIds);
+    return getDbEntityManager().selectList("selectByteArrayIdsByProcessInstanceIds", parameters);
+  }
+
+  public void deleteByteArraysByIds(Collection<String> byteArrayIds) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("byteArrayIds", byteArrayIds);
+    getDbEntityManager().delete(ByteArrayEntity.class, "deleteByteArraysByIds", new ListQueryParameterObject(parameters, 0, Integer.MAX_VALUE));
+  }
+
 }
@@ -14,6 +14,7 @@
 package org.camunda.bpm.engine.impl.persistence.entity;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -298,4 +299,10 @@ public class EventSubscriptionManager extends AbstractManager {
           ((eventName == null && subscriptionEventName == null) || (eventName != null && eventName.equals(subscriptionEventName)));
   }
 
+  public void deleteEventSubscriptionsByProcessInstanceIds(Collection<String> processInstanceIds) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("processInstanceIds", processInstanceIds);
+    getDbEntityManager().delete(EventSubscriptionEntity.class, "deleteEventSubscriptionsByProcessInstanceIds", new ListQueryParameterObject(parameters, 0, Integer.MAX_VALUE));
+  }
+
 }
@@ -44,6 +44,7 @@ import org.camunda.bpm.engine.impl.core.variable.scope.*;
 import org.camunda.bpm.engine.impl.core.variable.scope.VariableStore.VariablesProvider;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.db.HasDbChangeStamp;
 import org.camunda.bpm.engine.impl.db.HasDbReferences;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.event.EventType;
@@ -63,6 +64,7 @@ import org.camunda.bpm.engine.impl.pvm.delegate.CompositeActivityBehavior;
 import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
 import org.camunda.bpm.engine.impl.pvm.process.ProcessDefinitionImpl;
 import org.camunda.bpm.engine.impl.pvm.process.ScopeImpl;
+import org.camunda.bpm.engine.impl.pvm.runtime.ActivityExecutionMappingCache;
 import org.camunda.bpm.engine.impl.pvm.runtime.ActivityInstanceState;
 import org.camunda.bpm.engine.impl.pvm.runtime.AtomicOperation;
 import org.camunda.bpm.engine.impl.pvm.runtime.ExecutionStartContext;
@@ -74,6 +76,7 @@ import org.camunda.bpm.engine.impl.tree.ExecutionTopDownWalker;
 import org.camunda.bpm.engine.impl.tree.TreeVisitor;
 import org.camunda.bpm.engine.impl.util.BitMaskUtil;
 import org.camunda.bpm.engine.impl.util.CollectionUtil;
+import org.camunda.bpm.engine.impl.util.CompareUtil;
 import org.camunda.bpm.engine.impl.variable.VariableDeclaration;
 import org.camunda.bpm.engine.repository.ProcessDefinition;
 import org.camunda.bpm.engine.runtime.Execution;
@@ -91,7 +94,7 @@ import org.camunda.bpm.model.xml.type.ModelElementType;
  * @author Daniel Meyer
  * @author Falko Menge
  */
-public class ExecutionEntity extends PvmExecutionImpl implements Execution, ProcessInstance, DbEntity, HasDbRevision, HasDbReferences, VariablesProvider<VariableInstanceEntity> {
+public class ExecutionEntity extends PvmExecutionImpl implements Execution, ProcessInstance, DbEntity, HasDbRevision, HasDbReferences, HasDbChangeStamp, VariablesProvider<VariableInstanceEntity> {
 
   private static final long serialVersionUID = 1L;
 
@@ -165,6 +168,11 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
 
   protected int suspensionState = SuspensionState.ACTIVE.getStateCode();
 
+  /**
+   * Counts the changes of the persistent state, see {@link #getDbChangeStamp()}
+   */
+  protected int persistentStateChanges = 0;
+
   // Persistence //////////////////////////////////////////////////////////////
 
   protected int revision = 1;
@@ -672,7 +680,7 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
 
   @Override
   public void inactivate() {
-    this.isActive = false;
+    setActive(false);
   }
 
   // executions ///////////////////////////////////////////////////////////////
@@ -736,6 +744,7 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
   }
 
   public void setProcessDefinitionId(String processDefinitionId) {
+    trackChange(this.processDefinitionId, processDefinitionId);
     this.processDefinitionId = processDefinitionId;
   }
 
@@ -758,7 +767,7 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
   @Override
   public void setProcessDefinition(ProcessDefinitionImpl processDefinition) {
     this.processDefinition = processDefinition;
-    this.processDefinitionId = processDefinition.getId();
+    setProcessDefinitionId(processDefinition.getId());
   }
 
   // process instance /////////////////////////////////////////////////////////
@@ -821,15 +830,26 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
   public void setActivity(PvmActivity activity) {
     super.setActivity(activity);
     if (activity != null) {
-      this.activityId = activity.getId();
+      setActivityId(activity.getId());
       this.activityName = (String) activity.getProperty("name");
     } else {
-      this.activityId = null;
+      setActivityId(null);
       this.activityName = null;
     }
 
   }
 
+  @Override
+  protected ActivityExecutionMappingCache getActivityExecutionMappingCache() {
+    CommandContext commandContext = Context.getCommandContext();
+    if (commandContext != null) {
+      return commandContext.getActivityExecutionMappingCache();
+    }
+    else {
+      return null;
+    }
+  }
+
   /**
    * generates an activity instance id
    */
@@ -877,9 +897,9 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
     this.parent = (ExecutionEntity) parent;
 
     if (parent != null) {
-      this.parentId = parent.getId();
+      setParentId(parent.getId());
     } else {
-      this.parentId = null;
+      setParentId(null);
     }
   }
 
@@ -905,10 +925,10 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
     this.superExecution = (ExecutionEntity) superExecution;
 
     if (superExecution != null) {
-      this.superExecutionId = superExecution.getId();
+      setSuperExecutionId(superExecution.getId());
       this.superExecution.setSubProcessInstance(this);
     } else {
-      this.superExecutionId = null;
+      setSuperExecutionId(null);
     }
   }
 
@@ -943,6 +963,7 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
   }
 
   public void setSuperCaseExecutionId(String superCaseExecutionId) {
+    trackChange(this.superCaseExecutionId, superCaseExecutionId);
     this.superCaseExecutionId = superCaseExecutionId;
   }
 
@@ -957,11 +978,11 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
     this.superCaseExecution = (CaseExecutionEntity) superCaseExecution;
 
     if (superCaseExecution != null) {
-      this.superCaseExecutionId = superCaseExecution.getId();
-      this.caseInstanceId = superCaseExecution.getCaseInstanceId();
+      setSuperCaseExecutionId(superCaseExecution.getId());
+      setCaseInstanceId(superCaseExecution.getCaseInstanceId());
     } else {
-      this.superCaseExecutionId = null;
-      this.caseInstanceId = null;
+      setSuperCaseExecutionId(null);
+      setCaseInstanceId(null);
     }
   }
 
@@ -1224,6 +1245,10 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
     return Context.getCommandContext().getVariableInstanceManager().findVariableInstancesByExecutionId(id);
   }
 
+  public Collection<VariableInstanceEntity> provideVariables(Collection<String> variableNames) {
+    return Context.getCommandContext().getVariableInstanceManager().findVariableInstancesByExecutionIdAndVariableNames(id, variableNames);
+  }
+
   protected boolean isAutoFireHistoryEvents() {
     // as long as the process instance is starting (i.e. before activity instance
     // of the selected initial (start event) is created), the variable scope should
@@ -1436,6 +1461,84 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
     return persistentState;
   }
 
+  /**
+   * Combines the number of changes made through the setters with the cached entity state,
+   * which is derived from the associated entities.
+   */
+  public long getDbChangeStamp() {
+    return ((long) persistentStateChanges << 32) | (getCachedEntityState() & 0xffffffffL);
+  }
+
+  protected void trackChange(Object oldValue, Object newValue) {
+    if (CompareUtil.areNotEqual(oldValue, newValue)) {
+      persistentStateChanges++;
+    }
+  }
+
+  @Override
+  public void setBusinessKey(String businessKey) {
+    trackChange(this.businessKey, businessKey);
+    super.setBusinessKey(businessKey);
+  }
+
+  @Override
+  public void setActivityInstanceId(String activityInstanceId) {
+    trackChange(this.activityInstanceId, activityInstanceId);
+    super.setActivityInstanceId(activityInstanceId);
+  }
+
+  @Override
+  public void setCaseInstanceId(String caseInstanceId) {
+    trackChange(this.caseInstanceId, caseInstanceId);
+    super.setCaseInstanceId(caseInstanceId);
+  }
+
+  @Override
+  public void setActive(boolean isActive) {
+    if (this.isActive != isActive) {
+      persistentStateChanges++;
+    }
+    super.setActive(isActive);
+  }
+
+  @Override
+  public void setConcurrent(boolean isConcurrent) {
+    if (this.isConcurrent != isConcurrent) {
+      persistentStateChanges++;
+    }
+    super.setConcurrent(isConcurrent);
+  }
+
+  @Override
+  public void setScope(boolean isScope) {
+    if (this.isScope != isScope) {
+      persistentStateChanges++;
+    }
+    super.setScope(isScope);
+  }
+
+  @Override
+  public void setEventScope(boolean isEventScope) {
+    if (this.isEventScope != isEventScope) {
+      persistentStateChanges++;
+    }
+    super.setEventScope(isEventScope);
+  }
+
+  @Override
+  public void setSequenceCounter(long sequenceCounter) {
+    if (this.sequenceCounter != sequenceCounter) {
+      persistentStateChanges++;
+    }
+    super.setSequenceCounter(sequenceCounter);
+  }
+
+  @Override
+  public void incrementSequenceCounter() {
+    persistentStateChanges++;
+    super.incrementSequenceCounter();
+  }
+
   public void insert() {
     Context.getCommandContext().getExecutionManager().insertExecution(this);
   }
@@ -1800,6 +1903,7 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
   }
 
   public void setParentId(String parentId) {
+    trackChange(this.parentId, parentId);
     this.parentId = parentId;
   }
 
@@ -1812,10 +1916,12 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
   }
 
   public void setActivityId(String activityId) {
+    trackChange(this.activityId, activityId);
     this.activityId = activityId;
   }
 
   public void setSuperExecutionId(String superExecutionId) {
+    trackChange(this.superExecutionId, superExecutionId);
     this.superExecutionId = superExecutionId;
   }
 
@@ -1838,6 +1944,9 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
   }
 
   public void setSuspensionState(int suspensionState) {
+    if (this.suspensionState != suspensionState) {
+      persistentStateChanges++;
+    }
     this.suspensionState = suspensionState;
   }
 
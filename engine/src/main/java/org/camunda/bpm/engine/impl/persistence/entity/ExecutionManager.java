@@ -13,6 +13,7 @@
 
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -211,4 +212,54 @@ public class ExecutionManager extends AbstractManager {
     return getTenantManager().configureQuery(parameter);
   }
 
+  /**
+   * Returns those of the given process instances of the source process definition that can be
+   * migrated by exchanging the process definition reference only, i.e. which have no jobs,
+   * event subscriptions, external tasks or incidents and whose executions are all positioned
+   * in one of the given activities.
+   */
+  @SuppressWarnings("unchecked")
+  public List<ExecutionEntity> findProcessInstancesForBulkMigration(Collection<String> processInstanceIds, String sourceProcessDefinitionId, Collection<String> mappedActivityIds) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("processInstanceIds", processInstanceIds);
+    parameters.put("sourceProcessDefinitionId", sourceProcessDefinitionId);
+    parameters.put("mappedActivityIds", mappedActivityIds);
+    return getDbEntityManager().selectList("selectProcessInstancesForBulkMigration", parameters);
+  }
+
+  public void updateProcessDefinitionIdByProcessInstanceIds(Collection<String> processInstanceIds, String sourceProcessDefinitionId, ProcessDefinitionEntity targetProcessDefinition) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("processInstanceIds", processInstanceIds);
+    parameters.put("sourceProcessDefinitionId", sourceProcessDefinitionId);
+    parameters.put("targetProcessDefinitionId", targetProcessDefinition.getId());
+    getDbEntityManager().update(ExecutionEntity.class, "updateExecutionProcessDefinitionIdByProcessInstanceIds", new ListQueryParameterObject(parameters, 0, Integer.MAX_VALUE));
+  }
+
+  /**
+   * Returns those of the given process instances that can be deleted with set-based statements,
+   * i.e. which are neither called by nor call another process or case instance and whose tasks
+   * have no sub tasks.
+   */
+  @SuppressWarnings("unchecked")
+  public List<ExecutionEntity> findProcessInstancesForBulkDeletion(Collection<String> processInstanceIds) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("processInstanceIds", processInstanceIds);
+    return getDbEntityManager().selectList("selectProcessInstancesForBulkDeletion", parameters);
+  }
+
+  /**
+   * Deletes all executions of the given process instances. Because of the self-referencing foreign keys,
+   * the statements must be flushed in the order they are scheduled: the parent references are cleared first
+   * so that the child executions can be deleted with one statement, the process instances themselves are deleted last.
+   */
+  public void deleteProcessInstancesByIds(Collection<String> processInstanceIds) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("processInstanceIds", processInstanceIds);
+    ListQueryParameterObject parameter = new ListQueryParameterObject(parameters, 0, Integer.MAX_VALUE);
+
+    getDbEntityManager().updatePreserveOrder(ExecutionEntity.class, "clearExecutionParentsByProcessInstanceIds", parameter);
+    getDbEntityManager().deletePreserveOrder(ExecutionEntity.class, "deleteExecutionsByProcessInstanceIds", parameter);
+    getDbEntityManager().deletePreserveOrder(ExecutionEntity.class, "deleteProcessInstancesByIds", parameter);
+  }
+
 }
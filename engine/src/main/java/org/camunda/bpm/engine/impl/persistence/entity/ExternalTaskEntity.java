@@ -376,6 +376,17 @@ public class ExternalTaskEntity implements ExternalTask, DbEntity, HasDbRevision
     this.lockExpirationTime = new Date(ClockUtil.getCurrentTime().getTime() + lockDuration);
   }
 
+  /**
+   * Extends the lock of the task so that it expires <code>newLockDuration</code> milliseconds from now.
+   */
+  public void extendLock(long newLockDuration) {
+    this.lockExpirationTime = new Date(ClockUtil.getCurrentTime().getTime() + newLockDuration);
+  }
+
+  public boolean isLockExpired() {
+    return lockExpirationTime == null || !lockExpirationTime.after(ClockUtil.getCurrentTime());
+  }
+
   public ExecutionEntity getExecution() {
     ensureExecutionInitialized();
     return execution;
@@ -14,6 +14,7 @@ package org.camunda.bpm.engine.impl.persistence.entity;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -40,6 +41,11 @@ public class ExternalTaskManager extends AbstractManager {
     return getDbEntityManager().selectById(ExternalTaskEntity.class, id);
   }
 
+  @SuppressWarnings("unchecked")
+  public List<ExternalTaskEntity> findExternalTasksByIds(Collection<String> ids) {
+    return getDbEntityManager().selectList("selectExternalTasksByIds", ids);
+  }
+
   public void insert(ExternalTaskEntity externalTask) {
     getDbEntityManager().insert(externalTask);
   }
@@ -134,4 +140,23 @@ public class ExternalTaskManager extends AbstractManager {
     return getTenantManager().configureQuery(parameter);
   }
 
+  /**
+   * Sets the lock expiration time of those of the given external tasks whose lock
+   * is held by the given worker and has not expired at the given time.
+   */
+  public void updateExternalTaskLockExpirationTimes(Collection<String> ids, String workerId, Date lockExpirationTime, Date now) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("ids", ids);
+    parameters.put("workerId", workerId);
+    parameters.put("lockExpirationTime", lockExpirationTime);
+    parameters.put("now", now);
+    getDbEntityManager().update(ExternalTaskEntity.class, "updateExternalTaskLockExpirationTimes", parameters);
+  }
+
+  public void deleteExternalTasksByProcessInstanceIds(Collection<String> processInstanceIds) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("processInstanceIds", processInstanceIds);
+    getDbEntityManager().delete(ExternalTaskEntity.class, "deleteExternalTasksByProcessInstanceIds", new ListQueryParameterObject(parameters, 0, Integer.MAX_VALUE));
+  }
+
 }
@@ -13,6 +13,8 @@
 
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,7 +22,9 @@ import java.util.Map;
 import org.camunda.bpm.engine.history.HistoricActivityInstance;
 import org.camunda.bpm.engine.impl.HistoricActivityInstanceQueryImpl;
 import org.camunda.bpm.engine.impl.Page;
+import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
 import org.camunda.bpm.engine.impl.persistence.AbstractHistoricManager;
+import org.camunda.bpm.engine.impl.pvm.runtime.ActivityInstanceState;
 
 
 /**
@@ -71,4 +75,29 @@ public class HistoricActivityInstanceManager extends AbstractHistoricManager {
     getTenantManager().configureQuery(query);
   }
 
+  public void updateProcessDefinitionIdByProcessInstanceIds(Collection<String> processInstanceIds, String sourceProcessDefinitionId, ProcessDefinitionEntity targetProcessDefinition) {
+    if (isHistoryEnabled()) {
+      Map<String, Object> parameters = new HashMap<String, Object>();
+      parameters.put("processInstanceIds", processInstanceIds);
+      parameters.put("sourceProcessDefinitionId", sourceProcessDefinitionId);
+      parameters.put("targetProcessDefinitionId", targetProcessDefinition.getId());
+      parameters.put("targetProcessDefinitionKey", targetProcessDefinition.getKey());
+      getDbEntityManager().update(HistoricActivityInstanceEntity.class, "updateHistoricActivityInstanceProcessDefinitionIdByProcessInstanceIds", new ListQueryParameterObject(parameters, 0, Integer.MAX_VALUE));
+    }
+  }
+
+  /**
+   * Ends the unfinished historic activity instances of the given process instances as canceled.
+   * The duration is not calculated.
+   */
+  public void endHistoricActivityInstancesByProcessInstanceIds(Collection<String> processInstanceIds, Date endTime) {
+    if (isHistoryEnabled()) {
+      Map<String, Object> parameters = new HashMap<String, Object>();
+      parameters.put("processInstanceIds", processInstanceIds);
+      parameters.put("endTime", endTime);
+      parameters.put("activityInstanceState", ActivityInstanceState.CANCELED.getStateCode());
+      getDbEntityManager().update(HistoricActivityInstanceEntity.class, "updateHistoricActivityInstanceEndTimeByProcessInstanceIds", new ListQueryParameterObject(parameters, 0, Integer.MAX_VALUE));
+    }
+  }
+
 }
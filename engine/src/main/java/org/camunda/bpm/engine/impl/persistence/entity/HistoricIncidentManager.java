@@ -12,11 +12,17 @@
  */
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.camunda.bpm.engine.history.HistoricIncident;
+import org.camunda.bpm.engine.history.IncidentState;
 import org.camunda.bpm.engine.impl.HistoricIncidentQueryImpl;
 import org.camunda.bpm.engine.impl.Page;
+import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
 import org.camunda.bpm.engine.impl.persistence.AbstractHistoricManager;
 
 /**
@@ -59,4 +65,17 @@ public class HistoricIncidentManager extends AbstractHistoricManager {
     getTenantManager().configureQuery(query);
   }
 
+  /**
+   * Ends the open historic incidents of the given process instances as deleted.
+   */
+  public void endHistoricIncidentsByProcessInstanceIds(Collection<String> processInstanceIds, Date endTime) {
+    if (isHistoryLevelFullEnabled()) {
+      Map<String, Object> parameters = new HashMap<String, Object>();
+      parameters.put("processInstanceIds", processInstanceIds);
+      parameters.put("endTime", endTime);
+      parameters.put("incidentState", IncidentState.DELETED.getStateCode());
+      getDbEntityManager().update(HistoricIncidentEntity.class, "updateHistoricIncidentEndTimeByProcessInstanceIds", new ListQueryParameterObject(parameters, 0, Integer.MAX_VALUE));
+    }
+  }
+
 }
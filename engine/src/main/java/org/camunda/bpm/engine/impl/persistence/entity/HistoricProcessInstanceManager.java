@@ -13,7 +13,9 @@
 
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -21,6 +23,7 @@ import org.camunda.bpm.engine.history.HistoricProcessInstance;
 import org.camunda.bpm.engine.impl.HistoricProcessInstanceQueryImpl;
 import org.camunda.bpm.engine.impl.Page;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
 import org.camunda.bpm.engine.impl.history.event.HistoricProcessInstanceEventEntity;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.persistence.AbstractHistoricManager;
@@ -115,4 +118,15 @@ public class HistoricProcessInstanceManager extends AbstractHistoricManager {
     getTenantManager().configureQuery(query);
   }
 
+  public void updateProcessDefinitionIdByProcessInstanceIds(Collection<String> processInstanceIds, String sourceProcessDefinitionId, ProcessDefinitionEntity targetProcessDefinition) {
+    if (isHistoryEnabled()) {
+      Map<String, Object> parameters = new HashMap<String, Object>();
+      parameters.put("processInstanceIds", processInstanceIds);
+      parameters.put("sourceProcessDefinitionId", sourceProcessDefinitionId);
+      parameters.put("targetProcessDefinitionId", targetProcessDefinition.getId());
+      parameters.put("targetProcessDefinitionKey", targetProcessDefinition.getKey());
+      getDbEntityManager().update(HistoricProcessInstanceEntity.class, "updateHistoricProcessInstanceProcessDefinitionIdByProcessInstanceIds", new ListQueryParameterObject(parameters, 0, Integer.MAX_VALUE));
+    }
+  }
+
 }
@@ -15,7 +15,9 @@ package org.camunda.bpm.engine.impl.persistence.entity;
 
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +27,7 @@ import org.camunda.bpm.engine.impl.HistoricTaskInstanceQueryImpl;
 import org.camunda.bpm.engine.impl.Page;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
 import org.camunda.bpm.engine.impl.history.HistoryLevel;
 import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
 import org.camunda.bpm.engine.impl.history.event.HistoryEventProcessor;
@@ -195,4 +198,29 @@ public class HistoricTaskInstanceManager extends AbstractHistoricManager {
     getTenantManager().configureQuery(query);
   }
 
+  public void updateProcessDefinitionIdByProcessInstanceIds(Collection<String> processInstanceIds, String sourceProcessDefinitionId, ProcessDefinitionEntity targetProcessDefinition) {
+    if (isHistoryEnabled()) {
+      Map<String, Object> parameters = new HashMap<String, Object>();
+      parameters.put("processInstanceIds", processInstanceIds);
+      parameters.put("sourceProcessDefinitionId", sourceProcessDefinitionId);
+      parameters.put("targetProcessDefinitionId", targetProcessDefinition.getId());
+      parameters.put("targetProcessDefinitionKey", targetProcessDefinition.getKey());
+      getDbEntityManager().update(HistoricTaskInstanceEntity.class, "updateHistoricTaskInstanceProcessDefinitionIdByProcessInstanceIds", new ListQueryParameterObject(parameters, 0, Integer.MAX_VALUE));
+    }
+  }
+
+  /**
+   * Ends the unfinished historic task instances of the given process instances with the given
+   * delete reason. The duration is not calculated.
+   */
+  public void endHistoricTaskInstancesByProcessInstanceIds(Collection<String> processInstanceIds, String deleteReason, Date endTime) {
+    if (isHistoryEnabled()) {
+      Map<String, Object> parameters = new HashMap<String, Object>();
+      parameters.put("processInstanceIds", processInstanceIds);
+      parameters.put("deleteReason", deleteReason);
+      parameters.put("endTime", endTime);
+      getDbEntityManager().update(HistoricTaskInstanceEntity.class, "updateHistoricTaskInstanceEndTimeByProcessInstanceIds", new ListQueryParameterObject(parameters, 0, Integer.MAX_VALUE));
+    }
+  }
+
 }
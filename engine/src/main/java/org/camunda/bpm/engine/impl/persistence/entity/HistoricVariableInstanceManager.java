@@ -15,12 +15,16 @@ package org.camunda.bpm.engine.impl.persistence.entity;
 
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureOnlyOneNotNull;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.camunda.bpm.engine.history.HistoricVariableInstance;
 import org.camunda.bpm.engine.history.HistoricVariableInstanceQuery;
 import org.camunda.bpm.engine.impl.HistoricVariableInstanceQueryImpl;
 import org.camunda.bpm.engine.impl.Page;
+import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
 import org.camunda.bpm.engine.impl.persistence.AbstractHistoricManager;
 
 
@@ -106,4 +110,15 @@ public class HistoricVariableInstanceManager extends AbstractHistoricManager {
     getTenantManager().configureQuery(query);
   }
 
+  public void updateProcessDefinitionIdByProcessInstanceIds(Collection<String> processInstanceIds, String sourceProcessDefinitionId, ProcessDefinitionEntity targetProcessDefinition) {
+    if (isHistoryEnabled()) {
+      Map<String, Object> parameters = new HashMap<String, Object>();
+      parameters.put("processInstanceIds", processInstanceIds);
+      parameters.put("sourceProcessDefinitionId", sourceProcessDefinitionId);
+      parameters.put("targetProcessDefinitionId", targetProcessDefinition.getId());
+      parameters.put("targetProcessDefinitionKey", targetProcessDefinition.getKey());
+      getDbEntityManager().update(HistoricVariableInstanceEntity.class, "updateHistoricVariableInstanceProcessDefinitionIdByProcessInstanceIds", new ListQueryParameterObject(parameters, 0, Integer.MAX_VALUE));
+    }
+  }
+
 }
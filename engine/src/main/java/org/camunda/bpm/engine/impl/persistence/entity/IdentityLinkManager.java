@@ -13,10 +13,12 @@
 
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 
 
@@ -70,4 +72,13 @@ public class IdentityLinkManager extends AbstractManager {
     getDbEntityManager().delete(IdentityLinkEntity.class, "deleteIdentityLinkByProcDef", processDefId);
   }
 
+  /**
+   * Deletes the identity links of the tasks of the given process instances.
+   */
+  public void deleteIdentityLinksByProcessInstanceIds(Collection<String> processInstanceIds) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("processInstanceIds", processInstanceIds);
+    getDbEntityManager().delete(IdentityLinkEntity.class, "deleteIdentityLinksByProcessInstanceIds", new ListQueryParameterObject(parameters, 0, Integer.MAX_VALUE));
+  }
+
 }
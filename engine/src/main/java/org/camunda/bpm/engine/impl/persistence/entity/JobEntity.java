@@ -34,6 +34,7 @@ import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.jobexecutor.DefaultJobPriorityProvider;
 import org.camunda.bpm.engine.impl.jobexecutor.JobHandler;
 import org.camunda.bpm.engine.impl.jobexecutor.JobHandlerConfiguration;
+import org.camunda.bpm.engine.impl.jobexecutor.JobPartitionLeases;
 import org.camunda.bpm.engine.impl.pvm.process.ProcessDefinitionImpl;
 import org.camunda.bpm.engine.impl.util.ExceptionUtil;
 import org.camunda.bpm.engine.management.JobDefinition;
@@ -102,6 +103,8 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
 
   protected String tenantId;
 
+  protected Integer partition;
+
   // runtime state /////////////////////////////
   protected String activityId;
   protected JobDefinition jobDefinition;
@@ -152,6 +155,11 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
       this.deploymentId = processDefinition.getDeploymentId();
     }
 
+    int partitionCount = Context.getProcessEngineConfiguration().getJobExecutorPartitionCount();
+    if (partitionCount > 0 && processInstanceId != null) {
+      this.partition = JobPartitionLeases.getPartition(processInstanceId, partitionCount);
+    }
+
     commandContext
       .getJobManager()
       .insertJob(this);
@@ -598,6 +606,14 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
     this.tenantId = tenantId;
   }
 
+  public Integer getPartition() {
+    return partition;
+  }
+
+  public void setPartition(Integer partition) {
+    this.partition = partition;
+  }
+
   protected void ensureActivityIdInitialized() {
     if (activityId == null) {
       JobDefinition jobDefinition = getJobDefinition();
@@ -18,6 +18,7 @@ import static org.camunda.bpm.engine.impl.jobexecutor.TimerEventJobHandler.JOB_H
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -29,13 +30,16 @@ import org.camunda.bpm.engine.impl.JobQueryImpl;
 import org.camunda.bpm.engine.impl.JobQueryProperty;
 import org.camunda.bpm.engine.impl.Page;
 import org.camunda.bpm.engine.impl.QueryOrderingProperty;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.cfg.TransactionListener;
 import org.camunda.bpm.engine.impl.cfg.TransactionState;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
+import org.camunda.bpm.engine.impl.jobexecutor.AsyncContinuationJobHandler;
 import org.camunda.bpm.engine.impl.jobexecutor.ExclusiveJobAddedNotification;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutorContext;
+import org.camunda.bpm.engine.impl.jobexecutor.JobHandOffNotification;
 import org.camunda.bpm.engine.impl.jobexecutor.MessageAddedNotification;
 import org.camunda.bpm.engine.impl.jobexecutor.TimerCatchIntermediateEventJobHandler;
 import org.camunda.bpm.engine.impl.jobexecutor.TimerExecuteNestedActivityJobHandler;
@@ -43,6 +47,7 @@ import org.camunda.bpm.engine.impl.jobexecutor.TimerStartEventJobHandler;
 import org.camunda.bpm.engine.impl.jobexecutor.TimerStartEventSubprocessJobHandler;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.impl.util.CollectionUtil;
 import org.camunda.bpm.engine.runtime.Job;
 
 
@@ -62,6 +67,9 @@ public class JobManager extends AbstractManager {
     JOB_DUEDATE_ORDERING_PROPERTY.setDirection(Direction.ASCENDING);
   }
 
+  /** collects the jobs which are handed off to the job executor after this command context is committed */
+  protected JobHandOffNotification jobHandOffNotification;
+
   public void insertJob(JobEntity job) {
     getDbEntityManager().insert(job);
     getHistoricJobLogManager().fireJobCreatedEvent(job);
@@ -125,10 +133,13 @@ public class JobManager extends AbstractManager {
             && jobExecutorContext.isExecutingExclusiveJob()
             && areInSameProcessInstance(job, jobExecutorContext.getCurrentJob())) {
       // lock job & add to the queue of the current processor
-      Date currentTime = ClockUtil.getCurrentTime();
-      job.setLockExpirationTime(new Date(currentTime.getTime() + jobExecutor.getLockTimeInMillis()));
-      job.setLockOwner(jobExecutor.getLockOwner());
+      lockJob(job, jobExecutor);
       transactionListener = new ExclusiveJobAddedNotification(job.getId(), jobExecutorContext);
+    } else if (isHandOffApplicable(job, jobExecutor)) {
+      // lock job & submit it to the job executor once the transaction is committed
+      lockJob(job, jobExecutor);
+      addJobToHandOff(job, jobExecutor);
+      return;
     } else {
       // notify job executor:
       transactionListener = new MessageAddedNotification(jobExecutor);
@@ -138,6 +149,45 @@ public class JobManager extends AbstractManager {
       .addTransactionListener(TransactionState.COMMITTED, transactionListener);
   }
 
+  protected void lockJob(JobEntity job, JobExecutor jobExecutor) {
+    Date currentTime = ClockUtil.getCurrentTime();
+    job.setLockExpirationTime(new Date(currentTime.getTime() + jobExecutor.getLockTimeInMillis()));
+    job.setLockOwner(jobExecutor.getLockOwner());
+  }
+
+  /**
+   * A job is handed off to the local job executor if it is an immediately due
+   * async continuation that this job executor is allowed to execute.
+   */
+  protected boolean isHandOffApplicable(JobEntity job, JobExecutor jobExecutor) {
+    ProcessEngineConfigurationImpl configuration = Context.getProcessEngineConfiguration();
+    if (!configuration.isJobExecutorHandOffEnabled()
+        || !jobExecutor.isHandOffSupported()
+        || job.isSuspended()
+        || !AsyncContinuationJobHandler.TYPE.equals(job.getJobHandlerType())
+        || !jobExecutor.hasRegisteredEngine(configuration.getProcessEngine())) {
+      return false;
+    }
+
+    Date duedate = job.getDuedate();
+    if (duedate != null && duedate.after(ClockUtil.getCurrentTime())) {
+      return false;
+    }
+
+    return !configuration.isJobExecutorDeploymentAware()
+        || configuration.getRegisteredDeployments().contains(job.getDeploymentId());
+  }
+
+  protected void addJobToHandOff(JobEntity job, JobExecutor jobExecutor) {
+    if (jobHandOffNotification == null) {
+      jobHandOffNotification = new JobHandOffNotification(jobExecutor, Context.getProcessEngineConfiguration().getProcessEngine());
+      Context.getCommandContext()
+        .getTransactionContext()
+        .addTransactionListener(TransactionState.COMMITTED, jobHandOffNotification);
+    }
+    jobHandOffNotification.addJob(job);
+  }
+
   protected boolean areInSameProcessInstance(JobEntity job1, JobEntity job2) {
     if (job1 == null || job2 == null) {
       return false;
@@ -164,8 +214,42 @@ public class JobManager extends AbstractManager {
     return (JobEntity) getDbEntityManager().selectOne("selectJob", jobId);
   }
 
+  public List<JobEntity> findTimersToPreload(Date lookAheadTime, Page page) {
+    return findTimersToPreload(lookAheadTime, page, null);
+  }
+
+  /**
+   * @param jobPartitions the job partitions leased by the job executor or <code>null</code>
+   *   if jobs are not partitioned. Timers without a partition are always considered.
+   * @return unlocked timers which become due after now and not later than the look ahead time
+   */
   @SuppressWarnings("unchecked")
+  public List<JobEntity> findTimersToPreload(Date lookAheadTime, Page page, List<Integer> jobPartitions) {
+    Map<String,Object> params = new HashMap<String, Object>();
+    params.put("now", ClockUtil.getCurrentTime());
+    params.put("lookAheadTime", lookAheadTime);
+    params.put("deploymentAware", Context.getProcessEngineConfiguration().isJobExecutorDeploymentAware());
+    if (Context.getProcessEngineConfiguration().isJobExecutorDeploymentAware()) {
+      Set<String> registeredDeployments = Context.getProcessEngineConfiguration().getRegisteredDeployments();
+      if (!registeredDeployments.isEmpty()) {
+        params.put("deploymentIds", registeredDeployments);
+      }
+    }
+    addJobPartitionParameters(params, jobPartitions);
+
+    return getDbEntityManager().selectList("selectTimersToPreload", params, page);
+  }
+
   public List<JobEntity> findNextJobsToExecute(Page page) {
+    return findNextJobsToExecute(page, null);
+  }
+
+  /**
+   * @param jobPartitions the job partitions leased by the job executor or <code>null</code>
+   *   if jobs are not partitioned. Jobs without a partition are always considered.
+   */
+  @SuppressWarnings("unchecked")
+  public List<JobEntity> findNextJobsToExecute(Page page, List<Integer> jobPartitions) {
     Map<String,Object> params = new HashMap<String, Object>();
     Date now = ClockUtil.getCurrentTime();
     params.put("now", now);
@@ -188,6 +272,8 @@ public class JobManager extends AbstractManager {
       orderingProperties.add(JOB_DUEDATE_ORDERING_PROPERTY);
     }
 
+    addJobPartitionParameters(params, jobPartitions);
+
     params.put("orderingProperties", orderingProperties);
     // don't apply default sorting
     params.put("applyOrdering", !orderingProperties.isEmpty());
@@ -195,6 +281,29 @@ public class JobManager extends AbstractManager {
     return getDbEntityManager().selectList("selectNextJobsToExecute", params, page);
   }
 
+  protected void addJobPartitionParameters(Map<String, Object> params, List<Integer> jobPartitions) {
+    params.put("partitioned", jobPartitions != null);
+    if (jobPartitions != null) {
+      params.put("jobPartitionCount", Context.getProcessEngineConfiguration().getJobExecutorPartitionCount());
+      if (!jobPartitions.isEmpty()) {
+        params.put("jobPartitions", jobPartitions);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  public List<JobPartitionLeaseEntity> findJobPartitionLeases() {
+    return getDbEntityManager().selectList("selectJobPartitionLeases");
+  }
+
+  public void insertJobPartitionLease(JobPartitionLeaseEntity jobPartitionLease) {
+    getDbEntityManager().insert(jobPartitionLease);
+  }
+
+  public void releaseJobPartitionLeases(String lockOwner) {
+    getDbEntityManager().update(JobPartitionLeaseEntity.class, "releaseJobPartitionLeases", lockOwner);
+  }
+
   @SuppressWarnings("unchecked")
   public List<JobEntity> findJobsByExecutionId(String executionId) {
     return getDbEntityManager().selectList("selectJobsByExecutionId", executionId);
@@ -210,6 +319,14 @@ public class JobManager extends AbstractManager {
     return getDbEntityManager().selectList("selectJobsByJobDefinitionId", jobDefinitionId);
   }
 
+  /**
+   * Checks whether at least one job of the given job definition exists. In contrast
+   * to counting the jobs, the query stops at the first matching row.
+   */
+  public boolean hasJobsByJobDefinitionId(String jobDefinitionId) {
+    return !getDbEntityManager().selectList("selectJobsByJobDefinitionId", jobDefinitionId, new Page(0, 1)).isEmpty();
+  }
+
   @SuppressWarnings("unchecked")
   public List<JobEntity> findExclusiveJobsToExecute(String processInstanceId) {
     Map<String,Object> params = new HashMap<String, Object>();
@@ -218,6 +335,29 @@ public class JobManager extends AbstractManager {
     return getDbEntityManager().selectList("selectExclusiveJobsToExecute", params);
   }
 
+  /**
+   * Selects the exclusive jobs to execute of multiple process instances with one query.
+   *
+   * @return the jobs grouped by process instance id
+   */
+  @SuppressWarnings("unchecked")
+  public Map<String, List<JobEntity>> findExclusiveJobsToExecuteByProcessInstanceIds(Collection<String> processInstanceIds) {
+    Map<String, List<JobEntity>> jobsByProcessInstanceId = new HashMap<String, List<JobEntity>>();
+    if (processInstanceIds.isEmpty()) {
+      return jobsByProcessInstanceId;
+    }
+
+    Map<String,Object> params = new HashMap<String, Object>();
+    params.put("pids", processInstanceIds);
+    params.put("now", ClockUtil.getCurrentTime());
+    List<JobEntity> jobs = getDbEntityManager().selectList("selectExclusiveJobsToExecute", params);
+
+    for (JobEntity job : jobs) {
+      CollectionUtil.addToMapOfLists(jobsByProcessInstanceId, job.getProcessInstanceId(), job);
+    }
+    return jobsByProcessInstanceId;
+  }
+
 
   @SuppressWarnings("unchecked")
   public List<TimerEntity> findUnlockedTimersByDuedate(Date duedate, Page page) {
@@ -346,6 +486,14 @@ public class JobManager extends AbstractManager {
     getDbEntityManager().update(JobEntity.class, "updateJobPriorityByDefinitionId", parameters);
   }
 
+  public void updateJobLockExpirationTimes(Collection<String> jobIds, String lockOwner, Date lockExpirationTime) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("jobIds", jobIds);
+    parameters.put("lockOwner", lockOwner);
+    parameters.put("lockExpirationTime", lockExpirationTime);
+    getDbEntityManager().update(JobEntity.class, "updateJobLockExpirationTimes", parameters);
+  }
+
   protected void configureQuery(JobQueryImpl query) {
     getAuthorizationManager().configureJobQuery(query);
     getTenantManager().configureQuery(query);
@@ -355,4 +503,10 @@ public class JobManager extends AbstractManager {
     return getTenantManager().configureQuery(parameter);
   }
 
+  public void deleteJobsByProcessInstanceIds(Collection<String> processInstanceIds) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("processInstanceIds", processInstanceIds);
+    getDbEntityManager().delete(JobEntity.class, "deleteJobsByProcessInstanceIds", new ListQueryParameterObject(parameters, 0, Integer.MAX_VALUE));
+  }
+
 }
@@ -0,0 +1,127 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.HasDbRevision;
+
+/**
+ * Lease of a job partition by a job executor. A job executor only acquires jobs of
+ * the partitions it holds an unexpired lease for.
+ */
+public class JobPartitionLeaseEntity implements DbEntity, HasDbRevision, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected String id;
+  protected int revision;
+
+  protected int partition;
+
+  protected String lockOwner;
+  protected Date lockExpirationTime;
+
+  public JobPartitionLeaseEntity() {
+  }
+
+  public JobPartitionLeaseEntity(int partition) {
+    this.id = String.valueOf(partition);
+    this.partition = partition;
+  }
+
+  public boolean isOwnedBy(String lockOwner) {
+    return lockOwner.equals(this.lockOwner);
+  }
+
+  public boolean isExpired(Date now) {
+    return lockOwner == null || lockExpirationTime == null || !lockExpirationTime.after(now);
+  }
+
+  public void lease(String lockOwner, Date lockExpirationTime) {
+    this.lockOwner = lockOwner;
+    this.lockExpirationTime = lockExpirationTime;
+  }
+
+  public void release() {
+    this.lockOwner = null;
+    this.lockExpirationTime = null;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public int getRevision() {
+    return revision;
+  }
+
+  public void setRevision(int revision) {
+    this.revision = revision;
+  }
+
+  public int getRevisionNext() {
+    return revision + 1;
+  }
+
+  public int getPartition() {
+    return partition;
+  }
+
+  public void setPartition(int partition) {
+    this.partition = partition;
+  }
+
+  public String getLockOwner() {
+    return lockOwner;
+  }
+
+  public void setLockOwner(String lockOwner) {
+    this.lockOwner = lockOwner;
+  }
+
+  public Date getLockExpirationTime() {
+    return lockExpirationTime;
+  }
+
+  public void setLockExpirationTime(Date lockExpirationTime) {
+    this.lockExpirationTime = lockExpirationTime;
+  }
+
+  public Object getPersistentState() {
+    Map<String, Object> persistentState = new HashMap<String, Object>();
+    persistentState.put("lockOwner", lockOwner);
+    persistentState.put("lockExpirationTime", lockExpirationTime);
+    return persistentState;
+  }
+
+  @Override
+  public String toString() {
+    return this.getClass().getSimpleName()
+           + "[id=" + id
+           + ", revision=" + revision
+           + ", partition=" + partition
+           + ", lockOwner=" + lockOwner
+           + ", lockExpirationTime=" + lockExpirationTime
+           + "]";
+  }
+
+}
@@ -24,6 +24,8 @@ import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParse;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.core.model.ModelCompactor;
+import org.camunda.bpm.engine.impl.core.model.ModelMemoryReport;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
@@ -275,6 +277,32 @@ public class ProcessDefinitionEntity extends ProcessDefinitionImpl implements Pr
     }
   }
 
+  // memory footprint /////////////////////////////////////////////////////////
+
+  @Override
+  public void compact(ModelCompactor compactor) {
+    super.compact(compactor);
+    key = compactor.intern(key);
+    category = compactor.intern(category);
+    deploymentId = compactor.intern(deploymentId);
+    resourceName = compactor.intern(resourceName);
+    diagramResourceName = compactor.intern(diagramResourceName);
+    tenantId = compactor.intern(tenantId);
+    versionTag = compactor.intern(versionTag);
+  }
+
+  @Override
+  public void reportMemoryUsage(ModelMemoryReport report) {
+    super.reportMemoryUsage(report);
+    report.addString(key);
+    report.addString(category);
+    report.addString(deploymentId);
+    report.addString(resourceName);
+    report.addString(diagramResourceName);
+    report.addString(tenantId);
+    report.addString(versionTag);
+  }
+
   // getters and setters //////////////////////////////////////////////////////
 
   public Object getPersistentState() {
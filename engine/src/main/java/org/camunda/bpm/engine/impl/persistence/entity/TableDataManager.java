@@ -72,6 +72,7 @@ public class TableDataManager extends AbstractManager {
     persistentObjectToTableNameMap.put(JobEntity.class, "ACT_RU_JOB");
     persistentObjectToTableNameMap.put(MessageEntity.class, "ACT_RU_JOB");
     persistentObjectToTableNameMap.put(TimerEntity.class, "ACT_RU_JOB");
+    persistentObjectToTableNameMap.put(JobPartitionLeaseEntity.class, "ACT_RU_JOB_PARTITION");
 
     persistentObjectToTableNameMap.put(IncidentEntity.class, "ACT_RU_INCIDENT");
 
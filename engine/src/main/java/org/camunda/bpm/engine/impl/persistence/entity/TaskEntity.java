@@ -36,6 +36,7 @@ import org.camunda.bpm.engine.impl.core.variable.scope.VariableStore;
 import org.camunda.bpm.engine.impl.core.variable.scope.VariableStore.VariablesProvider;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.db.HasDbChangeStamp;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
 import org.camunda.bpm.engine.impl.history.event.HistoryEventTypes;
@@ -45,6 +46,7 @@ import org.camunda.bpm.engine.impl.pvm.runtime.PvmExecutionImpl;
 import org.camunda.bpm.engine.impl.task.TaskDefinition;
 import org.camunda.bpm.engine.impl.task.delegate.TaskListenerInvocation;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.impl.util.CompareUtil;
 import org.camunda.bpm.engine.management.Metrics;
 import org.camunda.bpm.engine.task.DelegationState;
 import org.camunda.bpm.engine.task.IdentityLink;
@@ -76,7 +78,7 @@ import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
  * @author Falko Menge
  * @author Deivarayan Azhagappan
  */
-public class TaskEntity extends AbstractVariableScope implements Task, DelegateTask, Serializable, DbEntity, HasDbRevision, CommandContextListener, VariablesProvider<VariableInstanceEntity> {
+public class TaskEntity extends AbstractVariableScope implements Task, DelegateTask, Serializable, DbEntity, HasDbRevision, HasDbChangeStamp, CommandContextListener, VariablesProvider<VariableInstanceEntity> {
 
   protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
 
@@ -104,6 +106,11 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
   protected int suspensionState = SuspensionState.ACTIVE.getStateCode();
   protected String tenantId;
 
+  /**
+   * Counts the changes of the persistent state, see {@link #getDbChangeStamp()}
+   */
+  protected int persistentStateChanges = 0;
+
   protected boolean isIdentityLinksInitialized = false;
   protected transient List<IdentityLinkEntity> taskIdentityLinkEntities = new ArrayList<IdentityLinkEntity>();
 
@@ -412,6 +419,16 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
     return persistentState;
   }
 
+  public long getDbChangeStamp() {
+    return persistentStateChanges;
+  }
+
+  protected void trackChange(Object oldValue, Object newValue) {
+    if (CompareUtil.areNotEqual(oldValue, newValue)) {
+      persistentStateChanges++;
+    }
+  }
+
   @Override
   public int getRevisionNext() {
     return revision+1;
@@ -507,6 +524,13 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
         .findVariableInstancesByTaskId(id);
   }
 
+  public Collection<VariableInstanceEntity> provideVariables(Collection<String> variableNames) {
+    return Context
+        .getCommandContext()
+        .getVariableInstanceManager()
+        .findVariableInstancesByTaskIdAndVariableNames(id, variableNames);
+  }
+
   @Override
   public AbstractVariableScope getParentVariableScope() {
     if (getExecution()!=null) {
@@ -552,23 +576,23 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
     if (execution!=null) {
 
       this.execution = (ExecutionEntity) execution;
-      this.executionId = this.execution.getId();
+      setExecutionId(this.execution.getId());
       this.processInstanceId = this.execution.getProcessInstanceId();
-      this.processDefinitionId = this.execution.getProcessDefinitionId();
+      setProcessDefinitionId(this.execution.getProcessDefinitionId());
 
       // get the process instance
       ExecutionEntity instance = this.execution.getProcessInstance();
       if (instance != null) {
         // set case instance id on this task
-        this.caseInstanceId = instance.getCaseInstanceId();
+        setCaseInstanceIdWithoutCascade(instance.getCaseInstanceId());
       }
 
     } else {
       this.execution = null;
-      this.executionId = null;
+      setExecutionId(null);
       this.processInstanceId = null;
-      this.processDefinitionId = null;
-      this.caseInstanceId = null;
+      setProcessDefinitionId(null);
+      setCaseInstanceIdWithoutCascade(null);
     }
   }
 
@@ -593,15 +617,15 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
     if (caseExecution!=null) {
 
       this.caseExecution = (CaseExecutionEntity) caseExecution;
-      this.caseExecutionId = this.caseExecution.getId();
-      this.caseInstanceId = this.caseExecution.getCaseInstanceId();
-      this.caseDefinitionId = this.caseExecution.getCaseDefinitionId();
+      setCaseExecutionId(this.caseExecution.getId());
+      setCaseInstanceIdWithoutCascade(this.caseExecution.getCaseInstanceId());
+      setCaseDefinitionId(this.caseExecution.getCaseDefinitionId());
 
     } else {
       this.caseExecution = null;
-      this.caseExecutionId = null;
-      this.caseInstanceId = null;
-      this.caseDefinitionId = null;
+      setCaseExecutionId(null);
+      setCaseInstanceIdWithoutCascade(null);
+      setCaseDefinitionId(null);
     }
   }
 
@@ -611,6 +635,7 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
   }
 
   public void setCaseExecutionId(String caseExecutionId) {
+    trackChange(this.caseExecutionId, caseExecutionId);
     this.caseExecutionId = caseExecutionId;
   }
 
@@ -623,11 +648,13 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
   public void setCaseInstanceId(String caseInstanceId) {
     registerCommandContextCloseListener();
     propertyChanged(CASE_INSTANCE_ID, this.caseInstanceId, caseInstanceId);
+    trackChange(this.caseInstanceId, caseInstanceId);
     this.caseInstanceId = caseInstanceId;
   }
 
   /* plain setter for persistence */
   public void setCaseInstanceIdWithoutCascade(String caseInstanceId) {
+    trackChange(this.caseInstanceId, caseInstanceId);
     this.caseInstanceId = caseInstanceId;
   }
 
@@ -647,6 +674,7 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
   }
 
   public void setCaseDefinitionId(String caseDefinitionId) {
+    trackChange(this.caseDefinitionId, caseDefinitionId);
     this.caseDefinitionId = caseDefinitionId;
   }
 
@@ -799,11 +827,13 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
   public void setName(String taskName) {
     registerCommandContextCloseListener();
     propertyChanged(NAME, this.name, taskName);
+    trackChange(this.name, taskName);
     this.name = taskName;
   }
 
   /* plain setter for persistence */
   public void setNameWithoutCascade(String taskName) {
+    trackChange(this.name, taskName);
     this.name = taskName;
   }
 
@@ -811,11 +841,13 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
   public void setDescription(String description) {
     registerCommandContextCloseListener();
     propertyChanged(DESCRIPTION, this.description, description);
+    trackChange(this.description, description);
     this.description = description;
   }
 
   /* plain setter for persistence */
   public void setDescriptionWithoutCascade(String description) {
+    trackChange(this.description, description);
     this.description = description;
   }
 
@@ -831,6 +863,7 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
 
     addIdentityLinkChanges(IdentityLinkType.ASSIGNEE, oldAssignee, assignee);
     propertyChanged(ASSIGNEE, oldAssignee, assignee);
+    trackChange(this.assignee, assignee);
     this.assignee = assignee;
 
     CommandContext commandContext = Context.getCommandContext();
@@ -847,6 +880,7 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
 
   /* plain setter for persistence */
   public void setAssigneeWithoutCascade(String assignee) {
+    trackChange(this.assignee, assignee);
     this.assignee = assignee;
   }
 
@@ -862,6 +896,7 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
 
     addIdentityLinkChanges(IdentityLinkType.OWNER, oldOwner, owner);
     propertyChanged(OWNER, oldOwner, owner);
+    trackChange(this.owner, owner);
     this.owner = owner;
 
     CommandContext commandContext = Context.getCommandContext();
@@ -876,6 +911,7 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
 
   /* plain setter for persistence */
   public void setOwnerWithoutCascade(String owner) {
+    trackChange(this.owner, owner);
     this.owner = owner;
   }
 
@@ -883,10 +919,12 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
   public void setDueDate(Date dueDate) {
     registerCommandContextCloseListener();
     propertyChanged(DUE_DATE, this.dueDate, dueDate);
+    trackChange(this.dueDate, dueDate);
     this.dueDate = dueDate;
   }
 
   public void setDueDateWithoutCascade(Date dueDate) {
+    trackChange(this.dueDate, dueDate);
     this.dueDate = dueDate;
   }
 
@@ -894,10 +932,16 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
   public void setPriority(int priority) {
     registerCommandContextCloseListener();
     propertyChanged(PRIORITY, this.priority, priority);
+    if (this.priority != priority) {
+      persistentStateChanges++;
+    }
     this.priority = priority;
   }
 
   public void setPriorityWithoutCascade(int priority) {
+    if (this.priority != priority) {
+      persistentStateChanges++;
+    }
     this.priority = priority;
   }
 
@@ -905,10 +949,12 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
   public void setParentTaskId(String parentTaskId) {
     registerCommandContextCloseListener();
     propertyChanged(PARENT_TASK, this.parentTaskId, parentTaskId);
+    trackChange(this.parentTaskId, parentTaskId);
     this.parentTaskId = parentTaskId;
   }
 
   public void setParentTaskIdWithoutCascade(String parentTaskId) {
+    trackChange(this.parentTaskId, parentTaskId);
     this.parentTaskId = parentTaskId;
   }
 
@@ -1160,6 +1206,7 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
   }
 
   public void setCreateTime(Date createTime) {
+    trackChange(this.createTime, createTime);
     this.createTime = createTime;
   }
 
@@ -1210,6 +1257,7 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
   }
 
   public void setProcessDefinitionId(String processDefinitionId) {
+    trackChange(this.processDefinitionId, processDefinitionId);
     this.processDefinitionId = processDefinitionId;
   }
 
@@ -1242,6 +1290,7 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
     this.eventName = eventName;
   }
   public void setExecutionId(String executionId) {
+    trackChange(this.executionId, executionId);
     this.executionId = executionId;
   }
   public ExecutionEntity getProcessInstance() {
@@ -1264,10 +1313,12 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
   @Override
   public void setDelegationState(DelegationState delegationState) {
     propertyChanged(DELEGATION, this.delegationState, delegationState);
+    trackChange(this.delegationState, delegationState);
     this.delegationState = delegationState;
   }
 
   public void setDelegationStateWithoutCascade(DelegationState delegationState) {
+    trackChange(this.delegationState, delegationState);
     this.delegationState = delegationState;
   }
 
@@ -1310,6 +1361,9 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
     return suspensionState;
   }
   public void setSuspensionState(int suspensionState) {
+    if (this.suspensionState != suspensionState) {
+      persistentStateChanges++;
+    }
     this.suspensionState = suspensionState;
   }
   @Override
@@ -1329,6 +1383,7 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
 
   @Override
   public void setTenantId(String tenantId) {
+    trackChange(this.tenantId, tenantId);
     this.tenantId = tenantId;
   }
 
@@ -1336,10 +1391,12 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
   public void setFollowUpDate(Date followUpDate) {
     registerCommandContextCloseListener();
     propertyChanged(FOLLOW_UP_DATE, this.followUpDate, followUpDate);
+    trackChange(this.followUpDate, followUpDate);
     this.followUpDate = followUpDate;
   }
 
   public void setFollowUpDateWithoutCascade(Date followUpDate) {
+    trackChange(this.followUpDate, followUpDate);
     this.followUpDate = followUpDate;
   }
 
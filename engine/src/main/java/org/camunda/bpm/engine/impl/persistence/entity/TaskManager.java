@@ -15,6 +15,7 @@ package org.camunda.bpm.engine.impl.persistence.entity;
 
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -220,4 +221,25 @@ public class TaskManager extends AbstractManager {
     return getTenantManager().configureQuery(parameter);
   }
 
+  public void updateProcessDefinitionIdByProcessInstanceIds(Collection<String> processInstanceIds, String sourceProcessDefinitionId, ProcessDefinitionEntity targetProcessDefinition) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("processInstanceIds", processInstanceIds);
+    parameters.put("sourceProcessDefinitionId", sourceProcessDefinitionId);
+    parameters.put("targetProcessDefinitionId", targetProcessDefinition.getId());
+    getDbEntityManager().update(TaskEntity.class, "updateTaskProcessDefinitionIdByProcessInstanceIds", new ListQueryParameterObject(parameters, 0, Integer.MAX_VALUE));
+  }
+
+  public void deleteTasksByProcessInstanceIds(Collection<String> processInstanceIds) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("processInstanceIds", processInstanceIds);
+    getDbEntityManager().delete(TaskEntity.class, "deleteTasksByProcessInstanceIds", new ListQueryParameterObject(parameters, 0, Integer.MAX_VALUE));
+  }
+
+  @SuppressWarnings("unchecked")
+  public List<String> findTaskIdsByProcessInstanceIds(Collection<String> processInstanceIds) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("processInstanceIds", processInstanceIds);
+    return getDbEntityManager().selectList("selectTaskIdsByProcessInstanceIds", parameters);
+  }
+
 }
@@ -28,10 +28,12 @@ import org.camunda.bpm.engine.impl.core.variable.CoreVariableInstance;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.DbEntityLifecycleAware;
 import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.db.HasDbChangeStamp;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.persistence.entity.util.ByteArrayField;
 import org.camunda.bpm.engine.impl.persistence.entity.util.TypedValueField;
 import org.camunda.bpm.engine.impl.persistence.entity.util.TypedValueUpdateListener;
+import org.camunda.bpm.engine.impl.util.CompareUtil;
 import org.camunda.bpm.engine.impl.variable.serializer.TypedValueSerializer;
 import org.camunda.bpm.engine.impl.variable.serializer.ValueFields;
 import org.camunda.bpm.engine.runtime.VariableInstance;
@@ -40,7 +42,7 @@ import org.camunda.bpm.engine.variable.value.TypedValue;
 /**
  * @author Tom Baeyens
  */
-public class VariableInstanceEntity implements VariableInstance, CoreVariableInstance, ValueFields, DbEntity, DbEntityLifecycleAware, TypedValueUpdateListener, HasDbRevision, Serializable {
+public class VariableInstanceEntity implements VariableInstance, CoreVariableInstance, ValueFields, DbEntity, DbEntityLifecycleAware, TypedValueUpdateListener, HasDbRevision, HasDbChangeStamp, Serializable {
 
   protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
 
@@ -103,6 +105,11 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
    */
   protected boolean isTransient = false;
 
+  /**
+   * Counts the changes of the persistent state, see {@link #getDbChangeStamp()}
+   */
+  protected int persistentStateChanges = 0;
+
   // transient properties
   protected ExecutionEntity execution;
 
@@ -179,6 +186,16 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
     return persistentState;
   }
 
+  public long getDbChangeStamp() {
+    return persistentStateChanges;
+  }
+
+  protected void trackChange(Object oldValue, Object newValue) {
+    if (CompareUtil.areNotEqual(oldValue, newValue)) {
+      persistentStateChanges++;
+    }
+  }
+
   public int getRevisionNext() {
     return revision+1;
   }
@@ -186,31 +203,35 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
   // lazy initialized relations ///////////////////////////////////////////////
 
   public void setProcessInstanceId(String processInstanceId) {
+    trackChange(this.processInstanceId, processInstanceId);
     this.processInstanceId = processInstanceId;
   }
 
   public void setExecutionId(String executionId) {
+    trackChange(this.executionId, executionId);
     this.executionId = executionId;
   }
 
   public void setCaseInstanceId(String caseInstanceId) {
+    trackChange(this.caseInstanceId, caseInstanceId);
     this.caseInstanceId = caseInstanceId;
   }
 
   public void setCaseExecutionId(String caseExecutionId) {
+    trackChange(this.caseExecutionId, caseExecutionId);
     this.caseExecutionId = caseExecutionId;
   }
 
   public void setCaseExecution(CaseExecutionEntity caseExecution) {
     if (caseExecution != null) {
-      this.caseInstanceId = caseExecution.getCaseInstanceId();
-      this.caseExecutionId = caseExecution.getId();
-      this.tenantId = caseExecution.getTenantId();
+      setCaseInstanceId(caseExecution.getCaseInstanceId());
+      setCaseExecutionId(caseExecution.getId());
+      setTenantId(caseExecution.getTenantId());
     }
     else {
-      this.caseInstanceId = null;
-      this.caseExecutionId = null;
-      this.tenantId = null;
+      setCaseInstanceId(null);
+      setCaseExecutionId(null);
+      setTenantId(null);
     }
   }
 
@@ -225,6 +246,7 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
   }
 
   public void setByteArrayValueId(String byteArrayValueId) {
+    trackChange(byteArrayField.getByteArrayId(), byteArrayValueId);
     this.byteArrayField.setByteArrayId(byteArrayValueId);
   }
 
@@ -236,12 +258,16 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
     // avoid setting a byte array value for a transient variable because this
     // would create and insert an entity in the data base
     if (!isTransient) {
+      String byteArrayIdBefore = byteArrayField.getByteArrayId();
       byteArrayField.setByteArrayValue(bytes);
+      trackChange(byteArrayIdBefore, byteArrayField.getByteArrayId());
     }
   }
 
   protected void deleteByteArrayValue() {
+    String byteArrayIdBefore = byteArrayField.getByteArrayId();
     byteArrayField.deleteByteArrayValue();
+    trackChange(byteArrayIdBefore, byteArrayField.getByteArrayId());
   }
 
   // type /////////////////////////////////////////////////////////////////////
@@ -263,17 +289,35 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
       throw LOG.updateTransientVariableException(getName());
     }
 
+    int persistentStateChangesBefore = persistentStateChanges;
+    Long longValueBefore = longValue;
+    Double doubleValueBefore = doubleValue;
+    String textValueBefore = textValue;
+    String textValue2Before = textValue2;
+    String byteArrayIdBefore = byteArrayField.getByteArrayId();
+    String serializerNameBefore = typedValueField.getSerializerName();
+
     // clear value fields
     clearValueFields();
 
     typedValueField.setValue(value);
+
+    // the value fields are cleared before they are written again, so only the
+    // final state of the fields decides whether the value has changed
+    persistentStateChanges = persistentStateChangesBefore;
+    trackChange(longValueBefore, longValue);
+    trackChange(doubleValueBefore, doubleValue);
+    trackChange(textValueBefore, textValue);
+    trackChange(textValue2Before, textValue2);
+    trackChange(byteArrayIdBefore, byteArrayField.getByteArrayId());
+    trackChange(serializerNameBefore, typedValueField.getSerializerName());
   }
 
   public void clearValueFields() {
-    this.longValue = null;
-    this.doubleValue = null;
-    this.textValue = null;
-    this.textValue2 = null;
+    setLongValue(null);
+    setDoubleValue(null);
+    setTextValue(null);
+    setTextValue2(null);
     typedValueField.clear();
 
     if(byteArrayField.getByteArrayId() != null) {
@@ -313,14 +357,14 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
     this.execution = execution;
 
     if (execution == null) {
-      this.executionId = null;
-      this.processInstanceId = null;
-      this.tenantId = null;
+      setExecutionId(null);
+      setProcessInstanceId(null);
+      setTenantId(null);
     }
     else {
       setExecutionId(execution.getId());
-      this.processInstanceId = execution.getProcessInstanceId();
-      this.tenantId = execution.getTenantId();
+      setProcessInstanceId(execution.getProcessInstanceId());
+      setTenantId(execution.getTenantId());
     }
 
   }
@@ -372,6 +416,7 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
   }
 
   public void setLongValue(Long longValue) {
+    trackChange(this.longValue, longValue);
     this.longValue = longValue;
   }
 
@@ -380,6 +425,7 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
   }
 
   public void setDoubleValue(Double doubleValue) {
+    trackChange(this.doubleValue, doubleValue);
     this.doubleValue = doubleValue;
   }
 
@@ -388,6 +434,7 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
   }
 
   public void setTextValue(String textValue) {
+    trackChange(this.textValue, textValue);
     this.textValue = textValue;
   }
 
@@ -404,10 +451,11 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
   }
 
   public void setSerializer(TypedValueSerializer<?> serializer) {
-    typedValueField.setSerializerName(serializer.getName());
+    setSerializerName(serializer.getName());
   }
 
   public void setSerializerName(String type) {
+    trackChange(typedValueField.getSerializerName(), type);
     typedValueField.setSerializerName(type);
   }
 
@@ -420,6 +468,7 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
   }
 
   public void setTextValue2(String textValue2) {
+    trackChange(this.textValue2, textValue2);
     this.textValue2 = textValue2;
   }
 
@@ -428,13 +477,14 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
   }
 
   public void setTaskId(String taskId) {
+    trackChange(this.taskId, taskId);
     this.taskId = taskId;
   }
 
   public void setTask(TaskEntity task) {
     if (task != null) {
-      this.taskId = task.getId();
-      this.tenantId = task.getTenantId();
+      setTaskId(task.getId());
+      setTenantId(task.getTenantId());
 
       if (task.getExecution() != null) {
         setExecution(task.getExecution());
@@ -444,8 +494,8 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
       }
     }
     else {
-      this.taskId = null;
-      this.tenantId = null;
+      setTaskId(null);
+      setTenantId(null);
       setExecution(null);
       setCaseExecution(null);
     }
@@ -513,10 +563,14 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
   }
 
   public void setSequenceCounter(long sequenceCounter) {
+    if (this.sequenceCounter != sequenceCounter) {
+      persistentStateChanges++;
+    }
     this.sequenceCounter = sequenceCounter;
   }
 
    public void incrementSequenceCounter() {
+    persistentStateChanges++;
     sequenceCounter++;
   }
 
@@ -526,6 +580,9 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
   }
 
   public void setConcurrentLocal(boolean isConcurrentLocal) {
+    if (this.isConcurrentLocal != isConcurrentLocal) {
+      persistentStateChanges++;
+    }
     this.isConcurrentLocal = isConcurrentLocal;
   }
 
@@ -638,6 +695,7 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
   }
 
   public void setTenantId(String tenantId) {
+    trackChange(this.tenantId, tenantId);
     this.tenantId = tenantId;
   }
 
@@ -13,10 +13,14 @@
 
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.camunda.bpm.engine.impl.Page;
 import org.camunda.bpm.engine.impl.VariableInstanceQueryImpl;
+import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 import org.camunda.bpm.engine.runtime.VariableInstance;
 
@@ -46,6 +50,26 @@ public class VariableInstanceManager extends AbstractManager {
     return getDbEntityManager().selectList("selectVariablesByCaseExecutionId", caseExecutionId);
   }
 
+  public List<VariableInstanceEntity> findVariableInstancesByExecutionIdAndVariableNames(String executionId, Collection<String> variableNames) {
+    return findVariableInstancesByScopeAndVariableNames("executionId", executionId, variableNames);
+  }
+
+  public List<VariableInstanceEntity> findVariableInstancesByTaskIdAndVariableNames(String taskId, Collection<String> variableNames) {
+    return findVariableInstancesByScopeAndVariableNames("taskId", taskId, variableNames);
+  }
+
+  public List<VariableInstanceEntity> findVariableInstancesByCaseExecutionIdAndVariableNames(String caseExecutionId, Collection<String> variableNames) {
+    return findVariableInstancesByScopeAndVariableNames("caseExecutionId", caseExecutionId, variableNames);
+  }
+
+  @SuppressWarnings("unchecked")
+  protected List<VariableInstanceEntity> findVariableInstancesByScopeAndVariableNames(String scopeParameter, String scopeId, Collection<String> variableNames) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put(scopeParameter, scopeId);
+    parameters.put("variableNames", variableNames);
+    return getDbEntityManager().selectList("selectVariablesByName", parameters);
+  }
+
   public void deleteVariableInstanceByTask(TaskEntity task) {
     List<VariableInstanceEntity> variableInstances = task.variableStore.getVariables();
     for (VariableInstanceEntity variableInstance: variableInstances) {
@@ -69,4 +93,10 @@ public class VariableInstanceManager extends AbstractManager {
     getTenantManager().configureQuery(query);
   }
 
+  public void deleteVariableInstancesByProcessInstanceIds(Collection<String> processInstanceIds) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("processInstanceIds", processInstanceIds);
+    getDbEntityManager().delete(VariableInstanceEntity.class, "deleteVariableInstancesByProcessInstanceIds", new ListQueryParameterObject(parameters, 0, Integer.MAX_VALUE));
+  }
+
 }
@@ -20,6 +20,8 @@ import java.util.Map;
 
 import org.camunda.bpm.engine.impl.bpmn.helper.BpmnProperties;
 import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParse;
+import org.camunda.bpm.engine.impl.core.model.ModelCompactor;
+import org.camunda.bpm.engine.impl.core.model.ModelMemoryReport;
 import org.camunda.bpm.engine.impl.pvm.PvmActivity;
 import org.camunda.bpm.engine.impl.pvm.PvmException;
 import org.camunda.bpm.engine.impl.pvm.PvmScope;
@@ -87,6 +89,33 @@ public class ActivityImpl extends ScopeImpl implements PvmActivity, HasDIBounds
     return "Activity("+id+")";
   }
 
+  // memory footprint /////////////////////////////////////////////////////////
+
+  @Override
+  public void compact(ModelCompactor compactor) {
+    super.compact(compactor);
+    compactor.trim(outgoingTransitions);
+    compactor.trim(incomingTransitions);
+    namedOutgoingTransitions = compactor.compactMap(namedOutgoingTransitions);
+
+    for (TransitionImpl transition : outgoingTransitions) {
+      transition.compact(compactor);
+    }
+  }
+
+  @Override
+  public void reportMemoryUsage(ModelMemoryReport report) {
+    report.addActivity();
+    super.reportMemoryUsage(report);
+    report.addCollection(outgoingTransitions);
+    report.addCollection(incomingTransitions);
+    report.addMap(namedOutgoingTransitions);
+
+    for (TransitionImpl transition : outgoingTransitions) {
+      transition.reportMemoryUsage(report);
+    }
+  }
+
   // restricted setters ///////////////////////////////////////////////////////
 
   protected void setOutgoingTransitions(List<TransitionImpl> outgoingTransitions) {
@@ -22,6 +22,8 @@ import java.util.Map;
 
 import org.camunda.bpm.engine.delegate.BaseDelegateExecution;
 import org.camunda.bpm.engine.impl.core.delegate.CoreActivityBehavior;
+import org.camunda.bpm.engine.impl.core.model.ModelCompactor;
+import org.camunda.bpm.engine.impl.core.model.ModelMemoryReport;
 import org.camunda.bpm.engine.impl.pvm.PvmProcessDefinition;
 import org.camunda.bpm.engine.impl.pvm.PvmProcessInstance;
 import org.camunda.bpm.engine.impl.pvm.PvmScope;
@@ -154,6 +156,20 @@ public class ProcessDefinitionImpl extends ScopeImpl implements PvmProcessDefini
     return null;
   }
 
+  // memory footprint /////////////////////////////////////////////////////////
+
+  @Override
+  public void compact(ModelCompactor compactor) {
+    super.compact(compactor);
+    name = compactor.intern(name);
+  }
+
+  @Override
+  public void reportMemoryUsage(ModelMemoryReport report) {
+    super.reportMemoryUsage(report);
+    report.addString(name);
+  }
+
   // getters and setters //////////////////////////////////////////////////////
 
   public ActivityImpl getInitial() {
@@ -24,6 +24,8 @@ import java.util.Set;
 import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.delegate.ExecutionListener;
 import org.camunda.bpm.engine.impl.core.model.CoreActivity;
+import org.camunda.bpm.engine.impl.core.model.ModelCompactor;
+import org.camunda.bpm.engine.impl.core.model.ModelMemoryReport;
 import org.camunda.bpm.engine.impl.pvm.PvmActivity;
 import org.camunda.bpm.engine.impl.pvm.PvmException;
 import org.camunda.bpm.engine.impl.pvm.PvmScope;
@@ -190,6 +192,30 @@ public abstract class ScopeImpl extends CoreActivity implements PvmScope {
     return false;
   }
 
+  // memory footprint /////////////////////////////////////////////////////////
+
+  @Override
+  public void compact(ModelCompactor compactor) {
+    super.compact(compactor);
+    compactor.trim(flowActivities);
+    namedFlowActivities = compactor.compactMap(namedFlowActivities);
+
+    for (ActivityImpl activity : flowActivities) {
+      activity.compact(compactor);
+    }
+  }
+
+  @Override
+  public void reportMemoryUsage(ModelMemoryReport report) {
+    super.reportMemoryUsage(report);
+    report.addCollection(flowActivities);
+    report.addMap(namedFlowActivities);
+
+    for (ActivityImpl activity : flowActivities) {
+      activity.reportMemoryUsage(report);
+    }
+  }
+
   // event listeners //////////////////////////////////////////////////////////
 
   @SuppressWarnings("unchecked")
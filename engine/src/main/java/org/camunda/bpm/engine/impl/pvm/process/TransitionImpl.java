@@ -18,6 +18,8 @@ import java.util.List;
 
 import org.camunda.bpm.engine.delegate.ExecutionListener;
 import org.camunda.bpm.engine.impl.core.model.CoreModelElement;
+import org.camunda.bpm.engine.impl.core.model.ModelCompactor;
+import org.camunda.bpm.engine.impl.core.model.ModelMemoryReport;
 import org.camunda.bpm.engine.impl.pvm.PvmActivity;
 import org.camunda.bpm.engine.impl.pvm.PvmProcessDefinition;
 import org.camunda.bpm.engine.impl.pvm.PvmTransition;
@@ -75,6 +77,21 @@ public class TransitionImpl extends CoreModelElement implements PvmTransition {
     return "("+source.getId()+")--"+(id!=null?id+"-->(":">(")+destination.getId()+")";
   }
 
+  // memory footprint /////////////////////////////////////////////////////////
+
+  @Override
+  public void compact(ModelCompactor compactor) {
+    super.compact(compactor);
+    compactor.trim(waypoints);
+  }
+
+  @Override
+  public void reportMemoryUsage(ModelMemoryReport report) {
+    report.addTransition();
+    super.reportMemoryUsage(report);
+    report.addCollection(waypoints);
+  }
+
   // getters and setters //////////////////////////////////////////////////////
 
   public PvmProcessDefinition getProcessDefinition() {
@@ -0,0 +1,69 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.pvm.runtime;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.pvm.process.ScopeImpl;
+
+/**
+ * Caches the activity execution mappings created by
+ * {@link PvmExecutionImpl#createActivityExecutionMapping(ScopeImpl)} for the scope executions of a command.
+ *
+ * <p>Creating a mapping walks the execution tree from the scope execution to the process instance and
+ * inspects the child executions on the way. Executions in a wide tree share their ancestors, so that the
+ * mappings of the same scope executions are created repeatedly, e.g. when the activity instance tree is built.</p>
+ *
+ * <p>A mapping is only valid as long as the execution tree does not change. The cache is invalidated
+ * as a whole whenever an execution is created, removed or moved or its activity, activity instance or
+ * scope flags change.</p>
+ */
+public class ActivityExecutionMappingCache {
+
+  protected Map<PvmExecutionImpl, Map<ScopeImpl, Map<ScopeImpl, PvmExecutionImpl>>> mappings =
+      new IdentityHashMap<PvmExecutionImpl, Map<ScopeImpl, Map<ScopeImpl, PvmExecutionImpl>>>();
+
+  /**
+   * @return the cached mapping for the given scope execution and current scope or null if none is cached
+   */
+  public Map<ScopeImpl, PvmExecutionImpl> getMapping(PvmExecutionImpl scopeExecution, ScopeImpl currentScope) {
+    Map<ScopeImpl, Map<ScopeImpl, PvmExecutionImpl>> mappingsByScope = mappings.get(scopeExecution);
+    if (mappingsByScope != null) {
+      return mappingsByScope.get(currentScope);
+    }
+    else {
+      return null;
+    }
+  }
+
+  public void putMapping(PvmExecutionImpl scopeExecution, ScopeImpl currentScope, Map<ScopeImpl, PvmExecutionImpl> mapping) {
+    Map<ScopeImpl, Map<ScopeImpl, PvmExecutionImpl>> mappingsByScope = mappings.get(scopeExecution);
+    if (mappingsByScope == null) {
+      mappingsByScope = new HashMap<ScopeImpl, Map<ScopeImpl, PvmExecutionImpl>>();
+      mappings.put(scopeExecution, mappingsByScope);
+    }
+    mappingsByScope.put(currentScope, mapping);
+  }
+
+  /**
+   * Discards all cached mappings.
+   */
+  public void invalidate() {
+    if (!mappings.isEmpty()) {
+      mappings.clear();
+    }
+  }
+
+}
@@ -324,7 +324,7 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
 
     setCompleteScope(completeScope);
 
-    isActive = false;
+    setActive(false);
     isEnded = true;
 
     if (hasReplacedParent()) {
@@ -371,6 +371,7 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
     PvmExecutionImpl parent = getParent();
     if (parent != null) {
       parent.getExecutions().remove(this);
+      invalidateActivityExecutionMappings();
 
       // if the sequence counter is greater than the
       // sequence counter of the parent, then set
@@ -388,7 +389,7 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
 
     }
 
-    isActive = false;
+    setActive(false);
     isEnded = true;
 
     if (hasReplacedParent()) {
@@ -676,8 +677,9 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
    */
   public void replace(PvmExecutionImpl execution) {
     // activity instance id handling
-    this.activityInstanceId = execution.getActivityInstanceId();
-    this.isActive = execution.isActive;
+    setActivityInstanceId(execution.getActivityInstanceId());
+    setActive(execution.isActive);
+    invalidateActivityExecutionMappings();
 
     this.replacedBy = null;
     execution.replacedBy = this;
@@ -872,8 +874,9 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
 
     this.skipCustomListeners = skipCustomListeners;
     this.skipIoMapping = skipIoMappings;
-    this.activityInstanceId = null;
+    setActivityInstanceId(null);
     this.isEnded = false;
+    invalidateActivityExecutionMappings();
 
     if (!activityStack.isEmpty()) {
       ExecutionStartContext executionStartContext = new ExecutionStartContext(false);
@@ -989,7 +992,7 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
       propagatingExecution = getReplacedBy();
     }
 
-    propagatingExecution.isActive = true;
+    propagatingExecution.setActive(true);
     propagatingExecution.isEnded = false;
 
     if (_transitions.isEmpty()) {
@@ -1008,7 +1011,7 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
 
   @Override
   public void inactivate() {
-    this.isActive = false;
+    setActive(false);
   }
 
   // executions ///////////////////////////////////////////////////////////////
@@ -1172,13 +1175,15 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
   @Override
   public void setActivity(PvmActivity activity) {
     this.activity = (ActivityImpl) activity;
+    invalidateActivityExecutionMappings();
   }
 
   @Override
   public void enterActivityInstance() {
     ActivityImpl activity = getActivity();
 
-    activityInstanceId = generateActivityInstanceId(activity.getId());
+    setActivityInstanceId(generateActivityInstanceId(activity.getId()));
+    invalidateActivityExecutionMappings();
 
     LOG.debugEnterActivityInstance(this, getParentActivityInstanceId());
 
@@ -1214,7 +1219,8 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
     if (activityInstanceId != null) {
       LOG.debugLeavesActivityInstance(this, activityInstanceId);
     }
-    activityInstanceId = getParentActivityInstanceId();
+    setActivityInstanceId(getParentActivityInstanceId());
+    invalidateActivityExecutionMappings();
 
     activityInstanceState = ActivityInstanceState.DEFAULT.getStateCode();
   }
@@ -1232,6 +1238,7 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
   @Override
   public void setActivityInstanceId(String activityInstanceId) {
     this.activityInstanceId = activityInstanceId;
+    invalidateActivityExecutionMappings();
   }
 
   @Override
@@ -1278,6 +1285,8 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
     if (parent != null) {
       ((List<PvmExecutionImpl>) parent.getExecutions()).add(this);
     }
+
+    invalidateActivityExecutionMappings();
   }
 
   /**
@@ -1331,6 +1340,7 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
   @Override
   public void setScope(boolean isScope) {
     this.isScope = isScope;
+    invalidateActivityExecutionMappings();
   }
 
 
@@ -1382,6 +1392,22 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
       throw new ProcessEngineException("Current scope must be a scope.");
     }
 
+    ActivityExecutionMappingCache mappingCache = getActivityExecutionMappingCache();
+    if (mappingCache == null) {
+      return createActivityExecutionMappingForLeaves(currentScope);
+    }
+
+    Map<ScopeImpl, PvmExecutionImpl> mapping = mappingCache.getMapping(this, currentScope);
+    if (mapping == null) {
+      mapping = createActivityExecutionMappingForLeaves(currentScope);
+      mappingCache.putMapping(this, currentScope, mapping);
+    }
+
+    // callers may modify the mapping
+    return new HashMap<ScopeImpl, PvmExecutionImpl>(mapping);
+  }
+
+  protected Map<ScopeImpl, PvmExecutionImpl> createActivityExecutionMappingForLeaves(ScopeImpl currentScope) {
     // A single path in the execution tree from a leaf (no child executions) to the root
     // may in fact contain multiple executions that correspond to leaves in the activity instance hierarchy.
     //
@@ -1440,6 +1466,24 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
     return flowScopeExecution.createActivityExecutionMapping(flowScope);
   }
 
+  /**
+   * @return the cache of activity execution mappings or null if mappings are not cached
+   */
+  protected ActivityExecutionMappingCache getActivityExecutionMappingCache() {
+    return null;
+  }
+
+  /**
+   * Discards the cached activity execution mappings. Must be invoked whenever the execution tree
+   * changes in a way that affects the mapping of scopes to scope executions.
+   */
+  protected void invalidateActivityExecutionMappings() {
+    ActivityExecutionMappingCache mappingCache = getActivityExecutionMappingCache();
+    if (mappingCache != null) {
+      mappingCache.invalidate();
+    }
+  }
+
   protected PvmExecutionImpl getFlowScopeExecution() {
     if (!isScope || CompensationBehavior.executesNonScopeCompensationHandler(this)) {
       // LEGACY: a correct implementation should also skip a compensation-throwing parent scope execution
@@ -1672,6 +1716,7 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
   @Override
   public void setConcurrent(boolean isConcurrent) {
     this.isConcurrent = isConcurrent;
+    invalidateActivityExecutionMappings();
   }
 
   @Override
@@ -1737,6 +1782,7 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
 
   public void setEventScope(boolean isEventScope) {
     this.isEventScope = isEventScope;
+    invalidateActivityExecutionMappings();
   }
 
   public ExecutionStartContext getExecutionStartContext() {
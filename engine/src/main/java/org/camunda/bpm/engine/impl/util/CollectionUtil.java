@@ -87,4 +87,18 @@ public class CollectionUtil {
     }
     set.addAll(values);
   }
+
+  /**
+   * Splits the given list into consecutive partitions of the given size; the last
+   * partition may be smaller. The partitions are copies and do not depend on the given list.
+   */
+  public static <T> List<List<T>> partition(List<T> list, int partitionSize) {
+    List<List<T>> partitions = new ArrayList<List<T>>();
+    for (int fromIndex = 0; fromIndex < list.size(); fromIndex += partitionSize) {
+      int toIndex = Math.min(fromIndex + partitionSize, list.size());
+      partitions.add(new ArrayList<T>(list.subList(fromIndex, toIndex)));
+    }
+    return partitions;
+  }
+
 }
@@ -142,4 +142,11 @@ public class CompareUtil {
   public static <T extends Comparable<T>> T max(T obj1, T obj2) {
     return obj1.compareTo(obj2) >= 0 ? obj1 : obj2;
   }
+
+  /**
+   * Checks if two objects are not equal; both may be null.
+   */
+  public static boolean areNotEqual(Object obj1, Object obj2) {
+    return obj1 == null ? obj2 != null : !obj1.equals(obj2);
+  }
 }
@@ -117,12 +117,18 @@ public class Parse extends DefaultHandler {
     try {
       InputStream inputStream = streamSource.getInputStream();
 
-      if (schemaResource == null) { // must be done before parser is created
-        parser.getSaxParserFactory().setNamespaceAware(false);
-        parser.getSaxParserFactory().setValidating(false);
+      SAXParser saxParser;
+      SAXParserFactory saxParserFactory = parser.getSaxParserFactory();
+      // the parser factory is shared, resources of a deployment may be parsed concurrently
+      synchronized (saxParserFactory) {
+        if (schemaResource == null) { // must be done before parser is created
+          saxParserFactory.setNamespaceAware(false);
+          saxParserFactory.setValidating(false);
+        }
+
+        saxParser = parser.getSaxParser();
       }
 
-      SAXParser saxParser = parser.getSaxParser();
       if (schemaResource != null) {
         saxParser.setProperty(JAXP_SCHEMA_LANGUAGE, W3C_XML_SCHEMA);
         saxParser.setProperty(JAXP_SCHEMA_SOURCE, schemaResource);
@@ -0,0 +1,61 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.management;
+
+/**
+ * Distribution of durations in milliseconds, recorded in buckets with fixed upper bounds.
+ *
+ * @since 7.6
+ */
+public interface DurationHistogram {
+
+  /**
+   * The number of recorded durations.
+   */
+  long getCount();
+
+  /**
+   * The sum of all recorded durations in milliseconds.
+   */
+  long getSum();
+
+  /**
+   * The longest recorded duration in milliseconds.
+   */
+  long getMax();
+
+  /**
+   * The mean of the recorded durations in milliseconds or 0 if no duration was recorded.
+   */
+  double getMean();
+
+  /**
+   * Estimates the given percentile by the upper bound of the bucket it falls into.
+   *
+   * @param percentile between 0 and 1, e.g. 0.99 for the 99th percentile
+   * @return the estimated duration in milliseconds, never more than {@link #getMax()}
+   */
+  long getPercentile(double percentile);
+
+  /**
+   * The inclusive upper bounds of the buckets in milliseconds.
+   * The last bucket has the upper bound {@link Long#MAX_VALUE}.
+   */
+  long[] getBucketUpperBounds();
+
+  /**
+   * The number of recorded durations per bucket.
+   */
+  long[] getBucketCounts();
+
+}
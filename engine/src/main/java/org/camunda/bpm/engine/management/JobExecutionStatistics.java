@@ -0,0 +1,77 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.management;
+
+/**
+ * Statistics about the acquisition and execution of the jobs of one job definition
+ * and job handler type by the job executor.
+ *
+ * @since 7.6
+ */
+public interface JobExecutionStatistics {
+
+  /**
+   * The id of the job definition or <code>null</code> if the jobs have no job definition.
+   */
+  String getJobDefinitionId();
+
+  /**
+   * The type of the job handler.
+   */
+  String getJobHandlerType();
+
+  /**
+   * The number of jobs locked by the job acquisition, including the ones which
+   * could not be acquired because of an optimistic locking failure.
+   */
+  long getAcquiredJobs();
+
+  /**
+   * The number of jobs which could not be acquired because another job executor
+   * or a concurrent transaction updated them.
+   */
+  long getAcquisitionFailures();
+
+  /**
+   * The number of executed jobs, including failed ones.
+   */
+  long getExecutedJobs();
+
+  /**
+   * The number of job executions which failed.
+   */
+  long getFailedJobs();
+
+  /**
+   * The number of job executions which failed because of an optimistic locking failure.
+   */
+  long getOptimisticLockingFailures();
+
+  /**
+   * The time between the due date and the acquisition of the jobs. Jobs without
+   * a due date are not recorded.
+   */
+  DurationHistogram getAcquisitionLag();
+
+  /**
+   * The time the jobs waited in the queue of the job executor before
+   * their execution started.
+   */
+  DurationHistogram getQueueTime();
+
+  /**
+   * The time it took to execute the jobs, including the commit of the transaction.
+   */
+  DurationHistogram getExecutionTime();
+
+}
@@ -26,6 +26,12 @@ public class Metrics {
    */
   public final static String JOB_ACQUISITION_ATTEMPT = "job-acquisition-attempt";
 
+  /**
+   * Time in milliseconds spent on job acquisition. Divided by {@link #JOB_ACQUISITION_ATTEMPT},
+   * this is the average latency of job acquisition for a process engine.
+   */
+  public final static String JOB_ACQUISITION_TIME = "job-acquisition-time";
+
   /**
    * Number of jobs successfully acquired (i.e. selected + locked)
    */
@@ -84,6 +84,7 @@ create table ACT_RU_JOB (
     JOB_DEF_ID_ nvarchar(64),
     SEQUENCE_COUNTER_ numeric(19,0),
     TENANT_ID_ nvarchar(64),
+    PARTITION_ int,
     primary key (ID_)
 );
 
@@ -242,6 +243,15 @@ create table ACT_RU_METER_LOG (
   primary key (ID_)
 );
 
+create table ACT_RU_JOB_PARTITION (
+  ID_ nvarchar(64) not null,
+  REV_ int not null,
+  PARTITION_ int not null,
+  LOCK_OWNER_ nvarchar(255),
+  LOCK_EXP_TIME_ datetime2,
+  primary key (ID_)
+);
+
 create table ACT_RU_EXT_TASK (
   ID_ nvarchar(64) not null,
   REV_ integer not null,
@@ -299,6 +309,7 @@ create index ACT_IDX_JOB_EXECUTION_ID on ACT_RU_JOB(EXECUTION_ID_);
 create index ACT_IDX_JOB_HANDLER on ACT_RU_JOB(HANDLER_TYPE_,HANDLER_CFG_);
 create index ACT_IDX_JOB_PROCINST on ACT_RU_JOB(PROCESS_INSTANCE_ID_);
 create index ACT_IDX_JOB_TENANT_ID on ACT_RU_JOB(TENANT_ID_);
+create index ACT_IDX_JOB_PARTITION on ACT_RU_JOB(PARTITION_);
 create index ACT_IDX_JOBDEF_TENANT_ID on ACT_RU_JOBDEF(TENANT_ID_);
 create unique index ACT_UNIQ_AUTH_USER on ACT_RU_AUTHORIZATION (TYPE_,USER_ID_,RESOURCE_TYPE_,RESOURCE_ID_) where USER_ID_ is not null;
 create unique index ACT_UNIQ_AUTH_GROUP on ACT_RU_AUTHORIZATION (TYPE_,GROUP_ID_,RESOURCE_TYPE_,RESOURCE_ID_) where GROUP_ID_ is not null;
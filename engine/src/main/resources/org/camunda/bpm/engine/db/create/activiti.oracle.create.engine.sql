@@ -84,6 +84,7 @@ create table ACT_RU_JOB (
     PRIORITY_ NUMBER(19,0) DEFAULT 0 NOT NULL,
     SEQUENCE_COUNTER_ NUMBER(19,0),
     TENANT_ID_ NVARCHAR2(64),
+    PARTITION_ INTEGER,
     primary key (ID_)
 );
 
@@ -242,6 +243,15 @@ create table ACT_RU_METER_LOG (
   primary key (ID_)
 );
 
+create table ACT_RU_JOB_PARTITION (
+  ID_ NVARCHAR2(64) not null,
+  REV_ INTEGER not null,
+  PARTITION_ INTEGER not null,
+  LOCK_OWNER_ NVARCHAR2(255),
+  LOCK_EXP_TIME_ TIMESTAMP(6),
+  primary key (ID_)
+);
+
 create table ACT_RU_EXT_TASK (
   ID_ NVARCHAR2(64) not null,
   REV_ integer not null,
@@ -298,6 +308,7 @@ create index ACT_IDX_JOB_EXECUTION_ID on ACT_RU_JOB(EXECUTION_ID_);
 create index ACT_IDX_JOB_HANDLER on ACT_RU_JOB(HANDLER_TYPE_,HANDLER_CFG_);
 create index ACT_IDX_JOB_PROCINST on ACT_RU_JOB(PROCESS_INSTANCE_ID_);
 create index ACT_IDX_JOB_TENANT_ID on ACT_RU_JOB(TENANT_ID_, 0);
+create index ACT_IDX_JOB_PARTITION on ACT_RU_JOB(PARTITION_);
 create index ACT_IDX_JOBDEF_TENANT_ID on ACT_RU_JOBDEF(TENANT_ID_, 0);
 
 -- new metric milliseconds column
@@ -131,6 +131,7 @@ drop index ACT_IDX_EXT_TASK_PRIORITY;
 drop index ACT_IDX_INC_TENANT_ID;
 drop index ACT_IDX_JOBDEF_TENANT_ID;
 drop index ACT_IDX_JOB_TENANT_ID;
+drop index ACT_IDX_JOB_PARTITION;
 drop index ACT_IDX_EVENT_SUBSCR_TENANT_ID;
 drop index ACT_IDX_VARIABLE_TENANT_ID;
 drop index ACT_IDX_TASK_TENANT_ID;
@@ -163,6 +164,7 @@ drop table ACT_RU_INCIDENT if exists;
 drop table ACT_RU_AUTHORIZATION if exists;
 drop table ACT_RU_FILTER if exists;
 drop table ACT_RU_METER_LOG if exists;
+drop table ACT_RU_JOB_PARTITION if exists;
 drop table ACT_RU_EXT_TASK if exists;
 drop table ACT_RU_BATCH if exists;
 
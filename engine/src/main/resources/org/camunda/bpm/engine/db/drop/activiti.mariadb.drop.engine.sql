@@ -123,6 +123,7 @@ drop index ACT_IDX_EXT_TASK_PRIORITY on ACT_RU_EXT_TASK;
 drop index ACT_IDX_INC_TENANT_ID on ACT_RU_INCIDENT;
 drop index ACT_IDX_JOBDEF_TENANT_ID ON ACT_RU_JOBDEF;
 drop index ACT_IDX_JOB_TENANT_ID ON ACT_RU_JOB;
+drop index ACT_IDX_JOB_PARTITION on ACT_RU_JOB;
 drop index ACT_IDX_EVENT_SUBSCR_TENANT_ID on ACT_RU_EVENT_SUBSCR;
 drop index ACT_IDX_VARIABLE_TENANT_ID ON ACT_RU_VARIABLE;
 drop index ACT_IDX_TASK_TENANT_ID ON ACT_RU_TASK;
@@ -155,5 +156,6 @@ drop table if exists ACT_RU_INCIDENT;
 drop table if exists ACT_RU_AUTHORIZATION;
 drop table if exists ACT_RU_FILTER;
 drop table if exists ACT_RU_METER_LOG;
+drop table if exists ACT_RU_JOB_PARTITION;
 drop table if exists ACT_RU_EXT_TASK;
 drop table if exists ACT_RU_BATCH;
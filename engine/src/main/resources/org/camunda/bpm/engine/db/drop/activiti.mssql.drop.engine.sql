@@ -60,6 +60,7 @@ drop index ACT_RU_EXT_TASK.ACT_IDX_EXT_TASK_PRIORITY;
 drop index ACT_RU_INCIDENT.ACT_IDX_INC_TENANT_ID;
 drop index ACT_RU_JOBDEF.ACT_IDX_JOBDEF_TENANT_ID;
 drop index ACT_RU_JOB.ACT_IDX_JOB_TENANT_ID;
+drop index ACT_RU_JOB.ACT_IDX_JOB_PARTITION;
 drop index ACT_RU_EVENT_SUBSCR.ACT_IDX_EVENT_SUBSCR_TENANT_ID;
 drop index ACT_RU_VARIABLE.ACT_IDX_VARIABLE_TENANT_ID;
 drop index ACT_RU_TASK.ACT_IDX_TASK_TENANT_ID;
@@ -172,5 +173,6 @@ if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = '
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_AUTHORIZATION') drop table ACT_RU_AUTHORIZATION;
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_FILTER') drop table ACT_RU_FILTER;
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_METER_LOG') drop table ACT_RU_METER_LOG;
+if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_JOB_PARTITION') drop table ACT_RU_JOB_PARTITION;
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_EXT_TASK') drop table ACT_RU_EXT_TASK;
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_BATCH') drop table ACT_RU_BATCH;
@@ -149,6 +149,7 @@ drop index ACT_IDX_EXT_TASK_PRIORITY;
 drop index ACT_IDX_INC_TENANT_ID;
 drop index ACT_IDX_JOBDEF_TENANT_ID;
 drop index ACT_IDX_JOB_TENANT_ID;
+drop index ACT_IDX_JOB_PARTITION;
 drop index ACT_IDX_EVENT_SUBSCR_TENANT_ID;
 drop index ACT_IDX_VARIABLE_TENANT_ID;
 drop index ACT_IDX_TASK_TENANT_ID;
@@ -178,6 +179,7 @@ drop table ACT_RU_INCIDENT;
 drop table ACT_RU_AUTHORIZATION;
 drop table ACT_RU_FILTER;
 drop table ACT_RU_METER_LOG;
+drop table ACT_RU_JOB_PARTITION;
 drop table ACT_RU_EXT_TASK;
 drop table ACT_RU_BATCH;
 
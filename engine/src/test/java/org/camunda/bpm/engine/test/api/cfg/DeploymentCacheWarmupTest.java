@@ -0,0 +1,145 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.camunda.bpm.engine.test.api.cfg;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cmd.WarmUpDeploymentCacheCmd;
+import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentCache;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class DeploymentCacheWarmupTest {
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setDeploymentCacheWarmupEnabled(true);
+      configuration.setSchemaValidationOnCacheLoadEnabled(false);
+      return configuration;
+    }
+  };
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RepositoryService repositoryService;
+  protected DeploymentCache deploymentCache;
+
+  @Before
+  public void initialize() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    repositoryService = engineRule.getRepositoryService();
+    deploymentCache = processEngineConfiguration.getDeploymentCache();
+  }
+
+  @Test
+  public void testWarmUpLoadsLatestProcessDefinitionVersions() {
+    // given
+    ProcessDefinition firstVersion = testRule.deployAndGetDefinition(createProcess("process"));
+    ProcessDefinition secondVersion = testRule.deployAndGetDefinition(createProcess("process"));
+    ProcessDefinition otherProcess = testRule.deployAndGetDefinition(createProcess("otherProcess"));
+    deploymentCache.discardProcessDefinitionCache();
+
+    // when
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new WarmUpDeploymentCacheCmd(10));
+
+    // then
+    assertNull(deploymentCache.findProcessDefinitionFromCache(firstVersion.getId()));
+    assertNotNull(deploymentCache.findProcessDefinitionFromCache(secondVersion.getId()));
+    assertNotNull(deploymentCache.findProcessDefinitionFromCache(otherProcess.getId()));
+  }
+
+  @Test
+  public void testWarmUpLoadsAtMostGivenNumberOfProcessDefinitions() {
+    // given
+    testRule.deploy(createProcess("process0"), createProcess("process1"), createProcess("process2"));
+    deploymentCache.discardProcessDefinitionCache();
+
+    // when
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new WarmUpDeploymentCacheCmd(2));
+
+    // then
+    int cachedProcessDefinitions = 0;
+    for (ProcessDefinition processDefinition : repositoryService.createProcessDefinitionQuery().list()) {
+      if (deploymentCache.findProcessDefinitionFromCache(processDefinition.getId()) != null) {
+        cachedProcessDefinitions++;
+      }
+    }
+    assertEquals(2, cachedProcessDefinitions);
+  }
+
+  @Test
+  public void testProcessEngineBuildWarmsUpDeploymentCache() {
+    // given
+    ProcessDefinition processDefinition = testRule.deployAndGetDefinition(createProcess("process"));
+
+    ProcessEngineConfigurationImpl otherConfiguration = (ProcessEngineConfigurationImpl) ProcessEngineConfiguration
+        .createProcessEngineConfigurationFromResource("camunda.cfg.xml");
+    otherConfiguration.setProcessEngineName("warmup-engine");
+    otherConfiguration.setDatabaseSchemaUpdate(ProcessEngineConfiguration.DB_SCHEMA_UPDATE_FALSE);
+    otherConfiguration.setDeploymentCacheWarmupEnabled(true);
+
+    // when
+    ProcessEngine otherEngine = otherConfiguration.buildProcessEngine();
+
+    // then
+    try {
+      assertNotNull(otherConfiguration.getDeploymentCache().findProcessDefinitionFromCache(processDefinition.getId()));
+    } finally {
+      otherEngine.close();
+    }
+  }
+
+  @Test
+  public void testWarmedUpProcessDefinitionCanBeExecuted() {
+    // given
+    testRule.deploy(createProcess("process"));
+    deploymentCache.discardProcessDefinitionCache();
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new WarmUpDeploymentCacheCmd(10));
+
+    // when
+    engineRule.getRuntimeService().startProcessInstanceByKey("process");
+
+    // then
+    assertEquals(1, engineRule.getTaskService().createTaskQuery().count());
+  }
+
+  protected BpmnModelInstance createProcess(String key) {
+    return Bpmn.createExecutableProcess(key)
+      .startEvent()
+      .userTask()
+      .endEvent()
+      .done();
+  }
+
+}
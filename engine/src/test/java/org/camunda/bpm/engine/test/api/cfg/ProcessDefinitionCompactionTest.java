@@ -0,0 +1,190 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.cfg;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.ExecutionListener;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.core.model.ModelMemoryReport;
+import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentCache;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class ProcessDefinitionCompactionTest {
+
+  protected static final BpmnModelInstance PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent("start")
+      .userTask("task1")
+      .userTask("task2")
+      .userTask("task3")
+      .endEvent("end")
+      .done();
+
+  protected ProvidedProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+  protected DeploymentCache deploymentCache;
+
+  @Before
+  public void setUp() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    runtimeService = engineRule.getRuntimeService();
+    taskService = engineRule.getTaskService();
+    deploymentCache = processEngineConfiguration.getDeploymentCache();
+  }
+
+  @After
+  public void tearDown() {
+    processEngineConfiguration.setProcessDefinitionCompactionEnabled(true);
+  }
+
+  @Test
+  public void shouldShareEqualListenerLists() {
+    // given
+    ProcessDefinitionEntity processDefinition = deployAndGetCachedDefinition(PROCESS);
+
+    // when
+    ActivityImpl task1 = processDefinition.findActivity("task1");
+    ActivityImpl task2 = processDefinition.findActivity("task2");
+
+    // then
+    assertFalse(task1.getListeners(ExecutionListener.EVENTNAME_START).isEmpty());
+    assertSame(task1.getListeners(ExecutionListener.EVENTNAME_START), task2.getListeners(ExecutionListener.EVENTNAME_START));
+
+    ModelMemoryReport report = deploymentCache.getProcessDefinitionMemoryReport(processDefinition.getId());
+    assertTrue(report.getDistinctListenerListCount() < report.getListenerListCount());
+  }
+
+  @Test
+  public void shouldInternIds() {
+    // given
+    ProcessDefinitionEntity processDefinition = deployAndGetCachedDefinition(PROCESS);
+
+    // then
+    String activityId = processDefinition.findActivity("task1").getId();
+    assertSame(activityId.intern(), activityId);
+    assertSame(processDefinition.getKey().intern(), processDefinition.getKey());
+  }
+
+  @Test
+  public void shouldNotShareListenerAddedAfterCompaction() {
+    // given
+    ProcessDefinitionEntity processDefinition = deployAndGetCachedDefinition(PROCESS);
+    ActivityImpl task1 = processDefinition.findActivity("task1");
+    ActivityImpl task2 = processDefinition.findActivity("task2");
+    int task2ListenerCount = task2.getListeners(ExecutionListener.EVENTNAME_START).size();
+
+    // when
+    RecordingListener listener = new RecordingListener();
+    task1.addListener(ExecutionListener.EVENTNAME_START, listener);
+
+    // then
+    assertTrue(task1.getListeners(ExecutionListener.EVENTNAME_START).contains(listener));
+    assertFalse(task2.getListeners(ExecutionListener.EVENTNAME_START).contains(listener));
+    assertEquals(task2ListenerCount, task2.getListeners(ExecutionListener.EVENTNAME_START).size());
+  }
+
+  @Test
+  public void shouldExecuteCompactedDefinition() {
+    // given
+    ProcessDefinitionEntity processDefinition = deployAndGetCachedDefinition(PROCESS);
+
+    // when
+    String processInstanceId = runtimeService.startProcessInstanceById(processDefinition.getId()).getId();
+    for (int i = 0; i < 3; i++) {
+      taskService.complete(taskService.createTaskQuery().singleResult().getId());
+    }
+
+    // then
+    assertNull(runtimeService.createProcessInstanceQuery().processInstanceId(processInstanceId).singleResult());
+  }
+
+  @Test
+  public void shouldReportMemoryOfCachedDefinition() {
+    // given
+    ProcessDefinitionEntity processDefinition = deployAndGetCachedDefinition(PROCESS);
+
+    // when
+    ModelMemoryReport report = deploymentCache.getProcessDefinitionMemoryReport(processDefinition.getId());
+
+    // then
+    assertEquals(processDefinition.getId(), report.getDefinitionId());
+    assertEquals(5, report.getActivityCount());
+    assertEquals(4, report.getTransitionCount());
+    assertTrue(report.getPropertyCount() > 0);
+    assertTrue(report.getDistinctStringCount() <= report.getStringCount());
+    assertTrue(report.getEstimatedSize() > 0);
+
+    assertNull(deploymentCache.getProcessDefinitionMemoryReport("unknown"));
+    assertEquals(1, deploymentCache.getProcessDefinitionMemoryReports().size());
+  }
+
+  @Test
+  public void shouldReduceEstimatedSize() {
+    // given
+    processEngineConfiguration.setProcessDefinitionCompactionEnabled(false);
+    ProcessDefinitionEntity uncompactedDefinition = deployAndGetCachedDefinition(PROCESS);
+
+    processEngineConfiguration.setProcessDefinitionCompactionEnabled(true);
+    ProcessDefinitionEntity compactedDefinition = deployAndGetCachedDefinition(PROCESS);
+
+    // when
+    ModelMemoryReport uncompactedReport = deploymentCache.getProcessDefinitionMemoryReport(uncompactedDefinition.getId());
+    ModelMemoryReport compactedReport = deploymentCache.getProcessDefinitionMemoryReport(compactedDefinition.getId());
+
+    // then
+    assertEquals(uncompactedReport.getPropertyCount(), compactedReport.getPropertyCount());
+    assertEquals(uncompactedReport.getListenerListCount(), compactedReport.getListenerListCount());
+    assertTrue(compactedReport.getEstimatedSize() < uncompactedReport.getEstimatedSize());
+  }
+
+  protected ProcessDefinitionEntity deployAndGetCachedDefinition(BpmnModelInstance model) {
+    ProcessDefinition processDefinition = testRule.deployAndGetDefinition(model);
+    ProcessDefinitionEntity cachedDefinition = deploymentCache.findProcessDefinitionFromCache(processDefinition.getId());
+    assertNotNull(cachedDefinition);
+    return cachedDefinition;
+  }
+
+  public static class RecordingListener implements ExecutionListener {
+
+    public void notify(DelegateExecution execution) throws Exception {
+    }
+
+  }
+
+}
@@ -36,6 +36,8 @@ import org.camunda.bpm.engine.variable.Variables;
 import org.joda.time.DateTime;
 import org.junit.Assert;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -979,6 +981,175 @@ public class ExternalTaskServiceTest extends PluggableProcessEngineTestCase {
     assertProcessEnded(processInstance.getId());
   }
 
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testExtendLock() {
+    // given
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+
+    List<LockedExternalTask> externalTasks = externalTaskService.fetchAndLock(1, WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME)
+      .execute();
+
+    LockedExternalTask task = externalTasks.get(0);
+
+    // when
+    externalTaskService.extendLock(task.getId(), WORKER_ID, LOCK_TIME * 3);
+
+    // then
+    ExternalTask extendedTask = externalTaskService.createExternalTaskQuery().singleResult();
+    AssertUtil.assertEqualsSecondPrecision(nowPlus(LOCK_TIME * 3), extendedTask.getLockExpirationTime());
+    assertEquals(WORKER_ID, extendedTask.getWorkerId());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testExtendLockWithWrongWorkerId() {
+    // given
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+
+    List<LockedExternalTask> externalTasks = externalTaskService.fetchAndLock(1, WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME)
+      .execute();
+
+    // when
+    try {
+      externalTaskService.extendLock(externalTasks.get(0).getId(), "someCrazyWorkerId", LOCK_TIME);
+      fail("exception expected");
+    } catch (BadUserRequestException e) {
+      // then
+      assertTextPresent("cannot be extended by worker 'someCrazyWorkerId'. It is locked by worker '" + WORKER_ID + "'.", e.getMessage());
+    }
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testExtendExpiredLock() {
+    // given
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+
+    List<LockedExternalTask> externalTasks = externalTaskService.fetchAndLock(1, WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME)
+      .execute();
+
+    ClockUtil.setCurrentTime(new DateTime(ClockUtil.getCurrentTime()).plus(LOCK_TIME * 2).toDate());
+
+    // when
+    try {
+      externalTaskService.extendLock(externalTasks.get(0).getId(), WORKER_ID, LOCK_TIME);
+      fail("exception expected");
+    } catch (BadUserRequestException e) {
+      // then
+      assertTextPresent("because the lock has expired", e.getMessage());
+    }
+  }
+
+  public void testExtendLockWithInvalidDuration() {
+    try {
+      externalTaskService.extendLock("someTaskId", WORKER_ID, 0);
+      fail("exception expected");
+    } catch (BadUserRequestException e) {
+      assertTextPresent("newLockDuration", e.getMessage());
+    }
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testExtendLocks() {
+    // given
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+
+    List<LockedExternalTask> externalTasks = externalTaskService.fetchAndLock(2, WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME)
+      .execute();
+
+    List<String> externalTaskIds = new ArrayList<String>();
+    for (LockedExternalTask task : externalTasks) {
+      externalTaskIds.add(task.getId());
+    }
+
+    // when
+    externalTaskService.extendLock(externalTaskIds, WORKER_ID, LOCK_TIME * 3);
+
+    // then
+    List<ExternalTask> extendedTasks = externalTaskService.createExternalTaskQuery().list();
+    assertEquals(2, extendedTasks.size());
+    for (ExternalTask extendedTask : extendedTasks) {
+      AssertUtil.assertEqualsSecondPrecision(nowPlus(LOCK_TIME * 3), extendedTask.getLockExpirationTime());
+    }
+
+    // and the tasks can still be completed by the worker
+    for (String externalTaskId : externalTaskIds) {
+      externalTaskService.complete(externalTaskId, WORKER_ID);
+    }
+    assertEquals(0, externalTaskService.createExternalTaskQuery().count());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testExtendLocksOfMoreTasksThanFitIntoOneStatement() {
+    // given
+    int numberOfTasks = 1001;
+    for (int i = 0; i < numberOfTasks; i++) {
+      runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    }
+
+    List<LockedExternalTask> externalTasks = externalTaskService.fetchAndLock(numberOfTasks, WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME)
+      .execute();
+
+    List<String> externalTaskIds = new ArrayList<String>();
+    for (LockedExternalTask task : externalTasks) {
+      externalTaskIds.add(task.getId());
+    }
+
+    // when
+    externalTaskService.extendLock(externalTaskIds, WORKER_ID, LOCK_TIME * 3);
+
+    // then
+    List<ExternalTask> extendedTasks = externalTaskService.createExternalTaskQuery().list();
+    assertEquals(numberOfTasks, extendedTasks.size());
+    for (ExternalTask extendedTask : extendedTasks) {
+      AssertUtil.assertEqualsSecondPrecision(nowPlus(LOCK_TIME * 3), extendedTask.getLockExpirationTime());
+    }
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testExtendLocksWithOneUnlockedTask() {
+    // given
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+
+    List<LockedExternalTask> externalTasks = externalTaskService.fetchAndLock(2, WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME)
+      .execute();
+
+    externalTaskService.unlock(externalTasks.get(1).getId());
+
+    List<String> externalTaskIds = new ArrayList<String>();
+    for (LockedExternalTask task : externalTasks) {
+      externalTaskIds.add(task.getId());
+    }
+
+    // when
+    try {
+      externalTaskService.extendLock(externalTaskIds, WORKER_ID, LOCK_TIME * 3);
+      fail("exception expected");
+    } catch (BadUserRequestException e) {
+      // then
+      assertTextPresent("cannot be extended by worker '" + WORKER_ID + "'", e.getMessage());
+    }
+
+    // and no lock is extended
+    ExternalTask lockedTask = externalTaskService.createExternalTaskQuery().externalTaskId(externalTasks.get(0).getId()).singleResult();
+    AssertUtil.assertEqualsSecondPrecision(nowPlus(LOCK_TIME), lockedTask.getLockExpirationTime());
+  }
+
+  public void testExtendLocksNonExistingTask() {
+    try {
+      externalTaskService.extendLock(Arrays.asList("nonExistingTaskId"), WORKER_ID, LOCK_TIME);
+      fail("exception expected");
+    } catch (NotFoundException e) {
+      assertTextPresent("Cannot find external task with id nonExistingTaskId", e.getMessage());
+    }
+  }
+
   @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
   public void testUnlock() {
     // given
@@ -0,0 +1,193 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.mgmt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.batch.Batch;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.jobexecutor.DefaultJobPriorityProvider;
+import org.camunda.bpm.engine.management.JobDefinition;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.api.runtime.migration.MigrationTestRule;
+import org.camunda.bpm.engine.test.api.runtime.migration.batch.BatchMigrationHelper;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class BatchSeedPartitionsTest {
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected MigrationTestRule migrationRule = new MigrationTestRule(engineRule);
+  protected BatchMigrationHelper helper = new BatchMigrationHelper(engineRule, migrationRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(migrationRule);
+
+  protected ManagementService managementService;
+
+  protected int defaultBatchJobsPerSeed;
+  protected int defaultBatchSeedPartitions;
+  protected int defaultBatchJobPrioritySpread;
+
+  @Before
+  public void initServices() {
+    managementService = engineRule.getManagementService();
+  }
+
+  @Before
+  public void saveAndReduceBatchConfiguration() {
+    ProcessEngineConfigurationImpl configuration = engineRule.getProcessEngineConfiguration();
+    defaultBatchJobsPerSeed = configuration.getBatchJobsPerSeed();
+    defaultBatchSeedPartitions = configuration.getBatchSeedPartitions();
+    defaultBatchJobPrioritySpread = configuration.getBatchJobPrioritySpread();
+    // reduce number of batch jobs per seed to not have to create a lot of instances
+    configuration.setBatchJobsPerSeed(2);
+  }
+
+  @After
+  public void removeBatches() {
+    helper.removeAllRunningAndHistoricBatches();
+  }
+
+  @After
+  public void resetBatchConfiguration() {
+    ProcessEngineConfigurationImpl configuration = engineRule.getProcessEngineConfiguration();
+    configuration.setBatchJobsPerSeed(defaultBatchJobsPerSeed);
+    configuration.setBatchSeedPartitions(defaultBatchSeedPartitions);
+    configuration.setBatchJobPrioritySpread(defaultBatchJobPrioritySpread);
+  }
+
+  @Test
+  public void seedJobShouldCreateJobsForAllPartitions() {
+    // given
+    engineRule.getProcessEngineConfiguration().setBatchSeedPartitions(3);
+    Batch batch = helper.migrateProcessInstancesAsync(7);
+
+    // when
+    helper.executeSeedJob(batch);
+
+    // then three partitions of two jobs have been created at once
+    assertEquals(6, helper.getMigrationJobs(batch).size());
+    assertEquals(6, managementService.createBatchQuery().singleResult().getJobsCreated());
+
+    // and the seed job is still present for the remaining instance
+    helper.executeSeedJob(batch);
+    assertEquals(7, helper.getMigrationJobs(batch).size());
+    assertNull(helper.getSeedJob(batch));
+  }
+
+  @Test
+  public void partitionedBatchShouldMigrateAllInstances() {
+    // given
+    engineRule.getProcessEngineConfiguration().setBatchSeedPartitions(2);
+    Batch batch = helper.migrateProcessInstancesAsync(5);
+
+    // when
+    helper.completeBatch(batch);
+
+    // then
+    assertEquals(0, helper.countSourceProcessInstances());
+    assertEquals(5, helper.countTargetProcessInstances());
+    assertEquals(0, managementService.createBatchQuery().count());
+  }
+
+  @Test
+  public void monitorJobShouldNotCompleteBatchWhileJobsRemain() {
+    // given
+    Batch batch = helper.migrateProcessInstancesAsync(2);
+    helper.executeSeedJob(batch);
+    helper.completeMigrationJobs(batch, 1);
+
+    // when
+    helper.executeMonitorJob(batch);
+
+    // then the batch is still running and a new monitor job is created
+    assertEquals(1, managementService.createBatchQuery().count());
+    assertEquals(1, helper.getMigrationJobs(batch).size());
+
+    // when the last job is completed
+    helper.completeMigrationJobs(batch, 1);
+    helper.executeMonitorJob(batch);
+
+    // then
+    assertEquals(0, managementService.createBatchQuery().count());
+  }
+
+  @Test
+  public void executionJobsShouldHaveDefaultPriorityWithoutSpread() {
+    // given
+    Batch batch = helper.migrateProcessInstancesAsync(2);
+
+    // when
+    helper.executeSeedJob(batch);
+
+    // then
+    for (Job job : helper.getMigrationJobs(batch)) {
+      assertEquals(DefaultJobPriorityProvider.DEFAULT_PRIORITY, job.getPriority());
+    }
+  }
+
+  @Test
+  public void executionJobPrioritiesShouldBeSpread() {
+    // given
+    engineRule.getProcessEngineConfiguration().setBatchJobPrioritySpread(1);
+    engineRule.getProcessEngineConfiguration().setBatchSeedPartitions(2);
+    Batch batch = helper.migrateProcessInstancesAsync(4);
+
+    // when
+    helper.executeSeedJob(batch);
+
+    // then
+    List<Job> jobs = helper.getMigrationJobs(batch);
+    assertEquals(4, jobs.size());
+
+    Set<Long> priorities = new HashSet<Long>();
+    for (Job job : jobs) {
+      long priority = job.getPriority();
+      assertTrue(priority >= DefaultJobPriorityProvider.DEFAULT_PRIORITY);
+      assertTrue(priority <= DefaultJobPriorityProvider.DEFAULT_PRIORITY + 1);
+      priorities.add(priority);
+    }
+    assertEquals(2, priorities.size());
+  }
+
+  @Test
+  public void overridingJobDefinitionPriorityShouldNotBeSpread() {
+    // given
+    engineRule.getProcessEngineConfiguration().setBatchJobPrioritySpread(5);
+    Batch batch = helper.migrateProcessInstancesAsync(2);
+    JobDefinition executionJobDefinition = helper.getMigrationJobDefinition(batch);
+    managementService.setOverridingJobPriorityForJobDefinition(executionJobDefinition.getId(), 42L);
+
+    // when
+    helper.executeSeedJob(batch);
+
+    // then
+    for (Job job : helper.getMigrationJobs(batch)) {
+      assertEquals(42L, job.getPriority());
+    }
+  }
+
+}
@@ -0,0 +1,176 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
+import org.camunda.bpm.engine.impl.pvm.process.ScopeImpl;
+import org.camunda.bpm.engine.impl.pvm.runtime.ActivityExecutionMappingCache;
+import org.camunda.bpm.engine.impl.pvm.runtime.PvmExecutionImpl;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class ActivityExecutionMappingCacheTest {
+
+  protected static final BpmnModelInstance SUBPROCESS_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .subProcess("subProcess")
+      .embeddedSubProcess()
+        .startEvent()
+        .userTask("userTask")
+        .endEvent()
+      .subProcessDone()
+      .endEvent()
+      .done();
+
+  protected static final BpmnModelInstance PARALLEL_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .parallelGateway("fork")
+        .userTask("userTask1")
+        .endEvent()
+      .moveToLastGateway()
+        .userTask("userTask2")
+        .endEvent()
+      .moveToLastGateway()
+        .userTask("userTask3")
+        .endEvent()
+      .done();
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+  protected CommandExecutor commandExecutor;
+
+  @Before
+  public void setUp() {
+    runtimeService = engineRule.getRuntimeService();
+    taskService = engineRule.getTaskService();
+    commandExecutor = engineRule.getProcessEngineConfiguration().getCommandExecutorTxRequired();
+  }
+
+  @Test
+  public void shouldCacheMappingWithinCommand() {
+    // given
+    testRule.deploy(SUBPROCESS_PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+    final String executionId = taskService.createTaskQuery().singleResult().getExecutionId();
+
+    commandExecutor.execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(executionId);
+
+        // when
+        Map<ScopeImpl, PvmExecutionImpl> mapping = execution.createActivityExecutionMapping();
+        Map<ScopeImpl, PvmExecutionImpl> cachedMapping = execution.createActivityExecutionMapping();
+
+        // then
+        assertEquals(mapping, cachedMapping);
+        assertNotSame(mapping, cachedMapping);
+
+        ActivityImpl subProcess = execution.getProcessDefinition().findActivity("subProcess");
+        // the scope execution of the sub process executes the user task
+        assertSame(execution, mapping.get(subProcess));
+        assertSame(execution.getProcessInstance(), mapping.get(execution.getProcessDefinition()));
+
+        ActivityExecutionMappingCache cache = commandContext.getActivityExecutionMappingCache();
+        assertNotNull(cache.getMapping(execution, subProcess));
+
+        return null;
+      }
+    });
+  }
+
+  @Test
+  public void shouldInvalidateMappingOnExecutionTreeChange() {
+    // given
+    testRule.deploy(SUBPROCESS_PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+    final String executionId = taskService.createTaskQuery().singleResult().getExecutionId();
+
+    commandExecutor.execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(executionId);
+        ActivityImpl subProcess = execution.getProcessDefinition().findActivity("subProcess");
+        ActivityExecutionMappingCache cache = commandContext.getActivityExecutionMappingCache();
+
+        execution.createActivityExecutionMapping();
+        assertNotNull(cache.getMapping(execution, subProcess));
+
+        // when
+        execution.setActivity(execution.getActivity());
+
+        // then
+        assertNull(cache.getMapping(execution, subProcess));
+
+        return null;
+      }
+    });
+  }
+
+  @Test
+  public void shouldShareMappingBetweenConcurrentExecutions() {
+    // given
+    testRule.deploy(PARALLEL_PROCESS);
+    final ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+
+    commandExecutor.execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        ExecutionEntity processInstanceExecution = commandContext.getExecutionManager().findExecutionById(processInstance.getId());
+        ActivityExecutionMappingCache cache = commandContext.getActivityExecutionMappingCache();
+
+        // when
+        List<ExecutionEntity> concurrentExecutions = processInstanceExecution.getExecutions();
+        Map<ScopeImpl, PvmExecutionImpl> mapping = concurrentExecutions.get(0).createActivityExecutionMapping();
+
+        // then the concurrent executions share the mapping of their scope execution
+        assertEquals(3, concurrentExecutions.size());
+        assertNotNull(cache.getMapping(processInstanceExecution, processInstanceExecution.getProcessDefinition()));
+
+        for (ExecutionEntity concurrentExecution : concurrentExecutions) {
+          assertEquals(mapping, concurrentExecution.createActivityExecutionMapping());
+        }
+        assertSame(processInstanceExecution, mapping.get(processInstanceExecution.getProcessDefinition()));
+
+        return null;
+      }
+    });
+  }
+
+}
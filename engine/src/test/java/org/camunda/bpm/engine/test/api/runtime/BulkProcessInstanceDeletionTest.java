@@ -0,0 +1,346 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.batch.Batch;
+import org.camunda.bpm.engine.history.HistoricActivityInstance;
+import org.camunda.bpm.engine.history.HistoricIncident;
+import org.camunda.bpm.engine.history.HistoricProcessInstance;
+import org.camunda.bpm.engine.history.HistoricTaskInstance;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.RequiredHistoryLevel;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class BulkProcessInstanceDeletionTest {
+
+  protected static final String DELETE_REASON = "bulk deletion";
+
+  protected static final BpmnModelInstance PARALLEL_TASKS_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .parallelGateway("fork")
+        .userTask("userTask1").camundaCandidateUsers("kermit")
+        .endEvent()
+      .moveToLastGateway()
+        .subProcess("subProcess")
+        .embeddedSubProcess()
+          .startEvent()
+          .userTask("userTask2")
+          .endEvent()
+        .subProcessDone()
+        .endEvent()
+      .done();
+
+  protected static final BpmnModelInstance TIMER_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .intermediateCatchEvent("timer")
+        .timerWithDuration("PT1H")
+      .endEvent()
+      .done();
+
+  protected static final BpmnModelInstance MESSAGE_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .receiveTask("receiveTask")
+        .message("message")
+      .endEvent()
+      .done();
+
+  protected static final BpmnModelInstance FAILING_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .serviceTask("failingTask")
+        .camundaAsyncBefore()
+        .camundaClass(FailingDelegate.class.getName())
+      .endEvent()
+      .done();
+
+  protected static final BpmnModelInstance CALLING_PROCESS = Bpmn.createExecutableProcess("callingProcess")
+      .startEvent()
+      .callActivity("callActivity")
+        .calledElement("process")
+      .endEvent()
+      .done();
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+  protected HistoryService historyService;
+  protected ManagementService managementService;
+
+  @Before
+  public void enableBulkDeletion() {
+    runtimeService = engineRule.getRuntimeService();
+    taskService = engineRule.getTaskService();
+    historyService = engineRule.getHistoryService();
+    managementService = engineRule.getManagementService();
+
+    engineRule.getProcessEngineConfiguration().setBulkProcessInstanceDeletionEnabled(true);
+  }
+
+  @After
+  public void disableBulkDeletion() {
+    engineRule.getProcessEngineConfiguration().setBulkProcessInstanceDeletionEnabled(false);
+  }
+
+  @After
+  public void removeBatches() {
+    for (Batch batch : managementService.createBatchQuery().list()) {
+      managementService.deleteBatch(batch.getId(), true);
+    }
+  }
+
+  @Test
+  public void testDeleteInstancesWithConcurrentExecutions() {
+    // given
+    testRule.deploy(PARALLEL_TASKS_PROCESS);
+
+    List<String> processInstanceIds = new ArrayList<String>();
+    for (int i = 0; i < 2; i++) {
+      ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", Variables.createVariables()
+          .putValue("stringVar", "value")
+          .putValue("serializableVar", new ArrayList<String>(Arrays.asList("a", "b"))));
+      processInstanceIds.add(processInstance.getId());
+
+      Task task = taskService.createTaskQuery().processInstanceId(processInstance.getId()).taskDefinitionKey("userTask1").singleResult();
+      taskService.setVariableLocal(task.getId(), "taskVar", "value");
+    }
+    List<String> byteArrayIds = findByteArrayIds(processInstanceIds);
+    assertEquals(2, byteArrayIds.size());
+
+    // when
+    runtimeService.deleteProcessInstances(processInstanceIds, DELETE_REASON, true, false);
+
+    // then
+    assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+    assertEquals(0, runtimeService.createExecutionQuery().count());
+    assertEquals(0, taskService.createTaskQuery().count());
+    assertEquals(0, runtimeService.createVariableInstanceQuery().count());
+    assertEquals(0, managementService.getTableCount().get(getTableName("ACT_RU_IDENTITYLINK")).longValue());
+    assertByteArraysDeleted(byteArrayIds);
+  }
+
+  @Test
+  @RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_ACTIVITY)
+  public void testHistoryOfDeletedInstances() {
+    // given
+    testRule.deploy(PARALLEL_TASKS_PROCESS);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    runtimeService.deleteProcessInstances(Arrays.asList(processInstance.getId()), DELETE_REASON, true, false);
+
+    // then the process instance is ended
+    HistoricProcessInstance historicProcessInstance = historyService.createHistoricProcessInstanceQuery().singleResult();
+    assertNotNull(historicProcessInstance.getEndTime());
+    assertNotNull(historicProcessInstance.getDurationInMillis());
+    assertEquals(DELETE_REASON, historicProcessInstance.getDeleteReason());
+    assertEquals(HistoricProcessInstance.STATE_INTERNALLY_TERMINATED, historicProcessInstance.getState());
+
+    // and its activity instances and tasks are ended
+    assertEquals(0, historyService.createHistoricActivityInstanceQuery().unfinished().count());
+    for (HistoricActivityInstance historicActivityInstance : historyService.createHistoricActivityInstanceQuery()
+        .activityType("userTask").list()) {
+      assertTrue(historicActivityInstance.isCanceled());
+    }
+
+    assertEquals(0, historyService.createHistoricTaskInstanceQuery().unfinished().count());
+    for (HistoricTaskInstance historicTaskInstance : historyService.createHistoricTaskInstanceQuery().list()) {
+      assertEquals(DELETE_REASON, historicTaskInstance.getDeleteReason());
+    }
+  }
+
+  @Test
+  public void testDeleteInstanceWithTimerJob() {
+    // given
+    testRule.deploy(TIMER_PROCESS);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+    assertEquals(1, managementService.createJobQuery().count());
+
+    // when
+    runtimeService.deleteProcessInstances(Arrays.asList(processInstance.getId()), DELETE_REASON, true, false);
+
+    // then
+    assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+    assertEquals(0, managementService.createJobQuery().count());
+  }
+
+  @Test
+  public void testDeleteInstanceWithEventSubscription() {
+    // given
+    testRule.deploy(MESSAGE_PROCESS);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+    assertEquals(1, runtimeService.createEventSubscriptionQuery().count());
+
+    // when
+    runtimeService.deleteProcessInstances(Arrays.asList(processInstance.getId()), DELETE_REASON, true, false);
+
+    // then
+    assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+    assertEquals(0, runtimeService.createEventSubscriptionQuery().count());
+  }
+
+  @Test
+  @RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_FULL)
+  public void testDeleteInstanceWithIncident() {
+    // given
+    testRule.deploy(FAILING_PROCESS);
+
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+    Job job = managementService.createJobQuery().singleResult();
+    managementService.setJobRetries(job.getId(), 1);
+    try {
+      managementService.executeJob(job.getId());
+      fail("exception expected");
+    } catch (ProcessEngineException e) {
+      // expected
+    }
+    assertEquals(1, runtimeService.createIncidentQuery().count());
+    assertNotNull(managementService.getJobExceptionStacktrace(job.getId()));
+    List<String> byteArrayIds = findByteArrayIds(Arrays.asList(processInstance.getId()));
+    assertEquals(1, byteArrayIds.size());
+
+    // when
+    runtimeService.deleteProcessInstances(Arrays.asList(processInstance.getId()), DELETE_REASON, true, false);
+
+    // then
+    assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+    assertEquals(0, managementService.createJobQuery().count());
+    assertEquals(0, runtimeService.createIncidentQuery().count());
+    assertByteArraysDeleted(byteArrayIds);
+
+    HistoricIncident historicIncident = historyService.createHistoricIncidentQuery().singleResult();
+    assertTrue(historicIncident.isDeleted());
+    assertNotNull(historicIncident.getEndTime());
+  }
+
+  @Test
+  public void testDeleteCallingInstanceEntityByEntity() {
+    // given
+    testRule.deploy(CALLING_PROCESS, PARALLEL_TASKS_PROCESS);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("callingProcess");
+    assertEquals(2, runtimeService.createProcessInstanceQuery().count());
+
+    // when
+    runtimeService.deleteProcessInstances(Arrays.asList(processInstance.getId()), DELETE_REASON, true, false);
+
+    // then the called instance has been deleted as well
+    assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+    assertEquals(0, taskService.createTaskQuery().count());
+  }
+
+  @Test
+  public void testDeleteUnknownInstanceFails() {
+    // given
+    testRule.deploy(PARALLEL_TASKS_PROCESS);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    try {
+      runtimeService.deleteProcessInstances(Arrays.asList(processInstance.getId(), "unknown"), DELETE_REASON, true, false);
+      fail("exception expected");
+    } catch (ProcessEngineException e) {
+      // expected
+    }
+
+    // then the deletion has been rolled back
+    assertEquals(1, runtimeService.createProcessInstanceQuery().count());
+  }
+
+  @Test
+  @RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_ACTIVITY)
+  public void testDeleteInstancesAsync() {
+    // given
+    testRule.deploy(PARALLEL_TASKS_PROCESS);
+    List<String> processInstanceIds = new ArrayList<String>();
+    for (int i = 0; i < 3; i++) {
+      processInstanceIds.add(runtimeService.startProcessInstanceByKey("process").getId());
+    }
+
+    Batch batch = runtimeService.deleteProcessInstancesAsync(processInstanceIds, DELETE_REASON);
+
+    // when
+    executeJobs(batch.getSeedJobDefinitionId());
+    executeJobs(batch.getBatchJobDefinitionId());
+
+    // then
+    assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+    for (HistoricProcessInstance historicProcessInstance : historyService.createHistoricProcessInstanceQuery().list()) {
+      assertEquals(HistoricProcessInstance.STATE_EXTERNALLY_TERMINATED, historicProcessInstance.getState());
+      assertEquals(DELETE_REASON, historicProcessInstance.getDeleteReason());
+    }
+  }
+
+  protected void executeJobs(String jobDefinitionId) {
+    for (Job job : managementService.createJobQuery().jobDefinitionId(jobDefinitionId).list()) {
+      managementService.executeJob(job.getId());
+    }
+  }
+
+  protected String getTableName(String tableName) {
+    return engineRule.getProcessEngineConfiguration().getDatabaseTablePrefix() + tableName;
+  }
+
+  protected List<String> findByteArrayIds(final List<String> processInstanceIds) {
+    return engineRule.getProcessEngineConfiguration().getCommandExecutorTxRequired().execute(new Command<List<String>>() {
+      public List<String> execute(CommandContext commandContext) {
+        return commandContext.getByteArrayManager().findByteArrayIdsByProcessInstanceIds(processInstanceIds);
+      }
+    });
+  }
+
+  protected void assertByteArraysDeleted(final List<String> byteArrayIds) {
+    engineRule.getProcessEngineConfiguration().getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        for (String byteArrayId : byteArrayIds) {
+          assertNull(commandContext.getDbEntityManager().selectById(ByteArrayEntity.class, byteArrayId));
+        }
+        return null;
+      }
+    });
+  }
+
+}
@@ -0,0 +1,326 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.runtime.migration;
+
+import static org.camunda.bpm.engine.test.api.runtime.migration.ModifiableBpmnModelInstance.modify;
+import static org.camunda.bpm.engine.test.util.ActivityInstanceAssert.assertThat;
+import static org.camunda.bpm.engine.test.util.ActivityInstanceAssert.describeActivityInstanceTree;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.history.HistoricActivityInstance;
+import org.camunda.bpm.engine.history.HistoricProcessInstance;
+import org.camunda.bpm.engine.history.HistoricTaskInstance;
+import org.camunda.bpm.engine.history.HistoricVariableInstance;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.migration.HomogeneousMigrationPlanDetector;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.management.JobDefinition;
+import org.camunda.bpm.engine.migration.MigratingProcessInstanceValidationException;
+import org.camunda.bpm.engine.migration.MigrationPlan;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.RequiredHistoryLevel;
+import org.camunda.bpm.engine.test.api.runtime.migration.models.ProcessModels;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class MigrationBulkTest {
+
+  protected ProcessEngineRule rule = new ProvidedProcessEngineRule();
+  protected MigrationTestRule testHelper = new MigrationTestRule(rule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(rule).around(testHelper);
+
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+  protected HistoryService historyService;
+  protected ManagementService managementService;
+
+  @Before
+  public void enableBulkMigration() {
+    runtimeService = rule.getRuntimeService();
+    taskService = rule.getTaskService();
+    historyService = rule.getHistoryService();
+    managementService = rule.getManagementService();
+
+    rule.getProcessEngineConfiguration().setBulkProcessInstanceMigrationEnabled(true);
+  }
+
+  @After
+  public void disableBulkMigration() {
+    rule.getProcessEngineConfiguration().setBulkProcessInstanceMigrationEnabled(false);
+  }
+
+  @Test
+  public void testMigrateUserTaskInstances() {
+    // given
+    ProcessDefinition sourceProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+    ProcessDefinition targetProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+
+    MigrationPlan migrationPlan = runtimeService.createMigrationPlan(sourceProcessDefinition.getId(), targetProcessDefinition.getId())
+      .mapEqualActivities()
+      .build();
+
+    ProcessInstance firstInstance = runtimeService.startProcessInstanceById(sourceProcessDefinition.getId());
+    ProcessInstance secondInstance = runtimeService.startProcessInstanceById(sourceProcessDefinition.getId());
+
+    // when
+    runtimeService.newMigration(migrationPlan)
+      .processInstanceIds(Arrays.asList(firstInstance.getId(), secondInstance.getId()))
+      .execute();
+
+    // then
+    assertEquals(2, runtimeService.createProcessInstanceQuery().processDefinitionId(targetProcessDefinition.getId()).count());
+    assertEquals(2, taskService.createTaskQuery().processDefinitionId(targetProcessDefinition.getId()).count());
+
+    assertThat(runtimeService.getActivityInstance(firstInstance.getId())).hasStructure(
+        describeActivityInstanceTree(targetProcessDefinition.getId())
+          .activity("userTask")
+        .done());
+
+    // and it is possible to complete the migrated instances
+    for (Task task : taskService.createTaskQuery().list()) {
+      taskService.complete(task.getId());
+    }
+    testHelper.assertProcessEnded(firstInstance.getId());
+    testHelper.assertProcessEnded(secondInstance.getId());
+  }
+
+  @Test
+  public void testMigrateSubProcessInstance() {
+    // given
+    ProcessDefinition sourceProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.SUBPROCESS_PROCESS);
+    ProcessDefinition targetProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.SUBPROCESS_PROCESS);
+
+    MigrationPlan migrationPlan = runtimeService.createMigrationPlan(sourceProcessDefinition.getId(), targetProcessDefinition.getId())
+      .mapEqualActivities()
+      .build();
+
+    // when
+    ProcessInstance processInstance = testHelper.createProcessInstanceAndMigrate(migrationPlan);
+
+    // then
+    testHelper.assertExecutionTreeAfterMigration()
+      .hasProcessDefinitionId(targetProcessDefinition.getId());
+
+    assertThat(runtimeService.getActivityInstance(processInstance.getId())).hasStructure(
+        describeActivityInstanceTree(targetProcessDefinition.getId())
+          .beginScope("subProcess", testHelper.getSingleActivityInstanceBeforeMigration("subProcess").getId())
+            .activity("userTask", testHelper.getSingleActivityInstanceBeforeMigration("userTask").getId())
+        .done());
+
+    testHelper.completeTask("userTask");
+    testHelper.assertProcessEnded(processInstance.getId());
+  }
+
+  @Test
+  @RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_FULL)
+  public void testMigrateHistory() {
+    // given
+    ProcessDefinition sourceProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+    ProcessDefinition targetProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+
+    MigrationPlan migrationPlan = runtimeService.createMigrationPlan(sourceProcessDefinition.getId(), targetProcessDefinition.getId())
+      .mapEqualActivities()
+      .build();
+
+    ProcessInstance processInstance = runtimeService.startProcessInstanceById(sourceProcessDefinition.getId(),
+        Variables.createVariables().putValue("foo", "bar"));
+
+    // when
+    runtimeService.newMigration(migrationPlan)
+      .processInstanceIds(Arrays.asList(processInstance.getId()))
+      .execute();
+
+    // then the process instance and its running activity and task are migrated
+    HistoricProcessInstance historicProcessInstance = historyService.createHistoricProcessInstanceQuery().singleResult();
+    assertEquals(targetProcessDefinition.getId(), historicProcessInstance.getProcessDefinitionId());
+    assertEquals(targetProcessDefinition.getKey(), historicProcessInstance.getProcessDefinitionKey());
+
+    HistoricActivityInstance historicUserTaskInstance = historyService.createHistoricActivityInstanceQuery()
+        .activityId("userTask").singleResult();
+    assertEquals(targetProcessDefinition.getId(), historicUserTaskInstance.getProcessDefinitionId());
+
+    HistoricTaskInstance historicTaskInstance = historyService.createHistoricTaskInstanceQuery().singleResult();
+    assertEquals(targetProcessDefinition.getId(), historicTaskInstance.getProcessDefinitionId());
+    assertEquals(targetProcessDefinition.getKey(), historicTaskInstance.getProcessDefinitionKey());
+
+    HistoricVariableInstance historicVariableInstance = historyService.createHistoricVariableInstanceQuery().singleResult();
+    assertEquals(targetProcessDefinition.getId(), historicVariableInstance.getProcessDefinitionId());
+
+    // but completed activity instances are not
+    HistoricActivityInstance historicStartEventInstance = historyService.createHistoricActivityInstanceQuery()
+        .activityId("startEvent").singleResult();
+    assertEquals(sourceProcessDefinition.getId(), historicStartEventInstance.getProcessDefinitionId());
+  }
+
+  @Test
+  public void testMigrateInstanceWithJobEntityByEntity() {
+    // given
+    BpmnModelInstance model = modify(ProcessModels.ONE_TASK_PROCESS)
+      .activityBuilder("userTask")
+        .boundaryEvent("boundary").timerWithDuration("PT5S")
+        .userTask("afterBoundaryTask")
+        .endEvent()
+      .done();
+
+    ProcessDefinition sourceProcessDefinition = testHelper.deployAndGetDefinition(model);
+    ProcessDefinition targetProcessDefinition = testHelper.deployAndGetDefinition(model);
+
+    MigrationPlan migrationPlan = runtimeService.createMigrationPlan(sourceProcessDefinition.getId(), targetProcessDefinition.getId())
+      .mapEqualActivities()
+      .build();
+
+    // when
+    ProcessInstance processInstance = testHelper.createProcessInstanceAndMigrate(migrationPlan);
+
+    // then the timer job references the job definition of the target process definition
+    Job job = managementService.createJobQuery().processInstanceId(processInstance.getId()).singleResult();
+    JobDefinition jobDefinition = managementService.createJobDefinitionQuery()
+        .processDefinitionId(targetProcessDefinition.getId()).singleResult();
+    assertEquals(targetProcessDefinition.getId(), job.getProcessDefinitionId());
+    assertEquals(jobDefinition.getId(), job.getJobDefinitionId());
+
+    managementService.executeJob(job.getId());
+    testHelper.completeTask("afterBoundaryTask");
+    testHelper.assertProcessEnded(processInstance.getId());
+  }
+
+  @Test
+  public void testInstanceInUnmappedActivityIsValidated() {
+    // given
+    ProcessDefinition sourceProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.TWO_TASKS_PROCESS);
+    ProcessDefinition targetProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.TWO_TASKS_PROCESS);
+
+    MigrationPlan migrationPlan = runtimeService.createMigrationPlan(sourceProcessDefinition.getId(), targetProcessDefinition.getId())
+      .mapActivities("userTask1", "userTask1")
+      .build();
+
+    ProcessInstance processInstance = runtimeService.startProcessInstanceById(sourceProcessDefinition.getId());
+    testHelper.completeTask("userTask1");
+
+    // when
+    try {
+      runtimeService.newMigration(migrationPlan)
+        .processInstanceIds(Arrays.asList(processInstance.getId()))
+        .execute();
+      fail("exception expected");
+    }
+    catch (MigratingProcessInstanceValidationException e) {
+      // then the instance was not migrated in bulk
+      assertEquals(sourceProcessDefinition.getId(),
+          runtimeService.createProcessInstanceQuery().singleResult().getProcessDefinitionId());
+    }
+  }
+
+  @Test
+  public void testDetectHomogeneousPlan() {
+    ProcessDefinition sourceProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.SUBPROCESS_PROCESS);
+    ProcessDefinition targetProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.SUBPROCESS_PROCESS);
+
+    MigrationPlan migrationPlan = runtimeService.createMigrationPlan(sourceProcessDefinition.getId(), targetProcessDefinition.getId())
+      .mapEqualActivities()
+      .build();
+
+    assertTrue(isHomogeneous(migrationPlan));
+  }
+
+  @Test
+  public void testDetectUnmappedFlowScope() {
+    ProcessDefinition sourceProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.SUBPROCESS_PROCESS);
+    ProcessDefinition targetProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.SUBPROCESS_PROCESS);
+
+    MigrationPlan migrationPlan = runtimeService.createMigrationPlan(sourceProcessDefinition.getId(), targetProcessDefinition.getId())
+      .mapActivities("userTask", "userTask")
+      .build();
+
+    assertFalse(isHomogeneous(migrationPlan));
+  }
+
+  @Test
+  public void testDetectChangedStructure() {
+    ProcessDefinition sourceProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+    ProcessDefinition targetProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.SCOPE_TASK_PROCESS);
+
+    MigrationPlan migrationPlan = runtimeService.createMigrationPlan(sourceProcessDefinition.getId(), targetProcessDefinition.getId())
+      .mapEqualActivities()
+      .build();
+
+    assertFalse(isHomogeneous(migrationPlan));
+  }
+
+  @Test
+  public void testDetectAddedBoundaryEvent() {
+    ProcessDefinition sourceProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+    ProcessDefinition targetProcessDefinition = testHelper.deployAndGetDefinition(modify(ProcessModels.ONE_TASK_PROCESS)
+      .activityBuilder("userTask")
+        .boundaryEvent("boundary").message("Message")
+        .endEvent()
+      .done());
+
+    MigrationPlan migrationPlan = runtimeService.createMigrationPlan(sourceProcessDefinition.getId(), targetProcessDefinition.getId())
+      .mapEqualActivities()
+      .build();
+
+    assertFalse(isHomogeneous(migrationPlan));
+  }
+
+  @Test
+  public void testDetectDifferentActivities() {
+    ProcessDefinition sourceProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.ONE_TASK_PROCESS);
+    ProcessDefinition targetProcessDefinition = testHelper.deployAndGetDefinition(ProcessModels.TWO_TASKS_PROCESS);
+
+    MigrationPlan migrationPlan = runtimeService.createMigrationPlan(sourceProcessDefinition.getId(), targetProcessDefinition.getId())
+      .mapActivities("userTask", "userTask1")
+      .build();
+
+    assertFalse(isHomogeneous(migrationPlan));
+  }
+
+  protected boolean isHomogeneous(final MigrationPlan migrationPlan) {
+    final ProcessEngineConfigurationImpl configuration = rule.getProcessEngineConfiguration();
+    return configuration.getCommandExecutorTxRequired().execute(new Command<Boolean>() {
+      public Boolean execute(CommandContext commandContext) {
+        ProcessDefinitionEntity sourceDefinition = configuration.getDeploymentCache()
+            .findDeployedProcessDefinitionById(migrationPlan.getSourceProcessDefinitionId());
+        ProcessDefinitionEntity targetDefinition = configuration.getDeploymentCache()
+            .findDeployedProcessDefinitionById(migrationPlan.getTargetProcessDefinitionId());
+        return new HomogeneousMigrationPlanDetector().isHomogeneous(migrationPlan, sourceDefinition, targetDefinition);
+      }
+    });
+  }
+
+}
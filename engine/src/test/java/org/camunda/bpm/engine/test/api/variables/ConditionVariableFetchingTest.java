@@ -0,0 +1,218 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.variables;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.impl.Condition;
+import org.camunda.bpm.engine.impl.el.ExpressionManager;
+import org.camunda.bpm.engine.impl.el.VariableComparisonCondition;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.camunda.bpm.engine.runtime.Execution;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+/**
+ * Tests that conditions fetch only the variables they reference.
+ */
+public class ConditionVariableFetchingTest {
+
+  protected static final BpmnModelInstance SUB_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .subProcess("subProcess")
+        .embeddedSubProcess()
+          .startEvent()
+          .userTask("task")
+          .endEvent()
+      .done();
+
+  protected static final BpmnModelInstance GATEWAY_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .userTask("task")
+      .exclusiveGateway("gateway")
+        .condition("large", "${amount > 1000}")
+        .userTask("largeAmount")
+        .endEvent()
+      .moveToLastGateway()
+        .condition("small", "${true}")
+        .userTask("smallAmount")
+        .endEvent()
+      .done();
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+
+  @Before
+  public void setUp() {
+    runtimeService = engineRule.getRuntimeService();
+    taskService = engineRule.getTaskService();
+  }
+
+  @Test
+  public void shouldFetchOnlyReferencedVariables() {
+    // given
+    testRule.deploy(SUB_PROCESS);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", Variables.createVariables()
+        .putValue("amount", 1500)
+        .putValue("status", "open")
+        .putValue("customer", Variables.objectValue(new JavaSerializable("foo")).create()));
+    String executionId = getSubProcessExecutionId(processInstance);
+
+    // when
+    ConditionResult result = evaluateCondition(executionId, "${amount > 1000 && status == 'open'}");
+
+    // then
+    assertTrue(result.value);
+    assertEquals(2, result.loadedVariableNames.size());
+    assertTrue(result.loadedVariableNames.contains("amount"));
+    assertTrue(result.loadedVariableNames.contains("status"));
+  }
+
+  @Test
+  public void shouldFetchVariableOfComparison() {
+    // given
+    testRule.deploy(SUB_PROCESS);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", Variables.createVariables()
+        .putValue("amount", 500)
+        .putValue("customer", Variables.objectValue(new JavaSerializable("foo")).create()));
+    String executionId = getSubProcessExecutionId(processInstance);
+
+    // when
+    ConditionResult result = evaluateCondition(executionId, "${amount > 1000}");
+
+    // then
+    assertFalse(result.value);
+    assertEquals(1, result.loadedVariableNames.size());
+    assertEquals("amount", result.loadedVariableNames.get(0));
+  }
+
+  @Test
+  public void shouldPreferLocalVariable() {
+    // given
+    testRule.deploy(SUB_PROCESS);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process",
+        Variables.createVariables().putValue("amount", 1500));
+    String executionId = getSubProcessExecutionId(processInstance);
+    runtimeService.setVariableLocal(executionId, "amount", 500);
+
+    // when
+    ConditionResult result = evaluateCondition(executionId, "${amount > 1000}");
+
+    // then
+    assertFalse(result.value);
+  }
+
+  @Test
+  public void shouldLoadRemainingVariablesOnAccess() {
+    // given
+    testRule.deploy(SUB_PROCESS);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", Variables.createVariables()
+        .putValue("amount", 1500)
+        .putValue("status", "open"));
+    final String executionId = getSubProcessExecutionId(processInstance);
+
+    // when
+    final ExpressionManager expressionManager = engineRule.getProcessEngineConfiguration().getExpressionManager();
+    engineRule.getProcessEngineConfiguration().getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(executionId);
+        createCondition("${amount > 1000}", expressionManager).evaluate(execution);
+
+        // then
+        assertEquals(2, execution.getVariables().size());
+        assertEquals("open", execution.getVariable("status"));
+
+        execution.setVariable("amount", 2000);
+        return null;
+      }
+    });
+
+    assertEquals(2000, runtimeService.getVariable(executionId, "amount"));
+  }
+
+  @Test
+  public void shouldEvaluateGatewayCondition() {
+    // given
+    testRule.deploy(GATEWAY_PROCESS);
+    runtimeService.startProcessInstanceByKey("process", Variables.createVariables()
+        .putValue("amount", 1500)
+        .putValue("customer", Variables.objectValue(new JavaSerializable("foo")).create()));
+
+    // when
+    taskService.complete(taskService.createTaskQuery().singleResult().getId());
+
+    // then
+    assertEquals("largeAmount", taskService.createTaskQuery().singleResult().getTaskDefinitionKey());
+  }
+
+  protected String getSubProcessExecutionId(ProcessInstance processInstance) {
+    Execution execution = runtimeService.createExecutionQuery()
+        .processInstanceId(processInstance.getId())
+        .activityId("task")
+        .singleResult();
+    return execution.getId();
+  }
+
+  protected ConditionResult evaluateCondition(final String executionId, final String expression) {
+    final ExpressionManager expressionManager = engineRule.getProcessEngineConfiguration().getExpressionManager();
+
+    return engineRule.getProcessEngineConfiguration().getCommandExecutorTxRequired().execute(new Command<ConditionResult>() {
+      public ConditionResult execute(CommandContext commandContext) {
+        ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(executionId);
+
+        ConditionResult result = new ConditionResult();
+        result.value = createCondition(expression, expressionManager).evaluate(execution);
+
+        for (VariableInstanceEntity variable : commandContext.getDbEntityManager().getCachedEntitiesByType(VariableInstanceEntity.class)) {
+          result.loadedVariableNames.add(variable.getName());
+        }
+        return result;
+      }
+    });
+  }
+
+  protected static Condition createCondition(String expression, ExpressionManager expressionManager) {
+    return VariableComparisonCondition.createCondition(expression, expressionManager.createExpression(expression));
+  }
+
+  protected static class ConditionResult {
+    protected boolean value;
+    protected List<String> loadedVariableNames = new ArrayList<String>();
+  }
+
+}
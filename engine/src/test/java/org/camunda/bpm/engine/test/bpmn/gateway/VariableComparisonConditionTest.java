@@ -0,0 +1,175 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.bpmn.gateway;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.impl.el.VariableComparisonCondition;
+import org.camunda.bpm.engine.impl.el.VariableComparisonCondition.Operator;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+/**
+ * Tests that simple sequence flow conditions which are evaluated without the
+ * expression language yield the same results as the expression language.
+ */
+public class VariableComparisonConditionTest {
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+
+  @Before
+  public void setUp() {
+    runtimeService = engineRule.getRuntimeService();
+    taskService = engineRule.getTaskService();
+  }
+
+  @Test
+  public void shouldAnalyzeSimpleComparisons() {
+    assertComparison("${amount > 1000}", "amount", Operator.GT, 1000L);
+    assertComparison("#{ amount lt 10.5 }", "amount", Operator.LT, 10.5);
+    assertComparison("${status == 'open'}", "status", Operator.EQ, "open");
+    assertComparison("${status ne \"closed\"}", "status", Operator.NE, "closed");
+    assertComparison("${approved}", "approved", Operator.EQ, true);
+    assertComparison("${!approved}", "approved", Operator.EQ, false);
+    assertComparison("${not approved}", "approved", Operator.EQ, false);
+    assertComparison("${approved != false}", "approved", Operator.NE, false);
+  }
+
+  @Test
+  public void shouldNotAnalyzeOtherExpressions() {
+    assertNoComparison("${true}");
+    assertNoComparison("${execution}");
+    assertNoComparison("${amount > 1000 && approved}");
+    assertNoComparison("${amount + 1 > 1000}");
+    assertNoComparison("${order.amount > 1000}");
+    assertNoComparison("${1000 < amount}");
+    assertNoComparison("${approved < true}");
+    assertNoComparison("${status == 'it\\'s'}");
+    assertNoComparison("${amount > 99999999999999999999}");
+  }
+
+  @Test
+  public void shouldCompareNumbers() {
+    assertConditionResult("${x > 1000}", 1001, true);
+    assertConditionResult("${x > 1000}", 1000L, false);
+    assertConditionResult("${x >= 1000}", (short) 1000, true);
+    assertConditionResult("${x == 5}", 5.0, true);
+    assertConditionResult("${x != 5}", 5.5, true);
+    assertConditionResult("${x < 5.5}", 5, true);
+    assertConditionResult("${x le -1}", -1L, true);
+    assertConditionResult("${x lt -1}", -1L, false);
+  }
+
+  @Test
+  public void shouldCompareStrings() {
+    assertConditionResult("${x == 'open'}", "open", true);
+    assertConditionResult("${x != 'open'}", "open", false);
+    assertConditionResult("${x < 'b'}", "a", true);
+    assertConditionResult("${x > \"b\"}", "a", false);
+  }
+
+  @Test
+  public void shouldTestBooleans() {
+    assertConditionResult("${x}", true, true);
+    assertConditionResult("${!x}", true, false);
+    assertConditionResult("${not x}", false, true);
+    assertConditionResult("${x == false}", false, true);
+  }
+
+  @Test
+  public void shouldFallBackToExpressionLanguageForOtherTypes() {
+    // coerced by the expression language
+    assertConditionResult("${x == 5}", "5", true);
+    assertConditionResult("${x == 'true'}", true, true);
+    assertConditionResult("${x > 5}", "10", true);
+    assertConditionResult("${x == 'a'}", Variables.objectValue("a").create(), true);
+  }
+
+  @Test
+  public void shouldFailForMissingVariable() {
+    // given
+    testRule.deploy(createProcess("${x > 5}"));
+
+    try {
+      // when
+      runtimeService.startProcessInstanceByKey("process");
+      fail("exception expected");
+    }
+    catch (ProcessEngineException e) {
+      // then the expression language reports the unknown property
+      assertTrue(e.getMessage().contains("Unknown property used in expression"));
+    }
+  }
+
+  protected void assertComparison(String expression, String variableName, Operator operator, Object literal) {
+    Object condition = VariableComparisonCondition.createCondition(expression, null);
+    assertTrue(condition instanceof VariableComparisonCondition);
+
+    VariableComparisonCondition comparison = (VariableComparisonCondition) condition;
+    assertEquals(variableName, comparison.getVariableName());
+    assertEquals(operator, comparison.getOperator());
+    assertEquals(literal, comparison.getLiteral());
+  }
+
+  protected void assertNoComparison(String expression) {
+    Object condition = VariableComparisonCondition.createCondition(expression, null);
+    assertFalse(condition instanceof VariableComparisonCondition);
+  }
+
+  protected void assertConditionResult(String expression, Object value, boolean expectedResult) {
+    testRule.deploy(createProcess(expression));
+
+    runtimeService.startProcessInstanceByKey("process", Variables.createVariables().putValue("x", value));
+
+    String expectedTask = expectedResult ? "conditionTrue" : "conditionFalse";
+    assertEquals(expression, expectedTask, taskService.createTaskQuery().singleResult().getTaskDefinitionKey());
+
+    runtimeService.deleteProcessInstance(taskService.createTaskQuery().singleResult().getProcessInstanceId(), null);
+  }
+
+  protected BpmnModelInstance createProcess(String condition) {
+    return Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .exclusiveGateway("gateway")
+        .condition("condition", condition)
+        .userTask("conditionTrue")
+        .endEvent()
+      .moveToLastGateway()
+        .condition("otherwise", "${true}")
+        .userTask("conditionFalse")
+        .endEvent()
+      .done();
+  }
+
+}
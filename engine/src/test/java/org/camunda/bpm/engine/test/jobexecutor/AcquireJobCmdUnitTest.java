@@ -18,14 +18,19 @@ import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.camunda.bpm.engine.impl.Page;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.cmd.AcquireJobsCmd;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
@@ -47,6 +52,7 @@ public class AcquireJobCmdUnitTest {
 
   protected AcquireJobsCmd acquireJobsCmd;
   protected JobManager jobManager;
+  protected Map<String, List<JobEntity>> exclusiveJobsByProcessInstanceId;
   protected CommandContext commandContext;
 
   @Before
@@ -63,8 +69,14 @@ public class AcquireJobCmdUnitTest {
     DbEntityManager dbEntityManager = mock(DbEntityManager.class);
     when(commandContext.getDbEntityManager()).thenReturn(dbEntityManager);
 
+    ProcessEngineConfigurationImpl processEngineConfiguration = mock(ProcessEngineConfigurationImpl.class);
+    when(commandContext.getProcessEngineConfiguration()).thenReturn(processEngineConfiguration);
+
     jobManager = mock(JobManager.class);
     when(commandContext.getJobManager()).thenReturn(jobManager);
+
+    exclusiveJobsByProcessInstanceId = new HashMap<String, List<JobEntity>>();
+    when(jobManager.findExclusiveJobsToExecuteByProcessInstanceIds(anyCollectionOf(String.class))).thenReturn(exclusiveJobsByProcessInstanceId);
   }
 
   @Test
@@ -72,8 +84,7 @@ public class AcquireJobCmdUnitTest {
     JobEntity job1 = createNonExclusiveJob(JOB_ID_1, PROCESS_INSTANCE_ID_1);
     JobEntity job2 = createNonExclusiveJob(JOB_ID_2, PROCESS_INSTANCE_ID_1);
 
-    when(jobManager.findNextJobsToExecute(any(Page.class))).thenReturn(Arrays.asList(job1, job2));
-    when(jobManager.findExclusiveJobsToExecute(PROCESS_INSTANCE_ID_1)).thenReturn(Collections.<JobEntity> emptyList());
+    when(jobManager.findNextJobsToExecute(any(Page.class), anyListOf(Integer.class))).thenReturn(Arrays.asList(job1, job2));
 
     AcquiredJobs acquiredJobs = acquireJobsCmd.execute(commandContext);
 
@@ -91,8 +102,8 @@ public class AcquireJobCmdUnitTest {
     JobEntity job2 = createExclusiveJob(JOB_ID_2, PROCESS_INSTANCE_ID_1);
     List<JobEntity> jobs = Arrays.asList(job1, job2);
 
-    when(jobManager.findNextJobsToExecute(any(Page.class))).thenReturn(jobs);
-    when(jobManager.findExclusiveJobsToExecute(PROCESS_INSTANCE_ID_1)).thenReturn(jobs);
+    when(jobManager.findNextJobsToExecute(any(Page.class), anyListOf(Integer.class))).thenReturn(jobs);
+    exclusiveJobsByProcessInstanceId.put(PROCESS_INSTANCE_ID_1, jobs);
 
     AcquiredJobs acquiredJobs = acquireJobsCmd.execute(commandContext);
 
@@ -109,9 +120,9 @@ public class AcquireJobCmdUnitTest {
     JobEntity job2 = createExclusiveJob(JOB_ID_2, PROCESS_INSTANCE_ID_1);
 
     // when the job executor acquire new jobs
-    when(jobManager.findNextJobsToExecute(any(Page.class))).thenReturn(Arrays.asList(job1, job2));
+    when(jobManager.findNextJobsToExecute(any(Page.class), anyListOf(Integer.class))).thenReturn(Arrays.asList(job1, job2));
     // and job2 is locked by the other job executor concurrently
-    when(jobManager.findExclusiveJobsToExecute(PROCESS_INSTANCE_ID_1)).thenReturn(Collections.singletonList(job1));
+    exclusiveJobsByProcessInstanceId.put(PROCESS_INSTANCE_ID_1, Collections.singletonList(job1));
     // - note that job1 was not locked by the other job executor because it was locked before. The job execution failed
     // and the job was unlocked before this job executor starts to acquire jobs.
 
@@ -131,12 +142,12 @@ public class AcquireJobCmdUnitTest {
     JobEntity job2 = createExclusiveJob(JOB_ID_2, PROCESS_INSTANCE_ID_2);
 
     // when the job executor acquire new jobs
-    when(jobManager.findNextJobsToExecute(any(Page.class))).thenReturn(Arrays.asList(job1, job2));
-    when(jobManager.findExclusiveJobsToExecute(PROCESS_INSTANCE_ID_1)).thenReturn(Collections.singletonList(job1));
+    when(jobManager.findNextJobsToExecute(any(Page.class), anyListOf(Integer.class))).thenReturn(Arrays.asList(job1, job2));
+    exclusiveJobsByProcessInstanceId.put(PROCESS_INSTANCE_ID_1, Collections.singletonList(job1));
     // job2 is locked by the other job executor concurrently
     // and a new job is created which belongs to the same instance as job2
     JobEntity job3 = createExclusiveJob(JOB_ID_3, PROCESS_INSTANCE_ID_2);
-    when(jobManager.findExclusiveJobsToExecute(PROCESS_INSTANCE_ID_2)).thenReturn(Collections.singletonList(job3));
+    exclusiveJobsByProcessInstanceId.put(PROCESS_INSTANCE_ID_2, Collections.singletonList(job3));
 
     // then the job executor should only acquire job1
     AcquiredJobs acquiredJobs = acquireJobsCmd.execute(commandContext);
@@ -1,17 +1,23 @@
 package org.camunda.bpm.engine.test.jobexecutor;
 
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import org.camunda.bpm.engine.impl.cmd.AcquireJobsCmd;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.jobexecutor.AcquiredJobs;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
 import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
 import org.camunda.bpm.engine.repository.ProcessDefinition;
 import org.camunda.bpm.engine.runtime.Job;
 import org.camunda.bpm.engine.runtime.ProcessInstance;
 import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
 
 /**
  *
@@ -68,6 +74,49 @@ public class AcquireJobsCmdTest extends PluggableProcessEngineTestCase {
     assertEquals(0, acquiredJobs.size());
   }
 
+  public void testExclusiveJobsOfMultipleProcessInstancesAreGroupedByProcessInstance() {
+    BpmnModelInstance process = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .parallelGateway("fork")
+        .serviceTask("task1")
+          .camundaExpression("${true}")
+          .camundaAsyncBefore()
+        .endEvent()
+      .moveToNode("fork")
+        .serviceTask("task2")
+          .camundaExpression("${true}")
+          .camundaAsyncBefore()
+        .endEvent()
+      .done();
+    deployment(process);
+
+    for (int i = 0; i < 3; i++) {
+      runtimeService.startProcessInstanceByKey("process");
+    }
+
+    // when
+    AcquiredJobs acquiredJobs = processEngineConfiguration.getCommandExecutorTxRequired()
+      .execute(new AcquireJobsCmd(processEngineConfiguration.getJobExecutor(), 6));
+
+    // then there is one batch per process instance which contains both jobs of the process instance
+    assertEquals(3, acquiredJobs.getJobIdBatches().size());
+
+    Set<String> processInstanceIds = new HashSet<String>();
+    for (List<String> jobIdBatch : acquiredJobs.getJobIdBatches()) {
+      assertEquals(2, jobIdBatch.size());
+
+      Set<String> batchProcessInstanceIds = new HashSet<String>();
+      for (String jobId : jobIdBatch) {
+        JobEntity job = (JobEntity) managementService.createJobQuery().jobId(jobId).singleResult();
+        assertNotNull(job.getLockOwner());
+        batchProcessInstanceIds.add(job.getProcessInstanceId());
+      }
+      assertEquals(1, batchProcessInstanceIds.size());
+      processInstanceIds.addAll(batchProcessInstanceIds);
+    }
+    assertEquals(3, processInstanceIds.size());
+  }
+
   protected void makeSureJobDue(final Job job) {
     processEngineConfiguration.getCommandExecutorTxRequired()
       .execute(new Command<Void>() {
@@ -0,0 +1,231 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.jobexecutor.AcquiredJobs;
+import org.camunda.bpm.engine.impl.jobexecutor.AdaptiveJobAcquisitionStrategy;
+import org.camunda.bpm.engine.impl.jobexecutor.JobAcquisitionContext;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AdaptiveJobAcquisitionStrategyTest {
+
+  protected static final String ENGINE_NAME = "engine";
+  protected static final String OTHER_ENGINE_NAME = "otherEngine";
+  protected static final int NUM_JOBS_TO_ACQUIRE = 3;
+
+  protected CapacityJobExecutor jobExecutor;
+  protected AdaptiveJobAcquisitionStrategy strategy;
+
+  protected long acquisitionTime = 0;
+
+  @Before
+  public void setUp() {
+    jobExecutor = new CapacityJobExecutor();
+    jobExecutor.setMaxJobsPerAcquisition(NUM_JOBS_TO_ACQUIRE);
+    jobExecutor.setMinJobsPerAdaptiveAcquisition(1);
+    jobExecutor.setMaxJobsPerAdaptiveAcquisition(50);
+    jobExecutor.setInstrumentation(null);
+
+    strategy = new AdaptiveJobAcquisitionStrategy(jobExecutor);
+  }
+
+  @Test
+  public void shouldAcquireConfiguredNumberOfJobsInitially() {
+    assertEquals(NUM_JOBS_TO_ACQUIRE, strategy.getNumJobsToAcquire(ENGINE_NAME));
+  }
+
+  @Test
+  public void shouldConvergeToFreeCapacity() {
+    // given
+    jobExecutor.freeCapacity = 10;
+    jobExecutor.activeExecutions = 0;
+
+    // when
+    reconfigure(100);
+
+    // then the number of jobs is smoothed
+    assertEquals(7, strategy.getNumJobsToAcquire(ENGINE_NAME));
+
+    // and converges to the free capacity
+    for (int i = 0; i < 10; i++) {
+      reconfigure(100);
+    }
+    assertEquals(10, strategy.getNumJobsToAcquire(ENGINE_NAME));
+  }
+
+  @Test
+  public void shouldAddJobsExpectedToFinishDuringNextCycle() {
+    // given a saturated job executor with 4 jobs which take 100 ms each
+    jobExecutor.freeCapacity = 0;
+    jobExecutor.activeExecutions = 4;
+    reconfigure(500);
+
+    // when
+    for (int i = 0; i < 10; i++) {
+      executeJobs(5, 100);
+      reconfigure(500);
+    }
+
+    // then the jobs which finish during a cycle of 500 ms are acquired
+    assertEquals(100.0, strategy.getAverageJobExecutionTime(), 0.01);
+    assertEquals(20, strategy.getNumJobsToAcquire(ENGINE_NAME));
+  }
+
+  @Test
+  public void shouldRespectBounds() {
+    // given
+    jobExecutor.freeCapacity = 1000;
+    jobExecutor.activeExecutions = 0;
+
+    // when
+    for (int i = 0; i < 10; i++) {
+      reconfigure(100);
+    }
+
+    // then
+    assertEquals(50, strategy.getNumJobsToAcquire(ENGINE_NAME));
+
+    // when
+    jobExecutor.freeCapacity = 0;
+    for (int i = 0; i < 20; i++) {
+      reconfigure(100);
+    }
+
+    // then
+    assertEquals(1, strategy.getNumJobsToAcquire(ENGINE_NAME));
+  }
+
+  @Test
+  public void shouldFallBackToBaseStrategyIfCapacityIsUnknown() {
+    // given
+    jobExecutor.freeCapacity = -1;
+
+    // when
+    reconfigure(100);
+
+    // then
+    assertEquals(NUM_JOBS_TO_ACQUIRE, strategy.getNumJobsToAcquire(ENGINE_NAME));
+  }
+
+  @Test
+  public void shouldSubtractRejectedJobs() {
+    // given
+    jobExecutor.freeCapacity = 10;
+    jobExecutor.activeExecutions = 0;
+    for (int i = 0; i < 10; i++) {
+      reconfigure(100);
+    }
+
+    // when
+    JobAcquisitionContext context = createContext(100);
+    context.submitRejectedBatch(ENGINE_NAME, Arrays.asList("1"));
+    context.submitRejectedBatch(ENGINE_NAME, Arrays.asList("2"));
+    strategy.reconfigure(context);
+
+    // then
+    assertEquals(8, strategy.getNumJobsToAcquire(ENGINE_NAME));
+  }
+
+  @Test
+  public void shouldShareFreeCapacityAmongParallelAcquisitions() {
+    // given two engines which acquire jobs in separate threads with a strategy each
+    jobExecutor.setParallelAcquisition(true);
+    jobExecutor.setAdaptiveAcquisition(true);
+    jobExecutor.registerProcessEngine(createProcessEngine(ENGINE_NAME));
+    jobExecutor.registerProcessEngine(createProcessEngine(OTHER_ENGINE_NAME));
+
+    AdaptiveJobAcquisitionStrategy otherStrategy = new AdaptiveJobAcquisitionStrategy(jobExecutor);
+
+    jobExecutor.freeCapacity = 10;
+    jobExecutor.activeExecutions = 0;
+
+    // when
+    for (int i = 0; i < 10; i++) {
+      strategy.reconfigure(createContext(100, ENGINE_NAME));
+      otherStrategy.reconfigure(createContext(0, OTHER_ENGINE_NAME));
+    }
+
+    // then the engines together acquire no more jobs than the job executor can take
+    assertEquals(5, strategy.getNumJobsToAcquire(ENGINE_NAME));
+    assertEquals(5, otherStrategy.getNumJobsToAcquire(OTHER_ENGINE_NAME));
+  }
+
+  protected void reconfigure(long cycleTime) {
+    strategy.reconfigure(createContext(cycleTime));
+  }
+
+  protected JobAcquisitionContext createContext(long cycleTime) {
+    return createContext(cycleTime, ENGINE_NAME);
+  }
+
+  protected JobAcquisitionContext createContext(long cycleTime, String engineName) {
+    acquisitionTime += cycleTime;
+
+    JobAcquisitionContext context = new JobAcquisitionContext();
+    context.setAcquisitionTime(acquisitionTime);
+
+    AcquiredJobs acquiredJobs = new AcquiredJobs(NUM_JOBS_TO_ACQUIRE);
+    acquiredJobs.addJobIdBatch(Arrays.asList("job"));
+    context.submitAcquiredJobs(engineName, acquiredJobs);
+    return context;
+  }
+
+  protected ProcessEngineImpl createProcessEngine(String name) {
+    ProcessEngineImpl processEngine = mock(ProcessEngineImpl.class);
+    when(processEngine.getName()).thenReturn(name);
+    return processEngine;
+  }
+
+  protected void executeJobs(int numJobs, long executionTime) {
+    for (int i = 0; i < numJobs; i++) {
+      jobExecutor.logJobExecution(null, null, 0, executionTime, null);
+    }
+  }
+
+  public static class CapacityJobExecutor extends JobExecutor {
+
+    protected int freeCapacity;
+    protected int activeExecutions;
+
+    public int getFreeExecutionCapacity() {
+      return freeCapacity;
+    }
+
+    public int getActiveExecutions() {
+      return activeExecutions;
+    }
+
+    protected void startExecutingJobs() {
+      // no threads
+    }
+
+    protected void stopExecutingJobs() {
+      // no threads
+    }
+
+    public void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+      // not used
+    }
+  }
+
+}
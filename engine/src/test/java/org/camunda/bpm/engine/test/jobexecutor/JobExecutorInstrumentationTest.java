@@ -0,0 +1,213 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.jobexecutor.AsyncContinuationJobHandler;
+import org.camunda.bpm.engine.impl.jobexecutor.DefaultJobExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.DurationHistogramImpl;
+import org.camunda.bpm.engine.impl.jobexecutor.InMemoryJobExecutorInstrumentation;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutorInstrumentation;
+import org.camunda.bpm.engine.management.JobDefinition;
+import org.camunda.bpm.engine.management.JobExecutionStatistics;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class JobExecutorInstrumentationTest {
+
+  protected static final BpmnModelInstance ASYNC_TASK_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .serviceTask("task")
+        .camundaExpression("${true}")
+        .camundaAsyncBefore()
+      .endEvent()
+      .done();
+
+  protected static final BpmnModelInstance FAILING_ASYNC_TASK_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .serviceTask("task")
+        .camundaExpression("${failure}")
+        .camundaAsyncBefore()
+      .endEvent()
+      .done();
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected ManagementService managementService;
+
+  protected JobExecutor jobExecutor;
+  protected JobExecutorInstrumentation defaultInstrumentation;
+
+  @Before
+  public void setUp() {
+    runtimeService = engineRule.getRuntimeService();
+    managementService = engineRule.getManagementService();
+
+    jobExecutor = engineRule.getProcessEngineConfiguration().getJobExecutor();
+    defaultInstrumentation = jobExecutor.getInstrumentation();
+    jobExecutor.setInstrumentation(new InMemoryJobExecutorInstrumentation());
+  }
+
+  @After
+  public void tearDown() {
+    jobExecutor.setInstrumentation(defaultInstrumentation);
+  }
+
+  @Test
+  public void shouldRecordExecutedJobs() {
+    // given
+    testRule.deploy(ASYNC_TASK_PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+    runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    testRule.waitForJobExecutorToProcessAllJobs(10000);
+
+    // then
+    JobDefinition jobDefinition = managementService.createJobDefinitionQuery().singleResult();
+
+    List<JobExecutionStatistics> statistics = managementService.getJobExecutionStatistics();
+    assertEquals(1, statistics.size());
+
+    JobExecutionStatistics jobStatistics = statistics.get(0);
+    assertEquals(jobDefinition.getId(), jobStatistics.getJobDefinitionId());
+    assertEquals(AsyncContinuationJobHandler.TYPE, jobStatistics.getJobHandlerType());
+    assertEquals(2, jobStatistics.getAcquiredJobs());
+    assertEquals(0, jobStatistics.getAcquisitionFailures());
+    assertEquals(2, jobStatistics.getExecutedJobs());
+    assertEquals(0, jobStatistics.getFailedJobs());
+    assertEquals(2, jobStatistics.getQueueTime().getCount());
+    assertEquals(2, jobStatistics.getExecutionTime().getCount());
+  }
+
+  @Test
+  public void shouldRecordFailedJobs() {
+    // given
+    testRule.deploy(FAILING_ASYNC_TASK_PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    testRule.waitForJobExecutorToProcessAllJobs(10000);
+
+    // then
+    List<JobExecutionStatistics> statistics = managementService.getJobExecutionStatistics();
+    assertEquals(1, statistics.size());
+
+    JobExecutionStatistics jobStatistics = statistics.get(0);
+    assertTrue(jobStatistics.getFailedJobs() > 0);
+    assertEquals(jobStatistics.getExecutedJobs(), jobStatistics.getFailedJobs());
+    assertEquals(0, jobStatistics.getOptimisticLockingFailures());
+  }
+
+  @Test
+  public void shouldReturnSnapshotOfStatistics() {
+    // given
+    testRule.deploy(ASYNC_TASK_PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+    testRule.waitForJobExecutorToProcessAllJobs(10000);
+
+    JobExecutionStatistics statistics = managementService.getJobExecutionStatistics().get(0);
+
+    // when
+    runtimeService.startProcessInstanceByKey("process");
+    testRule.waitForJobExecutorToProcessAllJobs(10000);
+
+    // then
+    assertEquals(1, statistics.getExecutedJobs());
+    assertEquals(2, managementService.getJobExecutionStatistics().get(0).getExecutedJobs());
+  }
+
+  @Test
+  public void shouldReturnNoStatisticsIfInstrumentationIsDisabled() {
+    // given
+    jobExecutor.setInstrumentation(null);
+    testRule.deploy(ASYNC_TASK_PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    testRule.waitForJobExecutorToProcessAllJobs(10000);
+
+    // then
+    assertTrue(managementService.getJobExecutionStatistics().isEmpty());
+  }
+
+  @Test
+  public void shouldBeDisabledByDefault() {
+    // when
+    JobExecutor defaultJobExecutor = new DefaultJobExecutor();
+
+    // then
+    assertNull(defaultJobExecutor.getInstrumentation());
+  }
+
+  @Test
+  public void shouldDiscardStatisticsOfUnregisteredEngine() {
+    // given
+    testRule.deploy(ASYNC_TASK_PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+    testRule.waitForJobExecutorToProcessAllJobs(10000);
+
+    String processEngineName = engineRule.getProcessEngine().getName();
+    JobExecutorInstrumentation instrumentation = jobExecutor.getInstrumentation();
+    assertEquals(1, instrumentation.getStatistics(processEngineName).size());
+
+    // when
+    instrumentation.processEngineUnregistered(processEngineName);
+
+    // then
+    assertTrue(instrumentation.getStatistics(processEngineName).isEmpty());
+  }
+
+  @Test
+  public void shouldEstimatePercentilesByBucket() {
+    // given
+    DurationHistogramImpl histogram = new DurationHistogramImpl();
+
+    // when
+    for (int i = 0; i < 98; i++) {
+      histogram.record(3);
+    }
+    histogram.record(70);
+    histogram.record(700);
+
+    // then
+    assertEquals(100, histogram.getCount());
+    assertEquals(3 * 98 + 70 + 700, histogram.getSum());
+    assertEquals(700, histogram.getMax());
+    assertEquals(5, histogram.getPercentile(0.5));
+    assertEquals(100, histogram.getPercentile(0.99));
+    assertEquals(700, histogram.getPercentile(1));
+  }
+
+}
@@ -0,0 +1,297 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.jobexecutor.JobAcquisitionContext;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.SequentialJobAcquisitionRunnable;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class JobHandOffTest {
+
+  protected static final BpmnModelInstance ASYNC_TASK_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .serviceTask("task")
+        .camundaExpression("${true}")
+        .camundaAsyncBefore()
+      .endEvent()
+      .done();
+
+  protected static final BpmnModelInstance PARALLEL_ASYNC_TASKS_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .parallelGateway("fork")
+      .serviceTask("task1")
+        .camundaExpression("${true}")
+        .camundaAsyncBefore()
+      .endEvent()
+      .moveToNode("fork")
+      .serviceTask("task2")
+        .camundaExpression("${true}")
+        .camundaAsyncBefore()
+      .endEvent()
+      .done();
+
+  protected static final BpmnModelInstance PARALLEL_NON_EXCLUSIVE_TASKS_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .parallelGateway("fork")
+      .serviceTask("task1")
+        .camundaExpression("${true}")
+        .camundaAsyncBefore()
+        .camundaExclusive(false)
+      .endEvent()
+      .moveToNode("fork")
+      .serviceTask("task2")
+        .camundaExpression("${true}")
+        .camundaAsyncBefore()
+        .camundaExclusive(false)
+      .endEvent()
+      .done();
+
+  protected static final BpmnModelInstance TIMER_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .intermediateCatchEvent()
+        .timerWithDuration("PT0S")
+      .endEvent()
+      .done();
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    @Override
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      return configuration
+          .setJobExecutorHandOffEnabled(true)
+          .setJobExecutor(new RecordingJobExecutor());
+    }
+  };
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected RecordingJobExecutor jobExecutor;
+  protected RuntimeService runtimeService;
+  protected ManagementService managementService;
+
+  @Before
+  public void startJobExecutor() {
+    runtimeService = engineRule.getRuntimeService();
+    managementService = engineRule.getManagementService();
+
+    jobExecutor = (RecordingJobExecutor) engineRule.getProcessEngineConfiguration().getJobExecutor();
+    jobExecutor.start();
+  }
+
+  @After
+  public void shutdownJobExecutor() {
+    jobExecutor.shutdown();
+    jobExecutor.reset();
+    engineRule.getProcessEngineConfiguration().setJobExecutorHandOffEnabled(true);
+  }
+
+  @Test
+  public void shouldHandOffAsyncContinuation() {
+    // given
+    testRule.deploy(ASYNC_TASK_PROCESS);
+
+    // when
+    runtimeService.startProcessInstanceByKey("process");
+
+    // then the job is locked to the job executor
+    JobEntity job = (JobEntity) managementService.createJobQuery().singleResult();
+    assertEquals(jobExecutor.getLockOwner(), job.getLockOwner());
+    assertNotNull(job.getLockExpirationTime());
+
+    // and has been handed off after the transaction was committed
+    assertEquals(1, jobExecutor.handedOffJobBatches.size());
+    assertEquals(job.getId(), jobExecutor.handedOffJobBatches.get(0).get(0));
+
+    // when the job executor executes it
+    jobExecutor.getExecuteJobsRunnable(jobExecutor.handedOffJobBatches.get(0), getProcessEngine()).run();
+
+    // then
+    assertEquals(0, managementService.createJobQuery().count());
+    assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+  }
+
+  @Test
+  public void shouldHandOffExclusiveJobsOfInstanceInOneBatch() {
+    // given
+    testRule.deploy(PARALLEL_ASYNC_TASKS_PROCESS);
+
+    // when
+    runtimeService.startProcessInstanceByKey("process");
+
+    // then
+    assertEquals(1, jobExecutor.handedOffJobBatches.size());
+    assertEquals(getJobIds(), new HashSet<String>(jobExecutor.handedOffJobBatches.get(0)));
+  }
+
+  @Test
+  public void shouldHandOffNonExclusiveJobsSeparately() {
+    // given
+    testRule.deploy(PARALLEL_NON_EXCLUSIVE_TASKS_PROCESS);
+
+    // when
+    runtimeService.startProcessInstanceByKey("process");
+
+    // then
+    assertEquals(2, jobExecutor.handedOffJobBatches.size());
+    assertEquals(1, jobExecutor.handedOffJobBatches.get(0).size());
+    assertEquals(1, jobExecutor.handedOffJobBatches.get(1).size());
+  }
+
+  @Test
+  public void shouldNotHandOffTimer() {
+    // given
+    testRule.deploy(TIMER_PROCESS);
+
+    // when
+    runtimeService.startProcessInstanceByKey("process");
+
+    // then
+    assertTrue(jobExecutor.handedOffJobBatches.isEmpty());
+    assertNull(((JobEntity) managementService.createJobQuery().singleResult()).getLockOwner());
+  }
+
+  @Test
+  public void shouldNotHandOffIfDisabled() {
+    // given
+    engineRule.getProcessEngineConfiguration().setJobExecutorHandOffEnabled(false);
+    testRule.deploy(ASYNC_TASK_PROCESS);
+
+    // when
+    runtimeService.startProcessInstanceByKey("process");
+
+    // then
+    assertTrue(jobExecutor.handedOffJobBatches.isEmpty());
+    assertNull(((JobEntity) managementService.createJobQuery().singleResult()).getLockOwner());
+  }
+
+  @Test
+  public void shouldNotHandOffIfNotSupportedByJobExecutor() {
+    // given
+    jobExecutor.handOffSupported = false;
+    testRule.deploy(ASYNC_TASK_PROCESS);
+
+    // when
+    runtimeService.startProcessInstanceByKey("process");
+
+    // then
+    assertTrue(jobExecutor.handedOffJobBatches.isEmpty());
+    assertNull(((JobEntity) managementService.createJobQuery().singleResult()).getLockOwner());
+  }
+
+  @Test
+  public void shouldSubmitRejectedHandOffToAcquisition() {
+    // given
+    jobExecutor.rejectHandOffs = true;
+    testRule.deploy(ASYNC_TASK_PROCESS);
+
+    // when
+    runtimeService.startProcessInstanceByKey("process");
+
+    // then the rejected job is resubmitted in the next acquisition cycle
+    Job job = managementService.createJobQuery().singleResult();
+    JobAcquisitionContext acquisitionContext = ((SequentialJobAcquisitionRunnable) jobExecutor.getAcquireJobsRunnable())
+        .getAcquisitionContext();
+    acquisitionContext.reset();
+
+    List<List<String>> additionalJobBatches = acquisitionContext.getAdditionalJobsByEngine().get(getProcessEngine().getName());
+    assertEquals(1, additionalJobBatches.size());
+    assertEquals(job.getId(), additionalJobBatches.get(0).get(0));
+    assertTrue(jobExecutor.getAcquireJobsRunnable().isJobAdded());
+  }
+
+  protected HashSet<String> getJobIds() {
+    HashSet<String> jobIds = new HashSet<String>();
+    for (Job job : managementService.createJobQuery().list()) {
+      jobIds.add(job.getId());
+    }
+    return jobIds;
+  }
+
+  protected ProcessEngineImpl getProcessEngine() {
+    return (ProcessEngineImpl) engineRule.getProcessEngine();
+  }
+
+  /**
+   * Job executor without threads which records the jobs handed off to it.
+   */
+  public static class RecordingJobExecutor extends JobExecutor {
+
+    protected List<List<String>> handedOffJobBatches = new ArrayList<List<String>>();
+    protected boolean rejectHandOffs = false;
+    protected boolean handOffSupported = true;
+
+    protected void startExecutingJobs() {
+      // no threads
+    }
+
+    protected void stopExecutingJobs() {
+      // no threads
+    }
+
+    public void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+      // not used
+    }
+
+    @Override
+    public boolean isHandOffSupported() {
+      return handOffSupported;
+    }
+
+    @Override
+    public void handOffJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+      if (rejectHandOffs) {
+        handOffRejected(jobIds, processEngine);
+      }
+      else {
+        handedOffJobBatches.add(jobIds);
+      }
+    }
+
+    public void reset() {
+      handedOffJobBatches.clear();
+      rejectHandOffs = false;
+      handOffSupported = true;
+    }
+
+  }
+
+}
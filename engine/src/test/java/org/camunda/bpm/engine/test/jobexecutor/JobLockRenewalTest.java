@@ -0,0 +1,277 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.JavaDelegate;
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cmd.AcquireJobsCmd;
+import org.camunda.bpm.engine.impl.cmd.ExtendJobLocksCmd;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class JobLockRenewalTest {
+
+  protected static final int LOCK_TIME = 1000;
+
+  protected static final BpmnModelInstance ASYNC_TASK_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .serviceTask("task")
+        .camundaExpression("${true}")
+        .camundaAsyncBefore()
+      .endEvent()
+      .done();
+
+  protected static final BpmnModelInstance EXCLUSIVE_ASYNC_TASKS_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .serviceTask("task1")
+        .camundaExpression("${true}")
+        .camundaAsyncBefore()
+      .serviceTask("task2")
+        .camundaClass(BlockingDelegate.class.getName())
+        .camundaAsyncBefore()
+      .endEvent()
+      .done();
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    @Override
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      return configuration.setJobExecutor(new InlineJobExecutor());
+    }
+  };
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected ManagementService managementService;
+  protected CommandExecutor commandExecutor;
+
+  protected JobExecutor jobExecutor;
+
+  @Before
+  public void setUp() {
+    runtimeService = engineRule.getRuntimeService();
+    managementService = engineRule.getManagementService();
+    commandExecutor = engineRule.getProcessEngineConfiguration().getCommandExecutorTxRequired();
+
+    jobExecutor = engineRule.getProcessEngineConfiguration().getJobExecutor();
+    jobExecutor.setLockTimeInMillis(LOCK_TIME);
+    jobExecutor.setLockRenewalIntervalInMillis(50);
+
+    ClockUtil.setCurrentTime(new Date());
+  }
+
+  @After
+  public void tearDown() {
+    jobExecutor.shutdown();
+    ClockUtil.reset();
+  }
+
+  @Test
+  public void shouldExtendLocksOfExecutingJobs() {
+    // given
+    testRule.deploy(ASYNC_TASK_PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+
+    jobExecutor.start();
+    List<String> jobIds = acquireJobs();
+    jobExecutor.jobsStarted(jobIds, getProcessEngine());
+
+    // when
+    Date now = new Date(ClockUtil.getCurrentTime().getTime() + 5 * LOCK_TIME);
+    ClockUtil.setCurrentTime(now);
+
+    // then
+    waitForLockExpirationTime(jobIds.get(0), new Date(now.getTime() + LOCK_TIME));
+  }
+
+  @Test
+  public void shouldNotExtendLocksOfFinishedJobs() throws InterruptedException {
+    // given
+    testRule.deploy(ASYNC_TASK_PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+
+    jobExecutor.start();
+    List<String> jobIds = acquireJobs();
+    Date lockExpirationTime = getJob(jobIds.get(0)).getLockExpirationTime();
+
+    jobExecutor.jobsStarted(jobIds, getProcessEngine());
+    jobExecutor.jobsFinished(jobIds, getProcessEngine());
+
+    // when
+    ClockUtil.setCurrentTime(new Date(ClockUtil.getCurrentTime().getTime() + 5 * LOCK_TIME));
+    Thread.sleep(500);
+
+    // then
+    assertEquals(lockExpirationTime, getJob(jobIds.get(0)).getLockExpirationTime());
+    assertTrue(jobExecutor.getLockRenewalRunnable().getExecutingJobIds(getProcessEngine()).isEmpty());
+  }
+
+  @Test
+  public void shouldExtendLocksOfExclusiveFollowUpJobs() throws Exception {
+    // given
+    testRule.deploy(EXCLUSIVE_ASYNC_TASKS_PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+
+    jobExecutor.start();
+    final Runnable executeJobsRunnable = jobExecutor.getExecuteJobsRunnable(acquireJobs(), getProcessEngine());
+    Thread executionThread = new Thread(executeJobsRunnable);
+    executionThread.start();
+
+    try {
+      // when the follow-up job of task2 is executed longer than the lock time
+      BlockingDelegate.STARTED.await();
+      String followUpJobId = managementService.createJobQuery().activityId("task2").singleResult().getId();
+
+      Date now = new Date(ClockUtil.getCurrentTime().getTime() + 5 * LOCK_TIME);
+      ClockUtil.setCurrentTime(now);
+
+      // then its lock is extended as well
+      waitForLockExpirationTime(followUpJobId, new Date(now.getTime() + LOCK_TIME));
+    }
+    finally {
+      BlockingDelegate.FINISH.countDown();
+      executionThread.join();
+    }
+
+    assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+    assertTrue(jobExecutor.getLockRenewalRunnable().getExecutingJobIds(getProcessEngine()).isEmpty());
+  }
+
+  @Test
+  public void shouldNotExtendLocksOfOtherLockOwners() {
+    // given
+    testRule.deploy(ASYNC_TASK_PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+
+    List<String> jobIds = acquireJobs();
+    Date lockExpirationTime = getJob(jobIds.get(0)).getLockExpirationTime();
+
+    JobExecutor otherJobExecutor = new InlineJobExecutor();
+    ClockUtil.setCurrentTime(new Date(ClockUtil.getCurrentTime().getTime() + LOCK_TIME / 2));
+
+    // when
+    commandExecutor.execute(new ExtendJobLocksCmd(otherJobExecutor, jobIds));
+
+    // then
+    assertEquals(lockExpirationTime, getJob(jobIds.get(0)).getLockExpirationTime());
+  }
+
+  @Test
+  public void shouldNotIncrementRevision() {
+    // given
+    testRule.deploy(ASYNC_TASK_PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+
+    List<String> jobIds = acquireJobs();
+    int revision = getJob(jobIds.get(0)).getRevision();
+
+    // when
+    commandExecutor.execute(new ExtendJobLocksCmd(jobExecutor, jobIds));
+
+    // then the job can still be updated by the thread which executes it
+    assertEquals(revision, getJob(jobIds.get(0)).getRevision());
+  }
+
+  protected List<String> acquireJobs() {
+    List<List<String>> jobIdBatches = commandExecutor.execute(new AcquireJobsCmd(jobExecutor, 1)).getJobIdBatches();
+    assertEquals(1, jobIdBatches.size());
+    return jobIdBatches.get(0);
+  }
+
+  protected JobEntity getJob(String jobId) {
+    Job job = managementService.createJobQuery().jobId(jobId).singleResult();
+    assertNotNull(job);
+    return (JobEntity) job;
+  }
+
+  protected void waitForLockExpirationTime(String jobId, Date expectedLockExpirationTime) {
+    long deadline = System.currentTimeMillis() + 10000;
+    while (getJob(jobId).getLockExpirationTime().getTime() / 1000 != expectedLockExpirationTime.getTime() / 1000) {
+      if (System.currentTimeMillis() > deadline) {
+        throw new ProcessEngineException("lock of job " + jobId + " was not extended");
+      }
+      try {
+        Thread.sleep(50);
+      }
+      catch (InterruptedException e) {
+        throw new ProcessEngineException(e);
+      }
+    }
+  }
+
+  protected ProcessEngineImpl getProcessEngine() {
+    return (ProcessEngineImpl) engineRule.getProcessEngine();
+  }
+
+  public static class BlockingDelegate implements JavaDelegate {
+
+    public static final CountDownLatch STARTED = new CountDownLatch(1);
+    public static final CountDownLatch FINISH = new CountDownLatch(1);
+
+    public void execute(DelegateExecution execution) throws Exception {
+      STARTED.countDown();
+      FINISH.await();
+    }
+  }
+
+  /**
+   * Job executor without acquisition and execution threads; jobs are acquired by the test.
+   */
+  public static class InlineJobExecutor extends JobExecutor {
+
+    protected void startExecutingJobs() {
+      // no threads
+    }
+
+    protected void stopExecutingJobs() {
+      // no threads
+    }
+
+    public void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+      // not used
+    }
+
+  }
+
+}
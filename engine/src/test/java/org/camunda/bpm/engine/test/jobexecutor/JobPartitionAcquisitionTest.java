@@ -0,0 +1,345 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cmd.AcquireJobsCmd;
+import org.camunda.bpm.engine.impl.cmd.PreloadTimersCmd;
+import org.camunda.bpm.engine.impl.cmd.ReleaseJobPartitionLeasesCmd;
+import org.camunda.bpm.engine.impl.cmd.RenewJobPartitionLeasesCmd;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.AcquiredJobs;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.JobPartitionLeases;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.JobPartitionLeaseEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class JobPartitionAcquisitionTest {
+
+  protected static final int PARTITION_COUNT = 4;
+
+  protected static final BpmnModelInstance ASYNC_TASK_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .serviceTask("task")
+        .camundaExpression("${true}")
+        .camundaAsyncBefore()
+      .endEvent()
+      .done();
+
+  protected static final BpmnModelInstance TIMER_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .intermediateCatchEvent("timer")
+        .timerWithDuration("PT10S")
+      .endEvent()
+      .done();
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    @Override
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      return configuration.setJobExecutorPartitionCount(PARTITION_COUNT);
+    }
+  };
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected ManagementService managementService;
+  protected CommandExecutor commandExecutor;
+
+  protected JobExecutor jobExecutor1;
+  protected JobExecutor jobExecutor2;
+
+  @Before
+  public void setUp() {
+    runtimeService = engineRule.getRuntimeService();
+    managementService = engineRule.getManagementService();
+    commandExecutor = engineRule.getProcessEngineConfiguration().getCommandExecutorTxRequired();
+
+    jobExecutor1 = new InlineJobExecutor();
+    jobExecutor2 = new InlineJobExecutor();
+  }
+
+  @After
+  public void tearDown() {
+    ClockUtil.reset();
+
+    commandExecutor.execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        for (JobPartitionLeaseEntity lease : commandContext.getJobManager().findJobPartitionLeases()) {
+          commandContext.getDbEntityManager().delete(lease);
+        }
+        return null;
+      }
+    });
+  }
+
+  @Test
+  public void shouldAssignPartitionToJobOfProcessInstance() {
+    // given
+    testRule.deploy(ASYNC_TASK_PROCESS);
+
+    // when
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+
+    // then
+    JobEntity job = (JobEntity) managementService.createJobQuery().singleResult();
+    int expectedPartition = JobPartitionLeases.getPartition(processInstance.getId(), PARTITION_COUNT);
+    assertEquals(Integer.valueOf(expectedPartition), job.getPartition());
+  }
+
+  @Test
+  public void shouldNotAssignPartitionIfDisabled() {
+    // given
+    engineRule.getProcessEngineConfiguration().setJobExecutorPartitionCount(0);
+    testRule.deploy(ASYNC_TASK_PROCESS);
+
+    try {
+      // when
+      runtimeService.startProcessInstanceByKey("process");
+
+      // then
+      JobEntity job = (JobEntity) managementService.createJobQuery().singleResult();
+      assertNull(job.getPartition());
+    }
+    finally {
+      engineRule.getProcessEngineConfiguration().setJobExecutorPartitionCount(PARTITION_COUNT);
+    }
+  }
+
+  @Test
+  public void shouldLeaseAllPartitionsToSingleJobExecutor() {
+    // when
+    List<Integer> partitions = renewLeases(jobExecutor1);
+
+    // then
+    assertEquals(PARTITION_COUNT, partitions.size());
+    for (JobPartitionLeaseEntity lease : getLeases()) {
+      assertEquals(jobExecutor1.getLockOwner(), lease.getLockOwner());
+    }
+  }
+
+  @Test
+  public void shouldRebalancePartitionsBetweenJobExecutors() {
+    // given
+    renewLeases(jobExecutor1);
+
+    // when a second job executor joins
+    List<Integer> partitions2 = renewLeases(jobExecutor2);
+
+    // then it takes over its share from the first job executor
+    assertEquals(PARTITION_COUNT / 2, partitions2.size());
+
+    // when
+    List<Integer> partitions1 = renewLeases(jobExecutor1);
+
+    // then the first job executor keeps the remaining partitions
+    assertEquals(PARTITION_COUNT / 2, partitions1.size());
+
+    Set<Integer> allPartitions = new HashSet<Integer>(partitions1);
+    allPartitions.addAll(partitions2);
+    assertEquals(PARTITION_COUNT, allPartitions.size());
+
+    // and the partitions stay balanced
+    assertEquals(partitions2, renewLeases(jobExecutor2));
+    assertEquals(partitions1, renewLeases(jobExecutor1));
+  }
+
+  @Test
+  public void shouldTakeOverExpiredLeases() {
+    // given
+    renewLeases(jobExecutor1);
+
+    // when the first job executor does not renew its leases in time
+    ClockUtil.setCurrentTime(new Date(ClockUtil.getCurrentTime().getTime() + jobExecutor1.getPartitionLeaseTimeInMillis() + 1000));
+    List<Integer> partitions2 = renewLeases(jobExecutor2);
+
+    // then
+    assertEquals(PARTITION_COUNT, partitions2.size());
+  }
+
+  @Test
+  public void shouldAcquireOnlyJobsOfLeasedPartitions() {
+    // given
+    testRule.deploy(ASYNC_TASK_PROCESS);
+    for (int i = 0; i < 20; i++) {
+      runtimeService.startProcessInstanceByKey("process");
+    }
+
+    renewLeases(jobExecutor1);
+    renewLeases(jobExecutor2);
+    jobExecutor1.getJobPartitionLeases().renewLeases(getProcessEngine());
+    jobExecutor2.getJobPartitionLeases().renewLeases(getProcessEngine());
+
+    // when
+    List<String> jobIds1 = acquireJobs(jobExecutor1);
+    List<String> jobIds2 = acquireJobs(jobExecutor2);
+
+    // then each job executor has acquired the jobs of its own partitions
+    assertJobPartitions(jobIds1, jobExecutor1.getJobPartitionLeases().getPartitions(getProcessEngine().getName()));
+    assertJobPartitions(jobIds2, jobExecutor2.getJobPartitionLeases().getPartitions(getProcessEngine().getName()));
+    assertEquals(20, jobIds1.size() + jobIds2.size());
+  }
+
+  @Test
+  public void shouldPreloadOnlyTimersOfLeasedPartitions() {
+    // given
+    testRule.deploy(TIMER_PROCESS);
+    for (int i = 0; i < 20; i++) {
+      runtimeService.startProcessInstanceByKey("process");
+    }
+
+    renewLeases(jobExecutor1);
+    renewLeases(jobExecutor2);
+    jobExecutor1.getJobPartitionLeases().renewLeases(getProcessEngine());
+    jobExecutor2.getJobPartitionLeases().renewLeases(getProcessEngine());
+
+    // when
+    List<String> timerIds1 = preloadTimers(jobExecutor1);
+    List<String> timerIds2 = preloadTimers(jobExecutor2);
+
+    // then each job executor has preloaded the timers of its own partitions
+    assertJobPartitions(timerIds1, jobExecutor1.getJobPartitionLeases().getPartitions(getProcessEngine().getName()));
+    assertJobPartitions(timerIds2, jobExecutor2.getJobPartitionLeases().getPartitions(getProcessEngine().getName()));
+    assertEquals(20, timerIds1.size() + timerIds2.size());
+  }
+
+  @Test
+  public void shouldAcquireJobsWithoutPartition() {
+    // given a job which was created before partitioning was enabled
+    engineRule.getProcessEngineConfiguration().setJobExecutorPartitionCount(0);
+    testRule.deploy(ASYNC_TASK_PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+    engineRule.getProcessEngineConfiguration().setJobExecutorPartitionCount(PARTITION_COUNT);
+
+    // when a job executor without leases acquires jobs
+    List<String> jobIds = acquireJobs(jobExecutor1);
+
+    // then
+    assertEquals(1, jobIds.size());
+  }
+
+  @Test
+  public void shouldReleaseLeases() {
+    // given
+    renewLeases(jobExecutor1);
+
+    // when
+    commandExecutor.execute(new ReleaseJobPartitionLeasesCmd(jobExecutor1));
+
+    // then
+    for (JobPartitionLeaseEntity lease : getLeases()) {
+      assertNull(lease.getLockOwner());
+      assertNull(lease.getLockExpirationTime());
+    }
+
+    // and another job executor can lease all partitions
+    assertEquals(PARTITION_COUNT, renewLeases(jobExecutor2).size());
+  }
+
+  protected List<Integer> renewLeases(JobExecutor jobExecutor) {
+    return commandExecutor.execute(new RenewJobPartitionLeasesCmd(jobExecutor, PARTITION_COUNT));
+  }
+
+  protected List<String> acquireJobs(JobExecutor jobExecutor) {
+    AcquiredJobs acquiredJobs = commandExecutor.execute(new AcquireJobsCmd(jobExecutor, 100));
+
+    List<String> jobIds = new ArrayList<String>();
+    for (List<String> jobIdBatch : acquiredJobs.getJobIdBatches()) {
+      jobIds.addAll(jobIdBatch);
+    }
+    return jobIds;
+  }
+
+  protected List<String> preloadTimers(JobExecutor jobExecutor) {
+    Date lookAheadTime = new Date(ClockUtil.getCurrentTime().getTime() + 60000);
+    List<JobEntity> timers = commandExecutor.execute(new PreloadTimersCmd(jobExecutor, lookAheadTime, 100));
+
+    List<String> timerIds = new ArrayList<String>();
+    for (JobEntity timer : timers) {
+      timerIds.add(timer.getId());
+    }
+    return timerIds;
+  }
+
+  protected void assertJobPartitions(List<String> jobIds, List<Integer> partitions) {
+    for (String jobId : jobIds) {
+      Job job = managementService.createJobQuery().jobId(jobId).singleResult();
+      assertTrue(partitions.contains(((JobEntity) job).getPartition()));
+    }
+  }
+
+  protected List<JobPartitionLeaseEntity> getLeases() {
+    return commandExecutor.execute(new Command<List<JobPartitionLeaseEntity>>() {
+      public List<JobPartitionLeaseEntity> execute(CommandContext commandContext) {
+        return commandContext.getJobManager().findJobPartitionLeases();
+      }
+    });
+  }
+
+  protected ProcessEngineImpl getProcessEngine() {
+    return (ProcessEngineImpl) engineRule.getProcessEngine();
+  }
+
+  /**
+   * Job executor without threads; jobs are acquired by the test.
+   */
+  public static class InlineJobExecutor extends JobExecutor {
+
+    protected void startExecutingJobs() {
+      // no threads
+    }
+
+    protected void stopExecutingJobs() {
+      // no threads
+    }
+
+    public void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+      // not used
+    }
+
+  }
+
+}
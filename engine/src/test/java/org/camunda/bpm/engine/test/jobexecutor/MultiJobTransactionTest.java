@@ -0,0 +1,249 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.JavaDelegate;
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.ExecuteJobsRunnable;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.management.Metrics;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class MultiJobTransactionTest {
+
+  protected static final BpmnModelInstance ASYNC_TASK_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .serviceTask("task")
+        .camundaClass(RecordingDelegate.class.getName())
+        .camundaAsyncBefore()
+      .endEvent()
+      .done();
+
+  protected static final BpmnModelInstance PARALLEL_ASYNC_TASKS_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .parallelGateway("fork")
+      .serviceTask("task1")
+        .camundaClass(RecordingDelegate.class.getName())
+        .camundaAsyncBefore()
+        .camundaExclusive(false)
+      .endEvent()
+      .moveToNode("fork")
+      .serviceTask("task2")
+        .camundaClass(RecordingDelegate.class.getName())
+        .camundaAsyncBefore()
+        .camundaExclusive(false)
+      .endEvent()
+      .done();
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    @Override
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      return configuration.setJobExecutor(new InlineJobExecutor());
+    }
+  };
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected JobExecutor jobExecutor;
+  protected RuntimeService runtimeService;
+  protected ManagementService managementService;
+
+  @Before
+  public void startJobExecutor() {
+    runtimeService = engineRule.getRuntimeService();
+    managementService = engineRule.getManagementService();
+
+    jobExecutor = engineRule.getProcessEngineConfiguration().getJobExecutor();
+    jobExecutor.setMaxJobsPerTransaction(3);
+    jobExecutor.start();
+
+    RecordingDelegate.COMMAND_CONTEXTS.clear();
+  }
+
+  @After
+  public void shutdownJobExecutor() {
+    jobExecutor.shutdown();
+    jobExecutor.setMaxJobsPerTransaction(1);
+    managementService.deleteMetrics(null);
+  }
+
+  @Test
+  public void shouldExecuteJobsOfDifferentInstancesInOneTransaction() {
+    // given
+    testRule.deploy(ASYNC_TASK_PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+    runtimeService.startProcessInstanceByKey("process");
+    runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    executeJobs();
+
+    // then
+    assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+    assertEquals(3, RecordingDelegate.COMMAND_CONTEXTS.size());
+    assertSame(RecordingDelegate.COMMAND_CONTEXTS.get(0), RecordingDelegate.COMMAND_CONTEXTS.get(1));
+    assertSame(RecordingDelegate.COMMAND_CONTEXTS.get(0), RecordingDelegate.COMMAND_CONTEXTS.get(2));
+  }
+
+  @Test
+  public void shouldExecuteJobsOfSameInstanceInSeparateTransactions() {
+    // given
+    testRule.deploy(PARALLEL_ASYNC_TASKS_PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    executeJobs();
+
+    // then
+    assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+    assertEquals(2, RecordingDelegate.COMMAND_CONTEXTS.size());
+    assertNotSame(RecordingDelegate.COMMAND_CONTEXTS.get(0), RecordingDelegate.COMMAND_CONTEXTS.get(1));
+  }
+
+  @Test
+  public void shouldFallBackToSeparateTransactionsOnFailure() {
+    // given
+    testRule.deploy(ASYNC_TASK_PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+    String failingInstanceId = runtimeService.startProcessInstanceByKey("process",
+        Variables.createVariables().putValue("fail", true)).getId();
+    runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    executeJobs();
+
+    // then the other instances have completed
+    assertEquals(1, runtimeService.createProcessInstanceQuery().count());
+
+    // and the failure has been handled for the failing job only
+    Job failedJob = managementService.createJobQuery().singleResult();
+    assertEquals(failingInstanceId, failedJob.getProcessInstanceId());
+    assertEquals(2, failedJob.getRetries());
+    assertEquals(RecordingDelegate.EXCEPTION_MESSAGE, failedJob.getExceptionMessage());
+  }
+
+  @Test
+  public void shouldLogExecutionOfJobsExecutedInOneTransaction() {
+    // given
+    testRule.deploy(ASYNC_TASK_PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+    runtimeService.startProcessInstanceByKey("process");
+    runtimeService.startProcessInstanceByKey("process");
+    long executedJobs = jobExecutor.getExecutedJobs();
+
+    // when
+    executeJobs();
+
+    // then
+    assertEquals(executedJobs + 3, jobExecutor.getExecutedJobs());
+
+    engineRule.getProcessEngineConfiguration().getDbMetricsReporter().reportNow();
+    assertEquals(3, managementService.createMetricsQuery().name(Metrics.JOB_SUCCESSFUL).sum());
+  }
+
+  @Test
+  public void shouldExecuteJobsSeparatelyIfNotSupportedByRunnable() {
+    // given
+    testRule.deploy(ASYNC_TASK_PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+    runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    new ExecuteJobsRunnable(getJobIds(), (ProcessEngineImpl) engineRule.getProcessEngine()) {
+      protected boolean isExecuteJobsInOneTransactionSupported() {
+        return false;
+      }
+    }.run();
+
+    // then
+    assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+    assertEquals(2, RecordingDelegate.COMMAND_CONTEXTS.size());
+    assertNotSame(RecordingDelegate.COMMAND_CONTEXTS.get(0), RecordingDelegate.COMMAND_CONTEXTS.get(1));
+  }
+
+  protected void executeJobs() {
+    jobExecutor.getExecuteJobsRunnable(getJobIds(), (ProcessEngineImpl) engineRule.getProcessEngine()).run();
+  }
+
+  protected List<String> getJobIds() {
+    List<String> jobIds = new ArrayList<String>();
+    for (Job job : managementService.createJobQuery().list()) {
+      jobIds.add(job.getId());
+    }
+    return jobIds;
+  }
+
+  public static class RecordingDelegate implements JavaDelegate {
+
+    public static final String EXCEPTION_MESSAGE = "expected exception";
+    public static final List<CommandContext> COMMAND_CONTEXTS = new ArrayList<CommandContext>();
+
+    public void execute(DelegateExecution execution) throws Exception {
+      COMMAND_CONTEXTS.add(Context.getCommandContext());
+
+      if (Boolean.TRUE.equals(execution.getVariable("fail"))) {
+        throw new ProcessEngineException(EXCEPTION_MESSAGE);
+      }
+    }
+  }
+
+  /**
+   * Job executor without threads; jobs are executed by the test.
+   */
+  public static class InlineJobExecutor extends JobExecutor {
+
+    protected void startExecutingJobs() {
+      // no threads
+    }
+
+    protected void stopExecutingJobs() {
+      // no threads
+    }
+
+    public void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+      getExecuteJobsRunnable(jobIds, processEngine).run();
+    }
+
+  }
+
+}
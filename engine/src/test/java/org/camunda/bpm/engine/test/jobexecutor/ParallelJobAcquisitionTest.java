@@ -0,0 +1,226 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import java.text.DateFormat.Field;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Iterator;
+import java.util.List;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.ProcessEngines;
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.cfg.StandaloneProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.jobexecutor.DefaultJobExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.JobAcquisitionContext;
+import org.camunda.bpm.engine.impl.jobexecutor.ParallelJobAcquisitionRunnable;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.management.Metrics;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelJobAcquisitionTest {
+
+  private static final String RESOURCE_BASE = ParallelJobAcquisitionTest.class.getPackage().getName().replace(".", "/");
+  private static final String PROCESS_RESOURCE = RESOURCE_BASE + "/IntermediateTimerEventTest.testCatchingTimerEvent.bpmn20.xml";
+
+  private DefaultJobExecutor jobExecutor = new DefaultJobExecutor();
+  private List<ProcessEngine> createdProcessEngines = new ArrayList<ProcessEngine>();
+
+  @Before
+  public void enableParallelAcquisition() {
+    jobExecutor.setParallelAcquisition(true);
+  }
+
+  @After
+  public void stopJobExecutor() {
+    jobExecutor.shutdown();
+  }
+
+  @After
+  public void resetClock() {
+    ClockUtil.reset();
+  }
+
+  @After
+  public void closeProcessEngines() {
+    Iterator<ProcessEngine> iterator = createdProcessEngines.iterator();
+    while (iterator.hasNext()) {
+      ProcessEngine processEngine = iterator.next();
+      processEngine.close();
+      ProcessEngines.unregister(processEngine);
+      iterator.remove();
+    }
+  }
+
+  @Test
+  public void testExecuteJobsForTwoEngines() {
+    // given
+    ProcessEngine engine1 = buildProcessEngine("engine1");
+    ProcessEngine engine2 = buildProcessEngine("engine2");
+    jobExecutor.shutdown();
+
+    startTimerProcess(engine1);
+    startTimerProcess(engine2);
+
+    Calendar calendar = Calendar.getInstance();
+    calendar.add(Field.DAY_OF_YEAR.getCalendarField(), 6);
+    ClockUtil.setCurrentTime(calendar.getTime());
+
+    // when
+    jobExecutor.start();
+
+    // then the jobs of both engines are executed
+    waitForJobExecutorToProcessAllJobs(10000, 100, engine1.getManagementService());
+    waitForJobExecutorToProcessAllJobs(10000, 100, engine2.getManagementService());
+
+    Assert.assertEquals(0, engine1.getManagementService().createJobQuery().count());
+    Assert.assertEquals(0, engine2.getManagementService().createJobQuery().count());
+  }
+
+  @Test
+  public void testExecuteJobsForTwoEnginesWithAdaptiveAcquisition() {
+    // given
+    jobExecutor.setAdaptiveAcquisition(true);
+    ProcessEngine engine1 = buildProcessEngine("engine1");
+    ProcessEngine engine2 = buildProcessEngine("engine2");
+    jobExecutor.shutdown();
+
+    startTimerProcess(engine1);
+    startTimerProcess(engine2);
+
+    Calendar calendar = Calendar.getInstance();
+    calendar.add(Field.DAY_OF_YEAR.getCalendarField(), 6);
+    ClockUtil.setCurrentTime(calendar.getTime());
+
+    // when
+    jobExecutor.start();
+
+    // then the jobs of both engines are executed
+    waitForJobExecutorToProcessAllJobs(10000, 100, engine1.getManagementService());
+    waitForJobExecutorToProcessAllJobs(10000, 100, engine2.getManagementService());
+
+    Assert.assertEquals(0, engine1.getManagementService().createJobQuery().count());
+    Assert.assertEquals(0, engine2.getManagementService().createJobQuery().count());
+  }
+
+  @Test
+  public void testSeparateAcquisitionContextPerEngine() {
+    // given
+    ProcessEngine engine1 = buildProcessEngine("engine1");
+    ProcessEngine engine2 = buildProcessEngine("engine2");
+
+    // when
+    waitForAcquisitionContext(engine1.getName(), true);
+    waitForAcquisitionContext(engine2.getName(), true);
+
+    // then
+    Assert.assertTrue(jobExecutor.getAcquireJobsRunnable() instanceof ParallelJobAcquisitionRunnable);
+
+    JobAcquisitionContext context1 = jobExecutor.getAcquisitionContext(engine1.getName());
+    JobAcquisitionContext context2 = jobExecutor.getAcquisitionContext(engine2.getName());
+    Assert.assertNotSame(context1, context2);
+  }
+
+  @Test
+  public void testStopAcquisitionForUnregisteredEngine() {
+    // given
+    ProcessEngine engine1 = buildProcessEngine("engine1");
+    ProcessEngine engine2 = buildProcessEngine("engine2");
+    waitForAcquisitionContext(engine2.getName(), true);
+
+    // when
+    jobExecutor.unregisterProcessEngine((ProcessEngineImpl) engine2);
+
+    // then
+    waitForAcquisitionContext(engine2.getName(), false);
+    Assert.assertNotNull(jobExecutor.getAcquisitionContext(engine1.getName()));
+  }
+
+  @Test
+  public void testAcquisitionTimeMetric() {
+    // given
+    ProcessEngine engine = buildProcessEngine("engine1");
+    startTimerProcess(engine);
+
+    // when
+    waitForAcquisitionContext(engine.getName(), true);
+    jobExecutor.shutdown();
+    ((ProcessEngineImpl) engine).getProcessEngineConfiguration().getDbMetricsReporter().reportNow();
+
+    // then
+    ManagementService managementService = engine.getManagementService();
+    Assert.assertTrue(managementService.createMetricsQuery().name(Metrics.JOB_ACQUISITION_ATTEMPT).sum() >= 1);
+    Assert.assertTrue(managementService.createMetricsQuery().name(Metrics.JOB_ACQUISITION_TIME).sum() >= 0);
+  }
+
+  ////////// helper methods ////////////////////////////
+
+  protected ProcessEngine buildProcessEngine(String name) {
+    StandaloneProcessEngineConfiguration engineConfiguration = new StandaloneInMemProcessEngineConfiguration();
+    engineConfiguration.setProcessEngineName(getClass().getName() + "-" + name);
+    engineConfiguration.setJdbcUrl("jdbc:h2:mem:parallel-acquisition-" + name);
+    engineConfiguration.setJobExecutorActivate(true);
+    engineConfiguration.setJobExecutor(jobExecutor);
+    engineConfiguration.setDbMetricsReporterActivate(false);
+    ProcessEngine engine = engineConfiguration.buildProcessEngine();
+    createdProcessEngines.add(engine);
+    return engine;
+  }
+
+  protected void startTimerProcess(ProcessEngine engine) {
+    engine.getRepositoryService().createDeployment()
+      .addClasspathResource(PROCESS_RESOURCE)
+      .deploy();
+
+    engine.getRuntimeService().startProcessInstanceByKey("intermediateTimerEventExample");
+    Assert.assertEquals(1, engine.getManagementService().createJobQuery().count());
+  }
+
+  protected void waitForAcquisitionContext(String engineName, boolean exists) {
+    long deadline = System.currentTimeMillis() + 10000;
+    while ((jobExecutor.getAcquisitionContext(engineName) != null) != exists) {
+      if (System.currentTimeMillis() > deadline) {
+        throw new ProcessEngineException("acquisition for engine " + engineName + " was not " + (exists ? "started" : "stopped"));
+      }
+      try {
+        Thread.sleep(50);
+      }
+      catch (InterruptedException e) {
+        throw new ProcessEngineException(e);
+      }
+    }
+  }
+
+  protected void waitForJobExecutorToProcessAllJobs(long maxMillisToWait, long intervalMillis, ManagementService managementService) {
+    long deadline = System.currentTimeMillis() + maxMillisToWait;
+    while (!managementService.createJobQuery().executable().list().isEmpty()) {
+      if (System.currentTimeMillis() > deadline) {
+        throw new ProcessEngineException("time limit of " + maxMillisToWait + " was exceeded");
+      }
+      try {
+        Thread.sleep(intervalMillis);
+      }
+      catch (InterruptedException e) {
+        throw new ProcessEngineException(e);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,157 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.cmd.PrepareDueTimersCmd;
+import org.camunda.bpm.engine.impl.cmd.PreloadTimersCmd;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class TimerPreloadTest {
+
+  protected static final BpmnModelInstance TIMER_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .intermediateCatchEvent()
+        .timerWithDuration("PT10S")
+      .endEvent()
+      .done();
+
+  protected static final long START = 1000000000000L;
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected ManagementService managementService;
+  protected CommandExecutor commandExecutor;
+  protected JobExecutor jobExecutor;
+
+  @Before
+  public void setUp() {
+    runtimeService = engineRule.getRuntimeService();
+    managementService = engineRule.getManagementService();
+    commandExecutor = engineRule.getProcessEngineConfiguration().getCommandExecutorTxRequired();
+    jobExecutor = engineRule.getProcessEngineConfiguration().getJobExecutor();
+
+    ClockUtil.setCurrentTime(new Date(START));
+    testRule.deploy(TIMER_PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+  }
+
+  @After
+  public void resetClock() {
+    ClockUtil.reset();
+  }
+
+  @Test
+  public void shouldPreloadTimersWithinLookAheadTime() {
+    // when
+    List<JobEntity> timers = commandExecutor.execute(new PreloadTimersCmd(jobExecutor, new Date(START + 10000), 10));
+
+    // then
+    assertEquals(1, timers.size());
+
+    JobEntity timer = (JobEntity) managementService.createJobQuery().singleResult();
+    assertEquals(jobExecutor.getLockOwner(), timer.getLockOwner());
+    assertEquals(new Date(START + 10000 + jobExecutor.getLockTimeInMillis()), timer.getLockExpirationTime());
+
+    // and the timer is not preloaded again
+    assertTrue(commandExecutor.execute(new PreloadTimersCmd(jobExecutor, new Date(START + 10000), 10)).isEmpty());
+  }
+
+  @Test
+  public void shouldNotPreloadTimersAfterLookAheadTime() {
+    // when
+    List<JobEntity> timers = commandExecutor.execute(new PreloadTimersCmd(jobExecutor, new Date(START + 9999), 10));
+
+    // then
+    assertTrue(timers.isEmpty());
+    assertNull(((JobEntity) managementService.createJobQuery().singleResult()).getLockOwner());
+  }
+
+  @Test
+  public void shouldPrepareDueTimer() {
+    // given
+    commandExecutor.execute(new PreloadTimersCmd(jobExecutor, new Date(START + 10000), 10));
+    Job timer = managementService.createJobQuery().singleResult();
+
+    // when
+    ClockUtil.setCurrentTime(new Date(START + 10000));
+    List<List<String>> jobIdBatches = commandExecutor.execute(new PrepareDueTimersCmd(jobExecutor, Arrays.asList(timer.getId())));
+
+    // then
+    assertEquals(1, jobIdBatches.size());
+    assertEquals(Arrays.asList(timer.getId()), jobIdBatches.get(0));
+    assertNotNull(((JobEntity) managementService.createJobQuery().singleResult()).getLockOwner());
+  }
+
+  @Test
+  public void shouldUnlockTimerWithChangedDueDate() {
+    // given
+    commandExecutor.execute(new PreloadTimersCmd(jobExecutor, new Date(START + 10000), 10));
+    Job timer = managementService.createJobQuery().singleResult();
+    managementService.setJobDuedate(timer.getId(), new Date(START + 20000));
+
+    // when
+    ClockUtil.setCurrentTime(new Date(START + 10000));
+    List<List<String>> jobIdBatches = commandExecutor.execute(new PrepareDueTimersCmd(jobExecutor, Arrays.asList(timer.getId())));
+
+    // then
+    assertTrue(jobIdBatches.isEmpty());
+    assertNull(((JobEntity) managementService.createJobQuery().singleResult()).getLockOwner());
+  }
+
+  @Test
+  public void shouldUnlockSuspendedTimer() {
+    // given
+    commandExecutor.execute(new PreloadTimersCmd(jobExecutor, new Date(START + 10000), 10));
+    Job timer = managementService.createJobQuery().singleResult();
+    managementService.suspendJobById(timer.getId());
+
+    // when
+    ClockUtil.setCurrentTime(new Date(START + 10000));
+    List<List<String>> jobIdBatches = commandExecutor.execute(new PrepareDueTimersCmd(jobExecutor, Arrays.asList(timer.getId())));
+
+    // then
+    assertTrue(jobIdBatches.isEmpty());
+    assertNull(((JobEntity) managementService.createJobQuery().singleResult()).getLockOwner());
+  }
+
+}
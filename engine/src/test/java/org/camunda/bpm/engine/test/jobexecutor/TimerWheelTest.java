@@ -0,0 +1,106 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.camunda.bpm.engine.impl.jobexecutor.TimerWheel;
+import org.junit.Test;
+
+public class TimerWheelTest {
+
+  protected static final long START = 1000000;
+
+  @Test
+  public void shouldExpireElementsOnFirstLevel() {
+    TimerWheel<String> timerWheel = new TimerWheel<String>(10, 8, START);
+    timerWheel.add("a", START + 20);
+    timerWheel.add("b", START + 45);
+
+    assertTrue(timerWheel.advance(START + 19).isEmpty());
+    assertEquals(Arrays.asList("a"), timerWheel.advance(START + 20));
+    assertTrue(timerWheel.advance(START + 39).isEmpty());
+    assertEquals(Arrays.asList("b"), timerWheel.advance(START + 50));
+    assertTrue(timerWheel.isEmpty());
+  }
+
+  @Test
+  public void shouldCascadeElementsFromHigherLevels() {
+    TimerWheel<String> timerWheel = new TimerWheel<String>(10, 4, START);
+    timerWheel.add("level1", START + 100);
+    timerWheel.add("level2", START + 500);
+    timerWheel.add("level3", START + 1300);
+
+    assertTrue(timerWheel.advance(START + 99).isEmpty());
+    assertEquals(Arrays.asList("level1"), timerWheel.advance(START + 109));
+    assertTrue(timerWheel.advance(START + 499).isEmpty());
+    assertEquals(Arrays.asList("level2"), timerWheel.advance(START + 500));
+    assertTrue(timerWheel.advance(START + 1299).isEmpty());
+    assertEquals(Arrays.asList("level3"), timerWheel.advance(START + 1300));
+  }
+
+  @Test
+  public void shouldExpireOverdueElementsWithNextAdvance() {
+    TimerWheel<String> timerWheel = new TimerWheel<String>(10, 8, START);
+    timerWheel.advance(START + 100);
+
+    timerWheel.add("overdue", START);
+
+    assertEquals(Arrays.asList("overdue"), timerWheel.advance(START + 110));
+  }
+
+  @Test
+  public void shouldExpireAllElementsAfterLongPause() {
+    TimerWheel<String> timerWheel = new TimerWheel<String>(10, 4, START);
+    timerWheel.add("a", START + 30);
+    timerWheel.add("b", START + 300);
+
+    List<String> expired = timerWheel.advance(START + 1000000);
+    Collections.sort(expired);
+
+    assertEquals(Arrays.asList("a", "b"), expired);
+    assertEquals(0, timerWheel.size());
+  }
+
+  @Test
+  public void shouldExpireRandomElementsInTime() {
+    TimerWheel<Long> timerWheel = new TimerWheel<Long>(10, 4, START);
+    Random random = new Random(42);
+
+    for (int i = 0; i < 500; i++) {
+      long dueTime = START + random.nextInt(5000);
+      timerWheel.add(dueTime, dueTime);
+    }
+
+    List<Long> allExpired = new ArrayList<Long>();
+    for (long time = START; time <= START + 5000 + 10; time += 7) {
+      for (Long dueTime : timerWheel.advance(time)) {
+        // expires at most one tick after its due time
+        assertTrue(dueTime <= time);
+        assertTrue(time - dueTime < 10 + 7);
+        allExpired.add(dueTime);
+      }
+    }
+
+    assertEquals(500, allExpired.size());
+    assertTrue(timerWheel.isEmpty());
+  }
+
+}
@@ -0,0 +1,169 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.RejectedJobsHandler;
+import org.camunda.bpm.engine.impl.jobexecutor.VirtualThreadJobExecutor;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class VirtualThreadJobExecutorTest {
+
+  protected static final BpmnModelInstance ASYNC_TASK_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .serviceTask("task")
+        .camundaExpression("${true}")
+        .camundaAsyncBefore()
+      .endEvent()
+      .done();
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    @Override
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      VirtualThreadJobExecutor jobExecutor = new VirtualThreadJobExecutor();
+      jobExecutor.setMaxConcurrentJobs(4);
+      return configuration.setJobExecutor(jobExecutor);
+    }
+  };
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected RuntimeService runtimeService;
+  protected ManagementService managementService;
+
+  @Before
+  public void setUp() {
+    runtimeService = engineRule.getRuntimeService();
+    managementService = engineRule.getManagementService();
+  }
+
+  @Test
+  public void shouldExecuteJobs() {
+    // given
+    testRule.deploy(ASYNC_TASK_PROCESS);
+    for (int i = 0; i < 10; i++) {
+      runtimeService.startProcessInstanceByKey("process");
+    }
+
+    // when
+    testRule.waitForJobExecutorToProcessAllJobs(10000);
+
+    // then
+    assertEquals(0, managementService.createJobQuery().count());
+    assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+  }
+
+  @Test
+  public void shouldRejectJobsAboveConcurrencyLimit() throws Exception {
+    // given
+    BlockingJobExecutor jobExecutor = new BlockingJobExecutor();
+    jobExecutor.setMaxConcurrentJobs(1);
+    RecordingRejectedJobsHandler rejectedJobsHandler = new RecordingRejectedJobsHandler();
+    jobExecutor.setRejectedJobsHandler(rejectedJobsHandler);
+    jobExecutor.startThreads();
+
+    try {
+      // when
+      jobExecutor.executeJobs(Collections.singletonList("job1"), getProcessEngine());
+      jobExecutor.executeJobs(Collections.singletonList("job2"), getProcessEngine());
+
+      // then
+      assertEquals(0, jobExecutor.getAvailableConcurrentJobs());
+      assertEquals(Collections.singletonList("job2"), rejectedJobsHandler.rejectedJobIds);
+
+      // and a job can be executed again after the first one has finished
+      jobExecutor.finishJobs();
+      jobExecutor.awaitPermits(1);
+      jobExecutor.executeJobs(Collections.singletonList("job3"), getProcessEngine());
+      assertEquals(1, rejectedJobsHandler.rejectedJobIds.size());
+    }
+    finally {
+      jobExecutor.finishJobs();
+      jobExecutor.getExecutorService().shutdown();
+      assertTrue(jobExecutor.getExecutorService().awaitTermination(10, TimeUnit.SECONDS));
+    }
+  }
+
+  protected ProcessEngineImpl getProcessEngine() {
+    return (ProcessEngineImpl) engineRule.getProcessEngine();
+  }
+
+  public static class BlockingJobExecutor extends VirtualThreadJobExecutor {
+
+    protected CountDownLatch latch = new CountDownLatch(1);
+
+    public void startThreads() {
+      permits = new Semaphore(maxConcurrentJobs);
+      executorService = createExecutorService();
+    }
+
+    public void finishJobs() {
+      latch.countDown();
+    }
+
+    public void awaitPermits(int numPermits) throws InterruptedException {
+      permits.acquire(numPermits);
+      permits.release(numPermits);
+    }
+
+    public Runnable getExecuteJobsRunnable(List<String> jobIds, ProcessEngineImpl processEngine) {
+      return new Runnable() {
+        public void run() {
+          try {
+            latch.await();
+          }
+          catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+      };
+    }
+  }
+
+  public static class RecordingRejectedJobsHandler implements RejectedJobsHandler {
+
+    protected List<String> rejectedJobIds = new ArrayList<String>();
+
+    public void jobsRejected(List<String> jobIds, ProcessEngineImpl processEngine, JobExecutor jobExecutor) {
+      rejectedJobIds.addAll(jobIds);
+    }
+  }
+
+}
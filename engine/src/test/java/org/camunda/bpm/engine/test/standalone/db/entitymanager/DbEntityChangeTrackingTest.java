@@ -0,0 +1,192 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.db.entitymanager;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.CachedDbEntity;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCache;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DbEntityChangeTrackingTest {
+
+  protected DbEntityCache cache;
+
+  @Before
+  public void setUp() {
+    cache = new DbEntityCache();
+    cache.setChangeTrackingEnabled(true);
+  }
+
+  @Test
+  public void shouldNotBeDirtyWithoutChanges() {
+    // given
+    ExecutionEntity execution = createExecution("1");
+    execution.setActivityInstanceId("activityInstance");
+
+    // when
+    cache.putPersistent(execution);
+
+    // then
+    CachedDbEntity cachedEntity = cache.getCachedEntity(execution);
+    assertTrue(cachedEntity.isChangeTracked());
+    assertFalse(cachedEntity.isDirty());
+  }
+
+  @Test
+  public void shouldBeDirtyAfterChange() {
+    // given
+    ExecutionEntity execution = createExecution("1");
+    cache.putPersistent(execution);
+
+    // when
+    execution.setActivityInstanceId("activityInstance");
+
+    // then
+    assertTrue(cache.getCachedEntity(execution).isDirty());
+  }
+
+  @Test
+  public void shouldNotBeDirtyIfSameValueIsSet() {
+    // given
+    ExecutionEntity execution = createExecution("1");
+    execution.setActivityInstanceId("activityInstance");
+    execution.setActive(false);
+    cache.putPersistent(execution);
+
+    // when
+    execution.setActivityInstanceId("activityInstance");
+    execution.setActive(false);
+
+    // then
+    assertFalse(cache.getCachedEntity(execution).isDirty());
+  }
+
+  @Test
+  public void shouldBeDirtyAfterChangeOfAssociatedEntities() {
+    // given
+    ExecutionEntity execution = createExecution("1");
+    cache.putPersistent(execution);
+
+    // when the cached entity state changes
+    execution.setSubProcessInstance(createExecution("2"));
+
+    // then
+    assertTrue(cache.getCachedEntity(execution).isDirty());
+  }
+
+  @Test
+  public void shouldNotBeDirtyAfterCopy() {
+    // given
+    ExecutionEntity execution = createExecution("1");
+    cache.putPersistent(execution);
+    execution.incrementSequenceCounter();
+
+    // when
+    CachedDbEntity cachedEntity = cache.getCachedEntity(execution);
+    cachedEntity.makeCopy();
+
+    // then
+    assertFalse(cachedEntity.isDirty());
+  }
+
+  @Test
+  public void shouldBeDirtyIfForced() {
+    // given
+    ExecutionEntity execution = createExecution("1");
+    cache.putPersistent(execution);
+    CachedDbEntity cachedEntity = cache.getCachedEntity(execution);
+
+    // when
+    cachedEntity.forceSetDirty();
+
+    // then
+    assertTrue(cachedEntity.isDirty());
+
+    // and the entity is not dirty after it was flushed
+    cachedEntity.makeCopy();
+    assertFalse(cachedEntity.isDirty());
+  }
+
+  @Test
+  public void shouldTrackChangesOfTask() {
+    // given
+    TaskEntity task = new TaskEntity();
+    task.setId("1");
+    task.setNameWithoutCascade("name");
+    cache.putPersistent(task);
+    CachedDbEntity cachedEntity = cache.getCachedEntity(task);
+
+    // when
+    task.setNameWithoutCascade("name");
+
+    // then
+    assertFalse(cachedEntity.isDirty());
+
+    // when
+    task.setPriorityWithoutCascade(task.getPriority() + 1);
+
+    // then
+    assertTrue(cachedEntity.isDirty());
+  }
+
+  @Test
+  public void shouldTrackChangesOfVariableInstance() {
+    // given
+    VariableInstanceEntity variable = new VariableInstanceEntity();
+    variable.setId("1");
+    variable.setTextValue("value");
+    cache.putPersistent(variable);
+    CachedDbEntity cachedEntity = cache.getCachedEntity(variable);
+
+    // when
+    variable.setTextValue("value");
+
+    // then
+    assertFalse(cachedEntity.isDirty());
+
+    // when
+    variable.setTextValue("other value");
+
+    // then
+    assertTrue(cachedEntity.isDirty());
+  }
+
+  @Test
+  public void shouldCompareStateIfChangeTrackingIsDisabled() {
+    // given
+    cache.setChangeTrackingEnabled(false);
+    ExecutionEntity execution = createExecution("1");
+    cache.putPersistent(execution);
+    CachedDbEntity cachedEntity = cache.getCachedEntity(execution);
+
+    // when
+    execution.setActivityInstanceId("activityInstance");
+
+    // then
+    assertFalse(cachedEntity.isChangeTracked());
+    assertTrue(cachedEntity.isDirty());
+  }
+
+  protected ExecutionEntity createExecution(String id) {
+    ExecutionEntity execution = new ExecutionEntity();
+    execution.setId(id);
+    return execution;
+  }
+
+}
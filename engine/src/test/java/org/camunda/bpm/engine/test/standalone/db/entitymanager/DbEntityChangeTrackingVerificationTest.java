@@ -0,0 +1,371 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.db.entitymanager;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.camunda.bpm.engine.impl.test.ResourceProcessEngineTestCase;
+import org.camunda.bpm.engine.migration.MigrationPlan;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.engine.runtime.CaseInstance;
+import org.camunda.bpm.engine.runtime.Execution;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.DelegationState;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+
+/**
+ * Changes the tracked properties of executions, tasks and variables through the public API
+ * with a process engine which fails the flush if a change is missed by the change stamp of an entity.
+ */
+public class DbEntityChangeTrackingVerificationTest extends ResourceProcessEngineTestCase {
+
+  protected static final BpmnModelInstance USER_TASK_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .userTask("task1")
+      .userTask("task2")
+      .endEvent()
+      .done();
+
+  protected static final BpmnModelInstance PARALLEL_USER_TASKS_PROCESS = Bpmn.createExecutableProcess("parallelProcess")
+      .startEvent()
+      .parallelGateway("fork")
+      .userTask("task1")
+      .parallelGateway("join")
+      .endEvent()
+      .moveToNode("fork")
+      .userTask("task2")
+      .connectTo("join")
+      .done();
+
+  protected static final BpmnModelInstance CALL_ACTIVITY_PROCESS = Bpmn.createExecutableProcess("callingProcess")
+      .startEvent()
+      .callActivity("callActivity")
+        .calledElement("process")
+      .endEvent()
+      .done();
+
+  public DbEntityChangeTrackingVerificationTest() {
+    super("org/camunda/bpm/engine/test/standalone/db/entitymanager/entitymanager.changetracking.cfg.xml");
+  }
+
+  public void testFailOnUntrackedChange() {
+    // given
+    Task task = taskService.newTask();
+    taskService.saveTask(task);
+    final String taskId = task.getId();
+
+    try {
+      // when the name is changed without changing the change stamp
+      processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+        public Void execute(CommandContext commandContext) {
+          TaskEntity taskEntity = commandContext.getTaskManager().findTaskById(taskId);
+          try {
+            Field nameField = TaskEntity.class.getDeclaredField("name");
+            nameField.setAccessible(true);
+            nameField.set(taskEntity, "untracked");
+          }
+          catch (Exception e) {
+            throw new RuntimeException(e);
+          }
+          return null;
+        }
+      });
+      fail("exception expected");
+    }
+    catch (ProcessEngineException e) {
+      // then
+      assertTextPresent("has changed without changing its change stamp", e.getMessage());
+    }
+    finally {
+      taskService.deleteTask(taskId, true);
+    }
+  }
+
+  public void testUpdateTaskProperties() {
+    // given
+    Task parentTask = taskService.newTask();
+    taskService.saveTask(parentTask);
+    Task task = taskService.newTask();
+    task.setTenantId("tenant");
+    taskService.saveTask(task);
+    String taskId = task.getId();
+
+    Date dueDate = new Date(1000000000000L);
+    Date followUpDate = new Date(1100000000000L);
+
+    // when
+    task = taskService.createTaskQuery().taskId(taskId).singleResult();
+    task.setName("name");
+    task.setDescription("description");
+    task.setPriority(10);
+    task.setDueDate(dueDate);
+    task.setFollowUpDate(followUpDate);
+    task.setParentTaskId(parentTask.getId());
+    taskService.saveTask(task);
+
+    taskService.setAssignee(taskId, "assignee");
+    taskService.setOwner(taskId, "owner");
+    taskService.setPriority(taskId, 20);
+
+    // then
+    task = taskService.createTaskQuery().taskId(taskId).singleResult();
+    assertEquals("name", task.getName());
+    assertEquals("description", task.getDescription());
+    assertEquals(20, task.getPriority());
+    assertEquals(dueDate, task.getDueDate());
+    assertEquals(followUpDate, task.getFollowUpDate());
+    assertEquals(parentTask.getId(), task.getParentTaskId());
+    assertEquals("assignee", task.getAssignee());
+    assertEquals("owner", task.getOwner());
+    assertEquals("tenant", task.getTenantId());
+
+    // when
+    taskService.delegateTask(taskId, "delegate");
+
+    // then
+    task = taskService.createTaskQuery().taskId(taskId).singleResult();
+    assertEquals(DelegationState.PENDING, task.getDelegationState());
+    assertEquals("delegate", task.getAssignee());
+
+    // when
+    taskService.resolveTask(taskId);
+
+    // then
+    task = taskService.createTaskQuery().taskId(taskId).singleResult();
+    assertEquals(DelegationState.RESOLVED, task.getDelegationState());
+    assertEquals("owner", task.getAssignee());
+
+    // when
+    task.setDueDate(null);
+    task.setFollowUpDate(null);
+    task.setDescription(null);
+    task.setParentTaskId(null);
+    taskService.saveTask(task);
+
+    // then
+    task = taskService.createTaskQuery().taskId(taskId).singleResult();
+    assertNull(task.getDueDate());
+    assertNull(task.getFollowUpDate());
+    assertNull(task.getDescription());
+    assertNull(task.getParentTaskId());
+
+    taskService.deleteTask(taskId, true);
+    taskService.deleteTask(parentTask.getId(), true);
+  }
+
+  public void testUpdateProcessInstance() {
+    // given
+    deployment(USER_TASK_PROCESS);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", "businessKey");
+    String processInstanceId = processInstance.getId();
+
+    // when
+    runtimeService.suspendProcessInstanceById(processInstanceId);
+
+    // then
+    assertTrue(runtimeService.createProcessInstanceQuery().processInstanceId(processInstanceId).singleResult().isSuspended());
+    assertTrue(taskService.createTaskQuery().processInstanceId(processInstanceId).singleResult().isSuspended());
+
+    // when
+    runtimeService.activateProcessInstanceById(processInstanceId);
+    taskService.complete(taskService.createTaskQuery().processInstanceId(processInstanceId).singleResult().getId());
+
+    // then
+    assertFalse(runtimeService.createProcessInstanceQuery().processInstanceId(processInstanceId).singleResult().isSuspended());
+    Task task = taskService.createTaskQuery().processInstanceId(processInstanceId).singleResult();
+    assertEquals("task2", task.getTaskDefinitionKey());
+    assertEquals(1, runtimeService.createExecutionQuery().activityId("task2").count());
+
+    // when
+    runtimeService.createProcessInstanceModification(processInstanceId)
+      .startBeforeActivity("task1")
+      .execute();
+
+    // then
+    List<Execution> executions = runtimeService.createExecutionQuery().processInstanceId(processInstanceId).list();
+    assertEquals(3, executions.size());
+    assertEquals(1, runtimeService.createExecutionQuery().activityId("task1").count());
+    assertEquals(1, runtimeService.createExecutionQuery().activityId("task2").count());
+    assertEquals(2, taskService.createTaskQuery().processInstanceId(processInstanceId).count());
+
+    // when
+    runtimeService.createProcessInstanceModification(processInstanceId)
+      .cancelAllForActivity("task1")
+      .execute();
+
+    // then
+    assertEquals(1, runtimeService.createExecutionQuery().processInstanceId(processInstanceId).count());
+    assertEquals(1, runtimeService.createExecutionQuery().activityId("task2").count());
+    assertEquals("businessKey", runtimeService.createProcessInstanceQuery().processInstanceId(processInstanceId).singleResult().getBusinessKey());
+
+    // when
+    taskService.complete(taskService.createTaskQuery().processInstanceId(processInstanceId).singleResult().getId());
+
+    // then
+    assertEquals(0, runtimeService.createProcessInstanceQuery().processInstanceId(processInstanceId).count());
+  }
+
+  public void testExecuteParallelBranches() {
+    // given
+    deployment(PARALLEL_USER_TASKS_PROCESS);
+    String processInstanceId = runtimeService.startProcessInstanceByKey("parallelProcess").getId();
+
+    // when
+    taskService.complete(taskService.createTaskQuery().taskDefinitionKey("task1").singleResult().getId());
+
+    // then
+    assertEquals(1, runtimeService.createExecutionQuery().activityId("task2").count());
+    assertEquals(1, runtimeService.createExecutionQuery().activityId("join").count());
+
+    // when
+    taskService.complete(taskService.createTaskQuery().taskDefinitionKey("task2").singleResult().getId());
+
+    // then
+    assertEquals(0, runtimeService.createProcessInstanceQuery().processInstanceId(processInstanceId).count());
+  }
+
+  public void testExecuteCallActivity() {
+    // given
+    deployment(USER_TASK_PROCESS, CALL_ACTIVITY_PROCESS);
+    String callingProcessInstanceId = runtimeService.startProcessInstanceByKey("callingProcess").getId();
+
+    // when
+    ProcessInstance calledProcessInstance = runtimeService.createProcessInstanceQuery()
+        .superProcessInstanceId(callingProcessInstanceId)
+        .singleResult();
+
+    // then
+    assertNotNull(calledProcessInstance);
+
+    // when
+    String calledProcessInstanceId = calledProcessInstance.getId();
+    taskService.complete(taskService.createTaskQuery().processInstanceId(calledProcessInstanceId).singleResult().getId());
+    taskService.complete(taskService.createTaskQuery().processInstanceId(calledProcessInstanceId).singleResult().getId());
+
+    // then
+    assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+  }
+
+  public void testMigrateProcessInstance() {
+    // given
+    String sourceDeploymentId = deployment(USER_TASK_PROCESS);
+    String targetDeploymentId = deployment(USER_TASK_PROCESS);
+    ProcessDefinition sourceDefinition = repositoryService.createProcessDefinitionQuery().deploymentId(sourceDeploymentId).singleResult();
+    ProcessDefinition targetDefinition = repositoryService.createProcessDefinitionQuery().deploymentId(targetDeploymentId).singleResult();
+
+    String processInstanceId = runtimeService.startProcessInstanceById(sourceDefinition.getId()).getId();
+    runtimeService.setVariable(processInstanceId, "var", "value");
+
+    MigrationPlan migrationPlan = runtimeService.createMigrationPlan(sourceDefinition.getId(), targetDefinition.getId())
+        .mapEqualActivities()
+        .build();
+
+    // when
+    runtimeService.newMigration(migrationPlan).processInstanceIds(Arrays.asList(processInstanceId)).execute();
+
+    // then
+    assertEquals(targetDefinition.getId(), runtimeService.createProcessInstanceQuery()
+        .processInstanceId(processInstanceId).singleResult().getProcessDefinitionId());
+    assertEquals(targetDefinition.getId(), taskService.createTaskQuery()
+        .processInstanceId(processInstanceId).singleResult().getProcessDefinitionId());
+    assertEquals("value", runtimeService.getVariable(processInstanceId, "var"));
+  }
+
+  public void testUpdateVariables() {
+    // given
+    deployment(USER_TASK_PROCESS);
+    String processInstanceId = runtimeService.startProcessInstanceByKey("process").getId();
+    String taskId = taskService.createTaskQuery().processInstanceId(processInstanceId).singleResult().getId();
+
+    ArrayList<String> serializableValue = new ArrayList<String>();
+    serializableValue.add("value");
+    byte[] bytes = "bytes".getBytes();
+
+    // when the types and values of the variables are changed
+    runtimeService.setVariable(processInstanceId, "var", "text");
+    assertEquals("text", runtimeService.getVariable(processInstanceId, "var"));
+
+    runtimeService.setVariable(processInstanceId, "var", 42L);
+    assertEquals(42L, runtimeService.getVariable(processInstanceId, "var"));
+
+    runtimeService.setVariable(processInstanceId, "var", 43L);
+    assertEquals(43L, runtimeService.getVariable(processInstanceId, "var"));
+
+    runtimeService.setVariable(processInstanceId, "var", 4.2d);
+    assertEquals(4.2d, runtimeService.getVariable(processInstanceId, "var"));
+
+    runtimeService.setVariable(processInstanceId, "var", serializableValue);
+    assertEquals(serializableValue, runtimeService.getVariable(processInstanceId, "var"));
+
+    serializableValue.add("otherValue");
+    runtimeService.setVariable(processInstanceId, "var", serializableValue);
+    assertEquals(serializableValue, runtimeService.getVariable(processInstanceId, "var"));
+
+    runtimeService.setVariable(processInstanceId, "var", Variables.byteArrayValue(bytes));
+    assertTrue(Arrays.equals(bytes, (byte[]) runtimeService.getVariable(processInstanceId, "var")));
+
+    runtimeService.setVariable(processInstanceId, "var", null);
+    assertNull(runtimeService.getVariable(processInstanceId, "var"));
+
+    taskService.setVariableLocal(taskId, "localVar", "text");
+    taskService.setVariableLocal(taskId, "localVar", true);
+
+    // then
+    assertEquals(true, taskService.getVariableLocal(taskId, "localVar"));
+    assertEquals(2, runtimeService.createVariableInstanceQuery().count());
+
+    // when
+    runtimeService.removeVariable(processInstanceId, "var");
+    taskService.removeVariableLocal(taskId, "localVar");
+
+    // then
+    assertEquals(0, runtimeService.createVariableInstanceQuery().count());
+  }
+
+  public void testUpdateCaseInstance() {
+    // given
+    deployment("org/camunda/bpm/engine/test/api/cmmn/oneTaskCase.cmmn");
+
+    // when
+    CaseInstance caseInstance = caseService.createCaseInstanceByKey("oneTaskCase",
+        Variables.createVariables().putValue("var", "value"));
+    caseService.setVariable(caseInstance.getId(), "var", "otherValue");
+
+    // then
+    Task task = taskService.createTaskQuery().caseInstanceId(caseInstance.getId()).singleResult();
+    assertNotNull(task.getCaseExecutionId());
+    assertEquals("otherValue", caseService.getVariable(caseInstance.getId(), "var"));
+
+    // when
+    taskService.setVariable(task.getId(), "var", "taskValue");
+    taskService.complete(task.getId());
+
+    // then
+    assertEquals("taskValue", caseService.getVariable(caseInstance.getId(), "var"));
+    assertTrue(caseService.createCaseInstanceQuery().caseInstanceId(caseInstance.getId()).singleResult().isCompleted());
+
+    caseService.closeCaseInstance(caseInstance.getId());
+  }
+
+}
@@ -0,0 +1,249 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.db.entitymanager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManagerPool;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.CachedDbEntity;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCache;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCacheKeyMapping;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationManager;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DbEntityManagerPoolTest {
+
+  protected DbEntityManagerPool pool;
+
+  @Before
+  public void setUp() {
+    pool = new DbEntityManagerPool();
+  }
+
+  @Test
+  public void shouldReuseCachedEntitiesOfRecycledCache() {
+    // given
+    DbEntityCache cache = new DbEntityCache();
+    cache.putPersistent(createExecution("1"));
+    CachedDbEntity cachedEntity = cache.getCachedEntity(ExecutionEntity.class, "1");
+
+    // when
+    cache.recycle();
+
+    // then
+    assertTrue(cache.getCachedEntities().isEmpty());
+    assertNull(cache.get(ExecutionEntity.class, "1"));
+
+    ExecutionEntity otherExecution = createExecution("2");
+    cache.putTransient(otherExecution);
+    CachedDbEntity otherCachedEntity = cache.getCachedEntity(otherExecution);
+    assertSame(cachedEntity, otherCachedEntity);
+    assertSame(otherExecution, otherCachedEntity.getEntity());
+    assertFalse(otherCachedEntity.areFlushRelevantReferencesDetermined());
+  }
+
+  @Test
+  public void shouldFlushOnlyOperationsAddedAfterRecycling() {
+    // given
+    DbOperationManager operationManager = pool.obtainOperationManager();
+    DbEntityOperation insert = createOperation(operationManager, createExecution("1"), DbOperationType.INSERT);
+    insert.setFailed(true);
+    operationManager.addOperation(insert);
+    DbEntityOperation delete = createOperation(operationManager, createTask("2"), DbOperationType.DELETE);
+    operationManager.addOperation(delete);
+
+    // when
+    operationManager.recycle();
+
+    // then
+    assertTrue(operationManager.calculateFlush().isEmpty());
+
+    ExecutionEntity execution = createExecution("3");
+    DbEntityOperation update = createOperation(operationManager, execution, DbOperationType.UPDATE);
+    assertTrue(update == insert || update == delete);
+    assertFalse(update.isFailed());
+    operationManager.addOperation(update);
+
+    List<DbOperation> flush = operationManager.calculateFlush();
+    assertEquals(1, flush.size());
+    assertSame(execution, ((DbEntityOperation) flush.get(0)).getEntity());
+  }
+
+  @Test
+  public void shouldNotKeepOperationsOfUnpooledManager() {
+    // given
+    DbOperationManager operationManager = new DbOperationManager();
+    DbEntityOperation insert = createOperation(operationManager, createExecution("1"), DbOperationType.INSERT);
+    operationManager.addOperation(insert);
+
+    // when
+    operationManager.recycle();
+
+    // then
+    assertFalse(operationManager.isPooled());
+    DbEntityOperation update = createOperation(operationManager, createExecution("2"), DbOperationType.UPDATE);
+    assertNotSame(insert, update);
+  }
+
+  @Test
+  public void shouldReuseReleasedStructuresOnSameThread() {
+    // given
+    DbEntityCache cache = pool.obtainEntityCache(DbEntityCacheKeyMapping.emptyMapping());
+    DbOperationManager operationManager = pool.obtainOperationManager();
+    cache.putTransient(createExecution("1"));
+
+    // when
+    pool.releaseEntityCache(cache);
+    pool.releaseOperationManager(operationManager);
+
+    // then
+    DbEntityCache reusedCache = pool.obtainEntityCache(DbEntityCacheKeyMapping.emptyMapping());
+    assertSame(cache, reusedCache);
+    assertTrue(reusedCache.getCachedEntities().isEmpty());
+    assertSame(operationManager, pool.obtainOperationManager());
+  }
+
+  @Test
+  public void shouldNotShareStructuresBetweenThreads() throws Exception {
+    // given
+    DbEntityCache cache = pool.obtainEntityCache(DbEntityCacheKeyMapping.emptyMapping());
+    pool.releaseEntityCache(cache);
+
+    // when
+    final AtomicReference<DbEntityCache> otherCache = new AtomicReference<DbEntityCache>();
+    Thread thread = new Thread() {
+      public void run() {
+        otherCache.set(pool.obtainEntityCache(DbEntityCacheKeyMapping.emptyMapping()));
+      }
+    };
+    thread.start();
+    thread.join();
+
+    // then
+    assertNotSame(cache, otherCache.get());
+  }
+
+  @Test
+  public void shouldReleaseStructuresOnClose() {
+    // given
+    DbEntityManager entityManager = new DbEntityManager(new TestIdGenerator(), null, pool);
+    DbEntityCache cache = entityManager.getDbEntityCache();
+    DbOperationManager operationManager = entityManager.getDbOperationManager();
+    entityManager.insert(createExecution("1"));
+
+    // when
+    entityManager.close();
+
+    // then
+    DbEntityManager otherEntityManager = new DbEntityManager(new TestIdGenerator(), null, pool);
+    assertSame(cache, otherEntityManager.getDbEntityCache());
+    assertSame(operationManager, otherEntityManager.getDbOperationManager());
+    assertTrue(otherEntityManager.getDbEntityCache().getCachedEntities().isEmpty());
+  }
+
+  @Test
+  public void shouldNotReuseStructuresAfterPoolIsClosed() {
+    // given
+    DbEntityCache cache = pool.obtainEntityCache(DbEntityCacheKeyMapping.emptyMapping());
+    DbOperationManager operationManager = pool.obtainOperationManager();
+    pool.releaseEntityCache(cache);
+    pool.releaseOperationManager(operationManager);
+
+    // when
+    pool.close();
+
+    // then
+    DbEntityCache otherCache = pool.obtainEntityCache(DbEntityCacheKeyMapping.emptyMapping());
+    DbOperationManager otherOperationManager = pool.obtainOperationManager();
+    assertNotSame(cache, otherCache);
+    assertNotSame(operationManager, otherOperationManager);
+
+    pool.releaseEntityCache(otherCache);
+    pool.releaseOperationManager(otherOperationManager);
+    assertNotSame(otherCache, pool.obtainEntityCache(DbEntityCacheKeyMapping.emptyMapping()));
+    assertNotSame(otherOperationManager, pool.obtainOperationManager());
+  }
+
+  @Test
+  public void shouldDiscardStructuresOfOtherThreadsOnClose() throws Exception {
+    // given
+    final CountDownLatch released = new CountDownLatch(1);
+    final CountDownLatch closed = new CountDownLatch(1);
+    final AtomicReference<DbEntityCache> releasedCache = new AtomicReference<DbEntityCache>();
+    final AtomicReference<DbEntityCache> obtainedCache = new AtomicReference<DbEntityCache>();
+    Thread thread = new Thread() {
+      public void run() {
+        DbEntityCache cache = pool.obtainEntityCache(DbEntityCacheKeyMapping.emptyMapping());
+        pool.releaseEntityCache(cache);
+        releasedCache.set(cache);
+        released.countDown();
+        try {
+          closed.await();
+        }
+        catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        obtainedCache.set(pool.obtainEntityCache(DbEntityCacheKeyMapping.emptyMapping()));
+      }
+    };
+    thread.start();
+    released.await();
+
+    // when
+    pool.close();
+    closed.countDown();
+    thread.join();
+
+    // then
+    assertNotNull(obtainedCache.get());
+    assertNotSame(releasedCache.get(), obtainedCache.get());
+  }
+
+  protected DbEntityOperation createOperation(DbOperationManager operationManager, DbEntity entity, DbOperationType type) {
+    DbEntityOperation operation = operationManager.createEntityOperation();
+    operation.setEntity(entity);
+    operation.setOperationType(type);
+    return operation;
+  }
+
+  protected ExecutionEntity createExecution(String id) {
+    ExecutionEntity execution = new ExecutionEntity();
+    execution.setId(id);
+    return execution;
+  }
+
+  protected TaskEntity createTask(String id) {
+    TaskEntity task = new TaskEntity();
+    task.setId(id);
+    return task;
+  }
+
+}
@@ -0,0 +1,199 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.db.entitymanager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.camunda.bpm.engine.impl.test.ResourceProcessEngineTestCase;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+
+/**
+ * Executes commands with a process engine which recycles the entity caches and operation
+ * managers of closed command contexts.
+ */
+public class DbEntityManagerPoolingTest extends ResourceProcessEngineTestCase {
+
+  protected static final BpmnModelInstance USER_TASK_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .userTask("task")
+      .endEvent()
+      .done();
+
+  protected static final BpmnModelInstance ASYNC_TASKS_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .serviceTask("task1")
+        .camundaExpression("${execution.setVariable('task1', true)}")
+        .camundaAsyncBefore()
+      .serviceTask("task2")
+        .camundaExpression("${execution.setVariable('task2', true)}")
+        .camundaAsyncBefore()
+      .userTask("task3")
+      .endEvent()
+      .done();
+
+  public DbEntityManagerPoolingTest() {
+    super("org/camunda/bpm/engine/test/standalone/db/entitymanager/entitymanager.pooling.cfg.xml");
+  }
+
+  public void testPoolingEnabled() {
+    assertTrue(processEngineConfiguration.isDbEntityManagerPoolingEnabled());
+  }
+
+  public void testExecuteProcessesWithVariables() {
+    // given
+    deployment(USER_TASK_PROCESS);
+
+    for (int i = 0; i < 3; i++) {
+      // when
+      ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process",
+          Variables.createVariables().putValue("var", i));
+      Task task = taskService.createTaskQuery().processInstanceId(processInstance.getId()).singleResult();
+      taskService.setVariableLocal(task.getId(), "localVar", "value" + i);
+      runtimeService.setVariable(processInstance.getId(), "var", i + 1);
+
+      // then
+      assertEquals(i + 1, runtimeService.getVariable(processInstance.getId(), "var"));
+      assertEquals("value" + i, taskService.getVariableLocal(task.getId(), "localVar"));
+
+      taskService.complete(task.getId());
+      assertEquals(0, runtimeService.createProcessInstanceQuery().processInstanceId(processInstance.getId()).count());
+    }
+  }
+
+  public void testKeepEntityCacheUntilPostCommitListeners() {
+    // given
+    deployment(USER_TASK_PROCESS);
+    runtimeService.startProcessInstanceByKey("process");
+    final String taskId = taskService.createTaskQuery().singleResult().getId();
+
+    // when
+    final AtomicReference<TaskEntity> loadedTask = new AtomicReference<TaskEntity>();
+    final AtomicReference<TaskEntity> cachedTaskAfterCommit = new AtomicReference<TaskEntity>();
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        TaskEntity task = commandContext.getTaskManager().findTaskById(taskId);
+        task.setName("new name");
+        loadedTask.set(task);
+
+        commandContext.getTransactionContext().addTransactionListener(TransactionState.COMMITTED, new TransactionListener() {
+          public void execute(CommandContext commandContext) {
+            cachedTaskAfterCommit.set(commandContext.getDbEntityManager().getCachedEntity(TaskEntity.class, taskId));
+          }
+        });
+        return null;
+      }
+    });
+
+    // then
+    assertSame(loadedTask.get(), cachedTaskAfterCommit.get());
+    assertEquals("new name", taskService.createTaskQuery().taskId(taskId).singleResult().getName());
+
+    // and the next command does not see the cached task
+    TaskEntity cachedTask = processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<TaskEntity>() {
+      public TaskEntity execute(CommandContext commandContext) {
+        return commandContext.getDbEntityManager().getCachedEntity(TaskEntity.class, taskId);
+      }
+    });
+    assertNull(cachedTask);
+  }
+
+  public void testNestedCommandContext() {
+    // given
+    deployment(USER_TASK_PROCESS);
+    final String processInstanceId1 = runtimeService.startProcessInstanceByKey("process").getId();
+    final String processInstanceId2 = runtimeService.startProcessInstanceByKey("process").getId();
+    final String taskId1 = taskService.createTaskQuery().processInstanceId(processInstanceId1).singleResult().getId();
+    final String taskId2 = taskService.createTaskQuery().processInstanceId(processInstanceId2).singleResult().getId();
+
+    // when
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        TaskEntity task1 = commandContext.getTaskManager().findTaskById(taskId1);
+
+        processEngineConfiguration.getCommandExecutorTxRequiresNew().execute(new Command<Void>() {
+          public Void execute(CommandContext nestedCommandContext) {
+            assertNull(nestedCommandContext.getDbEntityManager().getCachedEntity(TaskEntity.class, taskId1));
+            nestedCommandContext.getTaskManager().findTaskById(taskId2).setName("nested");
+            return null;
+          }
+        });
+
+        // then the entity cache of the outer command context is not affected by the nested one
+        assertSame(task1, commandContext.getDbEntityManager().getCachedEntity(TaskEntity.class, taskId1));
+        assertNull(commandContext.getDbEntityManager().getCachedEntity(TaskEntity.class, taskId2));
+        task1.setName("outer");
+        return null;
+      }
+    });
+
+    // and the changes of both command contexts are flushed
+    assertEquals("outer", taskService.createTaskQuery().taskId(taskId1).singleResult().getName());
+    assertEquals("nested", taskService.createTaskQuery().taskId(taskId2).singleResult().getName());
+  }
+
+  public void testExecuteJobs() {
+    // given
+    deployment(ASYNC_TASKS_PROCESS);
+    for (int i = 0; i < 5; i++) {
+      runtimeService.startProcessInstanceByKey("process");
+    }
+
+    // when
+    waitForJobExecutorToProcessAllJobs(10000);
+
+    // then
+    assertJobsExecuted(5);
+  }
+
+  public void testExecuteJobsWithEntityCacheReuse() {
+    // given
+    processEngineConfiguration.setDbEntityCacheReuseEnabled(true);
+    deployment(ASYNC_TASKS_PROCESS);
+    for (int i = 0; i < 5; i++) {
+      runtimeService.startProcessInstanceByKey("process");
+    }
+
+    try {
+      // when
+      waitForJobExecutorToProcessAllJobs(10000);
+    }
+    finally {
+      processEngineConfiguration.setDbEntityCacheReuseEnabled(false);
+    }
+
+    // then
+    assertJobsExecuted(5);
+  }
+
+  protected void assertJobsExecuted(int processInstances) {
+    assertEquals(0, managementService.createJobQuery().count());
+
+    List<Task> tasks = taskService.createTaskQuery().taskDefinitionKey("task3").list();
+    assertEquals(processInstances, tasks.size());
+    for (Task task : tasks) {
+      assertEquals(true, runtimeService.getVariable(task.getProcessInstanceId(), "task1"));
+      assertEquals(true, runtimeService.getVariable(task.getProcessInstanceId(), "task2"));
+    }
+  }
+
+}
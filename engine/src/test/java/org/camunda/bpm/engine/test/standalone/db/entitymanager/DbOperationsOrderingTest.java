@@ -21,6 +21,7 @@ import org.camunda.bpm.engine.impl.cfg.IdGenerator;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.PersistenceSession;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
 import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
@@ -245,6 +246,40 @@ public class DbOperationsOrderingTest {
     assertHappensAfter(execution2, execution1, insertOperations);
   }
 
+  @Test
+  public void testBulkOperationsPreserveOrder() {
+    // given
+    entityManager.delete(ExecutionEntity.class, "deleteExecutionsByParentId", null);
+    entityManager.updatePreserveOrder(ExecutionEntity.class, "updateParentReferences", null);
+    entityManager.deletePreserveOrder(ExecutionEntity.class, "deleteChildExecutions", null);
+    entityManager.deletePreserveOrder(ExecutionEntity.class, "deleteAllExecutions", null);
+
+    // when
+    List<DbOperation> flush = entityManager.getDbOperationManager().calculateFlush();
+
+    // then the sorted bulk operations come first, the others in the order they were scheduled
+    assertEquals(4, flush.size());
+    assertEquals("deleteExecutionsByParentId", ((DbBulkOperation) flush.get(0)).getStatement());
+    assertEquals("updateParentReferences", ((DbBulkOperation) flush.get(1)).getStatement());
+    assertEquals("deleteChildExecutions", ((DbBulkOperation) flush.get(2)).getStatement());
+    assertEquals("deleteAllExecutions", ((DbBulkOperation) flush.get(3)).getStatement());
+  }
+
+  @Test
+  public void testBulkOperationsPreserveOrderAfterRecycle() {
+    // given
+    entityManager.deletePreserveOrder(ExecutionEntity.class, "deleteChildExecutions", null);
+    entityManager.getDbOperationManager().recycle();
+
+    // when
+    entityManager.deletePreserveOrder(ExecutionEntity.class, "deleteAllExecutions", null);
+    List<DbOperation> flush = entityManager.getDbOperationManager().calculateFlush();
+
+    // then
+    assertEquals(1, flush.size());
+    assertEquals("deleteAllExecutions", ((DbBulkOperation) flush.get(0)).getStatement());
+  }
+
   public static class ExposingDbEntityManager extends DbEntityManager {
 
     public ExposingDbEntityManager(IdGenerator idGenerator, PersistenceSession persistenceSession) {
@@ -0,0 +1,104 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.camunda.bpm.engine.test.standalone.deploy;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.test.ResourceProcessEngineTestCase;
+import org.camunda.bpm.engine.repository.DeploymentBuilder;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+
+public class ParallelDeploymentParsingTest extends ResourceProcessEngineTestCase {
+
+  protected static final int NUMBER_OF_RESOURCES = 20;
+
+  public ParallelDeploymentParsingTest() {
+    super("org/camunda/bpm/engine/test/standalone/deploy/parallel.parsing.camunda.cfg.xml");
+  }
+
+  public void testDeployMultipleResources() {
+    DeploymentBuilder deploymentBuilder = repositoryService.createDeployment();
+    for (int i = 0; i < NUMBER_OF_RESOURCES; i++) {
+      deploymentBuilder.addModelInstance("process" + i + ".bpmn", createProcess("process" + i));
+    }
+    deploymentId = deploymentBuilder.deploy().getId();
+
+    List<ProcessDefinition> processDefinitions = repositoryService.createProcessDefinitionQuery()
+      .deploymentId(deploymentId)
+      .list();
+    assertEquals(NUMBER_OF_RESOURCES, processDefinitions.size());
+
+    for (int i = 0; i < NUMBER_OF_RESOURCES; i++) {
+      ProcessDefinition processDefinition = repositoryService.createProcessDefinitionQuery()
+        .processDefinitionKey("process" + i)
+        .singleResult();
+      assertEquals("process" + i + ".bpmn", processDefinition.getResourceName());
+    }
+
+    // the job declarations of all resources were collected
+    assertEquals(NUMBER_OF_RESOURCES, managementService.createJobDefinitionQuery().count());
+    assertEquals(NUMBER_OF_RESOURCES, managementService.createJobQuery().timers().count());
+
+    // the parsed definitions can be executed
+    runtimeService.startProcessInstanceByKey("process" + (NUMBER_OF_RESOURCES - 1));
+    assertEquals(1, taskService.createTaskQuery().count());
+  }
+
+  public void testDeployCaseAndDecisionResources() {
+    // the resources are transformed without a command context
+    deploymentId = repositoryService.createDeployment()
+      .addClasspathResource("org/camunda/bpm/engine/test/api/cmmn/oneTaskCase.cmmn")
+      .addClasspathResource("org/camunda/bpm/engine/test/api/cmmn/oneTaskCase2.cmmn")
+      .addClasspathResource("org/camunda/bpm/engine/test/repository/one.dmn")
+      .addClasspathResource("org/camunda/bpm/engine/test/repository/two.dmn")
+      .addClasspathResource("org/camunda/bpm/engine/test/repository/drg.dmn")
+      .deploy()
+      .getId();
+
+    assertEquals(2, repositoryService.createCaseDefinitionQuery().deploymentId(deploymentId).count());
+    assertEquals(1, repositoryService.createDecisionRequirementsDefinitionQuery().deploymentId(deploymentId).count());
+    assertTrue(repositoryService.createDecisionDefinitionQuery().deploymentId(deploymentId).count() > 2);
+  }
+
+  public void testInvalidResourceFailsDeployment() {
+    DeploymentBuilder deploymentBuilder = repositoryService.createDeployment();
+    for (int i = 0; i < NUMBER_OF_RESOURCES; i++) {
+      deploymentBuilder.addModelInstance("process" + i + ".bpmn", createProcess("process" + i));
+    }
+    deploymentBuilder.addString("invalid.bpmn", "<definitions />");
+
+    try {
+      deploymentBuilder.deploy();
+      fail("exception expected");
+    } catch (ProcessEngineException e) {
+      // expected
+    }
+
+    assertEquals(0, repositoryService.createDeploymentQuery().count());
+    assertEquals(0, repositoryService.createProcessDefinitionQuery().count());
+  }
+
+  protected BpmnModelInstance createProcess(String key) {
+    return Bpmn.createExecutableProcess(key)
+      .startEvent()
+        .timerWithCycle("R/PT1H")
+      .userTask()
+      .endEvent()
+      .done();
+  }
+
+}
@@ -77,6 +77,12 @@ public class JcaInflowExecuteJobsRunnable extends ExecuteJobsRunnable {
     }
   }
 
+  @Override
+  protected boolean isExecuteJobsInOneTransactionSupported() {
+    // each job is delivered to the endpoint in its own container transaction
+    return false;
+  }
+
   protected void loadMethod() {
     try {
       method = JobExecutionHandler.class.getMethod("executeJob", new Class[] {String.class, CommandExecutor.class});
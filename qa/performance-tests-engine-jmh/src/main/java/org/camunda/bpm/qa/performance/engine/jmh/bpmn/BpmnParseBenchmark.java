@@ -0,0 +1,126 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh.bpmn;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.bpmn.deployer.BpmnDeployer;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParse;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParser;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.persistence.deploy.Deployer;
+import org.camunda.bpm.engine.impl.persistence.entity.DeploymentEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.camunda.bpm.model.bpmn.builder.AbstractFlowNodeBuilder;
+import org.camunda.bpm.qa.performance.engine.jmh.util.BenchmarkProcessEngines;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the transformation of a BPMN 2.0 XML into process definitions by the {@link BpmnParse}, as
+ * it is performed on deployment. The process consists of <code>size</code> segments of a user task,
+ * an asynchronous service task with an expression and an exclusive gateway with conditional sequence
+ * flows. The XML is validated against the BPMN schema, as it is by default. Nothing is written to the
+ * database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class BpmnParseBenchmark {
+
+  @Param({"10", "100"})
+  public int size;
+
+  protected ProcessEngine processEngine;
+  protected CommandExecutor commandExecutor;
+  protected BpmnParser bpmnParser;
+
+  protected byte[] bpmnXml;
+
+  @Setup
+  public void setUp() {
+    processEngine = BenchmarkProcessEngines.createProcessEngine("bpmn-parse-benchmark");
+
+    ProcessEngineConfigurationImpl configuration = (ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration();
+    commandExecutor = configuration.getCommandExecutorTxRequired();
+    for (Deployer deployer : configuration.getDeployers()) {
+      if (deployer instanceof BpmnDeployer) {
+        bpmnParser = ((BpmnDeployer) deployer).getBpmnParser();
+      }
+    }
+
+    bpmnXml = Bpmn.convertToString(createProcess(size)).getBytes();
+  }
+
+  @TearDown
+  public void tearDown() {
+    processEngine.close();
+  }
+
+  @Benchmark
+  public List<ProcessDefinitionEntity> parse() {
+    return commandExecutor.execute(new Command<List<ProcessDefinitionEntity>>() {
+      public List<ProcessDefinitionEntity> execute(CommandContext commandContext) {
+        BpmnParse bpmnParse = bpmnParser
+            .createParse()
+            .sourceInputStream(new ByteArrayInputStream(bpmnXml))
+            .deployment(new DeploymentEntity())
+            .name("benchmark.bpmn");
+
+        return bpmnParse.execute().getProcessDefinitions();
+      }
+    });
+  }
+
+  protected static BpmnModelInstance createProcess(int size) {
+    AbstractFlowNodeBuilder<?, ?> builder = Bpmn.createExecutableProcess("process").startEvent();
+    for (int i = 0; i < size; i++) {
+      builder = builder
+        .userTask("userTask" + i)
+          .camundaAssignee("${assignee}")
+        .serviceTask("serviceTask" + i)
+          .camundaAsyncBefore()
+          .camundaExpression("${counter.increment()}")
+        .exclusiveGateway("gateway" + i)
+          .condition("yes", "${counter.value > " + i + "}")
+          .manualTask("skip" + i)
+        .exclusiveGateway("join" + i)
+        .moveToNode("gateway" + i)
+          .condition("no", "${counter.value <= " + i + "}")
+          .connectTo("join" + i);
+    }
+    return builder.endEvent().done();
+  }
+
+}
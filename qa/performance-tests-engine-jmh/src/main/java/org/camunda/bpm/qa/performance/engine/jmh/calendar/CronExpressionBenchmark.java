@@ -0,0 +1,76 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh.calendar;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.calendar.CronExpression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the calculation of the next due date of a timer cycle by the {@link CronExpression}:
+ *
+ * <ul>
+ *   <li><code>getTimeAfter</code>: calculates the next due date of a parsed expression</li>
+ *   <li><code>parseAndGetTimeAfter</code>: parses the expression and calculates the next due date,
+ *   as it is done by the {@link org.camunda.bpm.engine.impl.calendar.CycleBusinessCalendar}</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class CronExpressionBenchmark {
+
+  @Param({
+    "0 0/5 * * * ?",
+    "0 15 10 ? * MON-FRI",
+    "0 0 12 L * ?",
+    "0 0 0 29 2 ? *"
+  })
+  public String cronExpression;
+
+  protected CronExpression expression;
+  protected Date startTime;
+
+  @Setup
+  public void setUp() throws ParseException {
+    expression = new CronExpression(cronExpression);
+    startTime = new Date();
+  }
+
+  @Benchmark
+  public Date getTimeAfter() {
+    return expression.getTimeAfter(startTime);
+  }
+
+  @Benchmark
+  public Date parseAndGetTimeAfter() throws ParseException {
+    return new CronExpression(cronExpression).getTimeAfter(startTime);
+  }
+
+}
@@ -0,0 +1,114 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCache;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link DbEntityCache} of a command. Every benchmark puts <code>entities</code>
+ * executions, tasks and variables into a new cache and reads each of them back:
+ *
+ * <ul>
+ *   <li><code>putTransientAndGet</code>: entities which are inserted by the command</li>
+ *   <li><code>putPersistentAndGet</code>: entities which are loaded from the database, for which
+ *   the cache keeps a copy of the persistent state to detect updates</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class DbEntityCacheBenchmark {
+
+  @Param({"10", "100", "1000"})
+  public int entities;
+
+  protected List<ExecutionEntity> executions;
+  protected List<TaskEntity> tasks;
+  protected List<VariableInstanceEntity> variables;
+
+  @Setup
+  public void setUp() {
+    executions = new ArrayList<ExecutionEntity>();
+    tasks = new ArrayList<TaskEntity>();
+    variables = new ArrayList<VariableInstanceEntity>();
+
+    for (int i = 0; i < entities; i++) {
+      ExecutionEntity execution = new ExecutionEntity();
+      execution.setId("execution-" + i);
+      executions.add(execution);
+
+      TaskEntity task = new TaskEntity();
+      task.setId("task-" + i);
+      task.setExecution(execution);
+      tasks.add(task);
+
+      VariableInstanceEntity variable = new VariableInstanceEntity();
+      variable.setId("variable-" + i);
+      variable.setExecutionId(execution.getId());
+      variables.add(variable);
+    }
+  }
+
+  @Benchmark
+  public void putTransientAndGet(Blackhole blackhole) {
+    DbEntityCache cache = new DbEntityCache();
+    for (int i = 0; i < entities; i++) {
+      cache.putTransient(executions.get(i));
+      cache.putTransient(tasks.get(i));
+      cache.putTransient(variables.get(i));
+    }
+    get(cache, blackhole);
+  }
+
+  @Benchmark
+  public void putPersistentAndGet(Blackhole blackhole) {
+    DbEntityCache cache = new DbEntityCache();
+    for (int i = 0; i < entities; i++) {
+      cache.putPersistent(executions.get(i));
+      cache.putPersistent(tasks.get(i));
+      cache.putPersistent(variables.get(i));
+    }
+    get(cache, blackhole);
+  }
+
+  protected void get(DbEntityCache cache, Blackhole blackhole) {
+    for (int i = 0; i < entities; i++) {
+      blackhole.consume(cache.get(ExecutionEntity.class, executions.get(i).getId()));
+      blackhole.consume(cache.get(TaskEntity.class, tasks.get(i).getId()));
+      blackhole.consume(cache.get(VariableInstanceEntity.class, variables.get(i).getId()));
+    }
+  }
+
+}
@@ -0,0 +1,119 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.db.HasDbChangeStamp;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.camunda.bpm.qa.performance.engine.jmh.db.DbEntityManagerAllocationBenchmark.FlushingDbEntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the dirty checking of a command which loads <code>entities</code> executions, tasks
+ * and variable instances each, changes every tenth of them and flushes the entity cache.
+ *
+ * <p>With <code>changeTracking</code>, the entities are checked by their {@link HasDbChangeStamp change stamp},
+ * as with <code>dbEntityChangeTrackingEnabled</code>. Otherwise, their persistent state is copied on load and
+ * compared on flush. Run the benchmark with the GC profiler to compare the allocations as well:</p>
+ *
+ * <pre>java -jar target/benchmarks.jar DbEntityDirtyCheckBenchmark -prof gc</pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class DbEntityDirtyCheckBenchmark {
+
+  @Param({"false", "true"})
+  public boolean changeTracking;
+
+  @Param({"100", "1000"})
+  public int entities;
+
+  protected List<ExecutionEntity> executions;
+  protected List<TaskEntity> tasks;
+  protected List<VariableInstanceEntity> variables;
+
+  protected long sequenceCounter;
+
+  @Setup
+  public void setUp() {
+    executions = new ArrayList<ExecutionEntity>();
+    tasks = new ArrayList<TaskEntity>();
+    variables = new ArrayList<VariableInstanceEntity>();
+
+    for (int i = 0; i < entities; i++) {
+      ExecutionEntity execution = new ExecutionEntity();
+      execution.setId("execution-" + i);
+      execution.setProcessDefinitionId("process:1:1");
+      execution.setActivityId("task");
+      execution.setActivityInstanceId("task:" + i);
+      executions.add(execution);
+
+      TaskEntity task = new TaskEntity();
+      task.setId("task-" + i);
+      task.setNameWithoutCascade("task");
+      task.setExecutionId(execution.getId());
+      tasks.add(task);
+
+      VariableInstanceEntity variable = new VariableInstanceEntity();
+      variable.setId("variable-" + i);
+      variable.setName("variable");
+      variable.setTextValue("value");
+      variable.setExecutionId(execution.getId());
+      variables.add(variable);
+    }
+  }
+
+  @Benchmark
+  public void command(Blackhole blackhole) {
+    FlushingDbEntityManager entityManager = new FlushingDbEntityManager(null);
+    entityManager.getDbEntityCache().setChangeTrackingEnabled(changeTracking);
+
+    for (int i = 0; i < entities; i++) {
+      entityManager.onEntityLoaded(executions.get(i));
+      entityManager.onEntityLoaded(tasks.get(i));
+      entityManager.onEntityLoaded(variables.get(i));
+    }
+
+    sequenceCounter++;
+    for (int i = 0; i < entities; i += 10) {
+      executions.get(i).setSequenceCounter(sequenceCounter);
+      variables.get(i).setSequenceCounter(sequenceCounter);
+    }
+
+    entityManager.flushEntityCache();
+    blackhole.consume(entityManager.getDbOperationManager().calculateFlush());
+
+    entityManager.close();
+  }
+
+}
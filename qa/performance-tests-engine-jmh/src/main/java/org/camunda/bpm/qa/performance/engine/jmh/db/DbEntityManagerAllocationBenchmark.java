@@ -0,0 +1,123 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManagerPool;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the bookkeeping of the {@link DbEntityManager} of a short command. Every invocation
+ * opens an entity manager, loads <code>entities</code> tasks, inserts as many executions and
+ * variables, flushes the entity cache, orders the operations and closes the entity manager.
+ *
+ * <p>With <code>pooled</code>, the entity cache and the operation manager are obtained from a
+ * {@link DbEntityManagerPool} and released to it on close, as with
+ * <code>dbEntityManagerPoolingEnabled</code>. Run the benchmark with the GC profiler to compare
+ * the bytes allocated per invocation (<code>gc.alloc.rate.norm</code>):</p>
+ *
+ * <pre>java -jar target/benchmarks.jar DbEntityManagerAllocationBenchmark -prof gc</pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class DbEntityManagerAllocationBenchmark {
+
+  @Param({"false", "true"})
+  public boolean pooled;
+
+  @Param({"5", "50"})
+  public int entities;
+
+  protected DbEntityManagerPool pool;
+
+  protected List<ExecutionEntity> executions;
+  protected List<TaskEntity> tasks;
+  protected List<VariableInstanceEntity> variables;
+
+  @Setup
+  public void setUp() {
+    pool = new DbEntityManagerPool();
+
+    executions = new ArrayList<ExecutionEntity>();
+    tasks = new ArrayList<TaskEntity>();
+    variables = new ArrayList<VariableInstanceEntity>();
+
+    for (int i = 0; i < entities; i++) {
+      ExecutionEntity execution = new ExecutionEntity();
+      execution.setId("execution-" + i);
+      executions.add(execution);
+
+      TaskEntity task = new TaskEntity();
+      task.setId("task-" + i);
+      tasks.add(task);
+
+      VariableInstanceEntity variable = new VariableInstanceEntity();
+      variable.setId("variable-" + i);
+      variable.setExecutionId(execution.getId());
+      variables.add(variable);
+    }
+  }
+
+  @Benchmark
+  public void command(Blackhole blackhole) {
+    FlushingDbEntityManager entityManager = new FlushingDbEntityManager(pooled ? pool : null);
+
+    for (int i = 0; i < entities; i++) {
+      entityManager.onEntityLoaded(tasks.get(i));
+      entityManager.insert(executions.get(i));
+      entityManager.insert(variables.get(i));
+    }
+
+    entityManager.flushEntityCache();
+    blackhole.consume(entityManager.getDbOperationManager().calculateFlush());
+
+    entityManager.close();
+  }
+
+  /**
+   * Flushes to the operation manager only; no statements are executed.
+   */
+  public static class FlushingDbEntityManager extends DbEntityManager {
+
+    public FlushingDbEntityManager(DbEntityManagerPool pool) {
+      super(null, null, pool);
+    }
+
+    public void flushEntityCache() {
+      super.flushEntityCache();
+    }
+  }
+
+}
@@ -0,0 +1,146 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.HasDbReferences;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationManager;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the ordering of the operations of a flush by the {@link DbOperationManager}. The flush
+ * consists of the inserts of an execution tree of <code>executions</code> executions, each with a
+ * task and a variable, as well as of updates and deletes of another execution tree of the same size.
+ * The executions are added in reverse order, so that the operations have to be reordered by their
+ * references to parent executions:
+ *
+ * <ul>
+ *   <li><code>calculateFlush</code>: orders the operations which have been added before</li>
+ *   <li><code>addOperationsAndCalculateFlush</code>: adds the operations to a new operation manager
+ *   and orders them, as it happens on every flush of the entity manager</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class DbOperationManagerBenchmark {
+
+  @Param({"10", "100", "1000"})
+  public int executions;
+
+  protected List<DbEntityOperation> operations;
+  protected DbOperationManager operationManager;
+
+  @Setup
+  public void setUp() {
+    operations = new ArrayList<DbEntityOperation>();
+
+    List<ExecutionEntity> insertedExecutions = createExecutionTree("inserted", executions);
+    for (int i = insertedExecutions.size() - 1; i >= 0; i--) {
+      ExecutionEntity execution = insertedExecutions.get(i);
+      operations.add(createOperation(DbOperationType.INSERT, execution));
+
+      TaskEntity task = new TaskEntity();
+      task.setId("task-" + execution.getId());
+      task.setExecution(execution);
+      operations.add(createOperation(DbOperationType.INSERT, task));
+
+      VariableInstanceEntity variable = new VariableInstanceEntity();
+      variable.setId("variable-" + execution.getId());
+      variable.setExecutionId(execution.getId());
+      operations.add(createOperation(DbOperationType.INSERT, variable));
+    }
+
+    List<ExecutionEntity> modifiedExecutions = createExecutionTree("modified", executions);
+    for (int i = modifiedExecutions.size() - 1; i >= 0; i--) {
+      ExecutionEntity execution = modifiedExecutions.get(i);
+      if (i % 2 == 0) {
+        operations.add(createOperation(DbOperationType.UPDATE, execution));
+      }
+      else {
+        operations.add(createOperation(DbOperationType.DELETE, execution));
+      }
+    }
+
+    operationManager = createOperationManager();
+  }
+
+  @Benchmark
+  public List<DbOperation> calculateFlush() {
+    return operationManager.calculateFlush();
+  }
+
+  @Benchmark
+  public List<DbOperation> addOperationsAndCalculateFlush() {
+    return createOperationManager().calculateFlush();
+  }
+
+  protected DbOperationManager createOperationManager() {
+    DbOperationManager operationManager = new DbOperationManager();
+    for (DbEntityOperation operation : operations) {
+      operationManager.addOperation(operation);
+    }
+    return operationManager;
+  }
+
+  /**
+   * @return an execution tree in which the execution with index <code>i</code> is the parent of the
+   * executions with indices <code>2i + 1</code> and <code>2i + 2</code>
+   */
+  protected static List<ExecutionEntity> createExecutionTree(String prefix, int size) {
+    List<ExecutionEntity> executions = new ArrayList<ExecutionEntity>();
+    for (int i = 0; i < size; i++) {
+      ExecutionEntity execution = new ExecutionEntity();
+      execution.setId(prefix + "-" + i);
+      if (i > 0) {
+        execution.setParentExecution(executions.get((i - 1) / 2));
+      }
+      executions.add(execution);
+    }
+    return executions;
+  }
+
+  protected static DbEntityOperation createOperation(DbOperationType operationType, DbEntity entity) {
+    DbEntityOperation operation = new DbEntityOperation();
+    operation.setOperationType(operationType);
+    operation.setEntity(entity);
+    if (entity instanceof HasDbReferences) {
+      operation.setFlushRelevantEntityReferences(((HasDbReferences) entity).getReferencedEntityIds());
+    }
+    return operation;
+  }
+
+}
@@ -0,0 +1,110 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh.dmn;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.dmn.engine.DmnDecision;
+import org.camunda.bpm.dmn.engine.DmnDecisionTableResult;
+import org.camunda.bpm.dmn.engine.DmnEngine;
+import org.camunda.bpm.dmn.engine.DmnEngineConfiguration;
+import org.camunda.bpm.engine.DecisionService;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.util.IoUtil;
+import org.camunda.bpm.qa.performance.engine.jmh.util.BenchmarkProcessEngines;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the evaluation of a decision table with two inputs, a collect hit policy and
+ * <code>decision</code> rules which all match:
+ *
+ * <ul>
+ *   <li><code>evaluateDecisionTable</code>: evaluates the parsed decision by a standalone DMN engine</li>
+ *   <li><code>evaluateDeployedDecisionTable</code>: evaluates the deployed decision by the
+ *   {@link DecisionService}, which includes the lookup of the decision definition</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class DecisionTableBenchmark {
+
+  protected static final String RESOURCE_PATH = "org/camunda/bpm/qa/performance/engine/jmh/dmn/";
+
+  @Param({"oneRuleTwoInputs", "tenRulesTwoInputs", "oneHundredRulesTwoInputs"})
+  public String decision;
+
+  protected ProcessEngine processEngine;
+  protected DecisionService decisionService;
+  protected DmnEngine dmnEngine;
+
+  protected DmnDecision dmnDecision;
+  protected Map<String, Object> variables;
+
+  @Setup
+  public void setUp() {
+    processEngine = BenchmarkProcessEngines.createProcessEngine("decision-table-benchmark");
+    decisionService = processEngine.getDecisionService();
+    dmnEngine = DmnEngineConfiguration.createDefaultDmnEngineConfiguration().buildEngine();
+
+    String resource = RESOURCE_PATH + decision + ".dmn";
+    processEngine.getRepositoryService()
+      .createDeployment()
+      .addClasspathResource(resource)
+      .deploy();
+
+    InputStream inputStream = getClass().getClassLoader().getResourceAsStream(resource);
+    try {
+      dmnDecision = dmnEngine.parseDecision(decision, inputStream);
+    }
+    finally {
+      IoUtil.closeSilently(inputStream);
+    }
+
+    variables = new HashMap<String, Object>();
+    variables.put("input", 1.0);
+  }
+
+  @TearDown
+  public void tearDown() {
+    processEngine.close();
+  }
+
+  @Benchmark
+  public DmnDecisionTableResult evaluateDecisionTable() {
+    return dmnEngine.evaluateDecisionTable(dmnDecision, variables);
+  }
+
+  @Benchmark
+  public DmnDecisionTableResult evaluateDeployedDecisionTable() {
+    return decisionService.evaluateDecisionTableByKey(decision, variables);
+  }
+
+}
@@ -0,0 +1,111 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh.el;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.delegate.Expression;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.el.ExpressionManager;
+import org.camunda.bpm.engine.impl.pvm.runtime.ExecutionImpl;
+import org.camunda.bpm.qa.performance.engine.jmh.util.BenchmarkProcessEngines;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the evaluation of JUEL expressions against a variable scope, as it happens for
+ * conditions, listeners and input/output mappings:
+ *
+ * <ul>
+ *   <li><code>evaluate</code>: evaluates an expression which has been created before</li>
+ *   <li><code>createAndEvaluate</code>: creates the expression from its text and evaluates it</li>
+ * </ul>
+ *
+ * The state is thread scoped since the evaluation requires the process engine configuration
+ * and a command context to be set on the {@link Context} of the benchmark thread. The expressions
+ * are evaluated within the same command context, without the overhead of executing a command.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class JuelExpressionBenchmark {
+
+  @Param({
+    "${amount}",
+    "${amount > 1000 && customer == 'camunda'}",
+    "${order.items * order.price >= amount}"
+  })
+  public String expressionText;
+
+  protected ProcessEngine processEngine;
+  protected ExpressionManager expressionManager;
+
+  protected ExecutionImpl variableScope;
+  protected Expression expression;
+
+  @Setup
+  public void setUp() {
+    processEngine = BenchmarkProcessEngines.createProcessEngine("juel-expression-benchmark");
+
+    ProcessEngineConfigurationImpl configuration = (ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration();
+    expressionManager = configuration.getExpressionManager();
+    Context.setProcessEngineConfiguration(configuration);
+    Context.setCommandContext(configuration.getCommandContextFactory().createCommandContext());
+
+    Map<String, Object> order = new HashMap<String, Object>();
+    order.put("items", 3);
+    order.put("price", 499.99);
+
+    variableScope = new ExecutionImpl();
+    variableScope.setVariable("amount", 1200);
+    variableScope.setVariable("customer", "camunda");
+    variableScope.setVariable("order", order);
+
+    expression = expressionManager.createExpression(expressionText);
+  }
+
+  @TearDown
+  public void tearDown() {
+    Context.removeCommandContext();
+    Context.removeProcessEngineConfiguration();
+    processEngine.close();
+  }
+
+  @Benchmark
+  public Object evaluate() {
+    return expression.getValue(variableScope);
+  }
+
+  @Benchmark
+  public Object createAndEvaluate() {
+    return expressionManager.createExpression(expressionText).getValue(variableScope);
+  }
+
+}
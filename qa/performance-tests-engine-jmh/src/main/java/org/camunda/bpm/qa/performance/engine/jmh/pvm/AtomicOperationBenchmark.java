@@ -0,0 +1,108 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh.pvm;
+
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.camunda.bpm.model.bpmn.builder.AbstractFlowNodeBuilder;
+import org.camunda.bpm.qa.performance.engine.jmh.util.BenchmarkProcessEngines;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the dispatching of atomic operations by starting process instances which run to
+ * completion in a single command. The processes consist of pass-through activities only, so that
+ * nearly all of the time is spent performing {@link org.camunda.bpm.engine.impl.pvm.runtime.operation.PvmAtomicOperation}s:
+ *
+ * <ul>
+ *   <li><code>sequence</code>: a sequence of <code>length</code> manual tasks</li>
+ *   <li><code>embeddedSubProcesses</code>: <code>length</code> nested embedded sub processes,
+ *   each of which creates and destroys a scope execution</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class AtomicOperationBenchmark {
+
+  @Param({"10", "100", "500"})
+  public int length;
+
+  protected ProcessEngine processEngine;
+  protected RuntimeService runtimeService;
+
+  @Setup
+  public void setUp() {
+    processEngine = BenchmarkProcessEngines.createProcessEngine("atomic-operation-benchmark");
+    runtimeService = processEngine.getRuntimeService();
+
+    processEngine.getRepositoryService()
+      .createDeployment()
+      .addModelInstance("sequence.bpmn", createSequenceProcess(length))
+      .addModelInstance("embeddedSubProcesses.bpmn", createEmbeddedSubProcessesProcess(length))
+      .deploy();
+  }
+
+  @TearDown
+  public void tearDown() {
+    processEngine.close();
+  }
+
+  @Benchmark
+  public ProcessInstance sequence() {
+    return runtimeService.startProcessInstanceByKey("sequence");
+  }
+
+  @Benchmark
+  public ProcessInstance embeddedSubProcesses() {
+    return runtimeService.startProcessInstanceByKey("embeddedSubProcesses");
+  }
+
+  protected static BpmnModelInstance createSequenceProcess(int length) {
+    AbstractFlowNodeBuilder<?, ?> builder = Bpmn.createExecutableProcess("sequence").startEvent();
+    for (int i = 0; i < length; i++) {
+      builder = builder.manualTask("task" + i);
+    }
+    return builder.endEvent().done();
+  }
+
+  protected static BpmnModelInstance createEmbeddedSubProcessesProcess(int depth) {
+    AbstractFlowNodeBuilder<?, ?> builder = Bpmn.createExecutableProcess("embeddedSubProcesses").startEvent();
+    for (int i = 0; i < depth; i++) {
+      builder = builder.subProcess("subProcess" + i).embeddedSubProcess().startEvent();
+    }
+    for (int i = 0; i < depth; i++) {
+      builder = builder.endEvent().subProcessDone();
+    }
+    return builder.endEvent().done();
+  }
+
+}
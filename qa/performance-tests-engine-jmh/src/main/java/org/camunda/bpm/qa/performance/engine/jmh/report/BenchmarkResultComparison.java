@@ -0,0 +1,191 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh.report;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.camunda.bpm.engine.impl.util.IoUtil;
+import org.camunda.bpm.engine.impl.util.json.JSONArray;
+import org.camunda.bpm.engine.impl.util.json.JSONObject;
+
+/**
+ * Compares two JMH result files in JSON format, e.g. the results of two commits, and
+ * prints the score of every benchmark and parameter combination together with the relative
+ * change of the score.
+ *
+ * <p>Usage: <code>BenchmarkResultComparison &lt;baseline.json&gt; &lt;current.json&gt;</code></p>
+ */
+public class BenchmarkResultComparison {
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.err.println("Usage: BenchmarkResultComparison <baseline.json> <current.json>");
+      System.exit(1);
+    }
+
+    Map<String, BenchmarkScore> baseline = readResults(new File(args[0]));
+    Map<String, BenchmarkScore> current = readResults(new File(args[1]));
+
+    System.out.println(compare(baseline, current));
+  }
+
+  public static Map<String, BenchmarkScore> readResults(File resultFile) throws IOException {
+    InputStream inputStream = new FileInputStream(resultFile);
+    try {
+      String json = new String(IoUtil.readInputStream(inputStream, resultFile.getName()), "UTF-8");
+      return parseResults(new JSONArray(json));
+    }
+    finally {
+      IoUtil.closeSilently(inputStream);
+    }
+  }
+
+  /**
+   * @return the scores of the results, sorted by the benchmark name and parameters
+   */
+  public static Map<String, BenchmarkScore> parseResults(JSONArray results) {
+    Map<String, BenchmarkScore> scores = new TreeMap<String, BenchmarkScore>();
+    for (int i = 0; i < results.length(); i++) {
+      JSONObject result = results.getJSONObject(i);
+      JSONObject primaryMetric = result.getJSONObject("primaryMetric");
+
+      BenchmarkScore score = new BenchmarkScore();
+      score.benchmark = result.getString("benchmark");
+      score.mode = result.getString("mode");
+      score.params = formatParams(result.optJSONObject("params"));
+      score.score = primaryMetric.getDouble("score");
+      score.scoreError = primaryMetric.optDouble("scoreError", 0);
+      score.unit = primaryMetric.getString("scoreUnit");
+
+      scores.put(score.getKey(), score);
+    }
+    return scores;
+  }
+
+  public static String compare(Map<String, BenchmarkScore> baseline, Map<String, BenchmarkScore> current) {
+    TreeSet<String> keys = new TreeSet<String>(baseline.keySet());
+    keys.addAll(current.keySet());
+
+    StringBuilder builder = new StringBuilder();
+    builder.append(String.format("%-70s %-12s %14s %14s %9s%n", "Benchmark", "Unit", "Baseline", "Current", "Change"));
+
+    for (String key : keys) {
+      BenchmarkScore baselineScore = baseline.get(key);
+      BenchmarkScore currentScore = current.get(key);
+      BenchmarkScore score = currentScore != null ? currentScore : baselineScore;
+
+      builder.append(String.format("%-70s %-12s %14s %14s %9s%n",
+          key,
+          score.unit,
+          formatScore(baselineScore),
+          formatScore(currentScore),
+          formatChange(baselineScore, currentScore)));
+    }
+
+    return builder.toString();
+  }
+
+  protected static String formatParams(JSONObject params) {
+    if (params == null) {
+      return "";
+    }
+
+    List<String> names = new ArrayList<String>();
+    Iterator<?> keys = params.keys();
+    while (keys.hasNext()) {
+      names.add((String) keys.next());
+    }
+    Collections.sort(names);
+
+    StringBuilder builder = new StringBuilder();
+    for (String name : names) {
+      if (builder.length() > 0) {
+        builder.append(", ");
+      }
+      builder.append(name).append("=").append(params.getString(name));
+    }
+    return builder.toString();
+  }
+
+  protected static String formatScore(BenchmarkScore score) {
+    if (score == null) {
+      return "-";
+    }
+    else {
+      return String.format("%.3f", score.score);
+    }
+  }
+
+  protected static String formatChange(BenchmarkScore baseline, BenchmarkScore current) {
+    if (baseline == null || current == null || baseline.score == 0) {
+      return "-";
+    }
+    else {
+      return String.format("%+.1f%%", (current.score - baseline.score) / baseline.score * 100);
+    }
+  }
+
+  public static class BenchmarkScore {
+
+    protected String benchmark;
+    protected String mode;
+    protected String params;
+    protected double score;
+    protected double scoreError;
+    protected String unit;
+
+    public String getKey() {
+      String key = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1) + " (" + mode + ")";
+      if (params.length() > 0) {
+        key += " [" + params + "]";
+      }
+      return key;
+    }
+
+    public String getBenchmark() {
+      return benchmark;
+    }
+
+    public String getMode() {
+      return mode;
+    }
+
+    public String getParams() {
+      return params;
+    }
+
+    public double getScore() {
+      return score;
+    }
+
+    public double getScoreError() {
+      return scoreError;
+    }
+
+    public String getUnit() {
+      return unit;
+    }
+
+  }
+
+}
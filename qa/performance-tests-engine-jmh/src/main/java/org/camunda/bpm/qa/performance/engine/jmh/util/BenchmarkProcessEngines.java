@@ -0,0 +1,42 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh.util;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+
+/**
+ * Builds the process engines the benchmarks run against. Every engine uses its own in-memory H2
+ * database, does not start the job executor and does not record history by default, so that the
+ * benchmarks measure the engine code rather than the database.
+ */
+public class BenchmarkProcessEngines {
+
+  public static ProcessEngineConfigurationImpl createConfiguration(String name) {
+    ProcessEngineConfigurationImpl configuration = new StandaloneInMemProcessEngineConfiguration();
+    configuration.setProcessEngineName(name);
+    configuration.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=1000;MVCC=true;LOCK_TIMEOUT=10000");
+    configuration.setDatabaseSchemaUpdate(ProcessEngineConfiguration.DB_SCHEMA_UPDATE_CREATE_DROP);
+    configuration.setHistory(ProcessEngineConfiguration.HISTORY_NONE);
+    configuration.setJobExecutorActivate(false);
+    configuration.setMetricsEnabled(false);
+    return configuration;
+  }
+
+  public static ProcessEngine createProcessEngine(String name) {
+    return createConfiguration(name).buildProcessEngine();
+  }
+
+}
@@ -0,0 +1,186 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh.variable;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.variable.serializer.TypedValueSerializer;
+import org.camunda.bpm.engine.impl.variable.serializer.ValueFields;
+import org.camunda.bpm.engine.impl.variable.serializer.VariableSerializerFactory;
+import org.camunda.bpm.engine.impl.variable.serializer.VariableSerializers;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.engine.variable.impl.value.UntypedValueImpl;
+import org.camunda.bpm.engine.variable.value.TypedValue;
+import org.camunda.bpm.qa.performance.engine.jmh.util.BenchmarkProcessEngines;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the serialization of untyped variable values by the
+ * {@link org.camunda.bpm.engine.impl.variable.serializer.DefaultVariableSerializers}
+ * of the process engine, in the same way as a variable instance is written:
+ *
+ * <ul>
+ *   <li><code>findSerializer</code>: detects the serializer of the value</li>
+ *   <li><code>serialize</code>: detects the serializer and writes the value into the value fields</li>
+ * </ul>
+ *
+ * The state is thread scoped since the serializers require the process engine configuration
+ * and a command context to be set on the {@link Context} of the benchmark thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class VariableSerializersBenchmark {
+
+  @Param({"string", "long", "date", "object"})
+  public String valueType;
+
+  protected ProcessEngine processEngine;
+  protected VariableSerializers serializers;
+  protected VariableSerializerFactory fallbackSerializerFactory;
+
+  protected TypedValue value;
+  protected BenchmarkValueFields valueFields;
+
+  @Setup
+  public void setUp() {
+    processEngine = BenchmarkProcessEngines.createProcessEngine("variable-serializers-benchmark");
+
+    ProcessEngineConfigurationImpl configuration = (ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration();
+    serializers = configuration.getVariableSerializers();
+    fallbackSerializerFactory = configuration.getFallbackSerializerFactory();
+    Context.setProcessEngineConfiguration(configuration);
+    Context.setCommandContext(configuration.getCommandContextFactory().createCommandContext());
+
+    value = Variables.untypedValue(createValue(valueType));
+    valueFields = new BenchmarkValueFields();
+  }
+
+  @TearDown
+  public void tearDown() {
+    Context.removeCommandContext();
+    Context.removeProcessEngineConfiguration();
+    processEngine.close();
+  }
+
+  @Benchmark
+  public TypedValueSerializer<?> findSerializer() {
+    return serializers.findSerializerForValue(value, fallbackSerializerFactory);
+  }
+
+  @Benchmark
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  public ValueFields serialize() {
+    TypedValueSerializer serializer = serializers.findSerializerForValue(value, fallbackSerializerFactory);
+    TypedValue typedValue = serializer.convertToTypedValue((UntypedValueImpl) value);
+    serializer.writeValue(typedValue, valueFields);
+    return valueFields;
+  }
+
+  protected static Object createValue(String valueType) {
+    if ("string".equals(valueType)) {
+      return "a string value";
+    }
+    else if ("long".equals(valueType)) {
+      return 42L;
+    }
+    else if ("date".equals(valueType)) {
+      return new Date();
+    }
+    else if ("object".equals(valueType)) {
+      List<String> list = new ArrayList<String>();
+      for (int i = 0; i < 10; i++) {
+        list.add("item" + i);
+      }
+      return list;
+    }
+    else {
+      throw new IllegalArgumentException("Unknown value type " + valueType);
+    }
+  }
+
+  public static class BenchmarkValueFields implements ValueFields {
+
+    protected String textValue;
+    protected String textValue2;
+    protected Long longValue;
+    protected Double doubleValue;
+    protected byte[] byteArrayValue;
+
+    public String getName() {
+      return "benchmark";
+    }
+
+    public String getTextValue() {
+      return textValue;
+    }
+
+    public void setTextValue(String textValue) {
+      this.textValue = textValue;
+    }
+
+    public String getTextValue2() {
+      return textValue2;
+    }
+
+    public void setTextValue2(String textValue2) {
+      this.textValue2 = textValue2;
+    }
+
+    public Long getLongValue() {
+      return longValue;
+    }
+
+    public void setLongValue(Long longValue) {
+      this.longValue = longValue;
+    }
+
+    public Double getDoubleValue() {
+      return doubleValue;
+    }
+
+    public void setDoubleValue(Double doubleValue) {
+      this.doubleValue = doubleValue;
+    }
+
+    public byte[] getByteArrayValue() {
+      return byteArrayValue;
+    }
+
+    public void setByteArrayValue(byte[] byteArrayValue) {
+      this.byteArrayValue = byteArrayValue;
+    }
+
+  }
+
+}
@@ -0,0 +1,57 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.loadgenerator.workload;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.task.Task;
+
+/**
+ * Queries the user task of a process instance of the {@link WorkloadProcess} and completes it,
+ * as a task list would do.
+ */
+public class CompleteUserTaskOperation implements WorkloadOperation {
+
+  public static final String NAME = "completeUserTask";
+
+  protected ProcessEngine processEngine;
+  protected WorkloadProcess process;
+
+  public CompleteUserTaskOperation(ProcessEngine processEngine, WorkloadProcess process) {
+    this.processEngine = processEngine;
+    this.process = process;
+  }
+
+  public String getName() {
+    return NAME;
+  }
+
+  public boolean execute() {
+    String businessKey = process.getAwaitingUserTask().poll();
+    if (businessKey == null) {
+      return false;
+    }
+
+    TaskService taskService = processEngine.getTaskService();
+    Task task = taskService.createTaskQuery()
+      .processInstanceBusinessKey(businessKey)
+      .taskDefinitionKey(WorkloadProcess.USER_TASK_ID)
+      .singleResult();
+
+    taskService.complete(task.getId());
+
+    process.getAwaitingMessage().offer(businessKey);
+    return true;
+  }
+
+}
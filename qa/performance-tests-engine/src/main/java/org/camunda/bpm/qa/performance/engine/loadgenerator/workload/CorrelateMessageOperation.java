@@ -0,0 +1,50 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.loadgenerator.workload;
+
+import org.camunda.bpm.engine.ProcessEngine;
+
+/**
+ * Correlates the message a process instance of the {@link WorkloadProcess} waits for by its business key.
+ */
+public class CorrelateMessageOperation implements WorkloadOperation {
+
+  public static final String NAME = "correlateMessage";
+
+  protected ProcessEngine processEngine;
+  protected WorkloadProcess process;
+
+  public CorrelateMessageOperation(ProcessEngine processEngine, WorkloadProcess process) {
+    this.processEngine = processEngine;
+    this.process = process;
+  }
+
+  public String getName() {
+    return NAME;
+  }
+
+  public boolean execute() {
+    String businessKey = process.getAwaitingMessage().poll();
+    if (businessKey == null) {
+      return false;
+    }
+
+    processEngine.getRuntimeService()
+      .createMessageCorrelation(WorkloadProcess.MESSAGE_NAME)
+      .processInstanceBusinessKey(businessKey)
+      .correlate();
+
+    return true;
+  }
+
+}
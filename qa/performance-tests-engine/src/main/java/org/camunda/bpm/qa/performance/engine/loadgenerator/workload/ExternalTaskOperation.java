@@ -0,0 +1,57 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.loadgenerator.workload;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.ExternalTaskService;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.externaltask.LockedExternalTask;
+
+/**
+ * Fetches and locks an external task of the {@link WorkloadProcess} and completes it, as an
+ * external task worker would do.
+ */
+public class ExternalTaskOperation implements WorkloadOperation {
+
+  public static final String NAME = "externalTask";
+
+  public static final String WORKER_ID = "workloadWorker";
+  public static final long LOCK_DURATION = 60000;
+
+  protected ProcessEngine processEngine;
+
+  public ExternalTaskOperation(ProcessEngine processEngine) {
+    this.processEngine = processEngine;
+  }
+
+  public String getName() {
+    return NAME;
+  }
+
+  public boolean execute() {
+    ExternalTaskService externalTaskService = processEngine.getExternalTaskService();
+
+    List<LockedExternalTask> tasks = externalTaskService.fetchAndLock(1, WORKER_ID)
+      .topic(WorkloadProcess.EXTERNAL_TASK_TOPIC, LOCK_DURATION)
+      .execute();
+
+    if (tasks.isEmpty()) {
+      return false;
+    }
+
+    externalTaskService.complete(tasks.get(0).getId(), WORKER_ID);
+    return true;
+  }
+
+}
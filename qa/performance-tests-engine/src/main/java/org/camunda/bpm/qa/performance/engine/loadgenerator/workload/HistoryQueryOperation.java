@@ -0,0 +1,61 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.loadgenerator.workload;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.history.HistoricProcessInstance;
+
+/**
+ * Queries the most recently started process instances of the {@link WorkloadProcess} and the
+ * activity instances of the first of them, as a monitoring application would do.
+ */
+public class HistoryQueryOperation implements WorkloadOperation {
+
+  public static final String NAME = "historyQuery";
+
+  public static final int PAGE_SIZE = 20;
+
+  protected ProcessEngine processEngine;
+
+  public HistoryQueryOperation(ProcessEngine processEngine) {
+    this.processEngine = processEngine;
+  }
+
+  public String getName() {
+    return NAME;
+  }
+
+  public boolean execute() {
+    HistoryService historyService = processEngine.getHistoryService();
+
+    List<HistoricProcessInstance> processInstances = historyService.createHistoricProcessInstanceQuery()
+      .processDefinitionKey(WorkloadProcess.PROCESS_DEFINITION_KEY)
+      .orderByProcessInstanceStartTime()
+      .desc()
+      .listPage(0, PAGE_SIZE);
+
+    if (processInstances.isEmpty()) {
+      return false;
+    }
+
+    historyService.createHistoricActivityInstanceQuery()
+      .processInstanceId(processInstances.get(0).getId())
+      .list();
+
+    return true;
+  }
+
+}
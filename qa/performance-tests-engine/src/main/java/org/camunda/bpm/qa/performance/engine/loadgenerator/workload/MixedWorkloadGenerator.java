@@ -0,0 +1,112 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.loadgenerator.workload;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.util.IoUtil;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestException;
+import org.camunda.bpm.qa.performance.engine.junit.PerfTestProcessEngine;
+import org.camunda.bpm.qa.performance.engine.sqlstatementlog.StatementLogSqlSessionFactory;
+
+/**
+ * Generates a mixed workload of process instance starts, user task completions, message correlations,
+ * external tasks and history queries against the process engine configured in
+ * <code>perf-test-config.properties</code> and reports the latency percentiles per operation.
+ *
+ * <p>Arguments:</p>
+ * <ol>
+ *   <li>the path of the workload definition (optional), defaults to the
+ *   classpath resource <code>mixed-workload.properties</code></li>
+ * </ol>
+ */
+public class MixedWorkloadGenerator {
+
+  public static final String WORKLOAD_DEFINITION_RESOURCE = "mixed-workload.properties";
+
+  public static void main(String[] args) throws InterruptedException {
+
+    final String reportsFolder = "target"+File.separatorChar+"reports";
+
+    final Properties workloadProperties = loadWorkloadDefinition(args.length > 0 ? args[0] : null);
+    final ProcessEngine processEngine = PerfTestProcessEngine.getInstance();
+
+    final WorkloadProcess process = new WorkloadProcess();
+    final List<WorkloadOperation> operations = new ArrayList<WorkloadOperation>();
+    operations.add(new StartProcessInstanceOperation(processEngine, process));
+    operations.add(new CompleteUserTaskOperation(processEngine, process));
+    operations.add(new CorrelateMessageOperation(processEngine, process));
+    operations.add(new ExternalTaskOperation(processEngine));
+    operations.add(new HistoryQueryOperation(processEngine));
+
+    List<String> operationNames = new ArrayList<String>();
+    for (WorkloadOperation operation : operations) {
+      operationNames.add(operation.getName());
+    }
+
+    final WorkloadConfiguration configuration = WorkloadConfiguration.fromProperties(workloadProperties, operationNames);
+
+    // statements can only be counted if the statement log plugin is registered
+    ProcessEngineConfigurationImpl processEngineConfiguration = (ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration();
+    final boolean countStatements = processEngineConfiguration.getSqlSessionFactory() instanceof StatementLogSqlSessionFactory;
+
+    processEngine.getRepositoryService()
+      .createDeployment()
+      .addModelInstance(WorkloadProcess.PROCESS_DEFINITION_KEY + ".bpmn", WorkloadProcess.createProcess())
+      .deploy();
+
+    WorkloadGenerator generator = new WorkloadGenerator(configuration, operations);
+    generator.setCountStatements(countStatements);
+    List<OperationStatistics> statistics = generator.execute();
+
+    new WorkloadReport(configuration, statistics, countStatements).write(reportsFolder);
+
+    processEngine.close();
+  }
+
+  protected static Properties loadWorkloadDefinition(String path) {
+    InputStream inputStream = null;
+    try {
+      if (path != null && path.length() > 0) {
+        inputStream = new FileInputStream(path);
+      }
+      else {
+        inputStream = MixedWorkloadGenerator.class.getClassLoader().getResourceAsStream(WORKLOAD_DEFINITION_RESOURCE);
+        if (inputStream == null) {
+          throw new PerfTestException("Cannot find workload definition " + WORKLOAD_DEFINITION_RESOURCE + " on the classpath");
+        }
+      }
+
+      Properties properties = new Properties();
+      properties.load(inputStream);
+      return properties;
+
+    } catch(PerfTestException e) {
+      throw e;
+
+    } catch(Exception e) {
+      throw new PerfTestException("Cannot load workload definition "+(path != null ? path : WORKLOAD_DEFINITION_RESOURCE)+": "+e);
+
+    } finally {
+      IoUtil.closeSilently(inputStream);
+    }
+  }
+
+}
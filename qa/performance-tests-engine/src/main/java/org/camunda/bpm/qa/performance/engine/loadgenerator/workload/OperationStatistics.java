@@ -0,0 +1,118 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.loadgenerator.workload;
+
+import java.util.Arrays;
+
+import org.camunda.bpm.qa.performance.engine.sqlstatementlog.SqlStatementCounts;
+
+/**
+ * The measurements of an operation of a mixed workload: the latencies of the executions, the
+ * number of executions which failed or had nothing to do and the SQL statements executed.
+ */
+public class OperationStatistics {
+
+  protected String operationName;
+  protected double targetRate;
+
+  /** the latencies of the executions in nanoseconds */
+  protected long[] latencies = new long[1024];
+  protected int executions;
+
+  protected int idleExecutions;
+  protected int failedExecutions;
+  protected Exception firstFailure;
+
+  protected SqlStatementCounts statementCounts = new SqlStatementCounts();
+
+  public OperationStatistics(String operationName, double targetRate) {
+    this.operationName = operationName;
+    this.targetRate = targetRate;
+  }
+
+  /**
+   * Records a successful execution.
+   *
+   * @param latency the time from the intended start to the completion of the execution in nanoseconds
+   * @param statementCounts the statements executed, may be <code>null</code> if statements are not counted
+   */
+  public synchronized void recordExecution(long latency, SqlStatementCounts statementCounts) {
+    if (executions == latencies.length) {
+      latencies = Arrays.copyOf(latencies, latencies.length * 2);
+    }
+    latencies[executions++] = latency;
+
+    if (statementCounts != null) {
+      this.statementCounts.add(statementCounts);
+    }
+  }
+
+  /**
+   * Records an execution which had nothing to do.
+   */
+  public synchronized void recordIdleExecution() {
+    idleExecutions++;
+  }
+
+  public synchronized void recordFailedExecution(Exception exception) {
+    if (firstFailure == null) {
+      firstFailure = exception;
+    }
+    failedExecutions++;
+  }
+
+  /**
+   * @param percentile the percentile between 0 and 100
+   * @return the latency of the given percentile in nanoseconds, or 0 if there were no executions
+   */
+  public synchronized long getLatencyPercentile(double percentile) {
+    if (executions == 0) {
+      return 0;
+    }
+
+    long[] sortedLatencies = Arrays.copyOf(latencies, executions);
+    Arrays.sort(sortedLatencies);
+
+    int index = (int) Math.ceil(percentile / 100 * executions) - 1;
+    return sortedLatencies[Math.max(0, Math.min(index, executions - 1))];
+  }
+
+  public String getOperationName() {
+    return operationName;
+  }
+
+  public double getTargetRate() {
+    return targetRate;
+  }
+
+  public synchronized int getExecutions() {
+    return executions;
+  }
+
+  public synchronized int getIdleExecutions() {
+    return idleExecutions;
+  }
+
+  public synchronized int getFailedExecutions() {
+    return failedExecutions;
+  }
+
+  public synchronized Exception getFirstFailure() {
+    return firstFailure;
+  }
+
+  public synchronized SqlStatementCounts getStatementCounts() {
+    return statementCounts;
+  }
+
+}
@@ -0,0 +1,142 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.loadgenerator.workload;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestException;
+
+/**
+ * The definition of a mixed workload: how long it runs, how many operations may be executed
+ * concurrently and at which rate each operation is started.
+ *
+ * <p>A workload is defined by properties:</p>
+ * <pre>
+ * duration=60
+ * warmup=10
+ * threads=8
+ * startProcessInstance.rate=20
+ * completeUserTask.rate=20
+ * correlateMessage.rate=20
+ * externalTask.rate=20
+ * historyQuery.rate=5
+ * </pre>
+ *
+ * Operations without a rate are not executed.
+ */
+public class WorkloadConfiguration {
+
+  public static final String DURATION = "duration";
+  public static final String WARMUP = "warmup";
+  public static final String THREADS = "threads";
+  public static final String RATE_SUFFIX = ".rate";
+
+  /** the duration of the measurement in seconds */
+  protected int durationSeconds = 60;
+
+  /** the duration of the warmup in seconds, the operations executed during the warmup are not measured */
+  protected int warmupSeconds = 10;
+
+  /** the number of threads that execute operations concurrently */
+  protected int numOfThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+  protected List<OperationRate> operationRates = new ArrayList<OperationRate>();
+
+  public static WorkloadConfiguration fromProperties(Properties properties, List<String> operationNames) {
+    WorkloadConfiguration configuration = new WorkloadConfiguration();
+
+    configuration.setDurationSeconds(getIntProperty(properties, DURATION, configuration.getDurationSeconds()));
+    configuration.setWarmupSeconds(getIntProperty(properties, WARMUP, configuration.getWarmupSeconds()));
+    configuration.setNumOfThreads(getIntProperty(properties, THREADS, configuration.getNumOfThreads()));
+
+    for (String operationName : operationNames) {
+      String rate = properties.getProperty(operationName + RATE_SUFFIX);
+      if (rate != null && Double.parseDouble(rate.trim()) > 0) {
+        configuration.addOperationRate(operationName, Double.parseDouble(rate.trim()));
+      }
+    }
+
+    return configuration;
+  }
+
+  protected static int getIntProperty(Properties properties, String name, int defaultValue) {
+    String value = properties.getProperty(name);
+    if (value == null) {
+      return defaultValue;
+    }
+
+    try {
+      return Integer.parseInt(value.trim());
+    }
+    catch (NumberFormatException e) {
+      throw new PerfTestException("Workload property " + name + " is not a number: " + value);
+    }
+  }
+
+  public WorkloadConfiguration addOperationRate(String operationName, double operationsPerSecond) {
+    operationRates.add(new OperationRate(operationName, operationsPerSecond));
+    return this;
+  }
+
+  public int getDurationSeconds() {
+    return durationSeconds;
+  }
+
+  public void setDurationSeconds(int durationSeconds) {
+    this.durationSeconds = durationSeconds;
+  }
+
+  public int getWarmupSeconds() {
+    return warmupSeconds;
+  }
+
+  public void setWarmupSeconds(int warmupSeconds) {
+    this.warmupSeconds = warmupSeconds;
+  }
+
+  public int getNumOfThreads() {
+    return numOfThreads;
+  }
+
+  public void setNumOfThreads(int numOfThreads) {
+    this.numOfThreads = numOfThreads;
+  }
+
+  public List<OperationRate> getOperationRates() {
+    return Collections.unmodifiableList(operationRates);
+  }
+
+  public static class OperationRate {
+
+    protected String operationName;
+    protected double operationsPerSecond;
+
+    public OperationRate(String operationName, double operationsPerSecond) {
+      this.operationName = operationName;
+      this.operationsPerSecond = operationsPerSecond;
+    }
+
+    public String getOperationName() {
+      return operationName;
+    }
+
+    public double getOperationsPerSecond() {
+      return operationsPerSecond;
+    }
+
+  }
+
+}
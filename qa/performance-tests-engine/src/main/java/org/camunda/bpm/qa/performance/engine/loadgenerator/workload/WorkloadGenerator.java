@@ -0,0 +1,216 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.loadgenerator.workload;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestException;
+import org.camunda.bpm.qa.performance.engine.loadgenerator.workload.WorkloadConfiguration.OperationRate;
+import org.camunda.bpm.qa.performance.engine.sqlstatementlog.SqlStatementCounts;
+import org.camunda.bpm.qa.performance.engine.sqlstatementlog.StatementLogSqlSession;
+
+/**
+ * Generates a mixed workload of {@link WorkloadOperation}s in an open loop: every operation is started
+ * at the rate given by the {@link WorkloadConfiguration}, regardless of whether previous executions
+ * have completed. The executions are queued for a fixed number of threads.
+ *
+ * <p>The latency of an execution is measured from the time it was scheduled to start until it has
+ * completed. It therefore includes the time the execution waited for a thread, which grows if the
+ * process engine cannot keep up with the target rates.</p>
+ */
+public class WorkloadGenerator {
+
+  protected WorkloadConfiguration configuration;
+  protected Map<String, WorkloadOperation> operations = new HashMap<String, WorkloadOperation>();
+
+  /**
+   * whether the statements executed by the operations are counted, which requires the
+   * {@link org.camunda.bpm.qa.performance.engine.sqlstatementlog.StatementLogProcessEnginePlugin}
+   */
+  protected boolean countStatements = false;
+
+  public WorkloadGenerator(WorkloadConfiguration configuration, List<WorkloadOperation> operations) {
+    this.configuration = configuration;
+    for (WorkloadOperation operation : operations) {
+      this.operations.put(operation.getName(), operation);
+    }
+  }
+
+  public List<OperationStatistics> execute() throws InterruptedException {
+    List<OperationRate> operationRates = configuration.getOperationRates();
+    if (operationRates.isEmpty()) {
+      throw new PerfTestException("The workload does not define the rate of any operation");
+    }
+
+    int operationCount = operationRates.size();
+    WorkloadOperation[] scheduledOperations = new WorkloadOperation[operationCount];
+    OperationStatistics[] statistics = new OperationStatistics[operationCount];
+    long[] intervals = new long[operationCount];
+    long[] nextStartTimes = new long[operationCount];
+
+    long startTime = System.nanoTime();
+    long measurementStartTime = startTime + TimeUnit.SECONDS.toNanos(configuration.getWarmupSeconds());
+    long endTime = measurementStartTime + TimeUnit.SECONDS.toNanos(configuration.getDurationSeconds());
+
+    for (int i = 0; i < operationCount; i++) {
+      OperationRate operationRate = operationRates.get(i);
+      scheduledOperations[i] = operations.get(operationRate.getOperationName());
+      if (scheduledOperations[i] == null) {
+        throw new PerfTestException("Unknown workload operation " + operationRate.getOperationName() + ", available operations are " + operations.keySet());
+      }
+      statistics[i] = new OperationStatistics(operationRate.getOperationName(), operationRate.getOperationsPerSecond());
+      intervals[i] = (long) (TimeUnit.SECONDS.toNanos(1) / operationRate.getOperationsPerSecond());
+      nextStartTimes[i] = startTime;
+    }
+
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(configuration.getNumOfThreads(), configuration.getNumOfThreads(),
+        0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>());
+
+    Timer timer = new Timer();
+    timer.scheduleAtFixedRate(new ProgressReporter(executor, startTime, measurementStartTime, endTime), 5000, 5000);
+
+    System.out.println("Generating workload for " + configuration.getWarmupSeconds() + "s warmup and "
+        + configuration.getDurationSeconds() + "s measurement on " + configuration.getNumOfThreads() + " threads ...");
+
+    while (true) {
+      int next = 0;
+      for (int i = 1; i < operationCount; i++) {
+        if (nextStartTimes[i] < nextStartTimes[next]) {
+          next = i;
+        }
+      }
+
+      long scheduledStartTime = nextStartTimes[next];
+      if (scheduledStartTime >= endTime) {
+        break;
+      }
+
+      long delay;
+      while ((delay = scheduledStartTime - System.nanoTime()) > 0) {
+        LockSupport.parkNanos(delay);
+      }
+
+      OperationStatistics measuredStatistics = scheduledStartTime >= measurementStartTime ? statistics[next] : null;
+      executor.execute(new OperationExecution(scheduledOperations[next], scheduledStartTime, measuredStatistics, countStatements));
+
+      nextStartTimes[next] += intervals[next];
+    }
+
+    System.out.println("Waiting for " + executor.getQueue().size() + " queued operations to complete ...");
+
+    executor.shutdown();
+    executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    timer.cancel();
+
+    List<OperationStatistics> result = new ArrayList<OperationStatistics>();
+    for (OperationStatistics operationStatistics : statistics) {
+      result.add(operationStatistics);
+    }
+    return result;
+  }
+
+  public boolean isCountStatements() {
+    return countStatements;
+  }
+
+  public void setCountStatements(boolean countStatements) {
+    this.countStatements = countStatements;
+  }
+
+  public WorkloadConfiguration getConfiguration() {
+    return configuration;
+  }
+
+  static class OperationExecution implements Runnable {
+
+    protected WorkloadOperation operation;
+    protected long scheduledStartTime;
+    protected OperationStatistics statistics;
+    protected boolean countStatements;
+
+    public OperationExecution(WorkloadOperation operation, long scheduledStartTime, OperationStatistics statistics, boolean countStatements) {
+      this.operation = operation;
+      this.scheduledStartTime = scheduledStartTime;
+      this.statistics = statistics;
+      this.countStatements = countStatements;
+    }
+
+    public void run() {
+      if (countStatements) {
+        StatementLogSqlSession.startCounting();
+      }
+
+      boolean executed;
+      SqlStatementCounts statementCounts = null;
+      try {
+        executed = operation.execute();
+      }
+      catch (Exception e) {
+        if (statistics != null) {
+          statistics.recordFailedExecution(e);
+        }
+        return;
+      }
+      finally {
+        if (countStatements) {
+          statementCounts = StatementLogSqlSession.stopCounting();
+        }
+      }
+
+      if (statistics != null) {
+        if (executed) {
+          statistics.recordExecution(System.nanoTime() - scheduledStartTime, statementCounts);
+        }
+        else {
+          statistics.recordIdleExecution();
+        }
+      }
+    }
+
+  }
+
+  static class ProgressReporter extends TimerTask {
+
+    protected ThreadPoolExecutor executor;
+    protected long startTime;
+    protected long measurementStartTime;
+    protected long endTime;
+
+    public ProgressReporter(ThreadPoolExecutor executor, long startTime, long measurementStartTime, long endTime) {
+      this.executor = executor;
+      this.startTime = startTime;
+      this.measurementStartTime = measurementStartTime;
+      this.endTime = endTime;
+    }
+
+    public void run() {
+      long now = System.nanoTime();
+      String phase = now < measurementStartTime ? "warmup" : now < endTime ? "measurement" : "completion";
+      long elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(now - startTime);
+
+      System.out.println(String.format("%5ds %-11s %6d operations queued, %6d completed",
+          elapsedSeconds, phase, executor.getQueue().size(), executor.getCompletedTaskCount()));
+    }
+
+  }
+
+}
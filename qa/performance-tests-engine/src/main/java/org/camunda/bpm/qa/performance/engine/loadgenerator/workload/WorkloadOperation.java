@@ -0,0 +1,33 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.loadgenerator.workload;
+
+/**
+ * An operation of a mixed workload, such as starting a process instance or completing a task.
+ * Operations are executed concurrently by the threads of the {@link WorkloadGenerator}.
+ */
+public interface WorkloadOperation {
+
+  /**
+   * @return the name of the operation, which identifies it in the workload definition and in the report
+   */
+  String getName();
+
+  /**
+   * Executes the operation once.
+   *
+   * @return <code>false</code> if there was nothing to do, e.g. no task to complete
+   */
+  boolean execute();
+
+}
@@ -0,0 +1,75 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.loadgenerator.workload;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+
+/**
+ * The process which is executed by the operations of a mixed workload. A process instance waits
+ * in a user task, then for a message and then in an external task:
+ *
+ * <pre>
+ * start -&gt; user task -&gt; message catch event -&gt; external task -&gt; end
+ * </pre>
+ *
+ * The process keeps track of the process instances that wait for a user task to be completed or
+ * for a message, so that the operations work on existing process instances rather than
+ * querying for them.
+ */
+public class WorkloadProcess {
+
+  public static final String PROCESS_DEFINITION_KEY = "mixedWorkload";
+  public static final String USER_TASK_ID = "userTask";
+  public static final String MESSAGE_NAME = "mixedWorkloadMessage";
+  public static final String EXTERNAL_TASK_TOPIC = "mixedWorkload";
+
+  protected AtomicLong businessKeyCounter = new AtomicLong();
+
+  /** the business keys of the process instances that wait in the user task */
+  protected Queue<String> awaitingUserTask = new ConcurrentLinkedQueue<String>();
+
+  /** the business keys of the process instances that wait for the message */
+  protected Queue<String> awaitingMessage = new ConcurrentLinkedQueue<String>();
+
+  public static BpmnModelInstance createProcess() {
+    return Bpmn.createExecutableProcess(PROCESS_DEFINITION_KEY)
+      .startEvent()
+      .userTask(USER_TASK_ID)
+        .camundaCandidateGroups("workload")
+      .intermediateCatchEvent("messageCatchEvent")
+        .message(MESSAGE_NAME)
+      .serviceTask("externalTask")
+        .camundaType("external")
+        .camundaTopic(EXTERNAL_TASK_TOPIC)
+      .endEvent()
+      .done();
+  }
+
+  public String nextBusinessKey() {
+    return "workload-" + businessKeyCounter.incrementAndGet();
+  }
+
+  public Queue<String> getAwaitingUserTask() {
+    return awaitingUserTask;
+  }
+
+  public Queue<String> getAwaitingMessage() {
+    return awaitingMessage;
+  }
+
+}
@@ -0,0 +1,166 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.loadgenerator.workload;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.qa.performance.engine.framework.aggregate.TabularResultSet;
+import org.camunda.bpm.qa.performance.engine.framework.report.HtmlReportBuilder;
+import org.camunda.bpm.qa.performance.engine.sqlstatementlog.SqlStatementCounts;
+import org.camunda.bpm.qa.performance.engine.util.CsvUtil;
+import org.camunda.bpm.qa.performance.engine.util.FileUtil;
+import org.camunda.bpm.qa.performance.engine.util.JsonUtil;
+
+/**
+ * Reports the throughput, the latency percentiles and the sql statements per operation
+ * of a workload generated by the {@link WorkloadGenerator}.
+ */
+public class WorkloadReport {
+
+  protected WorkloadConfiguration configuration;
+  protected List<OperationStatistics> statistics;
+  protected boolean countStatements;
+
+  public WorkloadReport(WorkloadConfiguration configuration, List<OperationStatistics> statistics, boolean countStatements) {
+    this.configuration = configuration;
+    this.statistics = statistics;
+    this.countStatements = countStatements;
+  }
+
+  public TabularResultSet createResultSet() {
+    TabularResultSet resultSet = new TabularResultSet();
+
+    List<String> columnNames = new ArrayList<String>(Arrays.asList(
+        "Operation", "Target Rate", "Throughput", "Executed", "Idle", "Errors",
+        "p50 (ms)", "p95 (ms)", "p99 (ms)", "Max (ms)"));
+    if (countStatements) {
+      columnNames.addAll(Arrays.asList(
+          "Statements/Op", "Selects/Op", "Inserts/Op", "Updates/Op", "Deletes/Op"));
+    }
+    resultSet.setResultColumnNames(columnNames);
+
+    for (OperationStatistics operationStatistics : statistics) {
+      int executions = operationStatistics.getExecutions();
+
+      List<Object> row = new ArrayList<Object>();
+      row.add(operationStatistics.getOperationName());
+      row.add(format(operationStatistics.getTargetRate()));
+      row.add(format((double) executions / configuration.getDurationSeconds()));
+      row.add(executions);
+      row.add(operationStatistics.getIdleExecutions());
+      row.add(operationStatistics.getFailedExecutions());
+      row.add(toMillis(operationStatistics.getLatencyPercentile(50)));
+      row.add(toMillis(operationStatistics.getLatencyPercentile(95)));
+      row.add(toMillis(operationStatistics.getLatencyPercentile(99)));
+      row.add(toMillis(operationStatistics.getLatencyPercentile(100)));
+
+      if (countStatements) {
+        SqlStatementCounts statementCounts = operationStatistics.getStatementCounts();
+        row.add(perExecution(statementCounts.getTotal(), executions));
+        row.add(perExecution(statementCounts.getSelects(), executions));
+        row.add(perExecution(statementCounts.getInserts(), executions));
+        row.add(perExecution(statementCounts.getUpdates(), executions));
+        row.add(perExecution(statementCounts.getDeletes(), executions));
+      }
+
+      resultSet.addResultRow(row);
+    }
+
+    return resultSet;
+  }
+
+  /**
+   * Prints the results to the console and writes them as json, csv and html report to the given folder.
+   */
+  public void write(String reportsFolder) {
+    TabularResultSet resultSet = createResultSet();
+
+    printResultSet(resultSet);
+    printFailures();
+
+    final String htmlReportFilename = reportsFolder + File.separatorChar + "workload-report.html";
+
+    final String jsonReportFilename = "workload-report.json";
+    final String jsonReportPath = reportsFolder + File.separatorChar + jsonReportFilename;
+
+    final String csvReportFilename = "workload-report.csv";
+    final String csvReportPath = reportsFolder + File.separatorChar + csvReportFilename;
+
+    // make sure reports folder exists
+    File reportsFolderFile = new File(reportsFolder);
+    if(!reportsFolderFile.exists()) {
+      reportsFolderFile.mkdirs();
+    }
+
+    // write Json report
+    JsonUtil.writeObjectToFile(jsonReportPath, resultSet);
+    // write CSV Report
+    CsvUtil.saveResultSetToFile(csvReportPath, resultSet);
+
+    // format HTML report
+    HtmlReportBuilder reportWriter = new HtmlReportBuilder(resultSet)
+      .name("Mixed Workload Report")
+      .jsonSource(jsonReportFilename)
+      .csvSource(csvReportFilename);
+
+    String report = reportWriter.execute();
+    FileUtil.writeStringToFile(report, htmlReportFilename);
+  }
+
+  protected void printResultSet(TabularResultSet resultSet) {
+    System.out.println();
+    System.out.println(formatRow(resultSet.getResultColumnNames()));
+    for (List<Object> row : resultSet.getResults()) {
+      System.out.println(formatRow(row));
+    }
+    System.out.println();
+  }
+
+  protected void printFailures() {
+    for (OperationStatistics operationStatistics : statistics) {
+      Exception failure = operationStatistics.getFirstFailure();
+      if (failure != null) {
+        System.out.println("First of " + operationStatistics.getFailedExecutions() + " failures of operation "
+            + operationStatistics.getOperationName() + ":");
+        failure.printStackTrace(System.out);
+      }
+    }
+  }
+
+  protected String formatRow(List<?> row) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < row.size(); i++) {
+      String format = i == 0 ? "%-22s" : "%15s";
+      builder.append(String.format(format, row.get(i)));
+    }
+    return builder.toString();
+  }
+
+  protected static String toMillis(long nanos) {
+    return format((double) nanos / TimeUnit.MILLISECONDS.toNanos(1));
+  }
+
+  protected static String perExecution(long count, int executions) {
+    return executions > 0 ? format((double) count / executions) : "-";
+  }
+
+  protected static String format(double value) {
+    return String.format(Locale.ENGLISH, "%.2f", value);
+  }
+
+}
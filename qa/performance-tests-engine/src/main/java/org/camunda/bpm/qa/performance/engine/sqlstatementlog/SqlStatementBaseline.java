@@ -0,0 +1,64 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.sqlstatementlog;
+
+import java.io.File;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.camunda.bpm.qa.performance.engine.util.JsonUtil;
+
+/**
+ * The SQL statement counts of all performance tests of a suite, recorded by a previous run of the
+ * Sql Statement Log. It serves as the baseline against which the statement counts of later runs
+ * are compared by the {@link SqlStatementRegressionAggregator}.
+ */
+public class SqlStatementBaseline {
+
+  /** the statement counts by test name */
+  protected Map<String, SqlStatementCounts> tests = new TreeMap<String, SqlStatementCounts>();
+
+  public static SqlStatementBaseline readFromFile(String filename) {
+    if (new File(filename).exists()) {
+      return JsonUtil.readObjectFromFile(filename, SqlStatementBaseline.class);
+    }
+    else {
+      return null;
+    }
+  }
+
+  public void writeToFile(String filename) {
+    File parentFolder = new File(filename).getAbsoluteFile().getParentFile();
+    if (!parentFolder.exists()) {
+      parentFolder.mkdirs();
+    }
+    JsonUtil.writeObjectToFile(filename, this);
+  }
+
+  public SqlStatementCounts getCounts(String testName) {
+    return tests.get(testName);
+  }
+
+  public void putCounts(String testName, SqlStatementCounts counts) {
+    tests.put(testName, counts);
+  }
+
+  public Map<String, SqlStatementCounts> getTests() {
+    return tests;
+  }
+
+  public void setTests(Map<String, SqlStatementCounts> tests) {
+    this.tests = new TreeMap<String, SqlStatementCounts>(tests);
+  }
+
+}
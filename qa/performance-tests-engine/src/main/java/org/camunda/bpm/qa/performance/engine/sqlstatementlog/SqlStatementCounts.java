@@ -0,0 +1,155 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.sqlstatementlog;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestResults;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestStepResult;
+import org.camunda.bpm.qa.performance.engine.sqlstatementlog.StatementLogSqlSession.SqlStatementType;
+import org.codehaus.jackson.annotate.JsonIgnore;
+
+/**
+ * The number of SQL statements a performance test has executed, by statement type and by
+ * statement, together with the time the statements took.
+ */
+public class SqlStatementCounts {
+
+  protected int inserts;
+  protected int deletes;
+  protected int updates;
+  protected int selects;
+
+  /** the time the statements took to execute in milliseconds */
+  protected long durationMs;
+
+  /** the number of executions per statement */
+  protected Map<String, Integer> statements = new TreeMap<String, Integer>();
+
+  /**
+   * Counts the statements of the first pass of the given results, which have been logged by the
+   * {@link StatementLogPerfTestWatcher}.
+   */
+  @SuppressWarnings("unchecked")
+  public static SqlStatementCounts fromResults(PerfTestResults results) {
+    SqlStatementCounts counts = new SqlStatementCounts();
+
+    if (!results.getPassResults().isEmpty()) {
+      List<PerfTestStepResult> stepResults = results.getPassResults().get(0).getStepResults();
+      for (PerfTestStepResult stepResult : stepResults) {
+        List<Map<String, Object>> statementLogs = (List<Map<String, Object>>) stepResult.getResultData();
+        for (Map<String, Object> statementLog : statementLogs) {
+          SqlStatementType statementType = SqlStatementType.valueOf((String) statementLog.get("statementType"));
+          String statement = (String) statementLog.get("statement");
+          Number duration = (Number) statementLog.get("durationMs");
+
+          counts.addStatement(statementType, statement, duration != null ? duration.longValue() : 0);
+        }
+      }
+    }
+
+    return counts;
+  }
+
+  public void addStatement(SqlStatementType statementType, String statement, long durationMs) {
+    switch (statementType) {
+    case DELETE:
+      deletes++;
+      break;
+    case INSERT:
+      inserts++;
+      break;
+    case UPDATE:
+      updates++;
+      break;
+    default:
+      selects++;
+      break;
+    }
+
+    Integer count = statements.get(statement);
+    statements.put(statement, count == null ? 1 : count + 1);
+
+    this.durationMs += durationMs;
+  }
+
+  public void add(SqlStatementCounts counts) {
+    inserts += counts.inserts;
+    deletes += counts.deletes;
+    updates += counts.updates;
+    selects += counts.selects;
+    durationMs += counts.durationMs;
+
+    for (Entry<String, Integer> statement : counts.statements.entrySet()) {
+      Integer count = statements.get(statement.getKey());
+      statements.put(statement.getKey(), count == null ? statement.getValue() : count + statement.getValue());
+    }
+  }
+
+  @JsonIgnore
+  public int getTotal() {
+    return inserts + deletes + updates + selects;
+  }
+
+  public int getInserts() {
+    return inserts;
+  }
+
+  public void setInserts(int inserts) {
+    this.inserts = inserts;
+  }
+
+  public int getDeletes() {
+    return deletes;
+  }
+
+  public void setDeletes(int deletes) {
+    this.deletes = deletes;
+  }
+
+  public int getUpdates() {
+    return updates;
+  }
+
+  public void setUpdates(int updates) {
+    this.updates = updates;
+  }
+
+  public int getSelects() {
+    return selects;
+  }
+
+  public void setSelects(int selects) {
+    this.selects = selects;
+  }
+
+  public long getDurationMs() {
+    return durationMs;
+  }
+
+  public void setDurationMs(long durationMs) {
+    this.durationMs = durationMs;
+  }
+
+  public Map<String, Integer> getStatements() {
+    return statements;
+  }
+
+  public void setStatements(Map<String, Integer> statements) {
+    this.statements = new TreeMap<String, Integer>(statements);
+  }
+
+}
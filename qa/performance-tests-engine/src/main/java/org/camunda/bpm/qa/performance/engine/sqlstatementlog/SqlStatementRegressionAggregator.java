@@ -0,0 +1,191 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.sqlstatementlog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestResults;
+import org.camunda.bpm.qa.performance.engine.framework.aggregate.TabularResultAggregator;
+import org.camunda.bpm.qa.performance.engine.framework.aggregate.TabularResultSet;
+
+/**
+ * Compares the SQL statements executed by each performance test with the statements recorded in
+ * a {@link SqlStatementBaseline}. A test which executes more statements than recorded in the
+ * baseline is a regression, for example caused by an additional query per entity.
+ *
+ * <p>The time the statements took is reported as well but is not considered for regressions,
+ * since it depends on the machine and the database.</p>
+ */
+public class SqlStatementRegressionAggregator extends TabularResultAggregator {
+
+  public static final String TEST_NAME = "Test Name";
+  public static final String INSERTS = "Inserts";
+  public static final String DELETES = "Deletes";
+  public static final String UPDATES = "Updates";
+  public static final String SELECTS = "Selects";
+  public static final String DURATION = "Duration (ms)";
+  public static final String CHANGED_STATEMENTS = "Changed Statements";
+  public static final String STATUS = "Status";
+
+  public static final String STATUS_REGRESSION = "REGRESSION";
+  public static final String STATUS_IMPROVEMENT = "IMPROVEMENT";
+  public static final String STATUS_UNCHANGED = "UNCHANGED";
+  public static final String STATUS_NEW = "NEW";
+
+  protected SqlStatementBaseline baseline;
+  protected SqlStatementBaseline currentCounts = new SqlStatementBaseline();
+  protected List<String> regressions = new ArrayList<String>();
+
+  /**
+   * @param baseline the baseline to compare with, may be <code>null</code> if no baseline has been recorded yet
+   */
+  public SqlStatementRegressionAggregator(String resultsFolderPath, SqlStatementBaseline baseline) {
+    super(resultsFolderPath);
+    this.baseline = baseline;
+  }
+
+  protected TabularResultSet createAggregatedResultsInstance() {
+    TabularResultSet tabularResultSet = new TabularResultSet();
+
+    List<String> resultColumnNames = tabularResultSet.getResultColumnNames();
+    resultColumnNames.add(TEST_NAME);
+    resultColumnNames.add(INSERTS);
+    resultColumnNames.add(DELETES);
+    resultColumnNames.add(UPDATES);
+    resultColumnNames.add(SELECTS);
+    resultColumnNames.add(DURATION);
+    resultColumnNames.add(CHANGED_STATEMENTS);
+    resultColumnNames.add(STATUS);
+
+    return tabularResultSet;
+  }
+
+  protected void processResults(PerfTestResults results, TabularResultSet tabularResultSet) {
+    if (results.getPassResults().isEmpty()) {
+      return;
+    }
+
+    String testName = results.getTestName();
+    SqlStatementCounts current = SqlStatementCounts.fromResults(results);
+    currentCounts.putCounts(testName, current);
+
+    SqlStatementCounts previous = baseline != null ? baseline.getCounts(testName) : null;
+
+    ArrayList<Object> row = new ArrayList<Object>();
+    row.add(testName);
+
+    if (previous == null) {
+      row.add(current.getInserts());
+      row.add(current.getDeletes());
+      row.add(current.getUpdates());
+      row.add(current.getSelects());
+      row.add(current.getDurationMs());
+      row.add("");
+      row.add(STATUS_NEW);
+    }
+    else {
+      row.add(formatDiff(previous.getInserts(), current.getInserts()));
+      row.add(formatDiff(previous.getDeletes(), current.getDeletes()));
+      row.add(formatDiff(previous.getUpdates(), current.getUpdates()));
+      row.add(formatDiff(previous.getSelects(), current.getSelects()));
+      row.add(formatDiff(previous.getDurationMs(), current.getDurationMs()));
+      row.add(formatChangedStatements(previous.getStatements(), current.getStatements()));
+
+      if (current.getTotal() > previous.getTotal()) {
+        regressions.add(testName);
+        row.add(STATUS_REGRESSION);
+      }
+      else if (current.getTotal() < previous.getTotal()) {
+        row.add(STATUS_IMPROVEMENT);
+      }
+      else {
+        row.add(STATUS_UNCHANGED);
+      }
+    }
+
+    tabularResultSet.addResultRow(row);
+  }
+
+  protected String formatDiff(long previous, long current) {
+    long diff = current - previous;
+    if (diff > 0) {
+      return current + " (+" + diff + ")";
+    }
+    else if (diff < 0) {
+      return current + " (" + diff + ")";
+    }
+    else {
+      return String.valueOf(current);
+    }
+  }
+
+  protected String formatChangedStatements(Map<String, Integer> previous, Map<String, Integer> current) {
+    TreeSet<String> statements = new TreeSet<String>(previous.keySet());
+    statements.addAll(current.keySet());
+
+    StringBuilder builder = new StringBuilder();
+    for (String statement : statements) {
+      int diff = getCount(current, statement) - getCount(previous, statement);
+      if (diff != 0) {
+        if (builder.length() > 0) {
+          builder.append(", ");
+        }
+        builder.append(statement).append(diff > 0 ? " +" : " ").append(diff);
+      }
+    }
+    return builder.toString();
+  }
+
+  protected int getCount(Map<String, Integer> statements, String statement) {
+    Integer count = statements.get(statement);
+    return count != null ? count : 0;
+  }
+
+  /**
+   * @return the names of the tests which executed more statements than recorded in the baseline
+   */
+  public List<String> getRegressions() {
+    return regressions;
+  }
+
+  /**
+   * @return the statement counts of the current run, which can be stored as the new baseline
+   */
+  public SqlStatementBaseline getCurrentCounts() {
+    return currentCounts;
+  }
+
+  /**
+   * @return the statement counts of the tests which executed more statements than recorded in the baseline
+   */
+  public String describeRegressions() {
+    StringBuilder builder = new StringBuilder();
+    for (String testName : regressions) {
+      SqlStatementCounts previous = baseline.getCounts(testName);
+      SqlStatementCounts current = currentCounts.getCounts(testName);
+      builder.append(testName)
+        .append(": ")
+        .append(previous.getTotal())
+        .append(" -> ")
+        .append(current.getTotal())
+        .append(" statements (")
+        .append(formatChangedStatements(previous.getStatements(), current.getStatements()))
+        .append(")\n");
+    }
+    return builder.toString();
+  }
+
+}
@@ -0,0 +1,105 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.sqlstatementlog;
+
+import java.io.File;
+
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestException;
+import org.camunda.bpm.qa.performance.engine.framework.aggregate.TabularResultSet;
+import org.camunda.bpm.qa.performance.engine.framework.report.HtmlReportBuilder;
+import org.camunda.bpm.qa.performance.engine.util.CsvUtil;
+import org.camunda.bpm.qa.performance.engine.util.FileUtil;
+import org.camunda.bpm.qa.performance.engine.util.JsonUtil;
+
+/**
+ * Compares the results of the Sql Statement Log with a stored baseline and fails if a test executes
+ * more statements than recorded in the baseline.
+ *
+ * <p>Arguments:</p>
+ * <ol>
+ *   <li>the path of the baseline file</li>
+ *   <li><code>true</code> to replace the baseline with the statement counts of the current run (optional)</li>
+ * </ol>
+ *
+ * If the baseline file does not exist, the comparison is skipped with a warning and the statement
+ * counts of the current run are written to the reports folder instead, from where they can be
+ * copied to the baseline file.
+ */
+public class SqlStatementRegressionReport {
+
+  public static void main(String[] args) {
+
+    if (args.length < 1) {
+      throw new PerfTestException("Usage: SqlStatementRegressionReport <baseline file> [<update baseline>]");
+    }
+
+    final String baselinePath = args[0];
+    final boolean updateBaseline = args.length > 1 && Boolean.parseBoolean(args[1]);
+
+    final String resultsFolder = "target"+File.separatorChar+"results";
+    final String reportsFolder = "target"+File.separatorChar+"reports";
+
+    final String htmlReportFilename = reportsFolder + File.separatorChar + "sql-statement-regression-report.html";
+
+    final String jsonReportFilename = "sql-statement-regression-report.json";
+    final String jsonReportPath = reportsFolder + File.separatorChar + jsonReportFilename;
+
+    final String csvReportFilename = "sql-statement-regression-report.csv";
+    final String csvReportPath = reportsFolder + File.separatorChar + csvReportFilename;
+
+    // make sure reports folder exists
+    File reportsFolderFile = new File(reportsFolder);
+    if(!reportsFolderFile.exists()) {
+      reportsFolderFile.mkdir();
+    }
+
+    SqlStatementBaseline baseline = updateBaseline ? null : SqlStatementBaseline.readFromFile(baselinePath);
+    final String recordedBaselinePath = reportsFolder + File.separatorChar + new File(baselinePath).getName();
+
+    SqlStatementRegressionAggregator aggregator = new SqlStatementRegressionAggregator(resultsFolder, baseline);
+    TabularResultSet aggregatedResults = aggregator.execute();
+
+    // write Json report
+    JsonUtil.writeObjectToFile(jsonReportPath, aggregatedResults);
+    // write CSV Report
+    CsvUtil.saveResultSetToFile(csvReportPath, aggregatedResults);
+
+    // format HTML report
+    HtmlReportBuilder reportWriter = new HtmlReportBuilder(aggregatedResults)
+      .name("Sql Statement Regression Report")
+      .resultDetailsFolder(".."+File.separatorChar+"results"+File.separatorChar)
+      .createImageLinks(true)
+      .jsonSource(jsonReportFilename)
+      .csvSource(csvReportFilename);
+
+    String report = reportWriter.execute();
+    FileUtil.writeStringToFile(report, htmlReportFilename);
+
+    if (updateBaseline) {
+      aggregator.getCurrentCounts().writeToFile(baselinePath);
+      System.out.println("Recorded sql statement baseline in " + baselinePath);
+    }
+    else if (baseline == null) {
+      aggregator.getCurrentCounts().writeToFile(recordedBaselinePath);
+      System.err.println("WARNING: No sql statement baseline found at " + baselinePath + ". "
+          + "Skipping the check for sql statement regressions. The statement counts of this run have been written to "
+          + recordedBaselinePath + ". Copy them to the baseline file or run with -DsqlStatementBaseline.update=true "
+          + "to record the baseline.");
+    }
+    else if (!aggregator.getRegressions().isEmpty()) {
+      throw new PerfTestException("The following tests execute more sql statements than recorded in the baseline "
+          + baselinePath + ":\n" + aggregator.describeRegressions());
+    }
+
+  }
+}
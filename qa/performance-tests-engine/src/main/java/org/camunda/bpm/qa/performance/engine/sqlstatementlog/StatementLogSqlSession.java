@@ -38,6 +38,7 @@ import org.codehaus.jackson.map.annotate.JsonSerialize.Inclusion;
 public class StatementLogSqlSession extends DelegatingSqlSession {
 
   protected static ThreadLocal<List<SqlStatementLog>> threadStatementLog = new ThreadLocal<List<SqlStatementLog>>();
+  protected static ThreadLocal<SqlStatementCounts> threadStatementCounts = new ThreadLocal<SqlStatementCounts>();
 
   public StatementLogSqlSession(SqlSession wrappedSession) {
     super(wrappedSession);
@@ -244,6 +245,10 @@ public class StatementLogSqlSession extends DelegatingSqlSession {
     if(log != null) {
       log.add(new SqlStatementLog(type, parameters, statement, duration));
     }
+    SqlStatementCounts counts = threadStatementCounts.get();
+    if(counts != null) {
+      counts.addStatement(type, statement, duration);
+    }
   }
 
   /**
@@ -263,6 +268,24 @@ public class StatementLogSqlSession extends DelegatingSqlSession {
     threadStatementLog.set(new ArrayList<StatementLogSqlSession.SqlStatementLog>());
   }
 
+  /**
+   * starts counting the statements executed by the calling thread. In contrast to
+   * {@link #startLogging()}, the statements are not recorded individually.
+   */
+  public static void startCounting() {
+    threadStatementCounts.set(new SqlStatementCounts());
+  }
+
+  /**
+   * stops counting the statements executed by the current thread and returns the counts.
+   * @return the {@link SqlStatementCounts} of the statements executed since {@link #startCounting()}
+   */
+  public static SqlStatementCounts stopCounting() {
+    SqlStatementCounts counts = threadStatementCounts.get();
+    threadStatementCounts.remove();
+    return counts;
+  }
+
   // log classes //////////////////////////////////////
 
   public static class SqlStatementLog {